@@ -3,6 +3,7 @@ plugins {
     id("org.springframework.boot") version "4.0.2"
     id("io.spring.dependency-management") version "1.1.4"
     jacoco
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "com.codecom"
@@ -27,11 +28,17 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-web")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
     implementation("com.github.javaparser:javaparser-symbol-solver-core:3.26.3")
+    implementation("org.roaringbitmap:RoaringBitmap:1.3.0")
+    implementation("org.ow2.asm:asm:9.8")
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
     runtimeOnly("com.h2database:h2")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
     developmentOnly("org.springframework.boot:spring-boot-devtools")
     
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    jmh("com.h2database:h2")
 }
 
 tasks.withType<Test> {
@@ -50,3 +57,15 @@ tasks.jacocoTestReport {
 jacoco {
     toolVersion = "0.8.13"
 }
+
+// Benchmarks in src/jmh run against generated projects: ./gradlew jmh [-Pjmh.includes=GraphQuery]
+// Results are written as JSON so runs can be compared over time
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 2
+    iterations = 5
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    providers.gradleProperty("jmh.includes").orNull?.let { includes = listOf(it) }
+}
@@ -0,0 +1,106 @@
+package com.codecom.benchmark;
+
+import com.codecom.dto.CursorPage;
+import com.codecom.dto.NodeSummary;
+import com.codecom.entity.CodeNode;
+import com.codecom.service.KnowledgeGraphService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of knowledge graph queries against an indexed project
+ *
+ * Path and reachability queries cycle through fixed random method pairs, so caches
+ * built on the first call are measured the way a long-running backend uses them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GraphQueryBenchmark {
+
+    private static final int PAIRS = 64;
+
+    @Param({"100"})
+    public int files;
+
+    @Param({"3"})
+    public int classesPerFile;
+
+    @Param({"8"})
+    public int methodsPerClass;
+
+    @Param({"2.0"})
+    public double callDensity;
+
+    private ConfigurableApplicationContext context;
+    private KnowledgeGraphService knowledgeGraphService;
+    private Path root;
+    private long[] sources;
+    private long[] targets;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("codecom-jmh");
+        SyntheticProject.generate(root, new SyntheticProject.Shape(files, classesPerFile, methodsPerClass, callDensity, 42));
+        context = BenchmarkContext.start("queries");
+        knowledgeGraphService = context.getBean(KnowledgeGraphService.class);
+        knowledgeGraphService.indexProject(root.toString());
+
+        List<CodeNode> methods = knowledgeGraphService.getAllNodes().stream()
+            .filter(node -> "METHOD".equals(node.getNodeType()))
+            .toList();
+        Random random = new Random(42);
+        sources = new long[PAIRS];
+        targets = new long[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            sources[i] = methods.get(random.nextInt(methods.size())).getId();
+            targets[i] = methods.get(random.nextInt(methods.size())).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        SyntheticProject.delete(root);
+    }
+
+    @Benchmark
+    public List<List<Long>> findCallChain() {
+        int pair = next++ & (PAIRS - 1);
+        return knowledgeGraphService.findCallChain(sources[pair], targets[pair], 8);
+    }
+
+    @Benchmark
+    public boolean eventuallyCalls() {
+        int pair = next++ & (PAIRS - 1);
+        return knowledgeGraphService.eventuallyCalls(sources[pair], targets[pair]);
+    }
+
+    @Benchmark
+    public List<CodeNode> findTransitiveCallees() {
+        return knowledgeGraphService.findTransitiveCallees(sources[next++ & (PAIRS - 1)]);
+    }
+
+    @Benchmark
+    public List<CodeNode> searchFullText() {
+        return knowledgeGraphService.searchFullText("m1* workload", 50);
+    }
+
+    @Benchmark
+    public List<CodeNode> executeQuery() {
+        return knowledgeGraphService.executeQuery("type:METHOD name:m1_", 100);
+    }
+
+    @Benchmark
+    public CursorPage<NodeSummary> searchNodeSummaries() {
+        return knowledgeGraphService.searchNodeSummaries("m1_", null, 50, List.of());
+    }
+}
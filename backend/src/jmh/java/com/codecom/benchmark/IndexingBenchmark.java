@@ -0,0 +1,54 @@
+package com.codecom.benchmark;
+
+import com.codecom.service.KnowledgeGraphService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a full re-index of a project into the knowledge graph
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IndexingBenchmark {
+
+    @Param({"20"})
+    public int files;
+
+    @Param({"3"})
+    public int classesPerFile;
+
+    @Param({"8"})
+    public int methodsPerClass;
+
+    @Param({"2.0"})
+    public double callDensity;
+
+    private ConfigurableApplicationContext context;
+    private KnowledgeGraphService knowledgeGraphService;
+    private Path root;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("codecom-jmh");
+        SyntheticProject.generate(root, new SyntheticProject.Shape(files, classesPerFile, methodsPerClass, callDensity, 42));
+        context = BenchmarkContext.start("indexing");
+        knowledgeGraphService = context.getBean(KnowledgeGraphService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        SyntheticProject.delete(root);
+    }
+
+    @Benchmark
+    public void indexProject() throws IOException {
+        knowledgeGraphService.indexProject(root.toString());
+    }
+}
@@ -0,0 +1,54 @@
+package com.codecom.benchmark;
+
+import com.codecom.service.ParserProfile;
+import com.github.javaparser.JavaParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark of parsing the files of a project with each parser profile
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParsingBenchmark {
+
+    @Param({"100"})
+    public int files;
+
+    @Param({"FAST", "FULL"})
+    public ParserProfile profile;
+
+    private final List<String> sources = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void readProject() throws IOException {
+        Path root = Files.createTempDirectory("codecom-jmh");
+        try {
+            SyntheticProject.generate(root, new SyntheticProject.Shape(files, 3, 8, 2.0, 42));
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path path : paths.filter(Files::isRegularFile).sorted().toList()) {
+                    sources.add(Files.readString(path));
+                }
+            }
+        } finally {
+            SyntheticProject.delete(root);
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        JavaParser parser = profile.parser();
+        for (String source : sources) {
+            blackhole.consume(parser.parse(source));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.codecom.benchmark;
+
+import com.codecom.dto.DeadCodeInfo;
+import com.codecom.dto.FileComplexity;
+import com.codecom.dto.SymbolSearchResult;
+import com.codecom.repository.ParseProblemRepository;
+import com.codecom.service.AnalysisMetrics;
+import com.codecom.service.AnalysisService;
+import com.codecom.service.ComplexityService;
+import com.codecom.service.ContentCache;
+import com.codecom.service.JavaSymbolResolver;
+import com.codecom.service.ParseProblemService;
+import com.codecom.service.ProjectFileEnumerator;
+import com.codecom.service.RequestCoalescer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the analyses that parse every source file of a project on each call
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SourceAnalysisBenchmark {
+
+    @Param({"100"})
+    public int files;
+
+    @Param({"3"})
+    public int classesPerFile;
+
+    @Param({"8"})
+    public int methodsPerClass;
+
+    @Param({"2.0"})
+    public double callDensity;
+
+    private final AnalysisMetrics metrics = new AnalysisMetrics(new SimpleMeterRegistry());
+    // No reuse of completed scans, so every invocation measures a full scan
+    private final RequestCoalescer coalescer = new RequestCoalescer(new SimpleMeterRegistry(), 0);
+    private final ProjectFileEnumerator fileEnumerator = new ProjectFileEnumerator(Set.of("node_modules", "target", ".git"));
+    private ConfigurableApplicationContext context;
+    private JavaSymbolResolver symbols;
+    private AnalysisService analysisService;
+    private ComplexityService complexityService;
+    private Path root;
+
+    @Setup(Level.Trial)
+    public void generateProject() throws IOException {
+        // Only for the parse problem table; the services are created here to control their settings
+        context = BenchmarkContext.start("source-analysis");
+        ParseProblemService parseProblems = new ParseProblemService(context.getBean(ParseProblemRepository.class), metrics);
+        symbols = new JavaSymbolResolver(metrics, fileEnumerator, parseProblems, 10_000);
+        // No reuse of the results of unchanged files either
+        ContentCache contentCache = new ContentCache(metrics, 0);
+        analysisService = new AnalysisService(metrics, coalescer, fileEnumerator, symbols, parseProblems, contentCache);
+        complexityService = new ComplexityService(metrics, coalescer, fileEnumerator, parseProblems, contentCache);
+        root = Files.createTempDirectory("codecom-jmh");
+        SyntheticProject.generate(root, new SyntheticProject.Shape(files, classesPerFile, methodsPerClass, callDensity, 42));
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteProject() throws IOException {
+        symbols.shutdown();
+        fileEnumerator.shutdown();
+        context.close();
+        SyntheticProject.delete(root);
+    }
+
+    @Benchmark
+    public List<SymbolSearchResult> searchSymbols() throws IOException {
+        return analysisService.searchSymbols(root.toString(), "m1_");
+    }
+
+    @Benchmark
+    public List<DeadCodeInfo> detectDeadCode() throws IOException {
+        return analysisService.detectDeadCode(root.toString());
+    }
+
+    @Benchmark
+    public List<FileComplexity> calculateProjectComplexity() throws IOException {
+        return complexityService.calculateProjectComplexity(root.toString());
+    }
+}
@@ -0,0 +1,129 @@
+package com.codecom.benchmark;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Random;
+
+/**
+ * Generator of deterministic Java projects for benchmarks
+ *
+ * Files are spread over ten packages. The first class of a file is public and every
+ * second class after it extends the class declared before it. Each method has a
+ * Javadoc comment, a few branches and on average callDensity calls to randomly chosen
+ * methods anywhere in the project, so the call graph, dead code and complexity all
+ * scale with the shape.
+ */
+public final class SyntheticProject {
+
+    private static final int PACKAGES = 10;
+
+    /**
+     * Size of a generated project
+     * @param callDensity Average number of calls per method
+     */
+    public record Shape(int files, int classesPerFile, int methodsPerClass, double callDensity, long seed) {
+
+        public Shape {
+            if (files < 1 || classesPerFile < 1 || methodsPerClass < 1 || callDensity < 0) {
+                throw new IllegalArgumentException("Invalid project shape");
+            }
+        }
+
+        public int methodCount() {
+            return files * classesPerFile * methodsPerClass;
+        }
+    }
+
+    private SyntheticProject() {
+    }
+
+    /**
+     * Write the sources of a project below root
+     */
+    public static void generate(Path root, Shape shape) throws IOException {
+        Random random = new Random(shape.seed());
+        for (int file = 0; file < shape.files(); file++) {
+            String packageName = "bench.p" + (file % PACKAGES);
+            Path directory = root.resolve(packageName.replace('.', '/'));
+            Files.createDirectories(directory);
+            Files.writeString(directory.resolve(className(file, 0) + ".java"), source(file, packageName, shape, random));
+        }
+    }
+
+    /**
+     * Delete a generated project
+     */
+    public static void delete(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path directory, IOException e) throws IOException {
+                Files.delete(directory);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Name of the method with the given position, as generated
+     */
+    public static String methodName(int file, int type, int method) {
+        return "m" + file + "_" + type + "_" + method;
+    }
+
+    private static String className(int file, int type) {
+        return type == 0 ? "Unit" + file : "Unit" + file + "Part" + type;
+    }
+
+    private static String source(int file, String packageName, Shape shape, Random random) {
+        StringBuilder out = new StringBuilder(4096);
+        out.append("package ").append(packageName).append(";\n\n");
+        for (int type = 0; type < shape.classesPerFile(); type++) {
+            out.append("/**\n * Generated class ").append(type).append(" of file ").append(file).append("\n */\n");
+            out.append(type == 0 ? "public class " : "class ").append(className(file, type));
+            if (type > 0 && type % 2 == 0) {
+                out.append(" extends ").append(className(file, type - 1));
+            }
+            out.append(" {\n\n");
+            for (int method = 0; method < shape.methodsPerClass(); method++) {
+                appendMethod(out, file, type, method, shape, random);
+            }
+            out.append("}\n\n");
+        }
+        return out.toString();
+    }
+
+    private static void appendMethod(StringBuilder out, int file, int type, int method, Shape shape, Random random) {
+        out.append("    /**\n     * Computes step ").append(method).append(" of the generated workload\n     */\n");
+        out.append("    public static int ").append(methodName(file, type, method)).append("(int value) {\n");
+        out.append("        int total = value;\n");
+        out.append("        if (value > ").append(random.nextInt(100)).append(") {\n");
+        out.append("            total -= ").append(1 + random.nextInt(9)).append(";\n");
+        out.append("        }\n");
+        out.append("        for (int i = 0; i < ").append(1 + random.nextInt(4)).append("; i++) {\n");
+        out.append("            total += i % 2 == 0 ? i : -i;\n");
+        out.append("        }\n");
+        int calls = (int) shape.callDensity() + (random.nextDouble() < shape.callDensity() % 1 ? 1 : 0);
+        for (int call = 0; call < calls; call++) {
+            int targetFile = random.nextInt(shape.files());
+            int targetType = random.nextInt(shape.classesPerFile());
+            int targetMethod = random.nextInt(shape.methodsPerClass());
+            out.append("        total += ").append(className(targetFile, targetType)).append('.')
+                .append(methodName(targetFile, targetType, targetMethod)).append("(total);\n");
+        }
+        out.append("        return total;\n");
+        out.append("    }\n\n");
+    }
+}
@@ -7,8 +7,10 @@ import com.codecom.dto.SymbolDefinition;
 import com.codecom.dto.SymbolInfo;
 import com.codecom.dto.SymbolSearchResult;
 import com.codecom.dto.TestReference;
+import com.codecom.entity.ParseProblem;
 import com.codecom.service.AnalysisService;
 import com.codecom.service.ComplexityService;
+import com.codecom.service.ParseProblemService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,10 +25,13 @@ public class AnalysisController {
 
     private final AnalysisService analysisService;
     private final ComplexityService complexityService;
+    private final ParseProblemService parseProblemService;
 
-    public AnalysisController(AnalysisService analysisService, ComplexityService complexityService) {
+    public AnalysisController(AnalysisService analysisService, ComplexityService complexityService,
+                              ParseProblemService parseProblemService) {
         this.analysisService = analysisService;
         this.complexityService = complexityService;
+        this.parseProblemService = parseProblemService;
     }
 
     @GetMapping("/outline")
@@ -35,6 +40,7 @@ public class AnalysisController {
     }
 
     @GetMapping("/search")
+    @Bulkhead(value = "search", arguments = "query")
     public List<SymbolSearchResult> searchSymbols(
         @RequestParam String path,
         @RequestParam String query
@@ -54,6 +60,7 @@ public class AnalysisController {
     }
 
     @GetMapping("/callers")
+    @Bulkhead(value = "callers", arguments = {"methodName", "className"})
     public CallerStatistics findCallers(
         @RequestParam String path,
         @RequestParam String methodName,
@@ -63,6 +70,7 @@ public class AnalysisController {
     }
 
     @GetMapping("/test-references")
+    @Bulkhead(value = "test-references", arguments = "className")
     public List<TestReference> findTestReferences(
         @RequestParam String path,
         @RequestParam String className
@@ -71,6 +79,7 @@ public class AnalysisController {
     }
 
     @GetMapping("/dead-code")
+    @Bulkhead("dead-code")
     public List<DeadCodeInfo> detectDeadCode(
         @RequestParam String path
     ) throws IOException {
@@ -78,6 +87,7 @@ public class AnalysisController {
     }
 
     @GetMapping("/complexity")
+    @Bulkhead("complexity")
     public List<FileComplexity> getProjectComplexity(
         @RequestParam String path
     ) throws IOException {
@@ -91,4 +101,12 @@ public class AnalysisController {
         FileComplexity complexity = complexityService.calculateFileComplexity(path);
         return complexity != null ? ResponseEntity.ok(complexity) : ResponseEntity.notFound().build();
     }
+
+    /**
+     * List the files below a path whose last parse had problems
+     */
+    @GetMapping("/parse-problems")
+    public List<ParseProblem> getParseProblems(@RequestParam String path) {
+        return parseProblemService.findProblems(path);
+    }
 }
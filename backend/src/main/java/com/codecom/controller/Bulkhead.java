@@ -0,0 +1,34 @@
+package com.codecom.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limits how many requests of an endpoint run at the same time
+ *
+ * Endpoints that scan a whole directory tree carry this annotation, so a few slow scans
+ * cannot starve interactive calls such as reading a file. Requests over the limit wait
+ * up to codecom.bulkhead.max-wait-ms for a slot and are then answered with
+ * 503 Service Unavailable. A request whose scan is already running or cached in the
+ * RequestCoalescer under the same name joins it without taking a slot.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Bulkhead {
+
+    /**
+     * Name of the bulkhead; its limit is read from codecom.bulkhead.&lt;name&gt;.limit
+     * and falls back to codecom.bulkhead.default-limit
+     */
+    String value();
+
+    /**
+     * Request parameters, after path, that the endpoint passes to the RequestCoalescer
+     * as arguments of the scan
+     */
+    String[] arguments() default {};
+}
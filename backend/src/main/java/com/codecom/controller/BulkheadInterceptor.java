@@ -0,0 +1,130 @@
+package com.codecom.controller;
+
+import com.codecom.service.RequestCoalescer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.file.InvalidPathException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enforces the concurrency limits of endpoints marked with {@link Bulkhead}
+ *
+ * Requests run on virtual threads, so the servlet container no longer caps how many
+ * scans run at once; each bulkhead is a fair semaphore that does. The permits in use
+ * are exported as codecom.bulkhead.active and rejections as codecom.bulkhead.rejected.
+ * Requests that join a scan shared by the RequestCoalescer do not need a permit; they
+ * are counted as codecom.bulkhead.joined.
+ */
+@Component
+public class BulkheadInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkheadInterceptor.class);
+    private static final String PERMIT_ATTRIBUTE = BulkheadInterceptor.class.getName() + ".permit";
+
+    private final MeterRegistry registry;
+    private final RequestCoalescer coalescer;
+    private final Environment environment;
+    private final int defaultLimit;
+    private final long maxWaitMs;
+    private final Map<String, BulkheadState> bulkheads = new ConcurrentHashMap<>();
+
+    public BulkheadInterceptor(MeterRegistry registry, RequestCoalescer coalescer, Environment environment,
+                               @Value("${codecom.bulkhead.default-limit:4}") int defaultLimit,
+                               @Value("${codecom.bulkhead.max-wait-ms:2000}") long maxWaitMs) {
+        this.registry = registry;
+        this.coalescer = coalescer;
+        this.environment = environment;
+        this.defaultLimit = defaultLimit;
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        Bulkhead annotation = method.getMethodAnnotation(Bulkhead.class);
+        if (annotation == null) {
+            return true;
+        }
+        if (joinsSharedScan(request, annotation)) {
+            registry.counter("codecom.bulkhead.joined", "bulkhead", annotation.value()).increment();
+            return true;
+        }
+        BulkheadState bulkhead = bulkheads.computeIfAbsent(annotation.value(), this::create);
+        if (!bulkhead.permits().tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+            log.debug("Bulkhead {} full, rejecting {}", annotation.value(), request.getRequestURI());
+            registry.counter("codecom.bulkhead.rejected", "bulkhead", annotation.value()).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return false;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof BulkheadState bulkhead) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            bulkhead.permits().release();
+        }
+    }
+
+    /**
+     * Requests currently holding a permit of a bulkhead
+     */
+    public int active(String name) {
+        BulkheadState bulkhead = bulkheads.get(name);
+        return bulkhead == null ? 0 : bulkhead.limit() - bulkhead.permits().availablePermits();
+    }
+
+    /**
+     * Whether the scan of the request is running or cached already, so the request only
+     * waits for its result; a scan that expires meanwhile runs again without a permit
+     */
+    private boolean joinsSharedScan(HttpServletRequest request, Bulkhead annotation) {
+        String path = request.getParameter("path");
+        if (path == null) {
+            return false;
+        }
+        List<String> arguments = Arrays.stream(annotation.arguments()).map(request::getParameter).toList();
+        try {
+            return coalescer.isShared(annotation.value(), path, arguments);
+        } catch (InvalidPathException e) {
+            return false;
+        }
+    }
+
+    private BulkheadState create(String name) {
+        int limit = environment.getProperty("codecom.bulkhead." + name + ".limit", Integer.class, defaultLimit);
+        BulkheadState bulkhead = new BulkheadState(limit, new Semaphore(limit, true));
+        Gauge.builder("codecom.bulkhead.active", this, interceptor -> interceptor.active(name))
+            .description("Requests running inside a bulkhead")
+            .tag("bulkhead", name)
+            .register(registry);
+        return bulkhead;
+    }
+
+    private record BulkheadState(int limit, Semaphore permits) {
+    }
+}
@@ -63,12 +63,12 @@ public class FeatureSliceController {
     }
     
     /**
-     * Get all feature slices
-     * GET /api/slices
+     * Get all feature slices, optionally only those of one project
+     * GET /api/slices?project={projectId}
      */
     @GetMapping
-    public ResponseEntity<List<FeatureSliceResponse>> getAllSlices() {
-        List<FeatureSlice> slices = sliceService.getAllSlices();
+    public ResponseEntity<List<FeatureSliceResponse>> getAllSlices(@RequestParam(required = false) Long project) {
+        List<FeatureSlice> slices = sliceService.getAllSlices(project);
         List<FeatureSliceResponse> responses = slices.stream()
             .map(this::toResponse)
             .collect(Collectors.toList());
@@ -222,6 +222,41 @@ public class FeatureSliceController {
         }
     }
     
+    /**
+     * Get files covered by any of the given slices
+     * GET /api/slices/files/union?ids={id1,id2,...}
+     */
+    @GetMapping("/files/union")
+    public ResponseEntity<Set<String>> getUnionFiles(@RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(sliceService.getUnionFilePaths(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Get files covered by all of the given slices
+     * GET /api/slices/files/intersection?ids={id1,id2,...}
+     */
+    @GetMapping("/files/intersection")
+    public ResponseEntity<Set<String>> getIntersectionFiles(@RequestParam List<Long> ids) {
+        try {
+            return ResponseEntity.ok(sliceService.getIntersectionFilePaths(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    /**
+     * Get the ids of the slices that contain a file
+     * GET /api/slices/containing-file?path={filePath}
+     */
+    @GetMapping("/containing-file")
+    public ResponseEntity<List<Long>> getSlicesContainingFile(@RequestParam String path) {
+        return ResponseEntity.ok(sliceService.findSlicesContainingFile(path));
+    }
+    
     /**
      * Convert FeatureSlice entity to response DTO
      */
@@ -2,9 +2,14 @@ package com.codecom.controller;
 
 import com.codecom.dto.FlowGraphResponse;
 import com.codecom.service.FlowGraphService;
+import com.codecom.service.GraphAggregationService;
+import com.codecom.service.GraphLayoutService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Locale;
+import java.util.function.Supplier;
+
 /**
  * REST controller for architecture flow graph operations
  * FR.33: Interactive Architecture Flow Graph
@@ -15,41 +20,88 @@ import org.springframework.web.bind.annotation.*;
 public class FlowGraphController {
     
     private final FlowGraphService flowGraphService;
+    private final GraphAggregationService aggregationService;
+    private final GraphLayoutService layoutService;
     
-    public FlowGraphController(FlowGraphService flowGraphService) {
+    public FlowGraphController(FlowGraphService flowGraphService,
+                               GraphAggregationService aggregationService,
+                               GraphLayoutService layoutService) {
         this.flowGraphService = flowGraphService;
+        this.aggregationService = aggregationService;
+        this.layoutService = layoutService;
     }
     
     /**
-     * Get the complete architecture flow graph
-     * GET /api/flow-graph/analyze
+     * Get the complete architecture flow graph, optionally restricted to one layer
+     * GET /api/flow-graph/analyze?layer={layer}&layout={LAYERED|FORCE}&project={projectId}
      */
     @GetMapping("/analyze")
-    public ResponseEntity<FlowGraphResponse> analyzeProject() {
-        FlowGraphResponse graph = flowGraphService.buildFlowGraph();
-        return ResponseEntity.ok(graph);
+    public ResponseEntity<FlowGraphResponse> analyzeProject(
+            @RequestParam(required = false) String layer,
+            @RequestParam(required = false) String layout,
+            @RequestParam(required = false) Long project) {
+        return withLayout(layout, () -> layer == null || layer.isBlank()
+            ? flowGraphService.buildFlowGraph(project)
+            : flowGraphService.buildFlowGraphForLayer(project, layer.toUpperCase(Locale.ROOT)));
     }
     
     /**
      * Trace flow graph from a specific node
-     * GET /api/flow-graph/trace?from={nodeId}&depth={maxDepth}
+     * GET /api/flow-graph/trace?from={nodeId}&depth={maxDepth}&layout={LAYERED|FORCE}
      */
     @GetMapping("/trace")
     public ResponseEntity<FlowGraphResponse> traceFromNode(
             @RequestParam Long from,
-            @RequestParam(defaultValue = "5") int depth) {
+            @RequestParam(defaultValue = "5") int depth,
+            @RequestParam(required = false) String layout) {
         
-        FlowGraphResponse graph = flowGraphService.buildFlowGraphFromNode(from, depth);
-        return ResponseEntity.ok(graph);
+        return withLayout(layout, () -> flowGraphService.buildFlowGraphFromNode(from, depth));
     }
     
     /**
      * Get flow graph starting from a specific component by name
-     * GET /api/flow-graph/component/{name}
+     * GET /api/flow-graph/component/{name}?layout={LAYERED|FORCE}&project={projectId}
      */
     @GetMapping("/component/{name}")
-    public ResponseEntity<FlowGraphResponse> getComponentFlow(@PathVariable String name) {
-        FlowGraphResponse graph = flowGraphService.buildFlowGraphForComponent(name);
-        return ResponseEntity.ok(graph);
+    public ResponseEntity<FlowGraphResponse> getComponentFlow(
+            @PathVariable String name,
+            @RequestParam(required = false) String layout,
+            @RequestParam(required = false) Long project) {
+        return withLayout(layout, () -> flowGraphService.buildFlowGraphForComponent(project, name));
+    }
+    
+    /**
+     * Get an aggregated level-of-detail view of the flow graph
+     * GET /api/flow-graph/aggregate?level={LAYER|PACKAGE|CLASS|METHOD}&parent={aggregateId}&layout={LAYERED|FORCE}&project={projectId}
+     */
+    @GetMapping("/aggregate")
+    public ResponseEntity<FlowGraphResponse> getAggregatedGraph(
+            @RequestParam(defaultValue = "LAYER") String level,
+            @RequestParam(required = false) String parent,
+            @RequestParam(required = false) String layout,
+            @RequestParam(required = false) Long project) {
+        try {
+            GraphAggregationService.Level lod = GraphAggregationService.Level.valueOf(level.toUpperCase(Locale.ROOT));
+            return withLayout(layout, () -> aggregationService.getAggregatedGraph(project, lod, parent));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Build the graph and attach server-side coordinates when a layout is requested
+     * An unknown layout is rejected before the graph is built
+     */
+    private ResponseEntity<FlowGraphResponse> withLayout(String layout, Supplier<FlowGraphResponse> graph) {
+        if (layout == null || layout.isBlank()) {
+            return ResponseEntity.ok(graph.get());
+        }
+        GraphLayoutService.Algorithm algorithm;
+        try {
+            algorithm = GraphLayoutService.Algorithm.valueOf(layout.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(layoutService.layout(graph.get(), algorithm));
     }
 }
@@ -0,0 +1,109 @@
+package com.codecom.controller;
+
+import com.codecom.dto.IndexRequest;
+import com.codecom.dto.IndexingProgress;
+import com.codecom.service.IndexingJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * REST controller for background indexing of the knowledge graph
+ * FR.38: Relationship Graph Database
+ */
+@RestController
+@RequestMapping("/api/index")
+@CrossOrigin(origins = "*")
+public class IndexController {
+
+    private static final long EVENT_STREAM_TIMEOUT_MS = 60 * 60 * 1000L;
+
+    private final IndexingJobService indexingJobService;
+
+    public IndexController(IndexingJobService indexingJobService) {
+        this.indexingJobService = indexingJobService;
+    }
+
+    /**
+     * Start indexing a project
+     * POST /api/index
+     * Body: { "rootPath": "/path/to/project", "project": "optional-name" }
+     */
+    @PostMapping
+    public ResponseEntity<IndexingProgress> startIndexing(@RequestBody IndexRequest request) {
+        try {
+            IndexingProgress progress = indexingJobService.submit(request.rootPath(), request.project());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(progress);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * List recent indexing jobs
+     * GET /api/index
+     */
+    @GetMapping
+    public ResponseEntity<List<IndexingProgress>> listJobs() {
+        return ResponseEntity.ok(indexingJobService.listJobs());
+    }
+
+    /**
+     * Poll the progress of a job
+     * GET /api/index/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<IndexingProgress> getProgress(@PathVariable String jobId) {
+        return indexingJobService.getProgress(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Stream the progress of a job as server-sent "progress" events until it finishes
+     * GET /api/index/{jobId}/events
+     */
+    @GetMapping(path = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamProgress(@PathVariable String jobId) {
+        SseEmitter emitter = new SseEmitter(EVENT_STREAM_TIMEOUT_MS);
+        Consumer<IndexingProgress> listener = progress -> {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(progress));
+                if (progress.finished()) {
+                    emitter.complete();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        emitter.onCompletion(() -> indexingJobService.unsubscribe(jobId, listener));
+        emitter.onTimeout(() -> indexingJobService.unsubscribe(jobId, listener));
+        if (!indexingJobService.subscribe(jobId, listener)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Cancel a job before it clears the project's graph; once the graph is being replaced
+     * the job runs to the end and 409 is returned
+     * DELETE /api/index/{jobId}
+     */
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<IndexingProgress> cancel(@PathVariable String jobId) {
+        try {
+            return indexingJobService.cancel(jobId)
+                .map(progress -> ResponseEntity.status(HttpStatus.ACCEPTED).body(progress))
+                .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.codecom.controller;
 
+import com.codecom.dto.CursorPage;
 import com.codecom.dto.KnowledgeGraphQuery;
+import com.codecom.dto.NodeSummary;
 import com.codecom.dto.NodeWithRelationships;
-import com.codecom.dto.RelationshipInfo;
 import com.codecom.entity.CodeNode;
-import com.codecom.entity.CodeRelationship;
+import com.codecom.entity.CodeProject;
 import com.codecom.service.KnowledgeGraphService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,7 +13,6 @@ import org.springframework.web.bind.annotation.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -32,88 +32,111 @@ public class KnowledgeGraphController {
     }
     
     /**
-     * Get a specific node with all its relationships
-     * GET /api/knowledge-graph/node/{id}
+     * List the projects of the workspace
+     * GET /api/knowledge-graph/projects
+     */
+    @GetMapping("/projects")
+    public ResponseEntity<List<CodeProject>> getProjects() {
+        return ResponseEntity.ok(knowledgeGraphService.listProjects());
+    }
+    
+    /**
+     * Get a specific node with a page of its relationships and per-type relationship counts
+     * GET /api/knowledge-graph/node/{id}?page={page}&size={size}
      */
     @GetMapping("/node/{id}")
-    public ResponseEntity<NodeWithRelationships> getNode(@PathVariable Long id) {
-        Optional<CodeNode> nodeOpt = knowledgeGraphService.getNodeById(id);
-        
-        if (nodeOpt.isEmpty()) {
-            return ResponseEntity.notFound().build();
+    public ResponseEntity<NodeWithRelationships> getNode(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "200") int size) {
+        try {
+            return knowledgeGraphService.getNodeWithRelationships(id, page, size)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
-        
-        CodeNode node = nodeOpt.get();
-        Map<String, List<CodeRelationship>> relationships = 
-            knowledgeGraphService.getNodeRelationships(id);
-        
-        List<RelationshipInfo> outgoing = relationships.get("outgoing").stream()
-            .map(r -> {
-                Optional<CodeNode> target = knowledgeGraphService.getNodeById(r.getTargetId());
-                return new RelationshipInfo(
-                    r.getId(),
-                    r.getRelationshipType(),
-                    r.getTargetId(),
-                    target.map(CodeNode::getName).orElse("Unknown"),
-                    target.map(CodeNode::getNodeType).orElse("UNKNOWN"),
-                    r.getMetadata(),
-                    r.getLineNumber()
-                );
-            })
-            .collect(Collectors.toList());
-        
-        List<RelationshipInfo> incoming = relationships.get("incoming").stream()
-            .map(r -> {
-                Optional<CodeNode> source = knowledgeGraphService.getNodeById(r.getSourceId());
-                return new RelationshipInfo(
-                    r.getId(),
-                    r.getRelationshipType(),
-                    r.getSourceId(),
-                    source.map(CodeNode::getName).orElse("Unknown"),
-                    source.map(CodeNode::getNodeType).orElse("UNKNOWN"),
-                    r.getMetadata(),
-                    r.getLineNumber()
-                );
-            })
-            .collect(Collectors.toList());
-        
-        NodeWithRelationships result = new NodeWithRelationships(
-            node.getId(),
-            node.getName(),
-            node.getNodeType(),
-            node.getFilePath(),
-            node.getLineNumber(),
-            node.getPackageName(),
-            node.getSignature(),
-            node.getIsPublic(),
-            node.getIsStatic(),
-            node.getIsAbstract(),
-            node.getDocumentation(),
-            outgoing,
-            incoming
-        );
-        
-        return ResponseEntity.ok(result);
     }
     
     /**
-     * Get all nodes that a specific node calls
-     * GET /api/knowledge-graph/calls/{nodeId}
+     * Get a page of the nodes that a specific node calls
+     * GET /api/knowledge-graph/calls/{nodeId}?cursor={cursor}&limit={limit}&expand=signature,documentation
      */
     @GetMapping("/calls/{nodeId}")
-    public ResponseEntity<List<CodeNode>> getCallees(@PathVariable Long nodeId) {
-        List<CodeNode> callees = knowledgeGraphService.findCallees(nodeId);
-        return ResponseEntity.ok(callees);
+    public ResponseEntity<CursorPage<NodeSummary>> getCallees(
+            @PathVariable Long nodeId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) List<String> expand) {
+        try {
+            return ResponseEntity.ok(knowledgeGraphService.findCalleeSummaries(nodeId, cursor, limit, expand));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     /**
-     * Get all nodes that call a specific node
-     * GET /api/knowledge-graph/callers/{nodeId}
+     * Get a page of the nodes that call a specific node
+     * GET /api/knowledge-graph/callers/{nodeId}?cursor={cursor}&limit={limit}&expand=signature,documentation
      */
     @GetMapping("/callers/{nodeId}")
-    public ResponseEntity<List<CodeNode>> getCallers(@PathVariable Long nodeId) {
-        List<CodeNode> callers = knowledgeGraphService.findCallers(nodeId);
-        return ResponseEntity.ok(callers);
+    public ResponseEntity<CursorPage<NodeSummary>> getCallers(
+            @PathVariable Long nodeId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) List<String> expand) {
+        try {
+            return ResponseEntity.ok(knowledgeGraphService.findCallerSummaries(nodeId, cursor, limit, expand));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get a page of the nodes that a specific node eventually calls
+     * GET /api/knowledge-graph/calls/{nodeId}/transitive?cursor={cursor}&limit={limit}&expand=signature
+     */
+    @GetMapping("/calls/{nodeId}/transitive")
+    public ResponseEntity<CursorPage<NodeSummary>> getTransitiveCallees(
+            @PathVariable Long nodeId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) List<String> expand) {
+        try {
+            return ResponseEntity.ok(knowledgeGraphService.findTransitiveCalleeSummaries(nodeId, cursor, limit, expand));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Get a page of the nodes that eventually call a specific node
+     * GET /api/knowledge-graph/callers/{nodeId}/transitive?cursor={cursor}&limit={limit}&expand=signature
+     */
+    @GetMapping("/callers/{nodeId}/transitive")
+    public ResponseEntity<CursorPage<NodeSummary>> getTransitiveCallers(
+            @PathVariable Long nodeId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) List<String> expand) {
+        try {
+            return ResponseEntity.ok(knowledgeGraphService.findTransitiveCallerSummaries(nodeId, cursor, limit, expand));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Check whether a node eventually calls another
+     * GET /api/knowledge-graph/reaches?source={sourceId}&target={targetId}
+     */
+    @GetMapping("/reaches")
+    public ResponseEntity<Map<String, Object>> reaches(@RequestParam Long source, @RequestParam Long target) {
+        return ResponseEntity.ok(Map.of(
+            "source", source,
+            "target", target,
+            "reachable", knowledgeGraphService.eventuallyCalls(source, target)
+        ));
     }
     
     /**
@@ -137,32 +160,44 @@ public class KnowledgeGraphController {
     }
     
     /**
-     * Find call chains between two nodes
-     * GET /api/knowledge-graph/call-chain?source={sourceId}&target={targetId}&maxDepth={depth}
+     * Find the k shortest call chains between two nodes
+     * GET /api/knowledge-graph/call-chain?source={sourceId}&target={targetId}&maxDepth={depth}&k={count}&types=CALLS,INHERITS
      */
     @GetMapping("/call-chain")
     public ResponseEntity<List<List<Long>>> findCallChain(
             @RequestParam Long source,
             @RequestParam Long target,
-            @RequestParam(defaultValue = "5") int maxDepth) {
+            @RequestParam(defaultValue = "5") int maxDepth,
+            @RequestParam(defaultValue = "10") int k,
+            @RequestParam(defaultValue = "CALLS") List<String> types) {
         
-        List<List<Long>> chains = knowledgeGraphService.findCallChain(source, target, maxDepth);
+        List<List<Long>> chains = knowledgeGraphService.findCallChain(source, target, maxDepth, k, types);
         return ResponseEntity.ok(chains);
     }
     
     /**
-     * Execute a cross-language query
-     * GET /api/knowledge-graph/query?q={query}
+     * Execute a cross-language query, over one project or the whole workspace
+     * GET /api/knowledge-graph/query?q={query}&limit={limit}&project={projectId}
      * 
      * Example queries:
      * - calls:MethodName - Find all nodes that call MethodName
      * - inherits:ClassName - Find all classes that inherit from ClassName
      * - type:CLASS public:true - Find all public classes
      * - name:search - Search nodes by name
+     * - layer:SERVICE_JAVA calledby*:UserController - Services transitively called by UserController
+     * - type:METHOD (name:get OR name:find) -package:com.legacy - Boolean combinations
      */
     @GetMapping("/query")
-    public ResponseEntity<KnowledgeGraphQuery> executeQuery(@RequestParam String q) {
-        List<CodeNode> nodes = knowledgeGraphService.executeQuery(q);
+    public ResponseEntity<KnowledgeGraphQuery> executeQuery(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long project) {
+        List<CodeNode> nodes;
+        try {
+            nodes = knowledgeGraphService.executeQuery(project, q, limit != null ? limit : Integer.MAX_VALUE);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         
         List<KnowledgeGraphQuery.QueryNode> queryNodes = nodes.stream()
             .map(n -> new KnowledgeGraphQuery.QueryNode(
@@ -181,12 +216,43 @@ public class KnowledgeGraphController {
     }
     
     /**
-     * Search nodes by name
-     * GET /api/knowledge-graph/search?name={name}
+     * Search nodes by name, one page at a time
+     * GET /api/knowledge-graph/search?name={name}&cursor={cursor}&limit={limit}&expand=package,layer&project={projectId}
+     * 
+     * Items carry id, name, type, file and line; expand adds package, signature,
+     * documentation, modifiers or layer ("all" adds every one). Pass the returned
+     * nextCursor to get the following page.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<CodeNode>> searchNodes(@RequestParam String name) {
-        List<CodeNode> results = knowledgeGraphService.findNodesByName(name);
-        return ResponseEntity.ok(results);
+    public ResponseEntity<CursorPage<NodeSummary>> searchNodes(
+            @RequestParam String name,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) List<String> expand,
+            @RequestParam(required = false) Long project) {
+        try {
+            return ResponseEntity.ok(knowledgeGraphService.searchNodeSummaries(project, name, cursor, limit, expand));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Ranked full-text search over names, signatures and documentation
+     * GET /api/knowledge-graph/search/fulltext?q={words}&limit={limit}&expand=documentation&project={projectId}
+     * 
+     * Example: "user repo*" ranks nodes mentioning "user" and any word starting with "repo"
+     */
+    @GetMapping("/search/fulltext")
+    public ResponseEntity<List<NodeSummary>> searchFullText(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) List<String> expand,
+            @RequestParam(required = false) Long project) {
+        try {
+            return ResponseEntity.ok(knowledgeGraphService.searchFullTextSummaries(project, q, limit, expand));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
@@ -2,6 +2,8 @@ package com.codecom.controller;
 
 import com.codecom.dto.StateMachineInfo;
 import com.codecom.service.StateMachineService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -14,6 +16,8 @@ import java.util.List;
 @RequestMapping("/api/state-machines")
 public class StateMachineController {
 
+    private static final Logger log = LoggerFactory.getLogger(StateMachineController.class);
+
     private final StateMachineService stateMachineService;
 
     public StateMachineController(StateMachineService stateMachineService) {
@@ -30,7 +34,7 @@ public class StateMachineController {
             List<StateMachineInfo> stateMachines = stateMachineService.extractStateMachines(path);
             return ResponseEntity.ok(stateMachines);
         } catch (Exception e) {
-            System.err.println("Error extracting state machines from " + path + ": " + e.getMessage());
+            log.error("Error extracting state machines from {}", path, e);
             return ResponseEntity.internalServerError().build();
         }
     }
@@ -29,6 +29,7 @@ public class StatisticsController {
      * Get statistics for a directory (recursive).
      */
     @GetMapping("/directory")
+    @Bulkhead("statistics")
     public CodeStatistics getDirectoryStatistics(@RequestParam String path) throws IOException {
         return statisticsService.calculateDirectoryStatistics(path);
     }
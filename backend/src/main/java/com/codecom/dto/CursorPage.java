@@ -0,0 +1,15 @@
+package com.codecom.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list
+ * FR.38: Relationship Graph Database
+ *
+ * @param nextCursor Cursor for the following page, or null on the last page
+ */
+public record CursorPage<T>(
+    List<T> items,
+    Long nextCursor
+) {
+}
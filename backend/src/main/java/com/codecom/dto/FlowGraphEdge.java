@@ -10,6 +10,7 @@ public class FlowGraphEdge {
     private String edgeType;
     private String label;
     private Integer lineNumber;
+    private Integer weight; // Number of underlying relationships for aggregated edges
     
     public FlowGraphEdge(String sourceId, String targetId, String edgeType, String label) {
         this.sourceId = sourceId;
@@ -42,4 +43,7 @@ public class FlowGraphEdge {
     
     public Integer getLineNumber() { return lineNumber; }
     public void setLineNumber(Integer lineNumber) { this.lineNumber = lineNumber; }
+    
+    public Integer getWeight() { return weight; }
+    public void setWeight(Integer weight) { this.weight = weight; }
 }
@@ -12,6 +12,9 @@ public class FlowGraphNode {
     private String filePath;
     private Integer lineNumber;
     private String packageName;
+    private Integer childCount; // Number of collapsed children for aggregated nodes
+    private Double x; // Server-side layout coordinates, null when no layout was requested
+    private Double y;
     
     public FlowGraphNode(String id, String name, String nodeType, String layer, 
                         String filePath, Integer lineNumber, String packageName) {
@@ -45,4 +48,13 @@ public class FlowGraphNode {
     
     public String getPackageName() { return packageName; }
     public void setPackageName(String packageName) { this.packageName = packageName; }
+    
+    public Integer getChildCount() { return childCount; }
+    public void setChildCount(Integer childCount) { this.childCount = childCount; }
+    
+    public Double getX() { return x; }
+    public void setX(Double x) { this.x = x; }
+    
+    public Double getY() { return y; }
+    public void setY(Double y) { this.y = y; }
 }
@@ -0,0 +1,9 @@
+package com.codecom.dto;
+
+/**
+ * DTO for a request to index a project into the knowledge graph
+ * FR.38: Relationship Graph Database
+ * @param project Name of the project to index into; defaults to the name of the root directory
+ */
+public record IndexRequest(String rootPath, String project) {
+}
@@ -0,0 +1,36 @@
+package com.codecom.dto;
+
+import java.time.Instant;
+
+/**
+ * DTO for the progress of a knowledge graph indexing job
+ * FR.38: Relationship Graph Database
+ * @param state QUEUED, RUNNING, COMPLETED, FAILED or CANCELLED
+ * @param phase Index phase being run: clear, nodes or relationships
+ * @param filesParsed Files whose nodes have been written
+ * @param filesLinked Files whose relationships have been written
+ * @param filesPerSecond Files parsed and linked per second since the job started
+ */
+public record IndexingProgress(
+    String jobId,
+    Long projectId,
+    String projectName,
+    String rootPath,
+    String state,
+    String phase,
+    int filesTotal,
+    int filesParsed,
+    int filesLinked,
+    long nodesWritten,
+    long relationshipsWritten,
+    double filesPerSecond,
+    Instant submittedAt,
+    Instant startedAt,
+    Instant finishedAt,
+    String error
+) {
+
+    public boolean finished() {
+        return finishedAt != null;
+    }
+}
@@ -0,0 +1,62 @@
+package com.codecom.dto;
+
+import com.codecom.entity.CodeNode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Set;
+
+/**
+ * Lightweight view of a code node for list responses
+ * FR.38: Relationship Graph Database
+ *
+ * Only id, name, type, file and line are always present; the remaining
+ * attributes are filled when requested with the expand parameter.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record NodeSummary(
+    Long id,
+    String name,
+    String nodeType,
+    String filePath,
+    Integer lineNumber,
+    String packageName,
+    String signature,
+    String documentation,
+    Boolean isPublic,
+    Boolean isStatic,
+    Boolean isAbstract,
+    String layer
+) {
+    public static final String EXPAND_PACKAGE = "package";
+    public static final String EXPAND_SIGNATURE = "signature";
+    public static final String EXPAND_DOCUMENTATION = "documentation";
+    public static final String EXPAND_MODIFIERS = "modifiers";
+    public static final String EXPAND_LAYER = "layer";
+    public static final Set<String> EXPANDABLE = Set.of(
+        EXPAND_PACKAGE, EXPAND_SIGNATURE, EXPAND_DOCUMENTATION, EXPAND_MODIFIERS, EXPAND_LAYER);
+
+    public NodeSummary(Long id, String name, String nodeType, String filePath, Integer lineNumber) {
+        this(id, name, nodeType, filePath, lineNumber, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Build a summary of a full node with the requested optional attributes
+     */
+    public static NodeSummary from(CodeNode node, Set<String> expand) {
+        boolean modifiers = expand.contains(EXPAND_MODIFIERS);
+        return new NodeSummary(
+            node.getId(),
+            node.getName(),
+            node.getNodeType(),
+            node.getFilePath(),
+            node.getLineNumber(),
+            expand.contains(EXPAND_PACKAGE) ? node.getPackageName() : null,
+            expand.contains(EXPAND_SIGNATURE) ? node.getSignature() : null,
+            expand.contains(EXPAND_DOCUMENTATION) ? node.getDocumentation() : null,
+            modifiers ? node.getIsPublic() : null,
+            modifiers ? node.getIsStatic() : null,
+            modifiers ? node.getIsAbstract() : null,
+            expand.contains(EXPAND_LAYER) ? node.getLayer() : null
+        );
+    }
+}
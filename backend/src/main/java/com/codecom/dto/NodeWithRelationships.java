@@ -1,6 +1,7 @@
 package com.codecom.dto;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * DTO for a code node with its relationships
@@ -20,6 +21,10 @@ public class NodeWithRelationships {
     private String documentation;
     private List<RelationshipInfo> outgoingRelationships;
     private List<RelationshipInfo> incomingRelationships;
+    private Map<String, Long> outgoingCounts;
+    private Map<String, Long> incomingCounts;
+    private int page;
+    private int pageSize;
     
     public NodeWithRelationships(Long id, String name, String nodeType, String filePath, 
                                  Integer lineNumber, String packageName, String signature,
@@ -85,4 +90,16 @@ public class NodeWithRelationships {
     public void setIncomingRelationships(List<RelationshipInfo> incomingRelationships) { 
         this.incomingRelationships = incomingRelationships; 
     }
+    
+    public Map<String, Long> getOutgoingCounts() { return outgoingCounts; }
+    public void setOutgoingCounts(Map<String, Long> outgoingCounts) { this.outgoingCounts = outgoingCounts; }
+    
+    public Map<String, Long> getIncomingCounts() { return incomingCounts; }
+    public void setIncomingCounts(Map<String, Long> incomingCounts) { this.incomingCounts = incomingCounts; }
+    
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    
+    public int getPageSize() { return pageSize; }
+    public void setPageSize(int pageSize) { this.pageSize = pageSize; }
 }
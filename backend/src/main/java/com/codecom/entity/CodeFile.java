@@ -0,0 +1,45 @@
+package com.codecom.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Dictionary entry for a source file path shared by all nodes declared in the file
+ * FR.38: Relationship Graph Database
+ */
+@Entity
+@Table(name = "code_files", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_code_file_path", columnNames = "path")
+})
+public class CodeFile {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 1024)
+    private String path;
+    
+    // Default constructor for JPA
+    public CodeFile() {
+    }
+    
+    public CodeFile(String path) {
+        this.path = path;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getPath() {
+        return path;
+    }
+    
+    public void setPath(String path) {
+        this.path = path;
+    }
+}
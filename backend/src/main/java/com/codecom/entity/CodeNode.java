@@ -1,15 +1,21 @@
 package com.codecom.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 /**
  * Entity representing a code symbol (class, method, interface, etc.) in the knowledge graph
  * FR.38: Relationship Graph Database
+ *
+ * File paths and package names are stored once in the code_files and code_packages
+ * dictionaries; nodes loaded in the same session share those entries.
  */
 @Entity
 @Table(name = "code_nodes", indexes = {
     @Index(name = "idx_name_type", columnList = "name,nodeType"),
-    @Index(name = "idx_file_path", columnList = "filePath")
+    @Index(name = "idx_file", columnList = "file_id"),
+    @Index(name = "idx_layer", columnList = "layer"),
+    @Index(name = "idx_node_project", columnList = "projectId")
 })
 public class CodeNode {
     
@@ -17,19 +23,34 @@ public class CodeNode {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    private Long projectId; // ID of the CodeProject, null for nodes indexed before projects existed
+    
     @Column(nullable = false)
     private String name;
     
     @Column(nullable = false)
     private String nodeType; // CLASS, INTERFACE, METHOD, FIELD, etc.
     
-    @Column(nullable = false)
-    private String filePath;
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "file_id") // Nullable in the schema so existing databases can be migrated; required on save
+    private CodeFile file;
+    
+    @Transient
+    private String unresolvedFilePath; // Path given without a dictionary entry, see setFilePath
     
     @Column(nullable = false)
     private Integer lineNumber;
     
-    private String packageName;
+    private Long enclosingTypeId; // ID of the class or interface declaring this node, null for top-level types
+    
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.EAGER)
+    @JoinColumn(name = "package_id")
+    private CodePackage codePackage;
+    
+    @Column(length = 32)
+    private String layer; // CONTROLLER, SERVICE_JAVA, REPOSITORY, etc. (FR.33)
     
     private String signature; // Full signature for methods
     
@@ -42,6 +63,9 @@ public class CodeNode {
     @Column(length = 2000)
     private String documentation; // Javadoc/TSDoc
     
+    @Transient
+    private String unresolvedPackageName; // Package given without a dictionary entry, see setPackageName
+    
     // Default constructor for JPA
     public CodeNode() {
     }
@@ -49,7 +73,7 @@ public class CodeNode {
     public CodeNode(String name, String nodeType, String filePath, Integer lineNumber) {
         this.name = name;
         this.nodeType = nodeType;
-        this.filePath = filePath;
+        setFilePath(filePath);
         this.lineNumber = lineNumber;
     }
     
@@ -79,11 +103,25 @@ public class CodeNode {
     }
     
     public String getFilePath() {
-        return filePath;
+        return file != null ? file.getPath() : unresolvedFilePath;
     }
     
+    /**
+     * Set the path of a node that is not persisted, e.g. one built in memory; a node
+     * to be saved needs its entry from CodeDictionary through {@link #setFile}
+     */
     public void setFilePath(String filePath) {
-        this.filePath = filePath;
+        this.file = null;
+        this.unresolvedFilePath = filePath;
+    }
+    
+    public CodeFile getFile() {
+        return file;
+    }
+    
+    public void setFile(CodeFile file) {
+        this.file = file;
+        this.unresolvedFilePath = null;
     }
     
     public Integer getLineNumber() {
@@ -95,11 +133,64 @@ public class CodeNode {
     }
     
     public String getPackageName() {
-        return packageName;
+        return codePackage != null ? codePackage.getName() : unresolvedPackageName;
     }
     
+    /**
+     * Set the package of a node that is not persisted, e.g. one built in memory; a node
+     * to be saved needs its entry from CodeDictionary through {@link #setCodePackage}
+     */
     public void setPackageName(String packageName) {
-        this.packageName = packageName;
+        this.codePackage = null;
+        this.unresolvedPackageName = packageName;
+    }
+    
+    public CodePackage getCodePackage() {
+        return codePackage;
+    }
+    
+    public void setCodePackage(CodePackage codePackage) {
+        this.codePackage = codePackage;
+        this.unresolvedPackageName = null;
+    }
+    
+    /**
+     * The schema allows nodes without a file for the migration of old databases; new
+     * and changed nodes must reference dictionary entries
+     */
+    @PrePersist
+    @PreUpdate
+    void requireDictionaryEntries() {
+        if (file == null) {
+            throw new IllegalStateException("Node " + name + " has no file entry; resolve its path through CodeDictionary");
+        }
+        if (codePackage == null && unresolvedPackageName != null) {
+            throw new IllegalStateException("Node " + name + " has no package entry; resolve its package through CodeDictionary");
+        }
+    }
+    
+    public Long getProjectId() {
+        return projectId;
+    }
+    
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+    
+    public Long getEnclosingTypeId() {
+        return enclosingTypeId;
+    }
+    
+    public void setEnclosingTypeId(Long enclosingTypeId) {
+        this.enclosingTypeId = enclosingTypeId;
+    }
+    
+    public String getLayer() {
+        return layer;
+    }
+    
+    public void setLayer(String layer) {
+        this.layer = layer;
     }
     
     public String getSignature() {
@@ -0,0 +1,45 @@
+package com.codecom.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Dictionary entry for a package name shared by all nodes declared in the package
+ * FR.38: Relationship Graph Database
+ */
+@Entity
+@Table(name = "code_packages", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_code_package_name", columnNames = "name")
+})
+public class CodePackage {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    // Default constructor for JPA
+    public CodePackage() {
+    }
+    
+    public CodePackage(String name) {
+        this.name = name;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,71 @@
+package com.codecom.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A project of the workspace with its own part of the knowledge graph
+ * FR.38: Relationship Graph Database
+ *
+ * Nodes, relationships and feature slices carry the id of their project. Indexing a
+ * project only replaces that project's nodes and relationships.
+ */
+@Entity
+@Table(name = "code_projects", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_code_project_name", columnNames = "name")
+})
+public class CodeProject {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    @Column(nullable = false, length = 1024)
+    private String rootPath;
+    
+    private LocalDateTime indexedDate; // Last completed index, null until then
+    
+    // Default constructor for JPA
+    public CodeProject() {
+    }
+    
+    public CodeProject(String name, String rootPath) {
+        this.name = name;
+        this.rootPath = rootPath;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public String getRootPath() {
+        return rootPath;
+    }
+    
+    public void setRootPath(String rootPath) {
+        this.rootPath = rootPath;
+    }
+    
+    public LocalDateTime getIndexedDate() {
+        return indexedDate;
+    }
+    
+    public void setIndexedDate(LocalDateTime indexedDate) {
+        this.indexedDate = indexedDate;
+    }
+}
@@ -16,7 +16,10 @@ import jakarta.persistence.*;
 @Table(name = "code_relationships", indexes = {
     @Index(name = "idx_source_id", columnList = "sourceId"),
     @Index(name = "idx_target_id", columnList = "targetId"),
-    @Index(name = "idx_relationship_type", columnList = "relationshipType")
+    @Index(name = "idx_relationship_type", columnList = "relationshipType"),
+    @Index(name = "idx_source_type", columnList = "sourceId,relationshipType"),
+    @Index(name = "idx_target_type", columnList = "targetId,relationshipType"),
+    @Index(name = "idx_relationship_project_type", columnList = "projectId,relationshipType")
 })
 public class CodeRelationship {
     
@@ -24,6 +27,8 @@ public class CodeRelationship {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    private Long projectId; // ID of the CodeProject of both endpoints
+    
     @Column(nullable = false)
     private Long sourceId; // ID of the source CodeNode
     
@@ -57,6 +62,14 @@ public class CodeRelationship {
         this.id = id;
     }
     
+    public Long getProjectId() {
+        return projectId;
+    }
+    
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+    
     public Long getSourceId() {
         return sourceId;
     }
@@ -17,6 +17,8 @@ public class FeatureSlice {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    private Long projectId; // ID of the CodeProject of the slice's nodes
+    
     @Column(nullable = false, unique = true)
     private String name;
     
@@ -64,6 +66,14 @@ public class FeatureSlice {
         this.id = id;
     }
     
+    public Long getProjectId() {
+        return projectId;
+    }
+    
+    public void setProjectId(Long projectId) {
+        this.projectId = projectId;
+    }
+    
     public String getName() {
         return name;
     }
@@ -0,0 +1,134 @@
+package com.codecom.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The parse problems of a source file, as of the content with the given hash
+ *
+ * A file is recovered when the parser still produced a tree, e.g. with unparsable
+ * statements or with syntax its language level does not allow; its tree is used.
+ * Otherwise the file is unparsable and is not parsed again until its content changes.
+ */
+@Entity
+@Table(name = "parse_problems", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_parse_problem_path", columnNames = "filePath")
+})
+public class ParseProblem {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 1024)
+    private String filePath;
+    
+    @Column(nullable = false, length = 32)
+    private String contentHash;
+    
+    @Column(nullable = false, length = 64)
+    private String service; // Service whose parse found the problems
+    
+    @Column(length = 32)
+    private String languageLevel; // Of the parser that found the problems
+    
+    private int problemCount;
+    
+    @Column(length = 1000)
+    private String message; // First problem
+    
+    private Integer line; // Line of the first problem, if known
+    
+    private boolean recovered;
+    
+    private LocalDateTime detectedDate;
+    
+    // Default constructor for JPA
+    public ParseProblem() {
+    }
+    
+    public ParseProblem(String filePath, String contentHash) {
+        this.filePath = filePath;
+        this.contentHash = contentHash;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getFilePath() {
+        return filePath;
+    }
+    
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+    
+    public String getContentHash() {
+        return contentHash;
+    }
+    
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+    
+    public String getService() {
+        return service;
+    }
+    
+    public void setService(String service) {
+        this.service = service;
+    }
+    
+    public String getLanguageLevel() {
+        return languageLevel;
+    }
+    
+    public void setLanguageLevel(String languageLevel) {
+        this.languageLevel = languageLevel;
+    }
+    
+    public int getProblemCount() {
+        return problemCount;
+    }
+    
+    public void setProblemCount(int problemCount) {
+        this.problemCount = problemCount;
+    }
+    
+    public String getMessage() {
+        return message;
+    }
+    
+    public void setMessage(String message) {
+        this.message = message;
+    }
+    
+    public Integer getLine() {
+        return line;
+    }
+    
+    public void setLine(Integer line) {
+        this.line = line;
+    }
+    
+    public boolean isRecovered() {
+        return recovered;
+    }
+    
+    public void setRecovered(boolean recovered) {
+        this.recovered = recovered;
+    }
+    
+    public LocalDateTime getDetectedDate() {
+        return detectedDate;
+    }
+    
+    public void setDetectedDate(LocalDateTime detectedDate) {
+        this.detectedDate = detectedDate;
+    }
+}
@@ -0,0 +1,20 @@
+package com.codecom.repository;
+
+import com.codecom.entity.CodeFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for the source file dictionary
+ * FR.38: Relationship Graph Database
+ */
+@Repository
+public interface CodeFileRepository extends JpaRepository<CodeFile, Long> {
+    
+    /**
+     * Find the entry of a file path
+     */
+    Optional<CodeFile> findByPath(String path);
+}
@@ -1,11 +1,16 @@
 package com.codecom.repository;
 
 import com.codecom.entity.CodeNode;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,7 +19,7 @@ import java.util.Optional;
  * FR.38: Relationship Graph Database
  */
 @Repository
-public interface CodeNodeRepository extends JpaRepository<CodeNode, Long> {
+public interface CodeNodeRepository extends JpaRepository<CodeNode, Long>, JpaSpecificationExecutor<CodeNode> {
     
     /**
      * Find a node by name and type
@@ -29,12 +34,14 @@ public interface CodeNodeRepository extends JpaRepository<CodeNode, Long> {
     /**
      * Find all nodes in a specific file
      */
-    List<CodeNode> findByFilePath(String filePath);
+    @Query("SELECT n FROM CodeNode n WHERE n.file.path = :filePath")
+    List<CodeNode> findByFilePath(@Param("filePath") String filePath);
     
     /**
      * Find all nodes in a specific package
      */
-    List<CodeNode> findByPackageName(String packageName);
+    @Query("SELECT n FROM CodeNode n WHERE n.codePackage.name = :packageName")
+    List<CodeNode> findByPackageName(@Param("packageName") String packageName);
     
     /**
      * Find nodes by name (case-insensitive search)
@@ -42,8 +49,201 @@ public interface CodeNodeRepository extends JpaRepository<CodeNode, Long> {
     @Query("SELECT n FROM CodeNode n WHERE LOWER(n.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<CodeNode> searchByName(@Param("name") String name);
     
+    /**
+     * Find nodes of a project by name (case-insensitive search)
+     */
+    @Query("SELECT n FROM CodeNode n WHERE n.projectId = :projectId AND LOWER(n.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    List<CodeNode> searchByNameInProject(@Param("projectId") Long projectId, @Param("name") String name);
+    
+    /**
+     * Get summaries of nodes whose name contains a string, after a cursor id, in id order
+     */
+    @Query("SELECT n.id AS id, n.name AS name, n.nodeType AS nodeType, n.file.path AS filePath, " +
+           "n.lineNumber AS lineNumber FROM CodeNode n " +
+           "WHERE LOWER(n.name) LIKE LOWER(CONCAT('%', :name, '%')) AND n.id > :after ORDER BY n.id")
+    List<Summary> searchSummariesByName(@Param("name") String name, @Param("after") Long after, Limit limit);
+    
+    /**
+     * Get summaries of a project's nodes whose name contains a string, after a cursor id, in id order
+     */
+    @Query("SELECT n.id AS id, n.name AS name, n.nodeType AS nodeType, n.file.path AS filePath, " +
+           "n.lineNumber AS lineNumber FROM CodeNode n WHERE n.projectId = :projectId " +
+           "AND LOWER(n.name) LIKE LOWER(CONCAT('%', :name, '%')) AND n.id > :after ORDER BY n.id")
+    List<Summary> searchSummariesByNameInProject(@Param("projectId") Long projectId, @Param("name") String name,
+                                                 @Param("after") Long after, Limit limit);
+    
+    /**
+     * Get summaries of the distinct targets of a node's relationships of a type, after a cursor id
+     */
+    @Query("SELECT n.id AS id, n.name AS name, n.nodeType AS nodeType, n.file.path AS filePath, " +
+           "n.lineNumber AS lineNumber FROM CodeNode n WHERE n.id > :after AND n.id IN " +
+           "(SELECT r.targetId FROM CodeRelationship r WHERE r.sourceId = :nodeId AND r.relationshipType = :type) " +
+           "ORDER BY n.id")
+    List<Summary> findTargetSummaries(@Param("nodeId") Long nodeId, @Param("type") String type,
+                                      @Param("after") Long after, Limit limit);
+    
+    /**
+     * Get summaries of the distinct sources of relationships of a type into a node, after a cursor id
+     */
+    @Query("SELECT n.id AS id, n.name AS name, n.nodeType AS nodeType, n.file.path AS filePath, " +
+           "n.lineNumber AS lineNumber FROM CodeNode n WHERE n.id > :after AND n.id IN " +
+           "(SELECT r.sourceId FROM CodeRelationship r WHERE r.targetId = :nodeId AND r.relationshipType = :type) " +
+           "ORDER BY n.id")
+    List<Summary> findSourceSummaries(@Param("nodeId") Long nodeId, @Param("type") String type,
+                                      @Param("after") Long after, Limit limit);
+    
+    /**
+     * Get summaries of the given nodes
+     */
+    @Query("SELECT n.id AS id, n.name AS name, n.nodeType AS nodeType, n.file.path AS filePath, " +
+           "n.lineNumber AS lineNumber FROM CodeNode n WHERE n.id IN :ids ORDER BY n.id")
+    List<Summary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
     /**
      * Find all public nodes
      */
     List<CodeNode> findByIsPublicTrue();
+    
+    /**
+     * Keep only the ids that belong to existing nodes
+     */
+    @Query("SELECT n.id FROM CodeNode n WHERE n.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Find all nodes of a project
+     */
+    List<CodeNode> findByProjectId(Long projectId);
+    
+    /**
+     * Find all nodes of a project in the given order
+     */
+    List<CodeNode> findByProjectId(Long projectId, Sort sort);
+    
+    /**
+     * Count the nodes of a project
+     */
+    long countByProjectId(Long projectId);
+    
+    /**
+     * Get the project of a node; empty if the node does not exist or has no project
+     */
+    @Query("SELECT n.projectId FROM CodeNode n WHERE n.id = :id")
+    Optional<Long> findProjectIdById(@Param("id") Long id);
+    
+    /**
+     * Delete the nodes of a project in a single statement
+     */
+    @Modifying
+    @Query("DELETE FROM CodeNode n WHERE n.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+    
+    /**
+     * Remove the nodes of a project from every feature slice, before the nodes are deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM feature_slice_nodes WHERE node_id IN " +
+                   "(SELECT id FROM code_nodes WHERE project_id = :projectId)", nativeQuery = true)
+    int deleteSliceMembershipsByProjectId(@Param("projectId") Long projectId);
+    
+    /**
+     * Find all nodes in an architectural layer
+     */
+    List<CodeNode> findByLayer(String layer);
+    
+    /**
+     * Find all nodes of a project in an architectural layer
+     */
+    List<CodeNode> findByProjectIdAndLayer(Long projectId, String layer);
+    
+    /**
+     * Find nodes indexed before the layer was persisted
+     */
+    List<CodeNode> findByLayerIsNull();
+    
+    /**
+     * Count nodes per architectural layer
+     */
+    @Query("SELECT n.layer AS layer, COUNT(n) AS nodeCount FROM CodeNode n GROUP BY n.layer")
+    List<LayerCount> countNodesByLayer();
+    
+    /**
+     * Count the nodes of a project per architectural layer
+     */
+    @Query("SELECT n.layer AS layer, COUNT(n) AS nodeCount FROM CodeNode n WHERE n.projectId = :projectId GROUP BY n.layer")
+    List<LayerCount> countNodesByLayerInProject(@Param("projectId") Long projectId);
+    
+    /**
+     * Get id, file and type of every node without loading full entities
+     */
+    @Query("SELECT n.id AS id, n.file.path AS filePath, n.nodeType AS nodeType FROM CodeNode n")
+    List<NodeKey> findAllNodeKeys();
+    
+    /**
+     * Get the text fields of every node for the full-text index, in id order
+     */
+    @Query("SELECT n.id AS id, n.name AS name, n.signature AS signature, n.documentation AS documentation "
+         + "FROM CodeNode n ORDER BY n.id")
+    List<SearchDocument> findAllSearchDocuments();
+    
+    /**
+     * Get the text fields of a project's nodes for the full-text index, in id order
+     */
+    @Query("SELECT n.id AS id, n.name AS name, n.signature AS signature, n.documentation AS documentation "
+         + "FROM CodeNode n WHERE n.projectId = :projectId ORDER BY n.id")
+    List<SearchDocument> findSearchDocumentsByProjectId(@Param("projectId") Long projectId);
+    
+    /**
+     * Get the highest node id of a project, or null if it has none
+     */
+    @Query("SELECT MAX(n.id) FROM CodeNode n WHERE n.projectId = :projectId")
+    Long findMaxIdByProjectId(@Param("projectId") Long projectId);
+    
+    /**
+     * Projection of the node attributes used for slice membership
+     */
+    interface NodeKey {
+        Long getId();
+        
+        String getFilePath();
+        
+        String getNodeType();
+    }
+    
+    /**
+     * Projection of the node attributes shown in list responses
+     */
+    interface Summary {
+        Long getId();
+        
+        String getName();
+        
+        String getNodeType();
+        
+        String getFilePath();
+        
+        Integer getLineNumber();
+    }
+    
+    /**
+     * Projection of the node text indexed for full-text search
+     */
+    interface SearchDocument {
+        Long getId();
+        
+        String getName();
+        
+        String getSignature();
+        
+        String getDocumentation();
+    }
+    
+    /**
+     * Projection of a layer with its node count
+     */
+    interface LayerCount {
+        String getLayer();
+        
+        Long getNodeCount();
+    }
 }
@@ -0,0 +1,20 @@
+package com.codecom.repository;
+
+import com.codecom.entity.CodePackage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for the package name dictionary
+ * FR.38: Relationship Graph Database
+ */
+@Repository
+public interface CodePackageRepository extends JpaRepository<CodePackage, Long> {
+    
+    /**
+     * Find the entry of a package name
+     */
+    Optional<CodePackage> findByName(String name);
+}
@@ -0,0 +1,26 @@
+package com.codecom.repository;
+
+import com.codecom.entity.CodeProject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the projects of the workspace
+ * FR.38: Relationship Graph Database
+ */
+@Repository
+public interface CodeProjectRepository extends JpaRepository<CodeProject, Long> {
+    
+    /**
+     * Find a project by name
+     */
+    Optional<CodeProject> findByName(String name);
+    
+    /**
+     * Find all projects ordered by name
+     */
+    List<CodeProject> findAllByOrderByName();
+}
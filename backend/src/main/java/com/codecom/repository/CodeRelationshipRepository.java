@@ -1,10 +1,15 @@
 package com.codecom.repository;
 
+import com.codecom.dto.RelationshipInfo;
 import com.codecom.entity.CodeRelationship;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -55,4 +60,132 @@ public interface CodeRelationshipRepository extends JpaRepository<CodeRelationsh
      */
     @Query("SELECT r FROM CodeRelationship r WHERE r.relationshipType = 'INHERITS'")
     List<CodeRelationship> findAllInheritanceRelationships();
+    
+    /**
+     * Find all relationships whose source and target both belong to an architectural layer
+     */
+    @Query("SELECT r FROM CodeRelationship r WHERE " +
+           "r.sourceId IN (SELECT n.id FROM CodeNode n WHERE n.layer = :layer) AND " +
+           "r.targetId IN (SELECT n.id FROM CodeNode n WHERE n.layer = :layer)")
+    List<CodeRelationship> findWithinLayer(@Param("layer") String layer);
+    
+    /**
+     * Find all relationships of a project whose source and target both belong to an architectural layer
+     */
+    @Query("SELECT r FROM CodeRelationship r WHERE r.projectId = :projectId AND " +
+           "r.sourceId IN (SELECT n.id FROM CodeNode n WHERE n.layer = :layer) AND " +
+           "r.targetId IN (SELECT n.id FROM CodeNode n WHERE n.layer = :layer)")
+    List<CodeRelationship> findWithinLayerInProject(@Param("projectId") Long projectId, @Param("layer") String layer);
+    
+    /**
+     * Find all relationships of a project
+     */
+    List<CodeRelationship> findByProjectId(Long projectId);
+    
+    /**
+     * Count the relationships of a project
+     */
+    long countByProjectId(Long projectId);
+    
+    /**
+     * Delete the relationships of a project in a single statement
+     */
+    @Modifying
+    @Query("DELETE FROM CodeRelationship r WHERE r.projectId = :projectId")
+    int deleteByProjectId(@Param("projectId") Long projectId);
+    
+    /**
+     * Find all relationships of the given types that start or end at any of the given nodes
+     */
+    @Query("SELECT r FROM CodeRelationship r WHERE " +
+           "(r.sourceId IN :nodeIds OR r.targetId IN :nodeIds) AND r.relationshipType IN :types")
+    List<CodeRelationship> findTouchingNodes(@Param("nodeIds") Collection<Long> nodeIds,
+                                             @Param("types") Collection<String> types);
+    
+    /**
+     * Find the distinct targets of relationships of a type leaving any of the given nodes
+     */
+    @Query("SELECT DISTINCT r.targetId FROM CodeRelationship r WHERE r.sourceId IN :ids AND r.relationshipType = :type")
+    List<Long> findTargetIds(@Param("ids") Collection<Long> ids, @Param("type") String type);
+    
+    /**
+     * Find the distinct sources of relationships of a type entering any of the given nodes
+     */
+    @Query("SELECT DISTINCT r.sourceId FROM CodeRelationship r WHERE r.targetId IN :ids AND r.relationshipType = :type")
+    List<Long> findSourceIds(@Param("ids") Collection<Long> ids, @Param("type") String type);
+    
+    /**
+     * Get the endpoints of every relationship of a type without loading full entities
+     */
+    @Query("SELECT r.sourceId AS sourceId, r.targetId AS targetId FROM CodeRelationship r WHERE r.relationshipType = :type")
+    List<Edge> findEdgesByType(@Param("type") String type);
+    
+    /**
+     * Get the endpoints of every relationship of a type in a project
+     */
+    @Query("SELECT r.sourceId AS sourceId, r.targetId AS targetId FROM CodeRelationship r " +
+           "WHERE r.projectId = :projectId AND r.relationshipType = :type")
+    List<Edge> findEdgesByProjectIdAndType(@Param("projectId") Long projectId, @Param("type") String type);
+    
+    /**
+     * Get every relationship type that occurs in a project
+     */
+    @Query("SELECT DISTINCT r.relationshipType FROM CodeRelationship r WHERE r.projectId = :projectId")
+    List<String> findRelationshipTypesByProjectId(@Param("projectId") Long projectId);
+    
+    /**
+     * Get the highest relationship id of a project, or null if it has none
+     */
+    @Query("SELECT MAX(r.id) FROM CodeRelationship r WHERE r.projectId = :projectId")
+    Long findMaxIdByProjectId(@Param("projectId") Long projectId);
+    
+    /**
+     * Get a page of a node's outgoing relationships joined with the target's name and type
+     */
+    @Query("SELECT new com.codecom.dto.RelationshipInfo(r.id, r.relationshipType, r.targetId, " +
+           "COALESCE(n.name, 'Unknown'), COALESCE(n.nodeType, 'UNKNOWN'), r.metadata, r.lineNumber) " +
+           "FROM CodeRelationship r LEFT JOIN CodeNode n ON n.id = r.targetId " +
+           "WHERE r.sourceId = :nodeId ORDER BY r.id")
+    List<RelationshipInfo> findOutgoingInfo(@Param("nodeId") Long nodeId, Pageable pageable);
+    
+    /**
+     * Get a page of a node's incoming relationships joined with the source's name and type
+     */
+    @Query("SELECT new com.codecom.dto.RelationshipInfo(r.id, r.relationshipType, r.sourceId, " +
+           "COALESCE(n.name, 'Unknown'), COALESCE(n.nodeType, 'UNKNOWN'), r.metadata, r.lineNumber) " +
+           "FROM CodeRelationship r LEFT JOIN CodeNode n ON n.id = r.sourceId " +
+           "WHERE r.targetId = :nodeId ORDER BY r.id")
+    List<RelationshipInfo> findIncomingInfo(@Param("nodeId") Long nodeId, Pageable pageable);
+    
+    /**
+     * Count a node's outgoing relationships per type
+     */
+    @Query("SELECT r.relationshipType AS relationshipType, COUNT(r) AS relationshipCount " +
+           "FROM CodeRelationship r WHERE r.sourceId = :nodeId GROUP BY r.relationshipType")
+    List<TypeCount> countOutgoingByType(@Param("nodeId") Long nodeId);
+    
+    /**
+     * Count a node's incoming relationships per type
+     */
+    @Query("SELECT r.relationshipType AS relationshipType, COUNT(r) AS relationshipCount " +
+           "FROM CodeRelationship r WHERE r.targetId = :nodeId GROUP BY r.relationshipType")
+    List<TypeCount> countIncomingByType(@Param("nodeId") Long nodeId);
+    
+    /**
+     * Projection of a relationship type with its count
+     */
+    interface TypeCount {
+        String getRelationshipType();
+        
+        Long getRelationshipCount();
+    }
+    
+    /**
+     * Projection of the endpoints of a relationship
+     */
+    interface Edge {
+        Long getSourceId();
+        
+        Long getTargetId();
+    }
 }
@@ -2,10 +2,12 @@ package com.codecom.repository;
 
 import com.codecom.entity.FeatureSlice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,6 +29,11 @@ public interface FeatureSliceRepository extends JpaRepository<FeatureSlice, Long
     @Query("SELECT f FROM FeatureSlice f ORDER BY f.name")
     List<FeatureSlice> findAllOrderByName();
     
+    /**
+     * Find the slices of a project ordered by name
+     */
+    List<FeatureSlice> findByProjectIdOrderByName(Long projectId);
+    
     /**
      * Check if a slice with the given name exists
      */
@@ -37,4 +44,40 @@ public interface FeatureSliceRepository extends JpaRepository<FeatureSlice, Long
      */
     @Query("SELECT f FROM FeatureSlice f JOIN f.nodes n WHERE n.id = :nodeId")
     List<FeatureSlice> findSlicesContainingNode(@Param("nodeId") Long nodeId);
+    
+    /**
+     * Get the ids of all slices
+     */
+    @Query("SELECT f.id FROM FeatureSlice f")
+    List<Long> findAllIds();
+    
+    /**
+     * Get every slice/node pair without loading slices or nodes
+     */
+    @Query(value = "SELECT slice_id AS sliceId, node_id AS nodeId FROM feature_slice_nodes", nativeQuery = true)
+    List<SliceMembership> findAllMemberships();
+    
+    /**
+     * Get the ids of the nodes in a slice without loading the nodes
+     */
+    @Query(value = "SELECT node_id FROM feature_slice_nodes WHERE slice_id = :sliceId", nativeQuery = true)
+    List<Long> findNodeIdsBySliceId(@Param("sliceId") Long sliceId);
+    
+    /**
+     * Add existing nodes to a slice in a single statement
+     * The persistence context is cleared so that the slice is reloaded with its new nodes
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO feature_slice_nodes (slice_id, node_id) " +
+                   "SELECT :sliceId, n.id FROM code_nodes n WHERE n.id IN (:nodeIds)", nativeQuery = true)
+    int insertSliceNodes(@Param("sliceId") Long sliceId, @Param("nodeIds") Collection<Long> nodeIds);
+    
+    /**
+     * Projection of a slice/node pair of the join table
+     */
+    interface SliceMembership {
+        Long getSliceId();
+        
+        Long getNodeId();
+    }
 }
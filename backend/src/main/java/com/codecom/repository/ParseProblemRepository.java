@@ -0,0 +1,19 @@
+package com.codecom.repository;
+
+import com.codecom.entity.ParseProblem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for the parse problems of source files
+ */
+@Repository
+public interface ParseProblemRepository extends JpaRepository<ParseProblem, Long> {
+    
+    /**
+     * Find the problems of the files below a directory
+     */
+    List<ParseProblem> findByFilePathStartingWithOrderByFilePath(String pathPrefix);
+}
@@ -0,0 +1,138 @@
+package com.codecom.service;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timers and counters around reading, parsing and indexing source files
+ *
+ * Every service that parses sources goes through this class, so the time spent in
+ * file reads and in the parser can be told apart per service. Controller endpoints
+ * and repository calls are timed by Spring Boot as http.server.requests and
+ * spring.data.repository.invocations.
+ */
+@Service
+public class AnalysisMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer fileReads;
+    private final DistributionSummary fileSizes;
+    private final Counter indexedFiles;
+    private final AtomicInteger indexingInFlight = new AtomicInteger();
+
+    public AnalysisMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.fileReads = Timer.builder("codecom.source.read")
+            .description("Time to read a source file")
+            .register(registry);
+        this.fileSizes = DistributionSummary.builder("codecom.source.size")
+            .description("Length of the source files read")
+            .baseUnit("characters")
+            .register(registry);
+        this.indexedFiles = Counter.builder("codecom.index.files")
+            .description("Source files indexed into the knowledge graph")
+            .register(registry);
+        registry.gauge("codecom.index.in.flight", indexingInFlight);
+    }
+
+    /**
+     * Read a source file, timing the read and recording its length
+     */
+    public String readFile(Path path) throws IOException {
+        Timer.Sample sample = Timer.start(registry);
+        String content = Files.readString(path);
+        sample.stop(fileReads);
+        fileSizes.record(content.length());
+        return content;
+    }
+
+    /**
+     * Parse source code, timed per calling service and outcome
+     */
+    public ParseResult<CompilationUnit> parse(JavaParser parser, String content, String service) {
+        Timer.Sample sample = Timer.start(registry);
+        ParseResult<CompilationUnit> result = parser.parse(content);
+        sample.stop(Timer.builder("codecom.source.parse")
+            .description("Time to parse a source file")
+            .tag("service", service)
+            .tag("outcome", result.isSuccessful() ? "success" : "failure")
+            .register(registry));
+        return result;
+    }
+
+    /**
+     * Time one phase of a project index
+     */
+    public void timeIndexPhase(String phase, IndexPhase action) throws IOException {
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            action.run();
+        } finally {
+            sample.stop(registry.timer("codecom.index.phase", "phase", phase));
+        }
+    }
+
+    public void fileIndexed() {
+        indexedFiles.increment();
+    }
+
+    public void indexingStarted() {
+        indexingInFlight.incrementAndGet();
+    }
+
+    public void indexingFinished(boolean successful) {
+        indexingInFlight.decrementAndGet();
+        registry.counter("codecom.index.runs", "outcome", successful ? "success" : "failure").increment();
+    }
+
+    /**
+     * Count a method call given to the symbol solver, by whether it resolved to the
+     * project sources, to a library or not at all
+     */
+    public void callResolved(String outcome) {
+        registry.counter("codecom.symbols.calls", "outcome", outcome).increment();
+    }
+
+    /**
+     * Count the signatures of a jar handed out, by whether they were found in memory, in
+     * the disk cache or read from the jar
+     */
+    public void libraryLoaded(String source) {
+        registry.counter("codecom.libraries.loaded", "source", source).increment();
+    }
+
+    /**
+     * Count a parse with problems, by whether a partial tree was recovered, no tree was
+     * recovered, or the parse was skipped since the unchanged file failed before
+     */
+    public void parseProblem(String service, String outcome) {
+        registry.counter("codecom.parse.problems", "service", service, "outcome", outcome).increment();
+    }
+
+    /**
+     * Count a lookup of a content derived result, by whether a file with the same
+     * content was analyzed before
+     */
+    public void contentCacheLookup(String analysis, boolean hit) {
+        registry.counter("codecom.content.cache", "analysis", analysis, "outcome", hit ? "hit" : "miss").increment();
+    }
+
+    /**
+     * A phase of indexing that may fail reading files
+     */
+    @FunctionalInterface
+    public interface IndexPhase {
+        void run() throws IOException;
+    }
+}
@@ -7,7 +7,6 @@ import com.codecom.dto.SymbolDefinition;
 import com.codecom.dto.SymbolInfo;
 import com.codecom.dto.SymbolSearchResult;
 import com.codecom.dto.TestReference;
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
@@ -22,10 +21,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Stream;
 
 @Service
 public class AnalysisService {
@@ -41,21 +38,36 @@ public class AnalysisService {
     private static final String CAT_ARCHITECTURE = "ARCHITECTURE";
 
     private static final String EXT_JAVA = "java";
-    private static final String DIR_NODE_MODULES = "node_modules";
-    private static final String DIR_TARGET = "target";
-    private static final String DIR_GIT = ".git";
     
     private static final String PARSE_WARNING = "Warning: Could not parse file ";
     private static final String LOG_FORMAT = "{0}: {1}";
-
-    private final JavaParser javaParser = new JavaParser();
+    private static final String METRICS_NAME = "analysis";
+    private static final String CACHE_OUTLINE = "outline";
+
+    private final AnalysisMetrics metrics;
+    private final RequestCoalescer coalescer;
+    private final ProjectFileEnumerator fileEnumerator;
+    private final JavaSymbolResolver symbols;
+    private final ParseProblemService parseProblems;
+    private final ContentCache contentCache;
+
+    public AnalysisService(AnalysisMetrics metrics, RequestCoalescer coalescer, ProjectFileEnumerator fileEnumerator,
+                           JavaSymbolResolver symbols, ParseProblemService parseProblems, ContentCache contentCache) {
+        this.metrics = metrics;
+        this.coalescer = coalescer;
+        this.fileEnumerator = fileEnumerator;
+        this.symbols = symbols;
+        this.parseProblems = parseProblems;
+        this.contentCache = contentCache;
+    }
 
     public List<SymbolInfo> getOutline(String path) throws IOException {
-        String content = Files.readString(Path.of(path));
+        String content = metrics.readFile(Path.of(path));
         String extension = getExtension(path);
 
         return switch (extension) {
-            case EXT_JAVA -> extractJavaSymbols(content);
+            case EXT_JAVA -> contentCache.get(CACHE_OUTLINE, content,
+                () -> List.copyOf(extractJavaSymbols(Path.of(path), content)));
             default -> new ArrayList<>();
         };
     }
@@ -65,12 +77,13 @@ public class AnalysisService {
         return lastDot == -1 ? "" : path.substring(lastDot + 1).toLowerCase();
     }
 
-    private List<SymbolInfo> extractJavaSymbols(String content) {
+    private List<SymbolInfo> extractJavaSymbols(Path path, String content) {
         List<SymbolInfo> symbols = new ArrayList<>();
-        ParseResult<CompilationUnit> result = javaParser.parse(content);
+        ParseResult<CompilationUnit> result = parseProblems.parse(path, content, ParserProfile.FAST.parser(), METRICS_NAME);
 
+        // A partial tree of a file with parse problems still gives the symbols it contains
         java.util.Optional<CompilationUnit> cuOpt = result.getResult();
-        if (result.isSuccessful() && cuOpt.isPresent()) {
+        if (cuOpt.isPresent()) {
             CompilationUnit cu = cuOpt.get();
             cu.accept(new VoidVisitorAdapter<List<SymbolInfo>>() {
                 @Override
@@ -120,33 +133,30 @@ public class AnalysisService {
      * @return List of matching symbols with file information
      */
     public List<SymbolSearchResult> searchSymbols(String rootPath, String query) throws IOException {
+        return coalescer.execute("search", rootPath, List.of(query), () -> scanSymbols(rootPath, query));
+    }
+
+    private List<SymbolSearchResult> scanSymbols(String rootPath, String query) throws IOException {
         List<SymbolSearchResult> results = new ArrayList<>();
         String lowerQuery = query.toLowerCase();
         
-        // Walk the file tree and search Java files
-        try (Stream<Path> paths = Files.walk(Path.of(rootPath))) {
-            paths
-                .filter(Files::isRegularFile)
-                .filter(p -> p.toString().endsWith("." + EXT_JAVA))
-                .filter(p -> !p.toString().contains(DIR_NODE_MODULES))
-                .filter(p -> !p.toString().contains(DIR_TARGET))
-                .filter(p -> !p.toString().contains(DIR_GIT))
-                .forEach(path -> {
-                    try {
-                        List<SymbolInfo> symbols = getOutline(path.toString());
-                        String fileName = path.getFileName().toString();
-                        String filePath = path.toString();
-                        
-                        symbols.stream()
-                            .filter(s -> s.name().toLowerCase().contains(lowerQuery))
-                            .map(s -> SymbolSearchResult.fromSymbolInfo(s, filePath, fileName))
-                            .forEach(results::add);
-                    } catch (IOException e) {
-                        // Log and skip files that can't be parsed
-                        log.warn(PARSE_WARNING + LOG_FORMAT, path, e.getMessage());
-                    }
-                });
-        }
+        // Search the Java files of the project
+        fileEnumerator.listJavaFiles(rootPath)
+            .forEach(path -> {
+                try {
+                    List<SymbolInfo> symbols = getOutline(path.toString());
+                    String fileName = path.getFileName().toString();
+                    String filePath = path.toString();
+                    
+                    symbols.stream()
+                        .filter(s -> s.name().toLowerCase().contains(lowerQuery))
+                        .map(s -> SymbolSearchResult.fromSymbolInfo(s, filePath, fileName))
+                        .forEach(results::add);
+                } catch (IOException e) {
+                    // Log and skip files that can't be parsed
+                    log.warn(PARSE_WARNING + LOG_FORMAT, path, e.getMessage());
+                }
+            });
         
         // Sort results by relevance (exact matches first, then alphabetically)
         results.sort((a, b) -> {
@@ -170,16 +180,16 @@ public class AnalysisService {
      * @return Symbol definition with signature, parameters, and documentation
      */
     public Optional<SymbolDefinition> getSymbolDefinition(String filePath, int line, int column) throws IOException {
-        String content = Files.readString(Path.of(filePath));
+        String content = metrics.readFile(Path.of(filePath));
         String extension = getExtension(filePath);
 
         if (!EXT_JAVA.equals(extension)) {
             return Optional.empty();
         }
 
-        ParseResult<CompilationUnit> result = javaParser.parse(content);
+        ParseResult<CompilationUnit> result = parseProblems.parse(Path.of(filePath), content, ParserProfile.FULL.parser(), METRICS_NAME);
         java.util.Optional<CompilationUnit> cuOpt = result.getResult();
-        if (!result.isSuccessful() || cuOpt.isEmpty()) {
+        if (cuOpt.isEmpty()) {
             return Optional.empty();
         }
 
@@ -275,7 +285,7 @@ public class AnalysisService {
     private String extractCodePreview(Node node, String filePath) {
         return node.getRange().map(range -> {
             try {
-                String content = Files.readString(Path.of(filePath));
+                String content = metrics.readFile(Path.of(filePath));
                 String[] lines = content.split("\n");
                 
                 int startLine = range.begin.line - 1; // 0-based index
@@ -330,18 +340,18 @@ public class AnalysisService {
      * @return Caller statistics including all callers and call sites
      */
     public CallerStatistics findCallers(String rootPath, String targetMethodName, String targetClassName) throws IOException {
+        return coalescer.execute("callers", rootPath, Arrays.asList(targetMethodName, targetClassName),
+            () -> scanCallers(rootPath, targetMethodName, targetClassName));
+    }
+
+    private CallerStatistics scanCallers(String rootPath, String targetMethodName, String targetClassName) throws IOException {
         List<CallerInfo> callers = new ArrayList<>();
         Map<String, Integer> callerCounts = new HashMap<>();
         
-        try (Stream<Path> paths = Files.walk(Path.of(rootPath))) {
-            paths
-                .filter(Files::isRegularFile)
-                .filter(p -> p.toString().endsWith("." + EXT_JAVA))
-                .filter(p -> !p.toString().contains(DIR_NODE_MODULES))
-                .filter(p -> !p.toString().contains(DIR_TARGET))
-                .filter(p -> !p.toString().contains(DIR_GIT))
-                .forEach(path -> processFileForCallers(path, targetMethodName, callerCounts));
-        }
+        List<Path> files = fileEnumerator.listJavaFiles(rootPath);
+        symbols.open(rootPath, files)
+            .analyze(files, METRICS_NAME, (path, cu) -> countCallers(path, cu, targetMethodName, targetClassName))
+            .forEach(counts -> counts.forEach((key, count) -> callerCounts.merge(key, count, Integer::sum)));
         
         convertCountsToCallerInfo(callerCounts, callers);
         
@@ -356,38 +366,47 @@ public class AnalysisService {
         );
     }
 
-    private void processFileForCallers(Path path, String targetMethodName, Map<String, Integer> callerCounts) {
-        try {
-            String content = Files.readString(path);
-            ParseResult<CompilationUnit> result = javaParser.parse(content);
-            result.getResult().ifPresent(cu -> cu.accept(new VoidVisitorAdapter<Void>() {
-                private String currentClassName = "";
-                private String currentMethodName = "";
-                
-                @Override
-                public void visit(ClassOrInterfaceDeclaration n, Void arg) {
-                    currentClassName = n.getNameAsString();
-                    super.visit(n, arg);
-                }
-                
-                @Override
-                public void visit(MethodDeclaration n, Void arg) {
-                    currentMethodName = n.getNameAsString();
-                    super.visit(n, arg);
-                }
-                
-                @Override
-                public void visit(MethodCallExpr n, Void arg) {
-                    if (n.getNameAsString().equals(targetMethodName)) {
-                        String callerKey = path.toString() + ":" + currentClassName + "." + currentMethodName;
-                        callerCounts.put(callerKey, callerCounts.getOrDefault(callerKey, 0) + 1);
-                    }
-                    super.visit(n, arg);
+    /**
+     * Count the calls of a method in a file, leaving out calls that resolve to a method
+     * of another class than the target class
+     */
+    private Map<String, Integer> countCallers(Path path, CompilationUnit cu, String targetMethodName, String targetClassName) {
+        Map<String, Integer> callerCounts = new HashMap<>();
+        cu.accept(new VoidVisitorAdapter<Void>() {
+            private String currentClassName = "";
+            private String currentMethodName = "";
+            
+            @Override
+            public void visit(ClassOrInterfaceDeclaration n, Void arg) {
+                currentClassName = n.getNameAsString();
+                super.visit(n, arg);
+            }
+            
+            @Override
+            public void visit(MethodDeclaration n, Void arg) {
+                currentMethodName = n.getNameAsString();
+                super.visit(n, arg);
+            }
+            
+            @Override
+            public void visit(MethodCallExpr n, Void arg) {
+                if (n.getNameAsString().equals(targetMethodName) && !callsOtherClass(n, targetClassName)) {
+                    String callerKey = path.toString() + ":" + currentClassName + "." + currentMethodName;
+                    callerCounts.merge(callerKey, 1, Integer::sum);
                 }
-            }, null));
-        } catch (IOException e) {
-            log.warn(PARSE_WARNING + LOG_FORMAT, path, e.getMessage());
+                super.visit(n, arg);
+            }
+        }, null);
+        return callerCounts;
+    }
+
+    private boolean callsOtherClass(MethodCallExpr call, String targetClassName) {
+        if (targetClassName == null || targetClassName.isBlank()) {
+            return false;
         }
+        return symbols.resolve(call)
+            .map(resolved -> !resolved.declaringClassName().equals(targetClassName))
+            .orElse(false);
     }
 
     private void convertCountsToCallerInfo(Map<String, Integer> callerCounts, List<CallerInfo> callers) {
@@ -399,8 +418,8 @@ public class AnalysisService {
             String methodName = methodParts.length > 1 ? methodParts[1] : methodParts[0];
             
             try {
-                String content = Files.readString(Path.of(filePath));
-                ParseResult<CompilationUnit> result = javaParser.parse(content);
+                String content = metrics.readFile(Path.of(filePath));
+                ParseResult<CompilationUnit> result = parseProblems.parse(Path.of(filePath), content, ParserProfile.FAST.parser(), METRICS_NAME);
                 result.getResult().flatMap(cu -> cu.findAll(MethodDeclaration.class).stream()
                     .filter(m -> m.getNameAsString().equals(methodName))
                     .findFirst())
@@ -422,24 +441,23 @@ public class AnalysisService {
      * @return List of test references
      */
     public List<TestReference> findTestReferences(String rootPath, String targetClassName) throws IOException {
+        return coalescer.execute("test-references", rootPath, List.of(targetClassName),
+            () -> scanTestReferences(rootPath, targetClassName));
+    }
+
+    private List<TestReference> scanTestReferences(String rootPath, String targetClassName) throws IOException {
         List<TestReference> references = new ArrayList<>();
         
-        try (Stream<Path> paths = Files.walk(Path.of(rootPath))) {
-            paths
-                .filter(Files::isRegularFile)
-                .filter(p -> p.toString().endsWith("." + EXT_JAVA))
-                .filter(p -> p.toString().toLowerCase().contains("test"))
-                .filter(p -> !p.toString().contains(DIR_NODE_MODULES))
-                .filter(p -> !p.toString().contains(DIR_GIT))
-                .forEach(path -> processTestFile(path, targetClassName, references));
-        }
+        fileEnumerator.listJavaFiles(rootPath).stream()
+            .filter(p -> p.toString().toLowerCase().contains("test"))
+            .forEach(path -> processTestFile(path, targetClassName, references));
         
         return references;
     }
 
     private void processTestFile(Path path, String targetClassName, List<TestReference> references) {
         try {
-            String content = Files.readString(path);
+            String content = metrics.readFile(path);
             List<Integer> referenceLines = new ArrayList<>();
             
             String[] lines = content.split("\n");
@@ -460,7 +478,7 @@ public class AnalysisService {
 
     private String extractTestClassName(Path path, String content) {
         String testClassName = path.getFileName().toString().replace("." + EXT_JAVA, "");
-        ParseResult<CompilationUnit> result = javaParser.parse(content);
+        ParseResult<CompilationUnit> result = parseProblems.parse(path, content, ParserProfile.FAST.parser(), METRICS_NAME);
         return result.getResult()
             .flatMap(cu -> cu.findFirst(ClassOrInterfaceDeclaration.class))
             .map(ClassOrInterfaceDeclaration::getNameAsString)
@@ -468,6 +486,10 @@ public class AnalysisService {
     }
 
     public List<DeadCodeInfo> detectDeadCode(String rootPath) throws IOException {
+        return coalescer.execute("dead-code", rootPath, () -> scanDeadCode(rootPath));
+    }
+
+    private List<DeadCodeInfo> scanDeadCode(String rootPath) throws IOException {
         Map<String, MethodInfo> allMethods = collectAllMethods(rootPath);
         Map<String, Integer> callCounts = collectCallCounts(rootPath, allMethods);
         
@@ -491,76 +513,75 @@ public class AnalysisService {
 
     private Map<String, MethodInfo> collectAllMethods(String rootPath) throws IOException {
         Map<String, MethodInfo> allMethods = new HashMap<>();
-        try (Stream<Path> paths = Files.walk(Path.of(rootPath))) {
-            paths
-                .filter(Files::isRegularFile)
-                .filter(p -> p.toString().endsWith("." + EXT_JAVA))
-                .filter(p -> !p.toString().contains(DIR_NODE_MODULES))
-                .filter(p -> !p.toString().contains(DIR_TARGET))
-                .filter(p -> !p.toString().contains(DIR_GIT))
-                .forEach(path -> {
-                    try {
-                        String content = Files.readString(path);
-                        javaParser.parse(content).getResult().ifPresent(cu -> {
-                            boolean isTestFile = path.toString().toLowerCase().contains("test");
-                            cu.accept(new VoidVisitorAdapter<Void>() {
-                                private String currentClassName = "";
-                                @Override
-                                public void visit(ClassOrInterfaceDeclaration n, Void arg) {
-                                    currentClassName = n.getNameAsString();
-                                    super.visit(n, arg);
-                                }
-                                @Override
-                                public void visit(MethodDeclaration n, Void arg) {
-                                    String key = currentClassName + "." + n.getNameAsString();
-                                    allMethods.put(key, new MethodInfo(n.getNameAsString(), currentClassName, 
-                                        path.toString(), n.getRange().map(r -> r.begin.line).orElse(0), 
-                                        n.isPublic(), isTestFile));
-                                    super.visit(n, arg);
-                                }
-                            }, null);
-                        });
-                    } catch (IOException e) {
-                        log.warn(PARSE_WARNING + LOG_FORMAT, path, e.getMessage());
-                    }
-                });
-        }
+        fileEnumerator.listJavaFiles(rootPath)
+            .forEach(path -> {
+                try {
+                    String content = metrics.readFile(path);
+                    parseProblems.parse(path, content, ParserProfile.FAST.parser(), METRICS_NAME).getResult().ifPresent(cu -> {
+                        boolean isTestFile = path.toString().toLowerCase().contains("test");
+                        cu.accept(new VoidVisitorAdapter<Void>() {
+                            private String currentClassName = "";
+                            @Override
+                            public void visit(ClassOrInterfaceDeclaration n, Void arg) {
+                                currentClassName = n.getNameAsString();
+                                super.visit(n, arg);
+                            }
+                            @Override
+                            public void visit(MethodDeclaration n, Void arg) {
+                                String key = currentClassName + "." + n.getNameAsString();
+                                allMethods.put(key, new MethodInfo(n.getNameAsString(), currentClassName, 
+                                    path.toString(), n.getRange().map(r -> r.begin.line).orElse(0), 
+                                    n.isPublic(), isTestFile));
+                                super.visit(n, arg);
+                            }
+                        }, null);
+                    });
+                } catch (IOException e) {
+                    log.warn(PARSE_WARNING + LOG_FORMAT, path, e.getMessage());
+                }
+            });
         return allMethods;
     }
 
     private Map<String, Integer> collectCallCounts(String rootPath, Map<String, MethodInfo> allMethods) throws IOException {
         Map<String, Integer> callCounts = new HashMap<>();
-        try (Stream<Path> paths = Files.walk(Path.of(rootPath))) {
-            paths
-                .filter(Files::isRegularFile)
-                .filter(p -> p.toString().endsWith("." + EXT_JAVA))
-                .filter(p -> !p.toString().contains(DIR_NODE_MODULES))
-                .filter(p -> !p.toString().contains(DIR_TARGET))
-                .filter(p -> !p.toString().contains(DIR_GIT))
-                .forEach(path -> processFileForCallCounts(path, allMethods, callCounts));
-        }
+        List<Path> files = fileEnumerator.listJavaFiles(rootPath);
+        symbols.open(rootPath, files)
+            .analyze(files, METRICS_NAME, (path, cu) -> countCalls(cu, allMethods))
+            .forEach(counts -> counts.forEach((key, count) -> callCounts.merge(key, count, Integer::sum)));
         return callCounts;
     }
 
-    private void processFileForCallCounts(Path path, Map<String, MethodInfo> allMethods, Map<String, Integer> callCounts) {
-        try {
-            String content = Files.readString(path);
-            javaParser.parse(content).getResult().ifPresent(cu -> cu.accept(new VoidVisitorAdapter<Void>() {
-                private String currentClassName = "";
-                @Override
-                public void visit(ClassOrInterfaceDeclaration n, Void arg) {
-                    currentClassName = n.getNameAsString();
-                    super.visit(n, arg);
-                }
-                @Override
-                public void visit(MethodCallExpr n, Void arg) {
+    /**
+     * Count the calls of the project methods in a file
+     *
+     * A call counts for the method it resolves to; calls resolved to the JDK or a library
+     * count for none, and calls that cannot be resolved are matched by name.
+     */
+    private Map<String, Integer> countCalls(CompilationUnit cu, Map<String, MethodInfo> allMethods) {
+        Map<String, Integer> callCounts = new HashMap<>();
+        cu.accept(new VoidVisitorAdapter<Void>() {
+            private String currentClassName = "";
+            @Override
+            public void visit(ClassOrInterfaceDeclaration n, Void arg) {
+                currentClassName = n.getNameAsString();
+                super.visit(n, arg);
+            }
+            @Override
+            public void visit(MethodCallExpr n, Void arg) {
+                Optional<JavaSymbolResolver.ResolvedCall> call = symbols.resolve(n);
+                if (call.isEmpty()) {
                     processMethodCall(n.getNameAsString(), currentClassName, allMethods, callCounts);
-                    super.visit(n, arg);
+                } else if (call.get().sourceKey() != null) {
+                    String key = call.get().declaringClassName() + "." + call.get().methodName();
+                    if (allMethods.containsKey(key)) {
+                        callCounts.merge(key, 1, Integer::sum);
+                    }
                 }
-            }, null));
-        } catch (IOException e) {
-            log.warn(PARSE_WARNING + LOG_FORMAT, path, e.getMessage());
-        }
+                super.visit(n, arg);
+            }
+        }, null);
+        return callCounts;
     }
 
     private void processMethodCall(String methodName, String currentClassName, Map<String, MethodInfo> allMethods, Map<String, Integer> callCounts) {
@@ -0,0 +1,53 @@
+package com.codecom.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Gauges for the sizes of the in-memory graph caches and indexes
+ *
+ * The gauges only read the current state, so scraping never builds an index.
+ */
+@Service
+public class CacheMetrics implements MeterBinder {
+
+    private final RelationshipGraphCache graphCache;
+    private final ReachabilityIndex reachabilityIndex;
+    private final SymbolSearchIndex searchIndex;
+    private final SliceMembershipIndex sliceIndex;
+
+    public CacheMetrics(RelationshipGraphCache graphCache, ReachabilityIndex reachabilityIndex,
+                        SymbolSearchIndex searchIndex, SliceMembershipIndex sliceIndex) {
+        this.graphCache = graphCache;
+        this.reachabilityIndex = reachabilityIndex;
+        this.searchIndex = searchIndex;
+        this.sliceIndex = sliceIndex;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("codecom.cache.graphs", graphCache, RelationshipGraphCache::size)
+            .description("Relationship graphs held in memory")
+            .register(registry);
+        Gauge.builder("codecom.cache.graph.edges", graphCache, RelationshipGraphCache::edgeCount)
+            .description("Edges of the single-type relationship graphs held in memory")
+            .register(registry);
+        Gauge.builder("codecom.cache.reachability", reachabilityIndex, ReachabilityIndex::size)
+            .description("Relationship types with a reachability labelling")
+            .register(registry);
+        Gauge.builder("codecom.index.search.documents", searchIndex, SymbolSearchIndex::documentCount)
+            .description("Nodes in the symbol search index")
+            .register(registry);
+        Gauge.builder("codecom.index.search.terms", searchIndex, SymbolSearchIndex::termCount)
+            .description("Distinct terms in the symbol search index")
+            .register(registry);
+        Gauge.builder("codecom.index.slices", sliceIndex, SliceMembershipIndex::sliceCount)
+            .description("Feature slices in the membership index")
+            .register(registry);
+        Gauge.builder("codecom.index.slice.nodes", sliceIndex, SliceMembershipIndex::nodeCount)
+            .description("Nodes in the slice membership index")
+            .register(registry);
+    }
+}
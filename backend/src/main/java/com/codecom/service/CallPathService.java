@@ -0,0 +1,245 @@
+package com.codecom.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * K shortest path search between two nodes of the knowledge graph
+ * FR.39: Cross-Language Query Support
+ *
+ * Paths are found with Yen's algorithm. Each shortest path subproblem is a
+ * bidirectional breadth-first search over the shared {@link RelationshipGraph},
+ * always growing the smaller frontier and recording parent ordinals in int arrays.
+ * Visit marks are generation stamps, so the arrays are allocated once per request
+ * and never cleared between searches.
+ */
+@Service
+public class CallPathService {
+
+    private final RelationshipGraphCache graphCache;
+
+    public CallPathService(RelationshipGraphCache graphCache) {
+        this.graphCache = graphCache;
+    }
+
+    /**
+     * Find up to k loopless paths from source to target, shortest first
+     * @param projectId Project of both nodes, or null for the whole workspace
+     * @param maxDepth Maximum number of nodes on a path
+     * @param relationshipTypes Relationship types a path may follow
+     */
+    public List<List<Long>> findPaths(Long projectId, Long sourceId, Long targetId, int k, int maxDepth,
+                                      Collection<String> relationshipTypes) {
+        if (k < 1 || maxDepth < 1) {
+            return List.of();
+        }
+        if (sourceId.equals(targetId)) {
+            return List.of(List.of(sourceId));
+        }
+        RelationshipGraph graph = graphCache.get(projectId, relationshipTypes);
+        int source = graph.ordinal(sourceId);
+        int target = graph.ordinal(targetId);
+        if (source < 0 || target < 0) {
+            return List.of();
+        }
+
+        List<List<Long>> result = new ArrayList<>();
+        for (int[] path : new Search(graph, maxDepth - 1).kShortest(source, target, k)) {
+            List<Long> ids = new ArrayList<>(path.length);
+            for (int node : path) {
+                ids.add(graph.nodeId(node));
+            }
+            result.add(ids);
+        }
+        return result;
+    }
+
+    /**
+     * Search state for one request
+     */
+    private static final class Search {
+        private final RelationshipGraph graph;
+        private final int maxEdges;
+        private final int[] forwardStamp;
+        private final int[] backwardStamp;
+        private final int[] blockedStamp;
+        private final int[] forwardDistance;
+        private final int[] backwardDistance;
+        private final int[] forwardParent;
+        private final int[] backwardParent;
+        private int generation;
+
+        Search(RelationshipGraph graph, int maxEdges) {
+            int n = graph.nodeCount();
+            this.graph = graph;
+            this.maxEdges = maxEdges;
+            this.forwardStamp = new int[n];
+            this.backwardStamp = new int[n];
+            this.blockedStamp = new int[n];
+            this.forwardDistance = new int[n];
+            this.backwardDistance = new int[n];
+            this.forwardParent = new int[n];
+            this.backwardParent = new int[n];
+        }
+
+        /**
+         * Yen's algorithm: every further path leaves an accepted path at some spur node
+         * and avoids the edges the accepted paths with the same prefix took there
+         */
+        List<int[]> kShortest(int source, int target, int k) {
+            List<int[]> accepted = new ArrayList<>();
+            int[] first = shortest(source, target, maxEdges, new int[0], -1, Set.of());
+            if (first == null) {
+                return accepted;
+            }
+            accepted.add(first);
+
+            PriorityQueue<int[]> candidates = new PriorityQueue<>(
+                Comparator.<int[]>comparingInt(path -> path.length).thenComparing(Arrays::compare));
+            Set<List<Integer>> seen = new HashSet<>();
+            seen.add(key(first));
+
+            while (accepted.size() < k) {
+                int[] previous = accepted.get(accepted.size() - 1);
+                for (int i = 0; i < previous.length - 1; i++) {
+                    int spur = previous[i];
+                    int[] root = Arrays.copyOf(previous, i + 1);
+
+                    Set<Integer> blockedNext = new HashSet<>();
+                    for (int[] path : accepted) {
+                        if (path.length > i + 1 && Arrays.equals(path, 0, i + 1, root, 0, i + 1)) {
+                            blockedNext.add(path[i + 1]);
+                        }
+                    }
+
+                    int[] spurPath = shortest(spur, target, maxEdges - i, root, spur, blockedNext);
+                    if (spurPath != null) {
+                        int[] candidate = new int[i + spurPath.length];
+                        System.arraycopy(root, 0, candidate, 0, i);
+                        System.arraycopy(spurPath, 0, candidate, i, spurPath.length);
+                        if (seen.add(key(candidate))) {
+                            candidates.add(candidate);
+                        }
+                    }
+                }
+                if (candidates.isEmpty()) {
+                    break;
+                }
+                accepted.add(candidates.poll());
+            }
+            return accepted;
+        }
+
+        /**
+         * Bidirectional breadth-first search that expands whole levels of the smaller frontier
+         * @param blocked Nodes that may not be used, except the spur node
+         * @param spur Node whose edges to blockedNext may not be used, or -1
+         * @return the node ordinals of a shortest path, or null if none is within maxLength edges
+         */
+        int[] shortest(int source, int target, int maxLength, int[] blocked, int spur, Set<Integer> blockedNext) {
+            int stamp = ++generation;
+            for (int node : blocked) {
+                if (node != spur) {
+                    blockedStamp[node] = stamp;
+                }
+            }
+            forwardStamp[source] = stamp;
+            forwardDistance[source] = 0;
+            forwardParent[source] = -1;
+            backwardStamp[target] = stamp;
+            backwardDistance[target] = 0;
+            backwardParent[target] = -1;
+
+            int[] forwardLevel = {source};
+            int[] backwardLevel = {target};
+            int forwardDepth = 0;
+            int backwardDepth = 0;
+            int best = Integer.MAX_VALUE;
+            int meet = -1;
+
+            while (forwardLevel.length > 0 && backwardLevel.length > 0
+                    && forwardDepth + backwardDepth < maxLength && meet < 0) {
+                boolean forward = forwardLevel.length <= backwardLevel.length;
+                int[] level = forward ? forwardLevel : backwardLevel;
+                int depth = (forward ? forwardDepth : backwardDepth) + 1;
+                int[] next = new int[16];
+                int size = 0;
+
+                for (int node : level) {
+                    int start = forward ? graph.outStart(node) : graph.inStart(node);
+                    int end = forward ? graph.outEnd(node) : graph.inEnd(node);
+                    int[] neighbours = forward ? graph.targets() : graph.sources();
+                    for (int e = start; e < end; e++) {
+                        int neighbour = neighbours[e];
+                        if (blockedStamp[neighbour] == stamp) {
+                            continue;
+                        }
+                        int from = forward ? node : neighbour;
+                        int to = forward ? neighbour : node;
+                        if (from == spur && blockedNext.contains(to)) {
+                            continue;
+                        }
+                        if (forward) {
+                            if (forwardStamp[neighbour] == stamp) {
+                                continue;
+                            }
+                            forwardStamp[neighbour] = stamp;
+                            forwardDistance[neighbour] = depth;
+                            forwardParent[neighbour] = node;
+                            if (backwardStamp[neighbour] == stamp && depth + backwardDistance[neighbour] < best) {
+                                best = depth + backwardDistance[neighbour];
+                                meet = neighbour;
+                            }
+                        } else {
+                            if (backwardStamp[neighbour] == stamp) {
+                                continue;
+                            }
+                            backwardStamp[neighbour] = stamp;
+                            backwardDistance[neighbour] = depth;
+                            backwardParent[neighbour] = node;
+                            if (forwardStamp[neighbour] == stamp && depth + forwardDistance[neighbour] < best) {
+                                best = depth + forwardDistance[neighbour];
+                                meet = neighbour;
+                            }
+                        }
+                        if (size == next.length) {
+                            next = Arrays.copyOf(next, size * 2);
+                        }
+                        next[size++] = neighbour;
+                    }
+                }
+
+                if (forward) {
+                    forwardLevel = Arrays.copyOf(next, size);
+                    forwardDepth = depth;
+                } else {
+                    backwardLevel = Arrays.copyOf(next, size);
+                    backwardDepth = depth;
+                }
+            }
+            if (meet < 0) {
+                return null;
+            }
+
+            int[] path = new int[best + 1];
+            int index = forwardDistance[meet];
+            for (int node = meet; node >= 0; node = forwardParent[node]) {
+                path[index--] = node;
+            }
+            index = forwardDistance[meet];
+            for (int node = backwardParent[meet]; node >= 0; node = backwardParent[node]) {
+                path[++index] = node;
+            }
+            return path;
+        }
+
+        private static List<Integer> key(int[] path) {
+            List<Integer> key = new ArrayList<>(path.length);
+            for (int node : path) {
+                key.add(node);
+            }
+            return key;
+        }
+    }
+}
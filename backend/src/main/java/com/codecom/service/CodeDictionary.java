@@ -0,0 +1,80 @@
+package com.codecom.service;
+
+import com.codecom.entity.CodeFile;
+import com.codecom.entity.CodePackage;
+import com.codecom.repository.CodeFileRepository;
+import com.codecom.repository.CodePackageRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Dictionary encoding of file paths and package names, shared by all projects
+ * FR.38: Relationship Graph Database
+ *
+ * Each distinct path or package is stored once and looked up at most once, so all
+ * nodes of a file share one entry and one String instance. New entries are committed
+ * in their own transaction, so projects indexed concurrently never reference an entry
+ * that another project's batch could still roll back. The database is queried outside
+ * the maps, so no map lock is held during the round trip; threads resolving the same new
+ * entry at once end up sharing the one stored first.
+ */
+@Service
+public class CodeDictionary {
+
+    private final CodeFileRepository fileRepository;
+    private final CodePackageRepository packageRepository;
+    private final TransactionTemplate newTransaction;
+
+    private final Map<String, CodeFile> files = new ConcurrentHashMap<>();
+    private final Map<String, CodePackage> packages = new ConcurrentHashMap<>();
+
+    public CodeDictionary(CodeFileRepository fileRepository, CodePackageRepository packageRepository,
+                          PlatformTransactionManager transactionManager) {
+        this.fileRepository = fileRepository;
+        this.packageRepository = packageRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Get the entry of a file path, creating it on first use
+     */
+    public CodeFile file(String path) {
+        return resolve(files, path, fileRepository::findByPath, () -> fileRepository.save(new CodeFile(path)));
+    }
+
+    /**
+     * Get the entry of a package name, creating it on first use
+     */
+    public CodePackage codePackage(String name) {
+        if (name == null) {
+            return null;
+        }
+        return resolve(packages, name, packageRepository::findByName, () -> packageRepository.save(new CodePackage(name)));
+    }
+
+    private <T> T resolve(Map<String, T> entries, String key, Function<String, Optional<T>> find, Supplier<T> create) {
+        T known = entries.get(key);
+        if (known != null) {
+            return known;
+        }
+        T stored;
+        try {
+            stored = newTransaction.execute(status -> find.apply(key).orElseGet(create));
+        } catch (DataIntegrityViolationException e) {
+            // Another thread or instance stored the same key first
+            stored = newTransaction.execute(status -> find.apply(key).orElseThrow(() -> e));
+        }
+        T raced = entries.putIfAbsent(key, stored);
+        return raced != null ? raced : stored;
+    }
+}
@@ -0,0 +1,53 @@
+package com.codecom.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Moves file paths and package names of nodes indexed before the dictionaries existed
+ * into code_files and code_packages
+ * FR.38: Relationship Graph Database
+ */
+@Service
+public class CodeDictionaryMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeDictionaryMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CodeDictionaryMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Runs before the other startup listeners, which already read nodes through the dictionaries
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void migrateLegacyColumns() {
+        Integer legacyColumns = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME = 'CODE_NODES' " +
+            "AND COLUMN_NAME IN ('FILE_PATH', 'PACKAGE_NAME')", Integer.class);
+        if (legacyColumns == null || legacyColumns < 2) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO code_files (path) SELECT DISTINCT n.file_path FROM code_nodes n " +
+            "WHERE n.file_path NOT IN (SELECT f.path FROM code_files f)");
+        jdbcTemplate.update("INSERT INTO code_packages (name) SELECT DISTINCT n.package_name FROM code_nodes n " +
+            "WHERE n.package_name IS NOT NULL AND n.package_name NOT IN (SELECT p.name FROM code_packages p)");
+        int migrated = jdbcTemplate.update("UPDATE code_nodes n SET " +
+            "file_id = (SELECT f.id FROM code_files f WHERE f.path = n.file_path), " +
+            "package_id = (SELECT p.id FROM code_packages p WHERE p.name = n.package_name)");
+        jdbcTemplate.execute("ALTER TABLE code_nodes DROP COLUMN file_path");
+        jdbcTemplate.execute("ALTER TABLE code_nodes DROP COLUMN package_name");
+        log.info("Moved file paths and package names of {} nodes into the dictionaries", migrated);
+    }
+}
@@ -0,0 +1,64 @@
+package com.codecom.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Moves nodes, relationships and feature slices indexed before projects existed into
+ * a project named "default"
+ * FR.38: Relationship Graph Database
+ */
+@Service
+public class CodeProjectMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(CodeProjectMigration.class);
+
+    static final String DEFAULT_PROJECT = "default";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CodeProjectMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Runs right after the dictionary migration and before the snapshot is loaded, which
+     * looks up the graph of every project
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE + 1)
+    @Transactional
+    public void migrateLegacyRows() {
+        Integer legacyRows = jdbcTemplate.queryForObject(
+            "SELECT (SELECT COUNT(*) FROM code_nodes WHERE project_id IS NULL) + " +
+            "(SELECT COUNT(*) FROM code_relationships WHERE project_id IS NULL) + " +
+            "(SELECT COUNT(*) FROM feature_slices WHERE project_id IS NULL)", Integer.class);
+        if (legacyRows == null || legacyRows == 0) {
+            return;
+        }
+        Long projectId = defaultProjectId();
+        int nodes = jdbcTemplate.update("UPDATE code_nodes SET project_id = ? WHERE project_id IS NULL", projectId);
+        jdbcTemplate.update("UPDATE code_relationships SET project_id = ? WHERE project_id IS NULL", projectId);
+        jdbcTemplate.update("UPDATE feature_slices SET project_id = ? WHERE project_id IS NULL", projectId);
+        log.info("Moved {} nodes indexed before projects existed into project '{}'", nodes, DEFAULT_PROJECT);
+    }
+
+    private Long defaultProjectId() {
+        String select = "SELECT id FROM code_projects WHERE name = ?";
+        List<Long> existing = jdbcTemplate.queryForList(select, Long.class, DEFAULT_PROJECT);
+        if (!existing.isEmpty()) {
+            return existing.get(0);
+        }
+        jdbcTemplate.update("INSERT INTO code_projects (name, root_path) VALUES (?, '')", DEFAULT_PROJECT);
+        return jdbcTemplate.queryForObject(select, Long.class, DEFAULT_PROJECT);
+    }
+}
@@ -1,7 +1,6 @@
 package com.codecom.service;
 
 import com.codecom.dto.FileComplexity;
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.MethodDeclaration;
@@ -13,11 +12,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
 
 /**
  * Service for calculating code complexity metrics
@@ -27,32 +24,43 @@ import java.util.stream.Stream;
 public class ComplexityService {
     
     private static final Logger logger = LoggerFactory.getLogger(ComplexityService.class);
-    private final JavaParser javaParser = new JavaParser();
+    private static final String METRICS_NAME = "complexity";
+    private final AnalysisMetrics metrics;
+    private final RequestCoalescer coalescer;
+    private final ProjectFileEnumerator fileEnumerator;
+    private final ParseProblemService parseProblems;
+    private final ContentCache contentCache;
+    
+    public ComplexityService(AnalysisMetrics metrics, RequestCoalescer coalescer, ProjectFileEnumerator fileEnumerator,
+                             ParseProblemService parseProblems, ContentCache contentCache) {
+        this.metrics = metrics;
+        this.coalescer = coalescer;
+        this.fileEnumerator = fileEnumerator;
+        this.parseProblems = parseProblems;
+        this.contentCache = contentCache;
+    }
     
     /**
      * Calculate complexity for all files in a directory
      */
     public List<FileComplexity> calculateProjectComplexity(String rootPath) throws IOException {
+        return coalescer.execute("complexity", rootPath, () -> scanProjectComplexity(rootPath));
+    }
+
+    private List<FileComplexity> scanProjectComplexity(String rootPath) throws IOException {
         List<FileComplexity> complexities = new ArrayList<>();
         
-        try (Stream<Path> paths = Files.walk(Path.of(rootPath))) {
-            paths
-                .filter(Files::isRegularFile)
-                .filter(p -> p.toString().endsWith(".java"))
-                .filter(p -> !p.toString().contains("node_modules"))
-                .filter(p -> !p.toString().contains("target"))
-                .filter(p -> !p.toString().contains(".git"))
-                .forEach(path -> {
-                    try {
-                        FileComplexity complexity = calculateFileComplexity(path.toString());
-                        if (complexity != null) {
-                            complexities.add(complexity);
-                        }
-                    } catch (IOException e) {
-                        logger.error("Error calculating complexity for {}: {}", path, e.getMessage());
+        fileEnumerator.listJavaFiles(rootPath)
+            .forEach(path -> {
+                try {
+                    FileComplexity complexity = calculateFileComplexity(path.toString());
+                    if (complexity != null) {
+                        complexities.add(complexity);
                     }
-                });
-        }
+                } catch (IOException e) {
+                    logger.error("Error calculating complexity for {}: {}", path, e.getMessage());
+                }
+            });
         
         return complexities;
     }
@@ -61,13 +69,17 @@ public class ComplexityService {
      * Calculate complexity for a single file
      */
     public FileComplexity calculateFileComplexity(String filePath) throws IOException {
-        String content = Files.readString(Path.of(filePath));
-        ParseResult<CompilationUnit> result = javaParser.parse(content);
-        
-        if (!result.isSuccessful()) {
-            return null;
-        }
+        String content = metrics.readFile(Path.of(filePath));
+        // Shared by all copies of the content, each with its own path
+        FileComplexity shared = contentCache.get(METRICS_NAME, content, () -> measureComplexity(filePath, content));
+        return shared == null ? null : new FileComplexity(filePath, shared.getCyclomaticComplexity(),
+            shared.getLinesOfCode(), shared.getNumberOfMethods());
+    }
+    
+    private FileComplexity measureComplexity(String filePath, String content) {
+        ParseResult<CompilationUnit> result = parseProblems.parse(Path.of(filePath), content, ParserProfile.FAST.parser(), METRICS_NAME);
         
+        // Unparsable parts of a partial tree are left out of the complexity
         return result.getResult().map(cu -> {
             // Calculate metrics
             int cyclomaticComplexity = calculateCyclomaticComplexity(cu);
@@ -0,0 +1,68 @@
+package com.codecom.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Results derived from the content of a source file, shared by all files with that content
+ *
+ * Vendored and generated files often exist in many modules of a project. Each analysis
+ * stores its result once per content hash (XXH64 and length), so the copies are only
+ * parsed once. Results must not depend on the path of the file and must not be modified
+ * by callers. The least recently used results are evicted beyond the configured size.
+ */
+@Service
+public class ContentCache {
+
+    private static final Object NONE = new Object();
+
+    private final AnalysisMetrics metrics;
+    private final Map<Key, Object> results;
+
+    private record Key(String analysis, long hash, int length) {
+    }
+
+    public ContentCache(AnalysisMetrics metrics,
+                        @Value("${codecom.content-cache.max-entries:50000}") int maxEntries) {
+        this.metrics = metrics;
+        this.results = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * The result of an analysis of the content, computed if no file with the same content
+     * was analyzed before
+     * @param analysis Name of the analysis, separating the results of different analyses
+     * @param compute Computes the result, which may be null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String analysis, String content, Supplier<T> compute) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Key key = new Key(analysis, ContentHash.xxh64(bytes), bytes.length);
+        Object cached;
+        synchronized (results) {
+            cached = results.get(key);
+        }
+        if (cached != null) {
+            metrics.contentCacheLookup(analysis, true);
+            return cached == NONE ? null : (T) cached;
+        }
+
+        // Computed outside the lock; two threads may compute the same result once each
+        metrics.contentCacheLookup(analysis, false);
+        T result = compute.get();
+        synchronized (results) {
+            results.put(key, result == null ? NONE : result);
+        }
+        return result;
+    }
+}
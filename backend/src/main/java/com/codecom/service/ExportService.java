@@ -2,6 +2,8 @@ package com.codecom.service;
 
 import com.codecom.dto.ExportRequest;
 import com.codecom.dto.ExportResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -17,6 +19,8 @@ import java.util.List;
 @Service
 public class ExportService {
 
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
     /**
      * Export multiple files to a single document
      */
@@ -32,7 +36,7 @@ public class ExportService {
                 totalLines += content.split("\n").length;
             } catch (IOException e) {
                 // Skip files that can't be read
-                System.err.println("Error reading file: " + filePath + " - " + e.getMessage());
+                log.warn("Error reading file {}: {}", filePath, e.getMessage());
             }
         }
         
@@ -1,16 +1,16 @@
 package com.codecom.service;
 
-import com.codecom.entity.CodeNode;
 import com.codecom.entity.CodeRelationship;
 import com.codecom.entity.FeatureSlice;
 import com.codecom.repository.CodeNodeRepository;
 import com.codecom.repository.CodeRelationshipRepository;
 import com.codecom.repository.FeatureSliceRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for managing feature-based code slices
@@ -19,21 +19,32 @@ import java.util.stream.Collectors;
 @Service
 public class FeatureSliceService {
     
+    private static final String REL_CALLS = "CALLS";
+    private static final String REL_INHERITS = "INHERITS";
+    private static final int BATCH_SIZE = 1000;
+    
     private final FeatureSliceRepository sliceRepository;
     private final CodeNodeRepository nodeRepository;
     private final CodeRelationshipRepository relationshipRepository;
+    private final SliceMembershipIndex membershipIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     public FeatureSliceService(
             FeatureSliceRepository sliceRepository,
             CodeNodeRepository nodeRepository,
-            CodeRelationshipRepository relationshipRepository) {
+            CodeRelationshipRepository relationshipRepository,
+            SliceMembershipIndex membershipIndex,
+            ApplicationEventPublisher eventPublisher) {
         this.sliceRepository = sliceRepository;
         this.nodeRepository = nodeRepository;
         this.relationshipRepository = relationshipRepository;
+        this.membershipIndex = membershipIndex;
+        this.eventPublisher = eventPublisher;
     }
     
     /**
      * Create a new feature slice with seed nodes
+     * The slice belongs to the project of its seeds, which must all share one project
      */
     @Transactional
     public FeatureSlice createSlice(String name, String description, List<Long> seedNodeIds) {
@@ -48,8 +59,18 @@ public class FeatureSliceService {
         for (Long nodeId : seedNodeIds) {
             nodeRepository.findById(nodeId).ifPresent(slice::addNode);
         }
+        Set<Long> projectIds = new HashSet<>();
+        slice.getNodes().forEach(node -> projectIds.add(node.getProjectId()));
+        if (projectIds.size() > 1) {
+            throw new IllegalArgumentException("Seed nodes belong to more than one project");
+        }
+        if (projectIds.size() == 1) {
+            slice.setProjectId(projectIds.iterator().next());
+        }
         
-        return sliceRepository.save(slice);
+        FeatureSlice saved = sliceRepository.save(slice);
+        eventPublisher.publishEvent(new SliceChangedEvent(saved.getId()));
+        return saved;
     }
     
     /**
@@ -71,82 +92,79 @@ public class FeatureSliceService {
             throw new IllegalArgumentException("Depth must be between 1 and 5");
         }
         
-        Set<Long> visited = new HashSet<>();
-        Set<CodeNode> currentLevel = new HashSet<>(slice.getNodes());
+        Set<String> types = new HashSet<>();
+        if (includeCallers || includeCallees) {
+            types.add(REL_CALLS);
+        }
+        if (includeInheritance) {
+            types.add(REL_INHERITS);
+        }
         
-        // BFS traversal
-        for (int i = 0; i < depth; i++) {
-            Set<CodeNode> nextLevel = new HashSet<>();
-            
-            for (CodeNode node : currentLevel) {
-                if (visited.contains(node.getId())) {
-                    continue;
-                }
-                visited.add(node.getId());
-                
-                // Add callees (nodes this node calls)
-                if (includeCallees) {
-                    List<CodeRelationship> callRels = relationshipRepository
-                        .findBySourceIdAndRelationshipType(node.getId(), "CALLS");
-                    
-                    for (CodeRelationship rel : callRels) {
-                        nodeRepository.findById(rel.getTargetId()).ifPresent(target -> {
-                            slice.addNode(target);
-                            nextLevel.add(target);
-                        });
-                    }
-                }
-                
-                // Add callers (nodes that call this node)
-                if (includeCallers) {
-                    List<CodeRelationship> callerRels = relationshipRepository
-                        .findByTargetIdAndRelationshipType(node.getId(), "CALLS");
-                    
-                    for (CodeRelationship rel : callerRels) {
-                        nodeRepository.findById(rel.getSourceId()).ifPresent(source -> {
-                            slice.addNode(source);
-                            nextLevel.add(source);
-                        });
-                    }
-                }
-                
-                // Add inheritance relationships
-                if (includeInheritance) {
-                    // Parent classes/interfaces
-                    List<CodeRelationship> inheritRels = relationshipRepository
-                        .findBySourceIdAndRelationshipType(node.getId(), "INHERITS");
-                    
-                    for (CodeRelationship rel : inheritRels) {
-                        nodeRepository.findById(rel.getTargetId()).ifPresent(target -> {
-                            slice.addNode(target);
-                            nextLevel.add(target);
-                        });
+        Set<Long> members = new HashSet<>(sliceRepository.findNodeIdsBySliceId(sliceId));
+        Set<Long> added = new LinkedHashSet<>();
+        Set<Long> frontier = new HashSet<>(members);
+        
+        // Frontier-at-a-time BFS: one relationship query and one existence check per level
+        for (int i = 0; i < depth && !frontier.isEmpty() && !types.isEmpty(); i++) {
+            Set<Long> candidates = new HashSet<>();
+            for (List<Long> batch : partition(frontier)) {
+                for (CodeRelationship rel : relationshipRepository.findTouchingNodes(batch, types)) {
+                    boolean calls = REL_CALLS.equals(rel.getRelationshipType());
+                    if (frontier.contains(rel.getSourceId()) && (calls ? includeCallees : includeInheritance)) {
+                        candidates.add(rel.getTargetId());
                     }
-                    
-                    // Subclasses
-                    List<CodeRelationship> subclassRels = relationshipRepository
-                        .findByTargetIdAndRelationshipType(node.getId(), "INHERITS");
-                    
-                    for (CodeRelationship rel : subclassRels) {
-                        nodeRepository.findById(rel.getSourceId()).ifPresent(source -> {
-                            slice.addNode(source);
-                            nextLevel.add(source);
-                        });
+                    if (frontier.contains(rel.getTargetId()) && (calls ? includeCallers : includeInheritance)) {
+                        candidates.add(rel.getSourceId());
                     }
                 }
             }
+            candidates.removeAll(members);
+            candidates.removeAll(added);
             
-            currentLevel = nextLevel;
+            Set<Long> nextLevel = new HashSet<>();
+            for (List<Long> batch : partition(candidates)) {
+                nextLevel.addAll(nodeRepository.findExistingIds(batch));
+            }
+            added.addAll(nextLevel);
+            frontier = nextLevel;
         }
         
-        return sliceRepository.save(slice);
+        if (added.isEmpty()) {
+            return slice;
+        }
+        
+        // Touch the slice, then add all new nodes with a bulk insert instead of rewriting the collection
+        slice.setUpdatedDate(LocalDateTime.now());
+        sliceRepository.saveAndFlush(slice);
+        for (List<Long> batch : partition(added)) {
+            sliceRepository.insertSliceNodes(sliceId, batch);
+        }
+        eventPublisher.publishEvent(new SliceChangedEvent(sliceId));
+        
+        return sliceRepository.findById(sliceId)
+            .orElseThrow(() -> new IllegalArgumentException("Slice not found: " + sliceId));
+    }
+    
+    /**
+     * Split ids into IN-clause sized batches
+     */
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += BATCH_SIZE) {
+            batches.add(all.subList(i, Math.min(i + BATCH_SIZE, all.size())));
+        }
+        return batches;
     }
     
     /**
      * Get all slices
+     * @param projectId Project of the slices, or null for the slices of every project
      */
-    public List<FeatureSlice> getAllSlices() {
-        return sliceRepository.findAllOrderByName();
+    public List<FeatureSlice> getAllSlices(Long projectId) {
+        return projectId == null
+            ? sliceRepository.findAllOrderByName()
+            : sliceRepository.findByProjectIdOrderByName(projectId);
     }
     
     /**
@@ -198,7 +216,9 @@ public class FeatureSliceService {
             nodeRepository.findById(nodeId).ifPresent(slice::addNode);
         }
         
-        return sliceRepository.save(slice);
+        FeatureSlice saved = sliceRepository.save(slice);
+        eventPublisher.publishEvent(new SliceChangedEvent(sliceId));
+        return saved;
     }
     
     /**
@@ -213,7 +233,9 @@ public class FeatureSliceService {
             nodeRepository.findById(nodeId).ifPresent(slice::removeNode);
         }
         
-        return sliceRepository.save(slice);
+        FeatureSlice saved = sliceRepository.save(slice);
+        eventPublisher.publishEvent(new SliceChangedEvent(sliceId));
+        return saved;
     }
     
     /**
@@ -222,40 +244,42 @@ public class FeatureSliceService {
     @Transactional
     public void deleteSlice(Long sliceId) {
         sliceRepository.deleteById(sliceId);
+        eventPublisher.publishEvent(new SliceChangedEvent(sliceId));
     }
     
     /**
      * Get all file paths for nodes in a slice
      */
     public Set<String> getSliceFilePaths(Long sliceId) {
-        FeatureSlice slice = sliceRepository.findById(sliceId)
-            .orElseThrow(() -> new IllegalArgumentException("Slice not found: " + sliceId));
-        
-        return slice.getNodes().stream()
-            .map(CodeNode::getFilePath)
-            .collect(Collectors.toSet());
+        return membershipIndex.getFilePaths(sliceId);
     }
     
     /**
      * Get statistics for a slice
      */
     public Map<String, Object> getSliceStatistics(Long sliceId) {
-        FeatureSlice slice = sliceRepository.findById(sliceId)
-            .orElseThrow(() -> new IllegalArgumentException("Slice not found: " + sliceId));
-        
-        Set<String> files = slice.getNodes().stream()
-            .map(CodeNode::getFilePath)
-            .collect(Collectors.toSet());
-        
-        Map<String, Long> nodeTypeCount = slice.getNodes().stream()
-            .collect(Collectors.groupingBy(CodeNode::getNodeType, Collectors.counting()));
-        
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("nodeCount", slice.getNodes().size());
-        stats.put("fileCount", files.size());
-        stats.put("nodeTypeBreakdown", nodeTypeCount);
-        
-        return stats;
+        return membershipIndex.getStatistics(sliceId);
+    }
+    
+    /**
+     * Get the files covered by any of the given slices
+     */
+    public Set<String> getUnionFilePaths(List<Long> sliceIds) {
+        return membershipIndex.unionFilePaths(sliceIds);
+    }
+    
+    /**
+     * Get the files covered by all of the given slices
+     */
+    public Set<String> getIntersectionFilePaths(List<Long> sliceIds) {
+        return membershipIndex.intersectFilePaths(sliceIds);
+    }
+    
+    /**
+     * Find the ids of all slices containing nodes of a file
+     */
+    public List<Long> findSlicesContainingFile(String filePath) {
+        return membershipIndex.findSlicesContainingFile(filePath);
     }
     
     /**
@@ -7,7 +7,10 @@ import com.codecom.entity.CodeNode;
 import com.codecom.entity.CodeRelationship;
 import com.codecom.repository.CodeNodeRepository;
 import com.codecom.repository.CodeRelationshipRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -31,10 +34,15 @@ public class FlowGraphService {
     /**
      * Build a complete flow graph from the knowledge graph
      * Maps nodes to architectural layers based on file path and annotations
+     * @param projectId Project to draw, or null for the whole workspace
      */
-    public FlowGraphResponse buildFlowGraph() {
-        List<CodeNode> allNodes = nodeRepository.findAll();
-        List<CodeRelationship> allRelationships = relationshipRepository.findAll();
+    public FlowGraphResponse buildFlowGraph(Long projectId) {
+        List<CodeNode> allNodes = projectId == null
+            ? nodeRepository.findAll()
+            : nodeRepository.findByProjectId(projectId);
+        List<CodeRelationship> allRelationships = projectId == null
+            ? relationshipRepository.findAll()
+            : relationshipRepository.findByProjectId(projectId);
         
         List<FlowGraphNode> flowNodes = allNodes.stream()
             .map(this::convertToFlowNode)
@@ -44,11 +52,51 @@ public class FlowGraphService {
             .map(this::convertToFlowEdge)
             .collect(Collectors.toList());
         
-        Map<String, Object> metadata = buildMetadata(flowNodes, flowEdges);
+        // Whole-graph layer counts come straight from the indexed layer column
+        Map<String, Object> metadata = buildMetadata(flowNodes, flowEdges, countNodesByLayer(projectId));
         
         return new FlowGraphResponse(flowNodes, flowEdges, metadata);
     }
     
+    /**
+     * Build the flow graph of a single architectural layer
+     * Only relationships between nodes of that layer are included
+     */
+    public FlowGraphResponse buildFlowGraphForLayer(Long projectId, String layer) {
+        List<CodeNode> layerNodes = projectId == null
+            ? nodeRepository.findByLayer(layer)
+            : nodeRepository.findByProjectIdAndLayer(projectId, layer);
+        List<FlowGraphNode> flowNodes = layerNodes.stream()
+            .map(this::convertToFlowNode)
+            .collect(Collectors.toList());
+        
+        List<CodeRelationship> layerRelationships = projectId == null
+            ? relationshipRepository.findWithinLayer(layer)
+            : relationshipRepository.findWithinLayerInProject(projectId, layer);
+        List<FlowGraphEdge> flowEdges = layerRelationships.stream()
+            .map(this::convertToFlowEdge)
+            .collect(Collectors.toList());
+        
+        Map<String, Object> metadata = buildMetadata(flowNodes, flowEdges, null);
+        metadata.put("layer", layer);
+        
+        return new FlowGraphResponse(flowNodes, flowEdges, metadata);
+    }
+    
+    /**
+     * Classify nodes that were indexed before the layer column existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillLayers() {
+        List<CodeNode> unclassified = nodeRepository.findByLayerIsNull();
+        if (unclassified.isEmpty()) {
+            return;
+        }
+        unclassified.forEach(node -> node.setLayer(LayerClassifier.classify(node)));
+        nodeRepository.saveAll(unclassified);
+    }
+    
     /**
      * Build a flow graph tracing from a specific node
      * @param nodeId Starting node ID
@@ -106,7 +154,7 @@ public class FlowGraphService {
             );
         }
         
-        Map<String, Object> metadata = buildMetadata(flowNodes, flowEdges);
+        Map<String, Object> metadata = buildMetadata(flowNodes, flowEdges, null);
         metadata.put("startNodeId", nodeId.toString());
         metadata.put("maxDepth", maxDepth);
         
@@ -116,8 +164,10 @@ public class FlowGraphService {
     /**
      * Build a flow graph for a specific component by name
      */
-    public FlowGraphResponse buildFlowGraphForComponent(String componentName) {
-        List<CodeNode> matchingNodes = nodeRepository.searchByName(componentName);
+    public FlowGraphResponse buildFlowGraphForComponent(Long projectId, String componentName) {
+        List<CodeNode> matchingNodes = projectId == null
+            ? nodeRepository.searchByName(componentName)
+            : nodeRepository.searchByNameInProject(projectId, componentName);
         
         if (matchingNodes.isEmpty()) {
             return new FlowGraphResponse(new ArrayList<>(), new ArrayList<>(), 
@@ -133,7 +183,7 @@ public class FlowGraphService {
      * Convert a CodeNode to a FlowGraphNode with layer detection
      */
     private FlowGraphNode convertToFlowNode(CodeNode node) {
-        String layer = detectLayer(node);
+        String layer = LayerClassifier.layerOf(node);
         String id = "node-" + node.getId();
         
         return new FlowGraphNode(
@@ -147,46 +197,6 @@ public class FlowGraphService {
         );
     }
     
-    /**
-     * Detect architectural layer based on file path and node type
-     */
-    private String detectLayer(CodeNode node) {
-        String filePath = node.getFilePath().toLowerCase(java.util.Locale.ROOT);
-        String nodeType = node.getNodeType();
-        
-        // Frontend layers
-        if (filePath.contains("/frontend/src/components/") && filePath.endsWith(".vue")) {
-            return "COMPONENT";
-        }
-        if (filePath.contains("/frontend/src/services/") && filePath.endsWith(".ts")) {
-            return "SERVICE_TS";
-        }
-        
-        // Backend layers based on package/path patterns
-        if (filePath.contains("/controller/") || node.getPackageName().contains(".controller")) {
-            return "CONTROLLER";
-        }
-        if (filePath.contains("/service/") || node.getPackageName().contains(".service")) {
-            return "SERVICE_JAVA";
-        }
-        if (filePath.contains("/repository/") || node.getPackageName().contains(".repository")) {
-            return "REPOSITORY";
-        }
-        if (filePath.contains("/entity/") || node.getPackageName().contains(".entity")) {
-            return "ENTITY";
-        }
-        
-        // Fallback based on node type
-        if ("CLASS".equals(nodeType) || "INTERFACE".equals(nodeType)) {
-            return "CLASS";
-        }
-        if ("METHOD".equals(nodeType)) {
-            return "METHOD";
-        }
-        
-        return "UNKNOWN";
-    }
-    
     /**
      * Convert a CodeRelationship to a FlowGraphEdge
      */
@@ -194,7 +204,7 @@ public class FlowGraphService {
         String sourceId = "node-" + rel.getSourceId();
         String targetId = "node-" + rel.getTargetId();
         String edgeType = rel.getRelationshipType();
-        String label = generateEdgeLabel(rel);
+        String label = generateEdgeLabel(edgeType);
         
         return new FlowGraphEdge(sourceId, targetId, edgeType, label, rel.getLineNumber());
     }
@@ -202,8 +212,8 @@ public class FlowGraphService {
     /**
      * Generate a human-readable label for an edge
      */
-    private String generateEdgeLabel(CodeRelationship rel) {
-        String relType = rel.getRelationshipType().toLowerCase(java.util.Locale.ROOT);
+    static String generateEdgeLabel(String relationshipType) {
+        String relType = relationshipType.toLowerCase(java.util.Locale.ROOT);
         switch (relType) {
             case "calls":
                 return "calls";
@@ -220,16 +230,20 @@ public class FlowGraphService {
     
     /**
      * Build metadata about the graph
+     * @param layerCounts Node counts per layer from the database, or null to count the given nodes
      */
-    private Map<String, Object> buildMetadata(List<FlowGraphNode> nodes, List<FlowGraphEdge> edges) {
+    private Map<String, Object> buildMetadata(List<FlowGraphNode> nodes, List<FlowGraphEdge> edges,
+                                              Map<String, Long> layerCounts) {
         Map<String, Object> metadata = new HashMap<>();
         
         metadata.put("nodeCount", nodes.size());
         metadata.put("edgeCount", edges.size());
         
-        // Count nodes by layer
-        Map<String, Long> layerCounts = nodes.stream()
-            .collect(Collectors.groupingBy(FlowGraphNode::getLayer, Collectors.counting()));
+        // Count nodes by layer, for sub-graphs and nodes without a stored layer
+        if (layerCounts == null) {
+            layerCounts = nodes.stream()
+                .collect(Collectors.groupingBy(FlowGraphNode::getLayer, Collectors.counting()));
+        }
         metadata.put("layerCounts", layerCounts);
         
         // Count edges by type
@@ -238,9 +252,7 @@ public class FlowGraphService {
         metadata.put("edgeTypeCounts", edgeTypeCounts);
         
         // List all unique layers
-        List<String> layers = nodes.stream()
-            .map(FlowGraphNode::getLayer)
-            .distinct()
+        List<String> layers = layerCounts.keySet().stream()
             .sorted()
             .collect(Collectors.toList());
         metadata.put("layers", layers);
@@ -248,6 +260,24 @@ public class FlowGraphService {
         return metadata;
     }
     
+    /**
+     * Count nodes per layer with a GROUP BY on the layer column
+     * @return null if some nodes have not been classified yet
+     */
+    private Map<String, Long> countNodesByLayer(Long projectId) {
+        List<CodeNodeRepository.LayerCount> counts = projectId == null
+            ? nodeRepository.countNodesByLayer()
+            : nodeRepository.countNodesByLayerInProject(projectId);
+        Map<String, Long> layerCounts = new HashMap<>();
+        for (CodeNodeRepository.LayerCount count : counts) {
+            if (count.getLayer() == null) {
+                return null;
+            }
+            layerCounts.put(count.getLayer(), count.getNodeCount());
+        }
+        return layerCounts;
+    }
+    
     /**
      * Helper class for BFS traversal with depth tracking
      */
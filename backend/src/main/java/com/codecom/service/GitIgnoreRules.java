@@ -0,0 +1,129 @@
+package com.codecom.service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The .gitignore patterns in effect for a directory, including those of its parents
+ *
+ * Supports comments, negation with "!", directory-only patterns ending in "/", patterns
+ * anchored by a "/" and the wildcards "*", "?", "**" and character classes. As in git,
+ * rules of deeper files come later and the last matching rule decides.
+ */
+final class GitIgnoreRules {
+
+    static final GitIgnoreRules EMPTY = new GitIgnoreRules(List.of());
+
+    private final List<Rule> rules;
+
+    private GitIgnoreRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    /**
+     * These rules followed by the lines of the .gitignore file in a directory
+     */
+    GitIgnoreRules withFile(Path directory, List<String> lines) {
+        List<Rule> combined = new ArrayList<>(rules);
+        for (String line : lines) {
+            Rule rule = Rule.parse(directory, line);
+            if (rule != null) {
+                combined.add(rule);
+            }
+        }
+        return combined.size() == rules.size() ? this : new GitIgnoreRules(List.copyOf(combined));
+    }
+
+    boolean isIgnored(Path path, boolean directory) {
+        boolean ignored = false;
+        for (Rule rule : rules) {
+            if (rule.negated() == ignored && rule.matches(path, directory)) {
+                ignored = !rule.negated();
+            }
+        }
+        return ignored;
+    }
+
+    boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    private record Rule(Path base, Pattern pattern, boolean negated, boolean directoryOnly, boolean anchored) {
+
+        static Rule parse(Path base, String line) {
+            String text = line.stripTrailing();
+            if (text.isEmpty() || text.startsWith("#")) {
+                return null;
+            }
+            boolean negated = text.startsWith("!");
+            if (negated) {
+                text = text.substring(1);
+            } else if (text.startsWith("\\#") || text.startsWith("\\!")) {
+                text = text.substring(1);
+            }
+            boolean directoryOnly = text.endsWith("/");
+            if (directoryOnly) {
+                text = text.substring(0, text.length() - 1);
+            }
+            boolean anchored = text.contains("/");
+            if (text.startsWith("/")) {
+                text = text.substring(1);
+            }
+            if (text.isEmpty()) {
+                return null;
+            }
+            return new Rule(base, Pattern.compile(toRegex(text)), negated, directoryOnly, anchored);
+        }
+
+        boolean matches(Path path, boolean directory) {
+            if (directoryOnly && !directory) {
+                return false;
+            }
+            if (!path.startsWith(base) || path.equals(base)) {
+                return false;
+            }
+            String candidate = anchored
+                ? base.relativize(path).toString().replace('\\', '/')
+                : path.getFileName().toString();
+            return pattern.matcher(candidate).matches();
+        }
+
+        private static String toRegex(String glob) {
+            StringBuilder regex = new StringBuilder();
+            int i = 0;
+            while (i < glob.length()) {
+                char c = glob.charAt(i);
+                if (glob.startsWith("**/", i)) {
+                    regex.append("(?:.*/)?");
+                    i += 3;
+                } else if (glob.startsWith("**", i)) {
+                    regex.append(".*");
+                    i += 2;
+                } else if (c == '*') {
+                    regex.append("[^/]*");
+                    i++;
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                    i++;
+                } else if (c == '[' && glob.indexOf(']', i + 1) > i + 1) {
+                    int end = glob.indexOf(']', i + 1);
+                    String set = glob.substring(i + 1, end);
+                    if (set.startsWith("!")) {
+                        set = "^" + set.substring(1);
+                    }
+                    regex.append('[').append(set.replace("\\", "\\\\")).append(']');
+                    i = end + 1;
+                } else if (c == '\\' && i + 1 < glob.length()) {
+                    regex.append(Pattern.quote(String.valueOf(glob.charAt(i + 1))));
+                    i += 2;
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                    i++;
+                }
+            }
+            return regex.toString();
+        }
+    }
+}
@@ -0,0 +1,492 @@
+package com.codecom.service;
+
+import com.codecom.dto.FlowGraphEdge;
+import com.codecom.dto.FlowGraphNode;
+import com.codecom.dto.FlowGraphResponse;
+import com.codecom.entity.CodeNode;
+import com.codecom.entity.CodeRelationship;
+import com.codecom.repository.CodeNodeRepository;
+import com.codecom.repository.CodeRelationshipRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service for level-of-detail aggregation of the architecture flow graph
+ * FR.33: Interactive Architecture Flow Graph
+ *
+ * Methods collapse into classes, classes into packages and packages into layers.
+ * Edge weights count the underlying relationships. The aggregation is built once
+ * per indexed project, or for the whole workspace, and shared by every zoom-level
+ * request on it.
+ */
+@Service
+public class GraphAggregationService {
+
+    /**
+     * Zoom levels, from the coarsest to the finest
+     */
+    public enum Level {
+        LAYER, PACKAGE, CLASS, METHOD
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(GraphAggregationService.class);
+
+    private static final String DEFAULT_PACKAGE = "(default)";
+    private static final String TYPE_CLASS = "CLASS";
+    private static final String TYPE_INTERFACE = "INTERFACE";
+
+    private final CodeNodeRepository nodeRepository;
+    private final CodeRelationshipRepository relationshipRepository;
+
+    // A build still running when its scope is dropped fills the discarded holder
+    private final Map<ProjectScope, Holder> holders = new ConcurrentHashMap<>();
+    private final ExecutorService rebuilds = Executors.newSingleThreadExecutor(
+        Thread.ofVirtual().name("codecom-aggregation").factory());
+
+    public GraphAggregationService(CodeNodeRepository nodeRepository,
+                                   CodeRelationshipRepository relationshipRepository) {
+        this.nodeRepository = nodeRepository;
+        this.relationshipRepository = relationshipRepository;
+    }
+
+    /**
+     * Rebuild the aggregation of a project in the background once its re-index has been
+     * committed, so neither the indexer nor the first zoom request has to wait for it.
+     * Other scopes containing it, and projects whose re-index failed, are rebuilt on use.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphIndexed(GraphIndexedEvent event) {
+        invalidate(event.projectId());
+        if (event.complete() && event.projectId() != null) {
+            rebuilds.execute(() -> {
+                try {
+                    getAggregation(event.projectId());
+                } catch (RuntimeException e) {
+                    log.warn("Could not aggregate the graph of project {}", event.projectId(), e);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilds.shutdownNow();
+    }
+
+    public void invalidate() {
+        holders.clear();
+    }
+
+    /**
+     * Discard the aggregations that contain nodes of a project
+     */
+    public void invalidate(Long projectId) {
+        holders.keySet().removeIf(scope -> scope.includes(projectId));
+    }
+
+    /**
+     * Get the graph aggregated at the given level
+     * @param projectId Project to aggregate, or null for the whole workspace
+     * @param level Level of detail of the returned nodes
+     * @param parentId Optional aggregate to drill into; only its descendants are expanded,
+     *                 neighbours outside it stay collapsed at the parent's level
+     */
+    public FlowGraphResponse getAggregatedGraph(Long projectId, Level level, String parentId) {
+        Aggregation current = getAggregation(projectId);
+
+        if (parentId == null || parentId.isBlank()) {
+            List<FlowGraphNode> nodes = current.groupsByLevel.get(level).stream()
+                .map(this::toFlowNode)
+                .toList();
+            List<FlowGraphEdge> edges = current.edgesByLevel.get(level).stream()
+                .map(e -> toFlowEdge(e.source, e.target, e.type, e.weight, e.lineNumber))
+                .toList();
+            return new FlowGraphResponse(nodes, edges, buildMetadata(level, null, nodes, edges, current));
+        }
+
+        Group parent = current.groups.get(parentId);
+        if (parent == null) {
+            throw new IllegalArgumentException("Unknown aggregate: " + parentId);
+        }
+        if (parent.level.ordinal() >= level.ordinal()) {
+            throw new IllegalArgumentException("Level " + level + " is not below " + parent.level);
+        }
+
+        Map<String, FlowGraphNode> nodes = new LinkedHashMap<>();
+        collectDescendants(parent, level, nodes);
+
+        Map<String, FlowGraphEdge> edges = new LinkedHashMap<>();
+        List<AggregatedEdge> scoped = current.edgesByScope.get(level).get(parent.level)
+            .getOrDefault(parent, List.of());
+        for (AggregatedEdge edge : scoped) {
+            Group source = collapseOutside(edge.source, parent, nodes);
+            Group target = collapseOutside(edge.target, parent, nodes);
+            String key = source.id + "|" + target.id + "|" + edge.type;
+            FlowGraphEdge existing = edges.get(key);
+            if (existing == null) {
+                edges.put(key, toFlowEdge(source, target, edge.type, edge.weight, edge.lineNumber));
+            } else {
+                existing.setWeight(existing.getWeight() + edge.weight);
+            }
+        }
+
+        List<FlowGraphNode> nodeList = new ArrayList<>(nodes.values());
+        List<FlowGraphEdge> edgeList = new ArrayList<>(edges.values());
+        return new FlowGraphResponse(nodeList, edgeList, buildMetadata(level, parentId, nodeList, edgeList, current));
+    }
+
+    private void collectDescendants(Group group, Level level, Map<String, FlowGraphNode> nodes) {
+        for (Group child : group.children) {
+            if (child.level == level) {
+                nodes.put(child.id, toFlowNode(child));
+            } else {
+                collectDescendants(child, level, nodes);
+            }
+        }
+    }
+
+    private Group collapseOutside(Group group, Group parent, Map<String, FlowGraphNode> nodes) {
+        Group ancestor = group.ancestor(parent.level);
+        if (ancestor == parent) {
+            return group;
+        }
+        nodes.computeIfAbsent(ancestor.id, id -> toFlowNode(ancestor));
+        return ancestor;
+    }
+
+    private Aggregation getAggregation(Long projectId) {
+        Holder holder = holders.computeIfAbsent(ProjectScope.of(projectId), scope -> new Holder());
+        Aggregation current = holder.aggregation;
+        if (current == null) {
+            synchronized (holder) {
+                current = holder.aggregation;
+                if (current == null) {
+                    current = build(projectId);
+                    holder.aggregation = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class Holder {
+        private volatile Aggregation aggregation;
+    }
+
+    /**
+     * Build the full hierarchy and the aggregated edges of every level
+     */
+    private Aggregation build(Long projectId) {
+        long start = System.nanoTime();
+        List<CodeNode> nodes = projectId == null
+            ? nodeRepository.findAll()
+            : nodeRepository.findByProjectId(projectId);
+        List<CodeRelationship> relationships = projectId == null
+            ? relationshipRepository.findAll()
+            : relationshipRepository.findByProjectId(projectId);
+        Aggregation result = new Aggregation();
+
+        // Types by id, and per file ordered by line for nodes indexed without their enclosing type
+        Map<Long, CodeNode> types = new HashMap<>();
+        Map<String, List<CodeNode>> typesByFile = new HashMap<>();
+        for (CodeNode node : nodes) {
+            if (isType(node)) {
+                types.put(node.getId(), node);
+                typesByFile.computeIfAbsent(node.getFilePath(), k -> new ArrayList<>()).add(node);
+            }
+        }
+        typesByFile.values().forEach(fileTypes -> fileTypes.sort(Comparator.comparing(CodeNode::getLineNumber)));
+
+        // Leaves and classes
+        Map<String, Group> classes = new LinkedHashMap<>();
+        Map<Long, Group> leaves = new HashMap<>();
+        for (CodeNode node : nodes) {
+            Group classGroup = classGroupFor(node, types, typesByFile, classes);
+            Group leaf = new Group("node-" + node.getId(), node.getName(), Level.METHOD, node.getNodeType(),
+                node.getFilePath(), node.getLineNumber(), node.getPackageName());
+            classGroup.addChild(leaf);
+            leaves.put(node.getId(), leaf);
+        }
+
+        // Packages, with the layer most of their classes belong to
+        Map<String, Group> packages = new LinkedHashMap<>();
+        Map<Group, Map<String, Integer>> layerVotes = new HashMap<>();
+        for (Group classGroup : classes.values()) {
+            String packageName = classGroup.packageName != null && !classGroup.packageName.isEmpty()
+                ? classGroup.packageName : DEFAULT_PACKAGE;
+            Group packageGroup = packages.computeIfAbsent(packageName, name ->
+                new Group("package-" + name, name, Level.PACKAGE, "PACKAGE", null, null, name));
+            packageGroup.addChild(classGroup);
+            layerVotes.computeIfAbsent(packageGroup, k -> new HashMap<>())
+                .merge(classGroup.classifiedLayer, 1, Integer::sum);
+        }
+
+        Map<String, Group> layers = new TreeMap<>();
+        for (Group packageGroup : packages.values()) {
+            String layer = layerVotes.get(packageGroup).entrySet().stream()
+                .max(Map.Entry.<String, Integer>comparingByValue()
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+                .map(Map.Entry::getKey)
+                .orElse("UNKNOWN");
+            Group layerGroup = layers.computeIfAbsent(layer, name ->
+                new Group("layer-" + name, name, Level.LAYER, "LAYER", null, null, null));
+            layerGroup.addChild(packageGroup);
+        }
+
+        // Every group below a layer reports the layer of its branch
+        for (Group layerGroup : layers.values()) {
+            layerGroup.propagateLayer(layerGroup.name);
+        }
+
+        result.register(layers.values());
+        result.register(packages.values());
+        result.register(classes.values());
+        result.register(leaves.values());
+
+        aggregateEdges(relationships, leaves, result);
+
+        result.buildMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    private Group classGroupFor(CodeNode node, Map<Long, CodeNode> types, Map<String, List<CodeNode>> typesByFile,
+                                Map<String, Group> classes) {
+        if (isType(node)) {
+            return classes.computeIfAbsent("class-" + node.getId(), id -> newClassGroup(id, node));
+        }
+
+        CodeNode enclosing = node.getEnclosingTypeId() != null ? types.get(node.getEnclosingTypeId()) : null;
+        if (enclosing == null) {
+            enclosing = closestTypeAbove(node, typesByFile.getOrDefault(node.getFilePath(), List.of()));
+        }
+        if (enclosing != null) {
+            CodeNode owner = enclosing;
+            return classes.computeIfAbsent("class-" + owner.getId(), id -> newClassGroup(id, owner));
+        }
+
+        // Members of files without a type declaration are grouped by file
+        String filePath = node.getFilePath();
+        return classes.computeIfAbsent("file-" + filePath, id -> {
+            String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
+            Group group = new Group(id, fileName, Level.CLASS, "FILE", filePath, 1, node.getPackageName());
+            group.classifiedLayer = LayerClassifier.classify(filePath, node.getPackageName(), TYPE_CLASS);
+            return group;
+        });
+    }
+
+    /**
+     * Guess the enclosing type of a node indexed before enclosing types were recorded:
+     * the last type declared above it in its file
+     */
+    private static CodeNode closestTypeAbove(CodeNode node, List<CodeNode> fileTypes) {
+        CodeNode enclosing = null;
+        for (CodeNode type : fileTypes) {
+            if (type.getLineNumber() <= node.getLineNumber()) {
+                enclosing = type;
+            }
+        }
+        if (enclosing == null && !fileTypes.isEmpty()) {
+            enclosing = fileTypes.get(0);
+        }
+        return enclosing;
+    }
+
+    private Group newClassGroup(String id, CodeNode node) {
+        Group group = new Group(id, node.getName(), Level.CLASS, node.getNodeType(),
+            node.getFilePath(), node.getLineNumber(), node.getPackageName());
+        group.classifiedLayer = LayerClassifier.layerOf(node);
+        return group;
+    }
+
+    private void aggregateEdges(List<CodeRelationship> relationships, Map<Long, Group> leaves, Aggregation result) {
+        Map<Level, Map<String, AggregatedEdge>> byKey = new EnumMap<>(Level.class);
+        for (Level level : Level.values()) {
+            byKey.put(level, new LinkedHashMap<>());
+        }
+
+        for (CodeRelationship rel : relationships) {
+            Group sourceLeaf = leaves.get(rel.getSourceId());
+            Group targetLeaf = leaves.get(rel.getTargetId());
+            if (sourceLeaf == null || targetLeaf == null) {
+                continue;
+            }
+            for (Level level : Level.values()) {
+                Group source = sourceLeaf.ancestor(level);
+                Group target = targetLeaf.ancestor(level);
+                if (level != Level.METHOD && source == target) {
+                    continue; // Internal to the aggregate
+                }
+                String key = source.id + "|" + target.id + "|" + rel.getRelationshipType();
+                AggregatedEdge edge = byKey.get(level).computeIfAbsent(key, k ->
+                    new AggregatedEdge(source, target, rel.getRelationshipType(),
+                        level == Level.METHOD ? rel.getLineNumber() : null));
+                edge.weight++;
+            }
+        }
+
+        for (Level level : Level.values()) {
+            List<AggregatedEdge> edges = new ArrayList<>(byKey.get(level).values());
+            result.edgesByLevel.put(level, edges);
+
+            // Index edges by the coarser aggregates they touch, for drill-down requests
+            Map<Level, Map<Group, List<AggregatedEdge>>> scopes = new EnumMap<>(Level.class);
+            for (Level scopeLevel : Level.values()) {
+                if (scopeLevel.ordinal() >= level.ordinal()) {
+                    break;
+                }
+                Map<Group, List<AggregatedEdge>> scope = new HashMap<>();
+                for (AggregatedEdge edge : edges) {
+                    Group sourceScope = edge.source.ancestor(scopeLevel);
+                    Group targetScope = edge.target.ancestor(scopeLevel);
+                    scope.computeIfAbsent(sourceScope, k -> new ArrayList<>()).add(edge);
+                    if (targetScope != sourceScope) {
+                        scope.computeIfAbsent(targetScope, k -> new ArrayList<>()).add(edge);
+                    }
+                }
+                scopes.put(scopeLevel, scope);
+            }
+            result.edgesByScope.put(level, scopes);
+        }
+    }
+
+    private FlowGraphNode toFlowNode(Group group) {
+        FlowGraphNode node = new FlowGraphNode(
+            group.id,
+            group.name,
+            group.nodeType,
+            group.layer,
+            group.filePath,
+            group.lineNumber,
+            group.packageName
+        );
+        if (group.level != Level.METHOD) {
+            node.setChildCount(group.children.size());
+        }
+        return node;
+    }
+
+    private FlowGraphEdge toFlowEdge(Group source, Group target, String type, int weight, Integer lineNumber) {
+        FlowGraphEdge edge = new FlowGraphEdge(source.id, target.id, type,
+            FlowGraphService.generateEdgeLabel(type), lineNumber);
+        edge.setWeight(weight);
+        return edge;
+    }
+
+    private Map<String, Object> buildMetadata(Level level, String parentId, List<FlowGraphNode> nodes,
+                                              List<FlowGraphEdge> edges, Aggregation current) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("level", level.name());
+        if (parentId != null) {
+            metadata.put("parent", parentId);
+        }
+        metadata.put("nodeCount", nodes.size());
+        metadata.put("edgeCount", edges.size());
+        metadata.put("totalWeight", edges.stream().mapToInt(FlowGraphEdge::getWeight).sum());
+        metadata.put("layers", nodes.stream()
+            .map(FlowGraphNode::getLayer)
+            .distinct()
+            .sorted()
+            .toList());
+        metadata.put("aggregationBuildMillis", current.buildMillis);
+        return metadata;
+    }
+
+    private static boolean isType(CodeNode node) {
+        return TYPE_CLASS.equals(node.getNodeType()) || TYPE_INTERFACE.equals(node.getNodeType());
+    }
+
+    /**
+     * Precomputed hierarchy and aggregated edges for all levels
+     */
+    private static class Aggregation {
+        final Map<String, Group> groups = new HashMap<>();
+        final Map<Level, List<Group>> groupsByLevel = new EnumMap<>(Level.class);
+        final Map<Level, List<AggregatedEdge>> edgesByLevel = new EnumMap<>(Level.class);
+        final Map<Level, Map<Level, Map<Group, List<AggregatedEdge>>>> edgesByScope = new EnumMap<>(Level.class);
+        long buildMillis;
+
+        void register(Collection<Group> levelGroups) {
+            for (Group group : levelGroups) {
+                groups.put(group.id, group);
+                groupsByLevel.computeIfAbsent(group.level, k -> new ArrayList<>()).add(group);
+            }
+            for (Level level : Level.values()) {
+                groupsByLevel.putIfAbsent(level, new ArrayList<>());
+            }
+        }
+    }
+
+    /**
+     * Node of the aggregation hierarchy (layer, package, class or leaf)
+     */
+    private static class Group {
+        final String id;
+        final String name;
+        final Level level;
+        final String nodeType;
+        final String filePath;
+        final Integer lineNumber;
+        final String packageName;
+        final List<Group> children = new ArrayList<>();
+        Group parent;
+        // Layer of a class by its own name and location; it votes for the layer of its package
+        String classifiedLayer;
+        // Layer of the branch the group ends up in
+        String layer;
+
+        Group(String id, String name, Level level, String nodeType,
+              String filePath, Integer lineNumber, String packageName) {
+            this.id = id;
+            this.name = name;
+            this.level = level;
+            this.nodeType = nodeType;
+            this.filePath = filePath;
+            this.lineNumber = lineNumber;
+            this.packageName = packageName;
+        }
+
+        void addChild(Group child) {
+            child.parent = this;
+            children.add(child);
+        }
+
+        void propagateLayer(String branchLayer) {
+            layer = branchLayer;
+            children.forEach(child -> child.propagateLayer(branchLayer));
+        }
+
+        Group ancestor(Level target) {
+            Group group = this;
+            while (group.level.ordinal() > target.ordinal()) {
+                group = group.parent;
+            }
+            return group;
+        }
+    }
+
+    /**
+     * Edge between two aggregates of the same level
+     */
+    private static class AggregatedEdge {
+        final Group source;
+        final Group target;
+        final String type;
+        final Integer lineNumber;
+        int weight;
+
+        AggregatedEdge(Group source, Group target, String type, Integer lineNumber) {
+            this.source = source;
+            this.target = target;
+            this.type = type;
+            this.lineNumber = lineNumber;
+        }
+    }
+}
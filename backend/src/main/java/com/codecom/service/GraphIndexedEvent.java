@@ -0,0 +1,15 @@
+package com.codecom.service;
+
+/**
+ * Published after a project of the knowledge graph has been rebuilt, so that derived
+ * in-memory structures can discard stale data
+ * FR.38: Relationship Graph Database
+ * @param projectId Re-indexed project, or null if any project may have changed
+ * @param complete false if the re-index failed and the project holds only part of its graph
+ */
+public record GraphIndexedEvent(Long projectId, String rootPath, boolean complete) {
+
+    public GraphIndexedEvent(Long projectId, String rootPath) {
+        this(projectId, rootPath, true);
+    }
+}
@@ -0,0 +1,493 @@
+package com.codecom.service;
+
+import com.codecom.dto.FlowGraphEdge;
+import com.codecom.dto.FlowGraphNode;
+import com.codecom.dto.FlowGraphResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Service computing node coordinates for flow graphs on the server
+ * FR.33: Interactive Architecture Flow Graph
+ *
+ * Layouts are cached by a hash of the graph structure, so the client only has to draw.
+ * The cache is dropped whenever the project is re-indexed.
+ */
+@Service
+public class GraphLayoutService {
+
+    /**
+     * Supported layout algorithms
+     */
+    public enum Algorithm {
+        LAYERED, FORCE
+    }
+
+    static final double NODE_SPACING = 180.0;
+    static final double LAYER_SPACING = 120.0;
+
+    private static final int CACHE_SIZE = 32;
+    private static final int ORDERING_SWEEPS = 8;
+    private static final int FORCE_ITERATIONS = 120;
+    private static final int PARALLEL_THRESHOLD = 512;
+
+    private final Map<Long, Layout> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Layout> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Drop cached layouts once a re-index has been committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphIndexed(GraphIndexedEvent event) {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Return a copy of the graph whose nodes carry x/y coordinates
+     * The given response is not modified, so cached graphs can be laid out safely
+     */
+    public FlowGraphResponse layout(FlowGraphResponse graph, Algorithm algorithm) {
+        List<FlowGraphNode> nodes = graph.getNodes();
+        long hash = graphHash(nodes, graph.getEdges(), algorithm);
+
+        Layout layout;
+        synchronized (cache) {
+            layout = cache.get(hash);
+        }
+        boolean cached = layout != null && layout.x().length == nodes.size();
+        if (!cached) {
+            LayoutGraph layoutGraph = LayoutGraph.of(nodes, graph.getEdges());
+            layout = algorithm == Algorithm.LAYERED ? layered(layoutGraph) : forceDirected(layoutGraph);
+            synchronized (cache) {
+                cache.put(hash, layout);
+            }
+        }
+
+        List<FlowGraphNode> positioned = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            FlowGraphNode copy = copyOf(nodes.get(i));
+            copy.setX(layout.x()[i]);
+            copy.setY(layout.y()[i]);
+            positioned.add(copy);
+        }
+
+        Map<String, Object> metadata = graph.getMetadata() != null
+            ? new HashMap<>(graph.getMetadata()) : new HashMap<>();
+        metadata.put("layout", algorithm.name());
+        metadata.put("layoutHash", Long.toHexString(hash));
+        metadata.put("layoutCached", cached);
+        return new FlowGraphResponse(positioned, graph.getEdges(), metadata);
+    }
+
+    /**
+     * Layered (Sugiyama-style) layout: break cycles, assign longest-path layers,
+     * then reduce crossings with barycenter sweeps
+     */
+    Layout layered(LayoutGraph graph) {
+        int n = graph.size();
+        List<int[]> dagEdges = removeCycles(graph);
+
+        // Longest-path layering over the acyclic graph
+        List<List<Integer>> successors = new ArrayList<>(n);
+        int[] inDegree = new int[n];
+        for (int i = 0; i < n; i++) {
+            successors.add(new ArrayList<>());
+        }
+        for (int[] edge : dagEdges) {
+            successors.get(edge[0]).add(edge[1]);
+            inDegree[edge[1]]++;
+        }
+        int[] layerOf = new int[n];
+        Deque<Integer> ready = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            if (inDegree[i] == 0) {
+                ready.add(i);
+            }
+        }
+        while (!ready.isEmpty()) {
+            int node = ready.poll();
+            for (int next : successors.get(node)) {
+                layerOf[next] = Math.max(layerOf[next], layerOf[node] + 1);
+                if (--inDegree[next] == 0) {
+                    ready.add(next);
+                }
+            }
+        }
+
+        int layerCount = Arrays.stream(layerOf).max().orElse(-1) + 1;
+        List<List<Integer>> layers = new ArrayList<>(layerCount);
+        for (int l = 0; l < layerCount; l++) {
+            layers.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            layers.get(layerOf[i]).add(i);
+        }
+
+        // Neighbours in the layer above and below, for the barycenter heuristic
+        List<List<Integer>> up = new ArrayList<>(n);
+        List<List<Integer>> down = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            up.add(new ArrayList<>());
+            down.add(new ArrayList<>());
+        }
+        for (int[] edge : dagEdges) {
+            down.get(edge[0]).add(edge[1]);
+            up.get(edge[1]).add(edge[0]);
+        }
+
+        double[] position = new double[n];
+        for (List<Integer> layer : layers) {
+            for (int p = 0; p < layer.size(); p++) {
+                position[layer.get(p)] = p;
+            }
+        }
+        for (int sweep = 0; sweep < ORDERING_SWEEPS; sweep++) {
+            boolean downward = sweep % 2 == 0;
+            if (downward) {
+                for (int l = 1; l < layerCount; l++) {
+                    reorder(layers.get(l), up, position);
+                }
+            } else {
+                for (int l = layerCount - 2; l >= 0; l--) {
+                    reorder(layers.get(l), down, position);
+                }
+            }
+        }
+
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int l = 0; l < layerCount; l++) {
+            List<Integer> layer = layers.get(l);
+            double offset = (layer.size() - 1) / 2.0;
+            for (int p = 0; p < layer.size(); p++) {
+                int node = layer.get(p);
+                x[node] = (p - offset) * NODE_SPACING;
+                y[node] = l * LAYER_SPACING;
+            }
+        }
+        return new Layout(x, y);
+    }
+
+    /**
+     * Sort a layer by the mean position of its neighbours in the adjacent layer
+     * Nodes without such neighbours keep their current position
+     */
+    private void reorder(List<Integer> layer, List<List<Integer>> neighbours, double[] position) {
+        double[] barycenter = new double[layer.size()];
+        IntStream indices = IntStream.range(0, layer.size());
+        if (layer.size() >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(p -> {
+            List<Integer> adjacent = neighbours.get(layer.get(p));
+            barycenter[p] = adjacent.isEmpty()
+                ? position[layer.get(p)]
+                : adjacent.stream().mapToDouble(a -> position[a]).average().orElse(0);
+        });
+
+        Integer[] order = new Integer[layer.size()];
+        for (int p = 0; p < order.length; p++) {
+            order[p] = p;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(p -> barycenter[p]).thenComparingInt(p -> p));
+
+        List<Integer> sorted = new ArrayList<>(layer.size());
+        for (int p = 0; p < order.length; p++) {
+            int node = layer.get(order[p]);
+            sorted.add(node);
+            position[node] = p;
+        }
+        layer.clear();
+        layer.addAll(sorted);
+    }
+
+    /**
+     * Reverse the back edges found by an iterative depth-first search
+     * @return Edges of the resulting acyclic graph, self-loops dropped
+     */
+    private List<int[]> removeCycles(LayoutGraph graph) {
+        int n = graph.size();
+        List<List<Integer>> adjacency = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            adjacency.add(new ArrayList<>());
+        }
+        for (int[] edge : graph.edges()) {
+            adjacency.get(edge[0]).add(edge[1]);
+        }
+
+        int[] state = new int[n]; // 0 = unvisited, 1 = on stack, 2 = done
+        Set<Long> backEdges = new HashSet<>();
+        for (int root = 0; root < n; root++) {
+            if (state[root] != 0) {
+                continue;
+            }
+            Deque<int[]> stack = new ArrayDeque<>(); // node, next child index
+            stack.push(new int[]{root, 0});
+            state[root] = 1;
+            while (!stack.isEmpty()) {
+                int[] frame = stack.peek();
+                List<Integer> children = adjacency.get(frame[0]);
+                if (frame[1] < children.size()) {
+                    int child = children.get(frame[1]++);
+                    if (state[child] == 1) {
+                        backEdges.add(edgeKey(frame[0], child));
+                    } else if (state[child] == 0) {
+                        state[child] = 1;
+                        stack.push(new int[]{child, 0});
+                    }
+                } else {
+                    state[frame[0]] = 2;
+                    stack.pop();
+                }
+            }
+        }
+
+        Set<Long> seen = new HashSet<>();
+        List<int[]> dagEdges = new ArrayList<>(graph.edges().size());
+        for (int[] edge : graph.edges()) {
+            if (edge[0] == edge[1]) {
+                continue;
+            }
+            int[] directed = backEdges.contains(edgeKey(edge[0], edge[1]))
+                ? new int[]{edge[1], edge[0]} : edge;
+            if (seen.add(edgeKey(directed[0], directed[1]))) {
+                dagEdges.add(directed);
+            }
+        }
+        return dagEdges;
+    }
+
+    /**
+     * Force-directed (Fruchterman-Reingold) layout
+     * Repulsion is approximated with a Barnes-Hut quadtree and computed in parallel
+     */
+    Layout forceDirected(LayoutGraph graph) {
+        int n = graph.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        if (n == 0) {
+            return new Layout(x, y);
+        }
+
+        double side = NODE_SPACING * Math.ceil(Math.sqrt(n));
+        double k = side / Math.sqrt(n);
+
+        // Deterministic start on a grid so that equal graphs get equal layouts
+        int columns = (int) Math.ceil(Math.sqrt(n));
+        for (int i = 0; i < n; i++) {
+            x[i] = (i % columns) * k;
+            y[i] = (i / columns) * k;
+        }
+
+        double temperature = side / 10;
+        double[] dx = new double[n];
+        double[] dy = new double[n];
+        for (int iteration = 0; iteration < FORCE_ITERATIONS; iteration++) {
+            Quad tree = Quad.build(x, y);
+
+            IntStream indices = IntStream.range(0, n);
+            if (n >= PARALLEL_THRESHOLD) {
+                indices = indices.parallel();
+            }
+            indices.forEach(i -> {
+                double[] force = new double[2];
+                tree.repulse(i, x[i], y[i], k * k, force);
+                dx[i] = force[0];
+                dy[i] = force[1];
+            });
+
+            for (int[] edge : graph.edges()) {
+                int s = edge[0];
+                int t = edge[1];
+                if (s == t) {
+                    continue;
+                }
+                double ddx = x[s] - x[t];
+                double ddy = y[s] - y[t];
+                double distance = Math.max(Math.hypot(ddx, ddy), 0.01);
+                double force = distance * distance / k;
+                dx[s] -= ddx / distance * force;
+                dy[s] -= ddy / distance * force;
+                dx[t] += ddx / distance * force;
+                dy[t] += ddy / distance * force;
+            }
+
+            for (int i = 0; i < n; i++) {
+                double length = Math.max(Math.hypot(dx[i], dy[i]), 0.01);
+                double step = Math.min(length, temperature);
+                x[i] += dx[i] / length * step;
+                y[i] += dy[i] / length * step;
+            }
+            temperature *= 0.95;
+        }
+        return new Layout(x, y);
+    }
+
+    /**
+     * Order-sensitive hash of the node ids and edges of a graph
+     */
+    static long graphHash(List<FlowGraphNode> nodes, List<FlowGraphEdge> edges, Algorithm algorithm) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, algorithm.name());
+        for (FlowGraphNode node : nodes) {
+            hash = mix(hash, node.getId());
+        }
+        hash = mix(hash, "|");
+        if (edges != null) {
+            for (FlowGraphEdge edge : edges) {
+                hash = mix(hash, edge.getSourceId());
+                hash = mix(hash, edge.getTargetId());
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        long result = hash;
+        String text = value != null ? value : "";
+        for (int i = 0; i < text.length(); i++) {
+            result ^= text.charAt(i);
+            result *= 0x100000001b3L;
+        }
+        result ^= 0xff;
+        return result * 0x100000001b3L;
+    }
+
+    private static long edgeKey(int source, int target) {
+        return ((long) source << 32) | (target & 0xffffffffL);
+    }
+
+    private static FlowGraphNode copyOf(FlowGraphNode node) {
+        FlowGraphNode copy = new FlowGraphNode(node.getId(), node.getName(), node.getNodeType(),
+            node.getLayer(), node.getFilePath(), node.getLineNumber(), node.getPackageName());
+        copy.setChildCount(node.getChildCount());
+        return copy;
+    }
+
+    /**
+     * Barnes-Hut quadtree cell; distant cells repel as a single body at their centre of mass
+     */
+    private static final class Quad {
+        private static final double THETA = 0.7; // Below 1/sqrt(2), so a cell never approximates a body inside it
+        private static final double MIN_SIZE = 1e-3;
+
+        final double size;
+        double massX;
+        double massY;
+        int mass;
+        int body = -1;
+        Quad[] children;
+
+        private Quad(double size) {
+            this.size = size;
+        }
+
+        static Quad build(double[] x, double[] y) {
+            double minX = Double.MAX_VALUE;
+            double minY = Double.MAX_VALUE;
+            double maxX = -Double.MAX_VALUE;
+            double maxY = -Double.MAX_VALUE;
+            for (int i = 0; i < x.length; i++) {
+                minX = Math.min(minX, x[i]);
+                minY = Math.min(minY, y[i]);
+                maxX = Math.max(maxX, x[i]);
+                maxY = Math.max(maxY, y[i]);
+            }
+            int[] all = IntStream.range(0, x.length).toArray();
+            return build(all, all.length, x, y, minX, minY, Math.max(maxX - minX, maxY - minY) + MIN_SIZE);
+        }
+
+        private static Quad build(int[] bodies, int count, double[] x, double[] y,
+                                  double left, double top, double size) {
+            Quad quad = new Quad(size);
+            for (int b = 0; b < count; b++) {
+                quad.massX += x[bodies[b]];
+                quad.massY += y[bodies[b]];
+            }
+            quad.mass = count;
+            quad.massX /= count;
+            quad.massY /= count;
+            if (count == 1 || size < MIN_SIZE) {
+                quad.body = bodies[0]; // Coincident bodies are merged into one leaf
+                return quad;
+            }
+
+            double half = size / 2;
+            int[][] split = new int[4][count];
+            int[] counts = new int[4];
+            for (int b = 0; b < count; b++) {
+                int body = bodies[b];
+                int q = (x[body] >= left + half ? 1 : 0) + (y[body] >= top + half ? 2 : 0);
+                split[q][counts[q]++] = body;
+            }
+            quad.children = new Quad[4];
+            for (int q = 0; q < 4; q++) {
+                if (counts[q] > 0) {
+                    quad.children[q] = build(split[q], counts[q], x, y,
+                        left + (q & 1) * half, top + (q >> 1) * half, half);
+                }
+            }
+            return quad;
+        }
+
+        void repulse(int i, double px, double py, double kSquared, double[] force) {
+            if (body == i && mass == 1) {
+                return;
+            }
+            double ddx = px - massX;
+            double ddy = py - massY;
+            double distance = Math.max(Math.hypot(ddx, ddy), 0.01);
+            if (children == null || size / distance < THETA) {
+                int others = body == i ? mass - 1 : mass;
+                double magnitude = kSquared * others / distance;
+                force[0] += ddx / distance * magnitude;
+                force[1] += ddy / distance * magnitude;
+                return;
+            }
+            for (Quad child : children) {
+                if (child != null) {
+                    child.repulse(i, px, py, kSquared, force);
+                }
+            }
+        }
+    }
+
+    /**
+     * Node coordinates, aligned with the node list they were computed for
+     */
+    record Layout(double[] x, double[] y) {
+    }
+
+    /**
+     * Graph over dense node indices; edges to unknown nodes are dropped
+     */
+    record LayoutGraph(int size, List<int[]> edges) {
+
+        static LayoutGraph of(List<FlowGraphNode> nodes, List<FlowGraphEdge> edges) {
+            Map<String, Integer> index = new HashMap<>();
+            for (int i = 0; i < nodes.size(); i++) {
+                index.putIfAbsent(nodes.get(i).getId(), i);
+            }
+            List<int[]> indexed = new ArrayList<>();
+            if (edges != null) {
+                for (FlowGraphEdge edge : edges) {
+                    Integer source = index.get(edge.getSourceId());
+                    Integer target = index.get(edge.getTargetId());
+                    if (source != null && target != null) {
+                        indexed.add(new int[]{source, target});
+                    }
+                }
+            }
+            return new LayoutGraph(nodes.size(), indexed);
+        }
+    }
+}
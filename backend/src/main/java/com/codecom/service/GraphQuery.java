@@ -0,0 +1,100 @@
+package com.codecom.service;
+
+import java.util.List;
+
+/**
+ * Abstract syntax tree of a knowledge graph query
+ * FR.39: Cross-Language Query Support
+ *
+ * Produced by {@link GraphQueryParser} and planned and executed by {@link GraphQueryEngine}.
+ */
+public sealed interface GraphQuery {
+
+    /**
+     * Node attributes that can be filtered on
+     */
+    enum Field {
+        TYPE("nodeType"),
+        NAME("name"),
+        PACKAGE("codePackage.name"),
+        FILE("file.path"),
+        LAYER("layer"),
+        PUBLIC("isPublic"),
+        STATIC("isStatic"),
+        ABSTRACT("isAbstract");
+
+        private final String property;
+
+        Field(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public boolean isFlag() {
+            return this == PUBLIC || this == STATIC || this == ABSTRACT;
+        }
+    }
+
+    /**
+     * Relationships that can be followed, seen from the node being matched
+     */
+    enum Relation {
+        CALLS("CALLS", false),        // Nodes that call the target
+        CALLED_BY("CALLS", true),     // Nodes called by the target
+        INHERITS("INHERITS", false),  // Nodes that inherit from the target
+        INHERITED_BY("INHERITS", true); // Nodes the target inherits from
+
+        private final String relationshipType;
+        private final boolean outgoing;
+
+        Relation(String relationshipType, boolean outgoing) {
+            this.relationshipType = relationshipType;
+            this.outgoing = outgoing;
+        }
+
+        public String getRelationshipType() {
+            return relationshipType;
+        }
+
+        /**
+         * @return true if matches are reached over edges leaving the target
+         */
+        public boolean isOutgoing() {
+            return outgoing;
+        }
+    }
+
+    /**
+     * Nodes matching every term
+     */
+    record And(List<GraphQuery> terms) implements GraphQuery {
+    }
+
+    /**
+     * Nodes matching at least one term
+     */
+    record Or(List<GraphQuery> terms) implements GraphQuery {
+    }
+
+    /**
+     * Nodes not matching the term
+     */
+    record Not(GraphQuery term) implements GraphQuery {
+    }
+
+    /**
+     * Nodes whose attribute matches a value. Names match as case-insensitive substrings,
+     * other text attributes match exactly unless the value contains a {@code *} wildcard.
+     */
+    record Attribute(Field field, String value) implements GraphQuery {
+    }
+
+    /**
+     * Nodes reaching a node of the target within 1 to maxHops steps of the relation
+     */
+    record Related(Relation relation, int maxHops, GraphQuery target) implements GraphQuery {
+    }
+}
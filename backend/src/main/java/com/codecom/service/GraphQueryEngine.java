@@ -0,0 +1,260 @@
+package com.codecom.service;
+
+import com.codecom.entity.CodeNode;
+import com.codecom.repository.CodeNodeRepository;
+import com.codecom.repository.CodeRelationshipRepository;
+import jakarta.persistence.criteria.Path;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Plans and executes parsed knowledge graph queries
+ * FR.39: Cross-Language Query Support
+ * NFR.4: Query Performance
+ *
+ * Attribute terms are never evaluated in memory: every AND/OR/NOT over attributes is
+ * folded into one JPA Specification so the database filters with its indexes. Relation
+ * terms are resolved by walking the relationship table one frontier at a time, or by the
+ * {@link ReachabilityIndex} when the hop count is unbounded, and only their id sets are
+ * kept. Results are hydrated lazily in id batches, so a caller that stops early never
+ * loads the remaining nodes.
+ */
+@Service
+public class GraphQueryEngine {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Sort ID_ORDER = Sort.by("id");
+
+    private final CodeNodeRepository nodeRepository;
+    private final CodeRelationshipRepository relationshipRepository;
+    private final ReachabilityIndex reachabilityIndex;
+
+    public GraphQueryEngine(CodeNodeRepository nodeRepository,
+                            CodeRelationshipRepository relationshipRepository,
+                            ReachabilityIndex reachabilityIndex) {
+        this.nodeRepository = nodeRepository;
+        this.relationshipRepository = relationshipRepository;
+        this.reachabilityIndex = reachabilityIndex;
+    }
+
+    /**
+     * Execute a query as a lazy stream of matching nodes in id order.
+     * The stream must be consumed inside a transaction and closed afterwards.
+     * @param projectId Project to query, or null for the whole workspace
+     */
+    public Stream<CodeNode> execute(Long projectId, GraphQuery query) {
+        return fetch(evaluate(query, projectId), projectId);
+    }
+
+    /**
+     * Nodes matching a filter and, when ids is not null, contained in ids
+     */
+    private record Candidates(Specification<CodeNode> filter, Set<Long> ids) {
+
+        static final Candidates NONE = new Candidates(null, Set.of());
+
+        boolean isEmpty() {
+            return ids != null && ids.isEmpty();
+        }
+    }
+
+    // Relationships never cross projects, so only the nodes fetched from the database
+    // need the project filter: every id set derived from them stays in the project
+    private Candidates evaluate(GraphQuery query, Long projectId) {
+        return switch (query) {
+            case GraphQuery.Attribute attribute -> new Candidates(toSpecification(attribute), null);
+            case GraphQuery.Related related -> new Candidates(null, traverse(related.relation(), related.maxHops(),
+                materialize(evaluate(related.target(), projectId), projectId), projectId));
+            case GraphQuery.And and -> evaluateAnd(and.terms(), projectId);
+            case GraphQuery.Or or -> evaluateOr(or.terms(), projectId);
+            case GraphQuery.Not not -> evaluateNot(not.term(), projectId);
+        };
+    }
+
+    private Candidates evaluateAnd(List<GraphQuery> terms, Long projectId) {
+        // Pushed-down terms cost nothing to plan, then walk the shortest relations first
+        // so an empty intersection skips the expensive ones
+        List<GraphQuery> ordered = new ArrayList<>(terms);
+        ordered.sort(Comparator.comparingInt(GraphQueryEngine::planningCost));
+
+        List<Specification<CodeNode>> filters = new ArrayList<>();
+        Set<Long> ids = null;
+        for (GraphQuery term : ordered) {
+            Candidates candidates = evaluate(term, projectId);
+            if (candidates.filter() != null) {
+                filters.add(candidates.filter());
+            }
+            if (candidates.ids() != null) {
+                if (ids == null) {
+                    ids = new HashSet<>(candidates.ids());
+                } else {
+                    ids.retainAll(candidates.ids());
+                }
+                if (ids.isEmpty()) {
+                    return Candidates.NONE;
+                }
+            }
+        }
+        return new Candidates(filters.isEmpty() ? null : Specification.allOf(filters), ids);
+    }
+
+    private Candidates evaluateOr(List<GraphQuery> terms, Long projectId) {
+        List<Candidates> branches = terms.stream().map(term -> evaluate(term, projectId)).toList();
+        if (branches.stream().allMatch(branch -> branch.ids() == null)) {
+            return new Candidates(Specification.anyOf(branches.stream().map(Candidates::filter).toList()), null);
+        }
+        Set<Long> ids = new HashSet<>();
+        branches.forEach(branch -> ids.addAll(materialize(branch, projectId)));
+        return new Candidates(null, ids);
+    }
+
+    private Candidates evaluateNot(GraphQuery term, Long projectId) {
+        Candidates candidates = evaluate(term, projectId);
+        if (candidates.ids() == null) {
+            return new Candidates(Specification.not(candidates.filter()), null);
+        }
+        List<Specification<CodeNode>> excluded = new ArrayList<>();
+        for (List<Long> batch : partition(materialize(candidates, projectId))) {
+            excluded.add(Specification.not(idIn(batch)));
+        }
+        return new Candidates(excluded.isEmpty() ? Specification.unrestricted() : Specification.allOf(excluded), null);
+    }
+
+    private static int planningCost(GraphQuery query) {
+        return switch (query) {
+            case GraphQuery.Attribute attribute -> 0;
+            case GraphQuery.Related related -> related.maxHops() == 1 ? 2 : 3;
+            default -> 1;
+        };
+    }
+
+    /**
+     * Collect the nodes reachable from the seeds in 1 to maxHops steps of a relation
+     */
+    private Set<Long> traverse(GraphQuery.Relation relation, int maxHops, Set<Long> seeds, Long projectId) {
+        if (maxHops == Integer.MAX_VALUE) {
+            return relation.isOutgoing()
+                ? reachabilityIndex.descendants(projectId, relation.getRelationshipType(), seeds)
+                : reachabilityIndex.ancestors(projectId, relation.getRelationshipType(), seeds);
+        }
+        Set<Long> reached = new HashSet<>();
+        Set<Long> expanded = new HashSet<>(seeds);
+        List<Long> frontier = new ArrayList<>(seeds);
+
+        for (int hop = 0; hop < maxHops && !frontier.isEmpty(); hop++) {
+            List<Long> next = new ArrayList<>();
+            for (List<Long> batch : partition(frontier)) {
+                List<Long> neighbours = relation.isOutgoing()
+                    ? relationshipRepository.findTargetIds(batch, relation.getRelationshipType())
+                    : relationshipRepository.findSourceIds(batch, relation.getRelationshipType());
+                for (Long neighbour : neighbours) {
+                    reached.add(neighbour);
+                    if (expanded.add(neighbour)) {
+                        next.add(neighbour);
+                    }
+                }
+            }
+            frontier = next;
+        }
+        return reached;
+    }
+
+    private Set<Long> materialize(Candidates candidates, Long projectId) {
+        if (candidates.filter() == null) {
+            return candidates.ids();
+        }
+        Set<Long> ids = new HashSet<>();
+        try (Stream<CodeNode> nodes = fetch(candidates, projectId)) {
+            nodes.forEach(node -> ids.add(node.getId()));
+        }
+        return ids;
+    }
+
+    private Stream<CodeNode> fetch(Candidates candidates, Long projectId) {
+        if (candidates.isEmpty()) {
+            return Stream.empty();
+        }
+        if (candidates.ids() == null) {
+            Specification<CodeNode> filter = projectId == null
+                ? candidates.filter()
+                : candidates.filter().and(inProject(projectId));
+            return nodeRepository.findBy(filter, query -> query.sortBy(ID_ORDER).stream());
+        }
+        List<Long> sortedIds = new ArrayList<>(candidates.ids());
+        Collections.sort(sortedIds);
+        return partition(sortedIds).stream().flatMap(batch -> {
+            Specification<CodeNode> filter = idIn(batch);
+            if (candidates.filter() != null) {
+                filter = filter.and(candidates.filter());
+            }
+            return nodeRepository.findAll(filter, ID_ORDER).stream();
+        });
+    }
+
+    private static Specification<CodeNode> toSpecification(GraphQuery.Attribute attribute) {
+        GraphQuery.Field field = attribute.field();
+        String value = attribute.value();
+        return (root, query, cb) -> {
+            if (field.isFlag()) {
+                Path<Boolean> flag = root.get(field.getProperty());
+                return Boolean.parseBoolean(value) ? cb.isTrue(flag) : cb.or(cb.isFalse(flag), flag.isNull());
+            }
+            Path<String> path = attributePath(root, field.getProperty());
+            if (field == GraphQuery.Field.NAME) {
+                return cb.like(cb.lower(path), "%" + toLikePattern(value.toLowerCase(Locale.ROOT)) + "%", '\\');
+            }
+            if (value.indexOf('*') >= 0) {
+                return cb.like(path, toLikePattern(value), '\\');
+            }
+            return cb.equal(path, value);
+        };
+    }
+
+    /**
+     * Resolve a dotted property, joining the file and package dictionaries where needed
+     */
+    private static <T> Path<T> attributePath(Path<?> root, String property) {
+        String[] parts = property.split("\\.");
+        Path<?> path = root;
+        for (int i = 0; i < parts.length - 1; i++) {
+            path = path.get(parts[i]);
+        }
+        return path.get(parts[parts.length - 1]);
+    }
+
+    /**
+     * Escape LIKE metacharacters and turn the query wildcard into %
+     */
+    private static String toLikePattern(String value) {
+        StringBuilder pattern = new StringBuilder(value.length() + 8);
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '*' -> pattern.append('%');
+                case '%', '_', '\\' -> pattern.append('\\').append(c);
+                default -> pattern.append(c);
+            }
+        }
+        return pattern.toString();
+    }
+
+    private static Specification<CodeNode> inProject(Long projectId) {
+        return (root, query, cb) -> cb.equal(root.get("projectId"), projectId);
+    }
+
+    private static Specification<CodeNode> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    private static List<List<Long>> partition(Collection<Long> ids) {
+        List<Long> list = ids instanceof List<Long> l ? l : new ArrayList<>(ids);
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += BATCH_SIZE) {
+            batches.add(list.subList(i, Math.min(i + BATCH_SIZE, list.size())));
+        }
+        return batches;
+    }
+}
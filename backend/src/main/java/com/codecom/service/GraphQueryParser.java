@@ -0,0 +1,263 @@
+package com.codecom.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recursive descent parser for knowledge graph queries
+ * FR.39: Cross-Language Query Support
+ *
+ * Grammar:
+ * <pre>
+ * query   := or
+ * or      := and ("OR" and)*
+ * and     := unary (["AND"] unary)*
+ * unary   := ("NOT" | "-") unary | "(" or ")" | term
+ * term    := key ["*" [hops]] ":" value | word
+ * value   := "(" or ")" | "quoted text" | word
+ * </pre>
+ *
+ * Examples:
+ * - "calls:save" - Nodes that call a node named like save
+ * - "type:CLASS public:true" - Public classes
+ * - "layer:SERVICE_JAVA calledby*:(name:UserController type:CLASS)" - Services transitively called by UserController
+ * - "type:METHOD (name:get OR name:find) -package:com.legacy" - Getters and finders outside a package
+ *
+ * A bare word is a name search, relation keys take an optional hop limit and a plain
+ * relation value is matched against node names.
+ */
+public final class GraphQueryParser {
+
+    private final String input;
+    private int pos;
+
+    private GraphQueryParser(String input) {
+        this.input = input;
+    }
+
+    /**
+     * Parse a query into its syntax tree
+     * @throws IllegalArgumentException if the query is blank or malformed
+     */
+    public static GraphQuery parse(String query) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query must not be empty");
+        }
+        GraphQueryParser parser = new GraphQueryParser(query);
+        GraphQuery result = parser.parseOr();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw parser.error("Unexpected '" + parser.input.charAt(parser.pos) + "'");
+        }
+        return result;
+    }
+
+    private GraphQuery parseOr() {
+        List<GraphQuery> terms = new ArrayList<>();
+        terms.add(parseAnd());
+        while (acceptKeyword("OR")) {
+            terms.add(parseAnd());
+        }
+        return terms.size() == 1 ? terms.get(0) : new GraphQuery.Or(terms);
+    }
+
+    private GraphQuery parseAnd() {
+        List<GraphQuery> terms = new ArrayList<>();
+        terms.add(parseUnary());
+        while (true) {
+            skipWhitespace();
+            if (atEnd() || peek() == ')' || peekKeyword("OR")) {
+                break;
+            }
+            acceptKeyword("AND");
+            terms.add(parseUnary());
+        }
+        return terms.size() == 1 ? terms.get(0) : new GraphQuery.And(terms);
+    }
+
+    private GraphQuery parseUnary() {
+        skipWhitespace();
+        if (atEnd()) {
+            throw error("Expected a term");
+        }
+        if (acceptKeyword("NOT")) {
+            return new GraphQuery.Not(parseUnary());
+        }
+        if (peek() == '-') {
+            pos++;
+            return new GraphQuery.Not(parseUnary());
+        }
+        if (peek() == '(') {
+            return parseGroup();
+        }
+        return parseTerm();
+    }
+
+    private GraphQuery parseGroup() {
+        pos++; // (
+        GraphQuery inner = parseOr();
+        skipWhitespace();
+        if (atEnd() || peek() != ')') {
+            throw error("Missing ')'");
+        }
+        pos++;
+        return inner;
+    }
+
+    private GraphQuery parseTerm() {
+        int start = pos;
+        String word = readWord();
+        if (word.isEmpty()) {
+            throw error("Expected a term");
+        }
+        int colon = word.indexOf(':');
+        if (colon < 0) {
+            return new GraphQuery.Attribute(GraphQuery.Field.NAME, word);
+        }
+
+        String key = word.substring(0, colon).toLowerCase(Locale.ROOT);
+        String rest = word.substring(colon + 1);
+        int hops = 1;
+        int star = key.indexOf('*');
+        if (star >= 0) {
+            hops = parseHops(key.substring(star + 1), start);
+            key = key.substring(0, star);
+        }
+
+        GraphQuery.Relation relation = relationOf(key);
+        if (relation != null) {
+            return new GraphQuery.Related(relation, hops, parseRelationTarget(rest));
+        }
+        if (star >= 0) {
+            throw error("Hop limit is only allowed on relations: " + key, start);
+        }
+        GraphQuery.Field field = fieldOf(key, start);
+        return attribute(field, rest.isEmpty() ? readValue() : rest, start);
+    }
+
+    private GraphQuery parseRelationTarget(String rest) {
+        if (!rest.isEmpty()) {
+            return new GraphQuery.Attribute(GraphQuery.Field.NAME, rest);
+        }
+        if (!atEnd() && peek() == '(') {
+            return parseGroup();
+        }
+        return new GraphQuery.Attribute(GraphQuery.Field.NAME, readValue());
+    }
+
+    private GraphQuery attribute(GraphQuery.Field field, String value, int start) {
+        if (field.isFlag()) {
+            String flag = value.toLowerCase(Locale.ROOT);
+            if (!flag.equals("true") && !flag.equals("false")) {
+                throw error(field.name().toLowerCase(Locale.ROOT) + " must be true or false", start);
+            }
+            return new GraphQuery.Attribute(field, flag);
+        }
+        if (field == GraphQuery.Field.TYPE || field == GraphQuery.Field.LAYER) {
+            value = value.toUpperCase(Locale.ROOT);
+        }
+        return new GraphQuery.Attribute(field, value);
+    }
+
+    private int parseHops(String digits, int start) {
+        if (digits.isEmpty()) {
+            return Integer.MAX_VALUE;
+        }
+        try {
+            int hops = Integer.parseInt(digits);
+            if (hops >= 1) {
+                return hops;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw error("Invalid hop limit: " + digits, start);
+    }
+
+    private static GraphQuery.Relation relationOf(String key) {
+        return switch (key) {
+            case "calls" -> GraphQuery.Relation.CALLS;
+            case "calledby" -> GraphQuery.Relation.CALLED_BY;
+            case "inherits" -> GraphQuery.Relation.INHERITS;
+            case "inheritedby" -> GraphQuery.Relation.INHERITED_BY;
+            default -> null;
+        };
+    }
+
+    private GraphQuery.Field fieldOf(String key, int start) {
+        try {
+            return GraphQuery.Field.valueOf(key.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw error("Unknown query key: " + key, start);
+        }
+    }
+
+    /**
+     * Read the value following "key:", which is either quoted text or a word
+     */
+    private String readValue() {
+        if (atEnd() || Character.isWhitespace(peek())) {
+            throw error("Expected a value");
+        }
+        if (peek() != '"') {
+            return readWord();
+        }
+        int close = input.indexOf('"', pos + 1);
+        if (close < 0) {
+            throw error("Unterminated quote");
+        }
+        String value = input.substring(pos + 1, close);
+        pos = close + 1;
+        return value;
+    }
+
+    private String readWord() {
+        int start = pos;
+        while (!atEnd()) {
+            char c = peek();
+            if (Character.isWhitespace(c) || c == '(' || c == ')' || c == '"') {
+                break;
+            }
+            pos++;
+        }
+        return input.substring(start, pos);
+    }
+
+    private boolean peekKeyword(String keyword) {
+        int end = pos + keyword.length();
+        return input.startsWith(keyword, pos)
+            && (end == input.length() || Character.isWhitespace(input.charAt(end)) || input.charAt(end) == '(');
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        skipWhitespace();
+        if (peekKeyword(keyword)) {
+            pos += keyword.length();
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (!atEnd() && Character.isWhitespace(peek())) {
+            pos++;
+        }
+    }
+
+    private boolean atEnd() {
+        return pos >= input.length();
+    }
+
+    private char peek() {
+        return input.charAt(pos);
+    }
+
+    private IllegalArgumentException error(String message) {
+        return error(message, pos);
+    }
+
+    private IllegalArgumentException error(String message, int at) {
+        return new IllegalArgumentException(message + " at position " + at + " in query: " + input);
+    }
+}
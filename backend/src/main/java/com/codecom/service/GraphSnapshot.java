@@ -0,0 +1,361 @@
+package com.codecom.service;
+
+import com.codecom.entity.CodeNode;
+import com.codecom.repository.CodeNodeRepository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Versioned binary snapshot of the knowledge graph
+ * FR.38: Relationship Graph Database
+ *
+ * Layout (big-endian): magic, version and fingerprint; an interned UTF-8 string
+ * table; one column per node attribute, holding string table indexes (-1 for null);
+ * and for every relationship type the compressed sparse rows of its
+ * {@link RelationshipGraph}. The file is memory-mapped on read and columns are
+ * copied out with bulk gets, so loading costs little more than the disk read.
+ */
+public final class GraphSnapshot {
+
+    static final int MAGIC = 0x43434753; // "CCGS"
+    static final int VERSION = 1;
+
+    private static final int NO_STRING = -1;
+    private static final int PUBLIC = 1;
+    private static final int STATIC = 1 << 2;
+    private static final int ABSTRACT = 1 << 4;
+    private static final int KNOWN = 2;     // Shifted with the flag: the Boolean was not null
+
+    private final Fingerprint fingerprint;
+    private final ByteBuffer stringBytes;
+    private final int[] stringOffsets;
+    private final long[] nodeIds;
+    private final int[] names;
+    private final int[] nodeTypes;
+    private final int[] filePaths;
+    private final int[] lineNumbers;
+    private final int[] packageNames;
+    private final int[] signatures;
+    private final int[] documentation;
+    private final int[] layers;
+    private final byte[] flags;
+    private final Map<String, RelationshipGraph> graphs = new LinkedHashMap<>();
+
+    /**
+     * Node count, relationship count and highest ids of the database the snapshot was
+     * taken from; every re-index changes at least the ids
+     */
+    public record Fingerprint(long nodeCount, long relationshipCount, long maxNodeId, long maxRelationshipId) {
+    }
+
+    private GraphSnapshot(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a graph snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported graph snapshot version " + version);
+        }
+        fingerprint = new Fingerprint(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+
+        stringOffsets = readInts(buffer, buffer.getInt() + 1);
+        int byteLength = stringOffsets[stringOffsets.length - 1];
+        stringBytes = buffer.slice(buffer.position(), byteLength);
+        buffer.position(buffer.position() + byteLength);
+
+        int count = buffer.getInt();
+        nodeIds = readLongs(buffer, count);
+        names = readInts(buffer, count);
+        nodeTypes = readInts(buffer, count);
+        filePaths = readInts(buffer, count);
+        lineNumbers = readInts(buffer, count);
+        packageNames = readInts(buffer, count);
+        signatures = readInts(buffer, count);
+        documentation = readInts(buffer, count);
+        layers = readInts(buffer, count);
+        flags = new byte[count];
+        buffer.get(flags);
+
+        int typeCount = buffer.getInt();
+        for (int t = 0; t < typeCount; t++) {
+            String type = string(buffer.getInt());
+            int graphNodes = buffer.getInt();
+            int edges = buffer.getInt();
+            long[] ids = readLongs(buffer, graphNodes);
+            int[] offsets = readInts(buffer, graphNodes + 1);
+            int[] targets = readInts(buffer, edges);
+            int[] reverseOffsets = readInts(buffer, graphNodes + 1);
+            int[] sources = readInts(buffer, edges);
+            graphs.put(type, RelationshipGraph.fromCsr(ids, offsets, targets, reverseOffsets, sources));
+        }
+    }
+
+    /**
+     * Memory-map and decode a snapshot file
+     * @throws IOException if the file is unreadable, truncated or of another format version
+     */
+    public static GraphSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GraphSnapshot(buffer);
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt graph snapshot " + file, e);
+        }
+    }
+
+    /**
+     * Write a snapshot to a temporary file and move it over the target, so readers never
+     * see a partial file
+     * @param nodes All nodes, in id order
+     * @param graphs Adjacency per relationship type
+     */
+    public static void write(Path file, Fingerprint fingerprint, List<CodeNode> nodes,
+                             Map<String, RelationshipGraph> graphs) throws IOException {
+        StringTable strings = new StringTable();
+        int count = nodes.size();
+        int[][] columns = new int[8][count];
+        byte[] nodeFlags = new byte[count];
+        for (int i = 0; i < count; i++) {
+            CodeNode node = nodes.get(i);
+            columns[0][i] = strings.intern(node.getName());
+            columns[1][i] = strings.intern(node.getNodeType());
+            columns[2][i] = strings.intern(node.getFilePath());
+            columns[3][i] = node.getLineNumber() != null ? node.getLineNumber() : 0;
+            columns[4][i] = strings.intern(node.getPackageName());
+            columns[5][i] = strings.intern(node.getSignature());
+            columns[6][i] = strings.intern(node.getDocumentation());
+            columns[7][i] = strings.intern(node.getLayer());
+            nodeFlags[i] = (byte) (flag(node.getIsPublic(), PUBLIC) | flag(node.getIsStatic(), STATIC)
+                | flag(node.getIsAbstract(), ABSTRACT));
+        }
+        int[] typeIndexes = graphs.keySet().stream().mapToInt(strings::intern).toArray();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fingerprint.nodeCount());
+            out.writeLong(fingerprint.relationshipCount());
+            out.writeLong(fingerprint.maxNodeId());
+            out.writeLong(fingerprint.maxRelationshipId());
+
+            strings.writeTo(out);
+
+            out.writeInt(count);
+            for (CodeNode node : nodes) {
+                out.writeLong(node.getId());
+            }
+            for (int[] column : columns) {
+                writeInts(out, column, column.length);
+            }
+            out.write(nodeFlags);
+
+            out.writeInt(graphs.size());
+            int t = 0;
+            for (RelationshipGraph graph : graphs.values()) {
+                int graphNodes = graph.nodeCount();
+                out.writeInt(typeIndexes[t++]);
+                out.writeInt(graphNodes);
+                out.writeInt(graph.edgeCount());
+                for (int node = 0; node < graphNodes; node++) {
+                    out.writeLong(graph.nodeId(node));
+                }
+                for (int node = 0; node < graphNodes; node++) {
+                    out.writeInt(graph.outStart(node));
+                }
+                out.writeInt(graph.edgeCount());
+                writeInts(out, graph.targets(), graph.edgeCount());
+                for (int node = 0; node < graphNodes; node++) {
+                    out.writeInt(graph.inStart(node));
+                }
+                out.writeInt(graph.edgeCount());
+                writeInts(out, graph.sources(), graph.edgeCount());
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Fingerprint fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Adjacency per relationship type
+     */
+    public Map<String, RelationshipGraph> graphs() {
+        return Collections.unmodifiableMap(graphs);
+    }
+
+    public int nodeCount() {
+        return nodeIds.length;
+    }
+
+    public long nodeId(int index) {
+        return nodeIds[index];
+    }
+
+    public String name(int index) {
+        return string(names[index]);
+    }
+
+    public String nodeType(int index) {
+        return string(nodeTypes[index]);
+    }
+
+    public String filePath(int index) {
+        return string(filePaths[index]);
+    }
+
+    public int lineNumber(int index) {
+        return lineNumbers[index];
+    }
+
+    public String packageName(int index) {
+        return string(packageNames[index]);
+    }
+
+    public String signature(int index) {
+        return string(signatures[index]);
+    }
+
+    public String documentation(int index) {
+        return string(documentation[index]);
+    }
+
+    public String layer(int index) {
+        return string(layers[index]);
+    }
+
+    public Boolean isPublic(int index) {
+        return flag(flags[index], PUBLIC);
+    }
+
+    public Boolean isStatic(int index) {
+        return flag(flags[index], STATIC);
+    }
+
+    public Boolean isAbstract(int index) {
+        return flag(flags[index], ABSTRACT);
+    }
+
+    /**
+     * The text indexed for full-text search, in node id order
+     */
+    public List<CodeNodeRepository.SearchDocument> searchDocuments() {
+        List<CodeNodeRepository.SearchDocument> documents = new ArrayList<>(nodeIds.length);
+        for (int i = 0; i < nodeIds.length; i++) {
+            documents.add(new SnapshotDocument(nodeIds[i], name(i), signature(i), documentation(i)));
+        }
+        return documents;
+    }
+
+    private record SnapshotDocument(Long id, String name, String signature, String documentation)
+            implements CodeNodeRepository.SearchDocument {
+        @Override
+        public Long getId() {
+            return id;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getSignature() {
+            return signature;
+        }
+
+        @Override
+        public String getDocumentation() {
+            return documentation;
+        }
+    }
+
+    private String string(int index) {
+        if (index == NO_STRING) {
+            return null;
+        }
+        int start = stringOffsets[index];
+        byte[] bytes = new byte[stringOffsets[index + 1] - start];
+        stringBytes.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int flag(Boolean value, int bit) {
+        if (value == null) {
+            return 0;
+        }
+        return (value ? bit : 0) | bit * KNOWN;
+    }
+
+    private static Boolean flag(byte flags, int bit) {
+        if ((flags & bit * KNOWN) == 0) {
+            return null;
+        }
+        return (flags & bit) != 0;
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static long[] readLongs(ByteBuffer buffer, int count) {
+        long[] values = new long[count];
+        buffer.asLongBuffer().get(values);
+        buffer.position(buffer.position() + count * Long.BYTES);
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.writeInt(values[i]);
+        }
+    }
+
+    /**
+     * Interned strings in first-use order
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+
+        int intern(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            return indexes.computeIfAbsent(value, v -> {
+                encoded.add(v.getBytes(StandardCharsets.UTF_8));
+                return encoded.size() - 1;
+            });
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(encoded.size());
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] bytes : encoded) {
+                offset += bytes.length;
+                out.writeInt(offset);
+            }
+            for (byte[] bytes : encoded) {
+                out.write(bytes);
+            }
+        }
+    }
+}
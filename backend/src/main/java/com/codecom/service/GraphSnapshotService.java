@@ -0,0 +1,143 @@
+package com.codecom.service;
+
+import com.codecom.entity.CodeProject;
+import com.codecom.repository.CodeNodeRepository;
+import com.codecom.repository.CodeProjectRepository;
+import com.codecom.repository.CodeRelationshipRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps a {@link GraphSnapshot} of every indexed project next to the database
+ * FR.38: Relationship Graph Database
+ *
+ * A project's snapshot is rewritten after every re-index of that project. At startup
+ * each snapshot is memory-mapped and, if it still matches the project in the database,
+ * fills the project's adjacency cache and full-text index so the first queries do not
+ * have to scan the relationship and node tables.
+ */
+@Service
+public class GraphSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(GraphSnapshotService.class);
+
+    private final CodeNodeRepository nodeRepository;
+    private final CodeRelationshipRepository relationshipRepository;
+    private final CodeProjectRepository projectRepository;
+    private final RelationshipGraphCache graphCache;
+    private final SymbolSearchIndex searchIndex;
+    private final Path snapshotDir;
+
+    public GraphSnapshotService(CodeNodeRepository nodeRepository,
+                                CodeRelationshipRepository relationshipRepository,
+                                CodeProjectRepository projectRepository,
+                                RelationshipGraphCache graphCache,
+                                SymbolSearchIndex searchIndex,
+                                @Value("${codecom.snapshot.dir:./data/snapshots}") String snapshotDir) {
+        this.nodeRepository = nodeRepository;
+        this.relationshipRepository = relationshipRepository;
+        this.projectRepository = projectRepository;
+        this.graphCache = graphCache;
+        this.searchIndex = searchIndex;
+        this.snapshotDir = Path.of(snapshotDir);
+    }
+
+    /**
+     * Write a fresh snapshot of the project once its re-index has been committed; a
+     * failed re-index only drops the stale snapshot
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphIndexed(GraphIndexedEvent event) {
+        if (!event.complete()) {
+            delete(event.projectId());
+        } else if (event.projectId() != null) {
+            write(event.projectId());
+        } else {
+            projectRepository.findAll().forEach(project -> write(project.getId()));
+        }
+    }
+
+    /**
+     * Warm the caches of every project whose snapshot was taken from the current database
+     * @return number of projects loaded from a snapshot
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int loadOnStartup() {
+        int loaded = 0;
+        for (CodeProject project : projectRepository.findAll()) {
+            if (load(project.getId())) {
+                loaded++;
+            }
+        }
+        return loaded;
+    }
+
+    Path snapshotPath(Long projectId) {
+        return snapshotDir.resolve("project-" + projectId + ".snapshot");
+    }
+
+    private void write(Long projectId) {
+        Path snapshotPath = snapshotPath(projectId);
+        try {
+            Files.createDirectories(snapshotDir);
+            Map<String, RelationshipGraph> graphs = new LinkedHashMap<>();
+            for (String type : relationshipRepository.findRelationshipTypesByProjectId(projectId)) {
+                graphs.put(type, RelationshipGraph.of(relationshipRepository.findEdgesByProjectIdAndType(projectId, type)));
+            }
+            GraphSnapshot.write(snapshotPath, currentFingerprint(projectId),
+                nodeRepository.findByProjectId(projectId, Sort.by("id")), graphs);
+        } catch (IOException e) {
+            log.warn("Could not write graph snapshot {}", snapshotPath, e);
+        }
+    }
+
+    private void delete(Long projectId) {
+        Path snapshotPath = snapshotPath(projectId);
+        try {
+            Files.deleteIfExists(snapshotPath);
+        } catch (IOException e) {
+            log.warn("Could not delete graph snapshot {}", snapshotPath, e);
+        }
+    }
+
+    private boolean load(Long projectId) {
+        Path snapshotPath = snapshotPath(projectId);
+        if (!Files.isRegularFile(snapshotPath)) {
+            return false;
+        }
+        try {
+            GraphSnapshot snapshot = GraphSnapshot.read(snapshotPath);
+            if (!snapshot.fingerprint().equals(currentFingerprint(projectId))) {
+                log.info("Graph snapshot {} is out of date, ignoring it", snapshotPath);
+                return false;
+            }
+            graphCache.preload(projectId, snapshot.graphs());
+            searchIndex.preload(projectId, snapshot.searchDocuments());
+            log.info("Loaded graph snapshot of project {} with {} nodes", projectId, snapshot.nodeCount());
+            return true;
+        } catch (IOException e) {
+            log.warn("Could not read graph snapshot {}", snapshotPath, e);
+            return false;
+        }
+    }
+
+    private GraphSnapshot.Fingerprint currentFingerprint(Long projectId) {
+        Long maxNodeId = nodeRepository.findMaxIdByProjectId(projectId);
+        Long maxRelationshipId = relationshipRepository.findMaxIdByProjectId(projectId);
+        return new GraphSnapshot.Fingerprint(nodeRepository.countByProjectId(projectId),
+            relationshipRepository.countByProjectId(projectId),
+            maxNodeId != null ? maxNodeId : 0, maxRelationshipId != null ? maxRelationshipId : 0);
+    }
+}
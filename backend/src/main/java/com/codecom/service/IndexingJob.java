@@ -0,0 +1,207 @@
+package com.codecom.service;
+
+import com.codecom.dto.IndexingProgress;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Progress and cancellation flag of one run of {@link KnowledgeGraphService#indexProject}
+ * FR.38: Relationship Graph Database
+ *
+ * Counters are written by the indexing thread and read by request threads. Listeners
+ * are told about every committed batch and state change, in order.
+ */
+public class IndexingJob {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long projectId;
+    private final String projectName;
+    private final String rootPath;
+    private final Instant submittedAt = Instant.now();
+    private final AtomicInteger filesParsed = new AtomicInteger();
+    private final AtomicInteger filesLinked = new AtomicInteger();
+    private final AtomicLong nodesWritten = new AtomicLong();
+    private final AtomicLong relationshipsWritten = new AtomicLong();
+    private final List<Consumer<IndexingProgress>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile State state = State.QUEUED;
+    private volatile String phase;
+    private volatile int filesTotal;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+    private boolean replacing; // guarded by this
+
+    public IndexingJob(Long projectId, String projectName, String rootPath) {
+        this.projectId = projectId;
+        this.projectName = projectName;
+        this.rootPath = rootPath;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getProjectId() {
+        return projectId;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public String getRootPath() {
+        return rootPath;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    /**
+     * Ask the job to stop before it starts replacing the graph of its project
+     * @return false if the job is already replacing the graph and will run to the end
+     */
+    public synchronized boolean cancel() {
+        if (replacing && !isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        return true;
+    }
+
+    /**
+     * Snapshot of the counters
+     */
+    public IndexingProgress progress() {
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+        int parsed = filesParsed.get();
+        int linked = filesLinked.get();
+        double filesPerSecond = 0;
+        if (started != null) {
+            long millis = Duration.between(started, finished != null ? finished : Instant.now()).toMillis();
+            filesPerSecond = millis > 0 ? (parsed + linked) * 1000.0 / millis : 0;
+        }
+        return new IndexingProgress(id, projectId, projectName, rootPath, state.name(), phase, filesTotal,
+            parsed, linked, nodesWritten.get(), relationshipsWritten.get(), filesPerSecond, submittedAt, started,
+            finished, error);
+    }
+
+    /**
+     * Register a listener and send it the current progress right away
+     */
+    public synchronized void addListener(Consumer<IndexingProgress> listener) {
+        if (!isFinished()) {
+            listeners.add(listener);
+        }
+        deliver(listener, progress());
+    }
+
+    public void removeListener(Consumer<IndexingProgress> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * @throws CancellationException if the job has been cancelled
+     */
+    void checkCancelled() {
+        if (cancelRequested) {
+            throw new CancellationException("Indexing of " + rootPath + " cancelled");
+        }
+    }
+
+    /**
+     * Last point at which the job can be cancelled; after it the old graph is cleared
+     * @throws CancellationException if the job has been cancelled
+     */
+    synchronized void startReplacing() {
+        checkCancelled();
+        replacing = true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void started() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+        notifyListeners();
+    }
+
+    void phase(String name) {
+        phase = name;
+        notifyListeners();
+    }
+
+    void filesFound(int count) {
+        filesTotal = count;
+    }
+
+    void nodeWritten() {
+        nodesWritten.incrementAndGet();
+    }
+
+    void relationshipWritten() {
+        relationshipsWritten.incrementAndGet();
+    }
+
+    void fileParsed() {
+        filesParsed.incrementAndGet();
+    }
+
+    void fileLinked() {
+        filesLinked.incrementAndGet();
+    }
+
+    void batchCommitted() {
+        notifyListeners();
+    }
+
+    void finished(State finalState, String message) {
+        error = message;
+        state = finalState;
+        finishedAt = Instant.now();
+        notifyListeners();
+        listeners.clear();
+    }
+
+    private synchronized void notifyListeners() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        IndexingProgress current = progress();
+        listeners.forEach(listener -> deliver(listener, current));
+    }
+
+    /**
+     * A listener that fails, such as a closed event stream, is dropped
+     */
+    private void deliver(Consumer<IndexingProgress> listener, IndexingProgress current) {
+        try {
+            listener.accept(current);
+        } catch (RuntimeException e) {
+            listeners.remove(listener);
+        }
+    }
+}
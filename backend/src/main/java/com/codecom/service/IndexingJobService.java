@@ -0,0 +1,159 @@
+package com.codecom.service;
+
+import com.codecom.dto.IndexingProgress;
+import com.codecom.entity.CodeProject;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs knowledge graph indexing as background jobs
+ * FR.38: Relationship Graph Database
+ *
+ * Jobs of different projects run in parallel on a small pool of virtual indexer threads.
+ * Jobs of the same project run one at a time, in the order they were submitted, since
+ * each run rebuilds that project's graph. The most recent finished jobs are kept so their
+ * final progress can still be read.
+ */
+@Service
+public class IndexingJobService {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexingJobService.class);
+    private static final int MAX_FINISHED_JOBS = 20;
+    private static final int INDEXER_THREADS = 4;
+
+    private final KnowledgeGraphService knowledgeGraphService;
+    private final Map<String, IndexingJob> jobs = new ConcurrentHashMap<>();
+    // Last queued run of each project; the next job of the project is chained onto it
+    private final Map<Long, CompletableFuture<Void>> projectQueues = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(INDEXER_THREADS,
+        Thread.ofVirtual().name("codecom-indexer-", 1).factory());
+
+    public IndexingJobService(KnowledgeGraphService knowledgeGraphService) {
+        this.knowledgeGraphService = knowledgeGraphService;
+    }
+
+    /**
+     * Queue a job indexing a project, registering the project if it is new
+     * @param projectName Name of the project, or null for the name of the root directory
+     * @throws IllegalArgumentException if rootPath is not a directory
+     */
+    public IndexingProgress submit(String rootPath, String projectName) {
+        if (rootPath == null || rootPath.isBlank() || !Files.isDirectory(Path.of(rootPath))) {
+            throw new IllegalArgumentException("Not a directory: " + rootPath);
+        }
+        String name = projectName == null || projectName.isBlank()
+            ? KnowledgeGraphService.defaultProjectName(rootPath)
+            : projectName;
+        CodeProject project = knowledgeGraphService.registerProject(name, rootPath);
+        pruneFinishedJobs();
+        IndexingJob job = new IndexingJob(project.getId(), project.getName(), rootPath);
+        jobs.put(job.getId(), job);
+        projectQueues.compute(project.getId(), (id, queued) -> queued == null
+            ? CompletableFuture.runAsync(() -> run(job), executor)
+            : queued.handleAsync((result, error) -> {
+                run(job);
+                return null;
+            }, executor));
+        return job.progress();
+    }
+
+    public Optional<IndexingProgress> getProgress(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(IndexingJob::progress);
+    }
+
+    /**
+     * All known jobs, most recently submitted first
+     */
+    public List<IndexingProgress> listJobs() {
+        return jobs.values().stream()
+            .sorted(Comparator.comparing(IndexingJob::getSubmittedAt).reversed())
+            .map(IndexingJob::progress)
+            .toList();
+    }
+
+    /**
+     * Request cancellation; a queued job never starts and a running job stops before it
+     * clears the graph of its project
+     * @throws IllegalStateException if the job is already replacing the graph
+     */
+    public Optional<IndexingProgress> cancel(String jobId) {
+        IndexingJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (!job.cancel()) {
+            throw new IllegalStateException("Job " + jobId + " is already replacing the graph of " + job.getRootPath());
+        }
+        return Optional.of(job.progress());
+    }
+
+    /**
+     * Receive the progress of a job now and after every batch and state change
+     * @return false if the job is unknown
+     */
+    public boolean subscribe(String jobId, Consumer<IndexingProgress> listener) {
+        IndexingJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        job.addListener(listener);
+        return true;
+    }
+
+    public void unsubscribe(String jobId, Consumer<IndexingProgress> listener) {
+        IndexingJob job = jobs.get(jobId);
+        if (job != null) {
+            job.removeListener(listener);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(IndexingJob::cancel);
+        executor.shutdown();
+    }
+
+    private void run(IndexingJob job) {
+        if (job.isCancelRequested()) {
+            job.finished(IndexingJob.State.CANCELLED, null);
+            return;
+        }
+        String rootPath = job.getRootPath();
+        job.started();
+        try {
+            knowledgeGraphService.indexProject(job);
+            job.finished(IndexingJob.State.COMPLETED, null);
+        } catch (CancellationException e) {
+            log.info("Indexing job {} of {} cancelled", job.getId(), rootPath);
+            job.finished(IndexingJob.State.CANCELLED, null);
+        } catch (Throwable e) {
+            log.error("Indexing job {} of {} failed", job.getId(), rootPath, e);
+            job.finished(IndexingJob.State.FAILED, e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        List<IndexingJob> finished = jobs.values().stream()
+            .filter(IndexingJob::isFinished)
+            .sorted(Comparator.comparing(IndexingJob::getSubmittedAt))
+            .toList();
+        for (int i = 0; i < finished.size() - MAX_FINISHED_JOBS; i++) {
+            jobs.remove(finished.get(i).getId());
+        }
+    }
+}
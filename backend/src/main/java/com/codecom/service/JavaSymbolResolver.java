@@ -0,0 +1,261 @@
+package com.codecom.service;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves method calls to their declarations with the JavaParser symbol solver
+ *
+ * A session covers one project: its type solver combines the JDK (by reflection), every
+ * source root of the project and the jars inside the project tree. The solver classes
+ * are not thread-safe, so each worker thread of a session borrows its own parser with
+ * its own solver stack; the stacks live as long as the session and each remembers the
+ * types it has looked up, up to codecom.symbols.type-cache-size entries. Files are
+ * parsed and resolved in parallel on a pool sized to the processors.
+ */
+@Service
+public class JavaSymbolResolver {
+
+    private static final Logger log = LoggerFactory.getLogger(JavaSymbolResolver.class);
+    private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+    private static final long SOURCE_CACHE_SIZE = 2_000;
+
+    private final AnalysisMetrics metrics;
+    private final ProjectFileEnumerator fileEnumerator;
+    private final ParseProblemService parseProblems;
+    private final int typeCacheSize;
+    private final ExecutorService workers = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        Thread.ofPlatform().name("codecom-resolver-", 1).daemon().factory());
+
+    public JavaSymbolResolver(AnalysisMetrics metrics, ProjectFileEnumerator fileEnumerator, ParseProblemService parseProblems,
+                              @Value("${codecom.symbols.type-cache-size:10000}") int typeCacheSize) {
+        this.metrics = metrics;
+        this.fileEnumerator = fileEnumerator;
+        this.parseProblems = parseProblems;
+        this.typeCacheSize = typeCacheSize;
+    }
+
+    /**
+     * Start resolving the Java files of a project
+     * @param javaFiles The files of the project, used to find its source roots
+     */
+    public Session open(String rootPath, List<Path> javaFiles) throws IOException {
+        List<Path> sourceRoots = sourceRoots(javaFiles);
+        List<Path> jars = fileEnumerator.listJars(rootPath);
+        log.debug("Resolving symbols of {} with {} source roots and {} jars", rootPath, sourceRoots.size(), jars.size());
+        return new Session(sourceRoots, jars);
+    }
+
+    /**
+     * Resolve a call in a file parsed by a session
+     * @return The declaration, or empty if it cannot be resolved, e.g. because its
+     *         receiver is a type of a library that is not on the solver path
+     */
+    public Optional<ResolvedCall> resolve(MethodCallExpr call) {
+        try {
+            ResolvedMethodDeclaration declaration = call.resolve();
+            String sourceKey = declaration.toAst(MethodDeclaration.class)
+                .flatMap(JavaSymbolResolver::methodKey)
+                .orElse(null);
+            List<String> parameterTypes = new ArrayList<>(declaration.getNumberOfParams());
+            for (int i = 0; i < declaration.getNumberOfParams(); i++) {
+                parameterTypes.add(declaration.getParam(i).getType().erasure().describe());
+            }
+            metrics.callResolved(sourceKey != null ? "source" : "library");
+            return Optional.of(new ResolvedCall(declaration.declaringType().getQualifiedName(),
+                declaration.getName(), List.copyOf(parameterTypes), sourceKey));
+        } catch (RuntimeException e) {
+            metrics.callResolved("unresolved");
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Identifies a method declaration by its type, name and line, which is the same for
+     * the declaration met while indexing and the one a call resolves to
+     */
+    public static Optional<String> methodKey(MethodDeclaration method) {
+        Optional<Node> parent = method.getParentNode();
+        while (parent.isPresent() && !(parent.get() instanceof TypeDeclaration<?>)) {
+            parent = parent.get().getParentNode();
+        }
+        return parent
+            .flatMap(type -> ((TypeDeclaration<?>) type).getFullyQualifiedName())
+            .map(type -> type + "#" + method.getNameAsString() + "@"
+                + method.getRange().map(range -> range.begin.line).orElse(0));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * The directories the packages of the files start in
+     */
+    private List<Path> sourceRoots(List<Path> javaFiles) throws IOException {
+        // Files of one directory share their package, so one file per directory is read
+        Map<Path, Path> samples = new LinkedHashMap<>();
+        for (Path file : javaFiles) {
+            Path absolute = file.toAbsolutePath().normalize();
+            samples.putIfAbsent(absolute.getParent(), absolute);
+        }
+        Set<Path> roots = new LinkedHashSet<>();
+        for (Map.Entry<Path, Path> sample : samples.entrySet()) {
+            Path root = sample.getKey();
+            Matcher matcher = PACKAGE.matcher(Files.readString(sample.getValue()));
+            if (matcher.find()) {
+                String[] segments = matcher.group(1).split("\\.");
+                for (int i = segments.length - 1; i >= 0 && root != null; i--) {
+                    boolean matches = root.getFileName() != null && root.getFileName().toString().equals(segments[i]);
+                    root = matches ? root.getParent() : null;
+                }
+            }
+            if (root != null) {
+                roots.add(root);
+            }
+        }
+        return List.copyOf(roots);
+    }
+
+    /**
+     * Work on a parsed file; the resolved declarations must not leave the call
+     */
+    @FunctionalInterface
+    public interface FileAnalysis<T> {
+        T analyze(Path file, CompilationUnit unit);
+    }
+
+    /**
+     * A call resolved to the method it invokes
+     * @param declaringType Qualified name of the type declaring the method
+     * @param parameterTypes Erased parameter types, e.g. {@code java.util.List} or {@code int[]}
+     * @param sourceKey The {@link #methodKey} of the declaration, or null if it is not
+     *                  declared in the sources of the project
+     */
+    public record ResolvedCall(String declaringType, String methodName, List<String> parameterTypes,
+                               String sourceKey) {
+
+        public String declaringClassName() {
+            return declaringType.substring(declaringType.lastIndexOf('.') + 1);
+        }
+    }
+
+    /**
+     * The symbol solver of one project
+     */
+    public final class Session {
+
+        private final List<Path> sourceRoots;
+        private final List<Path> jars;
+        private final ConcurrentLinkedQueue<JavaParser> idleParsers = new ConcurrentLinkedQueue<>();
+
+        private Session(List<Path> sourceRoots, List<Path> jars) {
+            this.sourceRoots = sourceRoots;
+            this.jars = jars;
+        }
+
+        /**
+         * Parse the files in parallel and analyze each one that parses
+         * @param service Name of the calling service, for the parse metrics
+         * @return The results in the order of the files; files that cannot be read or
+         *         parsed have none
+         */
+        public <T> List<T> analyze(List<Path> files, String service, FileAnalysis<T> analysis) throws IOException {
+            List<Future<Optional<T>>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(workers.submit(() -> analyzeFile(file, service, analysis)));
+            }
+            List<T> results = new ArrayList<>(files.size());
+            try {
+                for (Future<Optional<T>> future : futures) {
+                    future.get().ifPresent(results::add);
+                }
+            } catch (InterruptedException e) {
+                futures.forEach(future -> future.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while resolving symbols");
+            } catch (ExecutionException e) {
+                futures.forEach(future -> future.cancel(true));
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IOException(e.getCause());
+            }
+            return results;
+        }
+
+        private <T> Optional<T> analyzeFile(Path file, String service, FileAnalysis<T> analysis) {
+            JavaParser parser = idleParsers.poll();
+            if (parser == null) {
+                parser = newParser();
+            }
+            try {
+                String content = metrics.readFile(file);
+                ParseResult<CompilationUnit> result = parseProblems.parse(file, content, parser, service);
+                if (result.getResult().isEmpty()) {
+                    return Optional.empty();
+                }
+                return Optional.ofNullable(analysis.analyze(file, result.getResult().get()));
+            } catch (IOException e) {
+                log.warn("Could not read {}: {}", file, e.getMessage());
+                return Optional.empty();
+            } finally {
+                idleParsers.add(parser);
+            }
+        }
+
+        private JavaParser newParser() {
+            CombinedTypeSolver combined = new CombinedTypeSolver(new ReflectionTypeSolver());
+            for (Path root : sourceRoots) {
+                combined.add(new JavaParserTypeSolver(root, ParserProfile.FULL.configuration(), SOURCE_CACHE_SIZE));
+            }
+            for (Path jar : jars) {
+                try {
+                    combined.add(new JarTypeSolver(jar));
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not read types of {}: {}", jar, e.getMessage());
+                }
+            }
+            TypeSolver typeSolver = new MemoizingTypeSolver(combined, typeCacheSize);
+            return new JavaParser(ParserProfile.FULL.configuration().setSymbolResolver(new JavaSymbolSolver(typeSolver)));
+        }
+    }
+}
@@ -1,23 +1,40 @@
 package com.codecom.service;
 
+import com.codecom.dto.CursorPage;
+import com.codecom.dto.NodeSummary;
+import com.codecom.dto.NodeWithRelationships;
+import com.codecom.dto.RelationshipInfo;
+import com.codecom.entity.CodeFile;
 import com.codecom.entity.CodeNode;
+import com.codecom.entity.CodePackage;
+import com.codecom.entity.CodeProject;
 import com.codecom.entity.CodeRelationship;
 import com.codecom.repository.CodeNodeRepository;
+import com.codecom.repository.CodeProjectRepository;
 import com.codecom.repository.CodeRelationshipRepository;
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
@@ -26,6 +43,9 @@ import java.util.stream.Stream;
  * Service for building and querying the code knowledge graph
  * FR.38: Relationship Graph Database
  * FR.39: Cross-Language Query Support
+ *
+ * The graph is split into projects. Projects are indexed independently, each under its
+ * own lock, while queries on the other projects keep running against their indexes.
  */
 @Service
 public class KnowledgeGraphService {
@@ -35,76 +55,214 @@ public class KnowledgeGraphService {
     private static final String TYPE_METHOD = "METHOD";
     private static final String TYPE_CLASS = "CLASS";
     private static final String TYPE_INTERFACE = "INTERFACE";
+    private static final String TYPE_LIBRARY_METHOD = "LIBRARY_METHOD";
     
     private static final String REL_CALLS = "CALLS";
     private static final String REL_INHERITS = "INHERITS";
+    private static final int MAX_CHAINS = 10; // Limit results to prevent excessive memory usage
+    private static final int MAX_NEIGHBOR_PAGE_SIZE = 1000;
+    private static final int MAX_SUMMARY_PAGE_SIZE = 500;
+    private static final String EXPAND_ALL = "all";
+    private static final String METRICS_NAME = "knowledge-graph";
+    private static final int FILE_BATCH_SIZE = 50;
 
     private final CodeNodeRepository nodeRepository;
     private final CodeRelationshipRepository relationshipRepository;
-    private final JavaParser javaParser = new JavaParser();
+    private final CodeProjectRepository projectRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GraphQueryEngine queryEngine;
+    private final ReachabilityIndex reachabilityIndex;
+    private final CallPathService callPathService;
+    private final SymbolSearchIndex searchIndex;
+    private final CodeDictionary dictionary;
+    private final AnalysisMetrics metrics;
+    private final ProjectFileEnumerator fileEnumerator;
+    private final JavaSymbolResolver symbols;
+    private final LibraryIndex libraries;
+    private final ParseProblemService parseProblems;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, ReentrantLock> projectLocks = new ConcurrentHashMap<>();
     
     public KnowledgeGraphService(CodeNodeRepository nodeRepository, 
-                                CodeRelationshipRepository relationshipRepository) {
+                                CodeRelationshipRepository relationshipRepository,
+                                CodeProjectRepository projectRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                GraphQueryEngine queryEngine,
+                                ReachabilityIndex reachabilityIndex,
+                                CallPathService callPathService,
+                                SymbolSearchIndex searchIndex,
+                                CodeDictionary dictionary,
+                                AnalysisMetrics metrics,
+                                ProjectFileEnumerator fileEnumerator,
+                                JavaSymbolResolver symbols,
+                                LibraryIndex libraries,
+                                ParseProblemService parseProblems,
+                                PlatformTransactionManager transactionManager) {
         this.nodeRepository = nodeRepository;
         this.relationshipRepository = relationshipRepository;
+        this.projectRepository = projectRepository;
+        this.eventPublisher = eventPublisher;
+        this.queryEngine = queryEngine;
+        this.reachabilityIndex = reachabilityIndex;
+        this.callPathService = callPathService;
+        this.searchIndex = searchIndex;
+        this.dictionary = dictionary;
+        this.metrics = metrics;
+        this.fileEnumerator = fileEnumerator;
+        this.symbols = symbols;
+        this.libraries = libraries;
+        this.parseProblems = parseProblems;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Register a project, or point an existing project with that name at a new root
+     */
+    public synchronized CodeProject registerProject(String name, String rootPath) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Project name must not be blank");
+        }
+        CodeProject project = projectRepository.findByName(name)
+            .orElseGet(() -> new CodeProject(name, rootPath));
+        project.setRootPath(rootPath);
+        return projectRepository.save(project);
+    }
+    
+    /**
+     * Name of the project registered for a root directory when none is given
+     */
+    public static String defaultProjectName(String rootPath) {
+        Path fileName = Path.of(rootPath).toAbsolutePath().normalize().getFileName();
+        return fileName != null ? fileName.toString() : rootPath;
+    }
+    
+    /**
+     * Get all projects ordered by name
+     */
+    public List<CodeProject> listProjects() {
+        return projectRepository.findAllByOrderByName();
     }
     
     /**
      * Index the entire project and build the knowledge graph
+     * The project is registered under the name of its root directory
      * @param rootPath The root directory to index
      */
-    @Transactional
     public void indexProject(String rootPath) throws IOException {
-        // Clear existing graph
-        relationshipRepository.deleteAll();
-        nodeRepository.deleteAll();
-        
-        // First pass: Create all nodes
-        Map<String, CodeNode> nodeCache = new HashMap<>();
-        
-        try (Stream<Path> paths = Files.walk(Path.of(rootPath))) {
-            paths
-                .filter(Files::isRegularFile)
-                .filter(p -> p.toString().endsWith(".java"))
-                .filter(p -> !p.toString().contains("node_modules"))
-                .filter(p -> !p.toString().contains("target"))
-                .filter(p -> !p.toString().contains(".git"))
-                .forEach(path -> {
-                    try {
-                        indexFile(path.toString(), nodeCache);
-                    } catch (IOException e) {
-                        LOGGER.log(Level.SEVERE, "Error indexing file {0}: {1}", new Object[]{path, e.getMessage()});
-                    }
-                });
+        CodeProject project = registerProject(defaultProjectName(rootPath), rootPath);
+        indexProject(new IndexingJob(project.getId(), project.getName(), rootPath));
+    }
+    
+    /**
+     * Index the project of a job, reporting progress to it
+     * 
+     * Only the nodes and relationships of that project are replaced. Files are indexed in
+     * batches that are committed one by one, so no transaction spans the whole project.
+     * Queries running meanwhile see the part of the project written so far, and the other
+     * projects unchanged. The job can only be cancelled until the old graph is cleared,
+     * so cancelling never leaves a half-built graph behind.
+     * @throws java.util.concurrent.CancellationException if the job was cancelled before
+     * its graph was cleared
+     */
+    public void indexProject(IndexingJob job) throws IOException {
+        Long projectId = job.getProjectId();
+        String rootPath = job.getRootPath();
+        ReentrantLock lock = projectLocks.computeIfAbsent(projectId, id -> new ReentrantLock());
+        lock.lock();
+        try {
+            indexLocked(projectId, rootPath, job);
+        } finally {
+            lock.unlock();
         }
-        
-        // Second pass: Create relationships
-        try (Stream<Path> paths = Files.walk(Path.of(rootPath))) {
-            paths
-                .filter(Files::isRegularFile)
-                .filter(p -> p.toString().endsWith(".java"))
-                .filter(p -> !p.toString().contains("node_modules"))
-                .filter(p -> !p.toString().contains("target"))
-                .filter(p -> !p.toString().contains(".git"))
-                .forEach(path -> {
-                    try {
-                        indexRelationships(path.toString(), nodeCache);
-                    } catch (IOException e) {
-                        LOGGER.log(Level.SEVERE, "Error indexing relationships in {0}: {1}", new Object[]{path, e.getMessage()});
-                    }
-                });
+    }
+    
+    private void indexLocked(Long projectId, String rootPath, IndexingJob job) throws IOException {
+        List<Path> files = fileEnumerator.listJavaFiles(rootPath);
+        job.filesFound(files.size());
+        job.startReplacing();
+        metrics.indexingStarted();
+        boolean successful = false;
+        try {
+            // Clear the existing graph of the project; the dictionaries are shared
+            job.phase("clear");
+            metrics.timeIndexPhase("clear", () -> transactionTemplate.executeWithoutResult(status -> {
+                nodeRepository.deleteSliceMembershipsByProjectId(projectId);
+                relationshipRepository.deleteByProjectId(projectId);
+                nodeRepository.deleteByProjectId(projectId);
+            }));
+            
+            // First pass: Create all nodes
+            IndexedNodes nodes = new IndexedNodes();
+            
+            job.phase("nodes");
+            metrics.timeIndexPhase("nodes", () -> indexInBatches(files, job, path -> {
+                try {
+                    indexFile(path.toString(), nodes, job);
+                    metrics.fileIndexed();
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, "Error indexing file {0}: {1}", new Object[]{path, e.getMessage()});
+                }
+                job.fileParsed();
+            }));
+            
+            // Second pass: Create relationships, resolving each call to the method it invokes
+            job.phase("relationships");
+            JavaSymbolResolver.Session session = symbols.open(rootPath, files);
+            LibraryIndex.Classpath classpath = libraries.classpath(rootPath);
+            metrics.timeIndexPhase("relationships", () -> {
+                for (int start = 0; start < files.size(); start += FILE_BATCH_SIZE) {
+                    List<Path> batch = files.subList(start, Math.min(start + FILE_BATCH_SIZE, files.size()));
+                    // Resolved in parallel outside the transaction, then written in one
+                    List<FileLinks> linked = session.analyze(batch, METRICS_NAME,
+                        (path, cu) -> collectRelationships(cu, nodes, classpath, job.getProjectId()));
+                    transactionTemplate.executeWithoutResult(status -> linked.forEach(links -> {
+                        links.libraryCalls().forEach(call ->
+                            call.relationship().setTargetId(libraryNode(call.target(), nodes, job).getId()));
+                        relationshipRepository.saveAll(links.relationships());
+                        links.relationships().forEach(relationship -> job.relationshipWritten());
+                    }));
+                    batch.forEach(path -> job.fileLinked());
+                    job.batchCommitted();
+                }
+            });
+            
+            projectRepository.findById(projectId).ifPresent(project -> {
+                project.setIndexedDate(LocalDateTime.now());
+                projectRepository.save(project);
+            });
+            successful = true;
+        } finally {
+            metrics.indexingFinished(successful);
+            // Also after a failure, since earlier batches are committed
+            eventPublisher.publishEvent(new GraphIndexedEvent(projectId, rootPath, successful));
+        }
+    }
+    
+    /**
+     * Run an action on every file, committing after each batch of files
+     *
+     * The dictionary entries of the files are resolved before each batch transaction,
+     * so creating them does not hold a second connection while the batch holds one.
+     */
+    private void indexInBatches(List<Path> files, IndexingJob job, Consumer<Path> action) {
+        for (int start = 0; start < files.size(); start += FILE_BATCH_SIZE) {
+            List<Path> batch = files.subList(start, Math.min(start + FILE_BATCH_SIZE, files.size()));
+            batch.forEach(path -> dictionary.file(path.toString()));
+            transactionTemplate.executeWithoutResult(status -> batch.forEach(action));
+            job.batchCommitted();
         }
     }
     
     /**
      * Index a single file and create nodes
      */
-    private void indexFile(String filePath, Map<String, CodeNode> nodeCache) throws IOException {
-        String content = Files.readString(Path.of(filePath));
-        ParseResult<CompilationUnit> result = javaParser.parse(content);
+    private void indexFile(String filePath, IndexedNodes nodes, IndexingJob job) throws IOException {
+        String content = metrics.readFile(Path.of(filePath));
+        ParseResult<CompilationUnit> result = parseProblems.parse(Path.of(filePath), content, ParserProfile.FULL.parser(), METRICS_NAME);
         java.util.Optional<CompilationUnit> cuOpt = result.getResult();
         
-        if (!result.isSuccessful() || cuOpt.isEmpty()) {
+        // Files with parse problems are indexed as far as the parser recovered them
+        if (cuOpt.isEmpty()) {
             return;
         }
         
@@ -112,6 +270,10 @@ public class KnowledgeGraphService {
         String packageName = cu.getPackageDeclaration()
             .map(pd -> pd.getNameAsString())
             .orElse("");
+        CodeFile file = dictionary.file(filePath);
+        CodePackage codePackage = dictionary.codePackage(packageName);
+        // Types whose declaration is being visited, innermost first
+        Deque<CodeNode> enclosingTypes = new ArrayDeque<>();
         
         // Index classes and interfaces
         cu.accept(new VoidVisitorAdapter<Void>() {
@@ -123,7 +285,11 @@ public class KnowledgeGraphService {
                     filePath,
                     n.getRange().map(r -> r.begin.line).orElse(0)
                 );
-                node.setPackageName(packageName);
+                node.setProjectId(job.getProjectId());
+                node.setFile(file);
+                node.setCodePackage(codePackage);
+                node.setEnclosingTypeId(enclosingTypeId());
+                node.setLayer(LayerClassifier.classify(node));
                 node.setIsPublic(n.isPublic());
                 node.setIsAbstract(n.isAbstract());
                 
@@ -131,10 +297,16 @@ public class KnowledgeGraphService {
                 n.getComment().ifPresent(c -> node.setDocumentation(c.getContent()));
                 
                 CodeNode savedNode = nodeRepository.save(node);
+                job.nodeWritten();
                 String key = packageName + "." + n.getNameAsString();
-                nodeCache.put(key, savedNode);
+                nodes.types.put(key, savedNode);
                 
-                super.visit(n, arg);
+                enclosingTypes.push(savedNode);
+                try {
+                    super.visit(n, arg);
+                } finally {
+                    enclosingTypes.pop();
+                }
             }
             
             @Override
@@ -145,7 +317,11 @@ public class KnowledgeGraphService {
                     filePath,
                     n.getRange().map(r -> r.begin.line).orElse(0)
                 );
-                node.setPackageName(packageName);
+                node.setProjectId(job.getProjectId());
+                node.setFile(file);
+                node.setCodePackage(codePackage);
+                node.setEnclosingTypeId(enclosingTypeId());
+                node.setLayer(LayerClassifier.classify(node));
                 node.setSignature(n.getDeclarationAsString(false, false, false));
                 node.setIsPublic(n.isPublic());
                 node.setIsStatic(n.isStatic());
@@ -154,33 +330,37 @@ public class KnowledgeGraphService {
                 n.getComment().ifPresent(c -> node.setDocumentation(c.getContent()));
                 
                 CodeNode savedNode = nodeRepository.save(node);
-                // Use signature as key for methods to handle overloading
-                String key = packageName + "." + n.getNameAsString() + "#" + savedNode.getId();
-                nodeCache.put(key, savedNode);
+                job.nodeWritten();
+                // Keyed by declaring type and line to tell overloads apart
+                JavaSymbolResolver.methodKey(n).ifPresent(key -> nodes.methodsByKey.put(key, savedNode));
+                nodes.methodsByName.computeIfAbsent(n.getNameAsString(), name -> new ArrayList<>()).add(savedNode);
                 
                 super.visit(n, arg);
             }
+            
+            private Long enclosingTypeId() {
+                CodeNode enclosing = enclosingTypes.peek();
+                return enclosing != null ? enclosing.getId() : null;
+            }
         }, null);
     }
     
     /**
-     * Index relationships in a file
+     * The relationships of a parsed file
+     *
+     * A call is linked to the method the symbol solver resolves it to. A call that cannot
+     * be resolved is linked only if the project declares exactly one method of that name.
+     * A call resolved to a library method is linked to a node of that method if its jar
+     * is on the classpath of the project; calls of the JDK are not linked.
      */
-    private void indexRelationships(String filePath, Map<String, CodeNode> nodeCache) throws IOException {
-        String content = Files.readString(Path.of(filePath));
-        ParseResult<CompilationUnit> result = javaParser.parse(content);
-        java.util.Optional<CompilationUnit> cuOpt = result.getResult();
-        
-        if (!result.isSuccessful() || cuOpt.isEmpty()) {
-            return;
-        }
-        
-        CompilationUnit cu = cuOpt.get();
+    private FileLinks collectRelationships(CompilationUnit cu, IndexedNodes nodes, LibraryIndex.Classpath classpath,
+                                           Long projectId) {
         String packageName = cu.getPackageDeclaration()
             .map(pd -> pd.getNameAsString())
             .orElse("");
+        List<CodeRelationship> relationships = new ArrayList<>();
+        List<LibraryCallLink> libraryCalls = new ArrayList<>();
         
-        // Index inheritance and implementation relationships
         cu.accept(new VoidVisitorAdapter<Void>() {
             
             private CodeNode currentMethod = null;
@@ -188,16 +368,16 @@ public class KnowledgeGraphService {
             @Override
             public void visit(ClassOrInterfaceDeclaration n, Void arg) {
                 String classKey = packageName + "." + n.getNameAsString();
-                final CodeNode currentClassNode = nodeCache.get(classKey);
+                final CodeNode currentClassNode = nodes.types.get(classKey);
                 
                 if (currentClassNode != null) {
                     // Index INHERITS relationships
                     n.getExtendedTypes().forEach(extType -> 
-                        createInheritanceRelationship(currentClassNode, extType.getNameAsString(), nodeCache)
+                        addInheritanceRelationship(currentClassNode, extType.getNameAsString(), nodes, projectId, relationships)
                     );
                     
                     n.getImplementedTypes().forEach(implType -> 
-                        createInheritanceRelationship(currentClassNode, implType.getNameAsString(), nodeCache)
+                        addInheritanceRelationship(currentClassNode, implType.getNameAsString(), nodes, projectId, relationships)
                     );
                 }
                 
@@ -206,66 +386,116 @@ public class KnowledgeGraphService {
             
             @Override
             public void visit(MethodDeclaration n, Void arg) {
-                // Find the method node for this method
-                List<CodeNode> methods = nodeRepository.findByFilePath(filePath);
-                currentMethod = methods.stream()
-                    .filter(m -> m.getName().equals(n.getNameAsString()) && 
-                                m.getLineNumber().equals(n.getRange().map(r -> r.begin.line).orElse(0)))
-                    .findFirst()
-                    .orElse(null);
-                
+                CodeNode enclosingMethod = currentMethod;
+                currentMethod = JavaSymbolResolver.methodKey(n).map(nodes.methodsByKey::get).orElse(null);
                 super.visit(n, arg);
+                currentMethod = enclosingMethod;
             }
             
             @Override
             public void visit(MethodCallExpr n, Void arg) {
                 if (currentMethod != null) {
-                    // Index CALLS relationship
-                    String methodName = n.getNameAsString();
-                    
-                    // Try to find the target method in the cache
-                    // This is simplified - a full implementation would do type resolution
-                    for (Map.Entry<String, CodeNode> entry : nodeCache.entrySet()) {
-                        if (entry.getValue().getName().equals(methodName) && 
-                            entry.getValue().getNodeType().equals(TYPE_METHOD)) {
-                            
-                            CodeRelationship relationship = new CodeRelationship(
-                                currentMethod.getId(),
-                                entry.getValue().getId(),
-                                REL_CALLS
-                            );
-                            relationship.setLineNumber(n.getRange().map(r -> r.begin.line).orElse(0));
-                            
-                            relationshipRepository.save(relationship);
-                            break; // Only create one relationship for simplicity
-                        }
+                    Optional<JavaSymbolResolver.ResolvedCall> call = symbols.resolve(n);
+                    CodeNode target = null;
+                    Optional<LibraryIndex.LibraryCall> libraryTarget = Optional.empty();
+                    if (call.isEmpty()) {
+                        target = nodes.uniqueMethod(n.getNameAsString());
+                    } else if (call.get().sourceKey() != null) {
+                        target = nodes.methodsByKey.get(call.get().sourceKey());
+                    } else {
+                        libraryTarget = classpath.find(call.get().declaringType(), call.get().methodName(),
+                            call.get().parameterTypes());
+                    }
+                    if (target != null || libraryTarget.isPresent()) {
+                        // The node of a library method is written with the batch, which sets the target
+                        CodeRelationship relationship = new CodeRelationship(
+                            currentMethod.getId(),
+                            target != null ? target.getId() : null,
+                            REL_CALLS
+                        );
+                        relationship.setLineNumber(n.getRange().map(r -> r.begin.line).orElse(0));
+                        relationship.setProjectId(projectId);
+                        relationships.add(relationship);
+                        libraryTarget.ifPresent(library -> libraryCalls.add(new LibraryCallLink(relationship, library)));
                     }
                 }
                 
                 super.visit(n, arg);
             }
         }, null);
+        return new FileLinks(relationships, libraryCalls);
     }
     
-    private void createInheritanceRelationship(CodeNode source, String targetName, Map<String, CodeNode> nodeCache) {
-        // Try to find the target in the cache
-        for (Map.Entry<String, CodeNode> entry : nodeCache.entrySet()) {
-            if (entry.getValue().getName().equals(targetName) && 
-                (entry.getValue().getNodeType().equals(TYPE_CLASS) || 
-                 entry.getValue().getNodeType().equals(TYPE_INTERFACE))) {
-                
+    /**
+     * The node of a library method, written the first time a call of the project links to it
+     */
+    private CodeNode libraryNode(LibraryIndex.LibraryCall call, IndexedNodes nodes, IndexingJob job) {
+        CodeNode existing = nodes.libraryMethods.get(call.key());
+        if (existing != null) {
+            return existing;
+        }
+        String jarPath = call.library().jar().toString();
+        String className = call.declaringClass().name();
+        CodeNode node = new CodeNode(call.method().name(), TYPE_LIBRARY_METHOD, jarPath, 0);
+        node.setProjectId(job.getProjectId());
+        node.setFile(dictionary.file(jarPath));
+        node.setCodePackage(dictionary.codePackage(className.substring(0, Math.max(className.lastIndexOf('.'), 0))));
+        node.setLayer(LayerClassifier.classify(node));
+        node.setSignature(call.method().signature());
+        node.setIsPublic(call.method().isPublic());
+        node.setIsStatic(call.method().isStatic());
+        node.setDocumentation(className + " in " + call.library().jar().getFileName());
+        
+        CodeNode savedNode = nodeRepository.save(node);
+        job.nodeWritten();
+        nodes.libraryMethods.put(call.key(), savedNode);
+        return savedNode;
+    }
+    
+    /**
+     * The relationships found in a file; those of library calls still lack their target
+     */
+    private record FileLinks(List<CodeRelationship> relationships, List<LibraryCallLink> libraryCalls) {
+    }
+    
+    private record LibraryCallLink(CodeRelationship relationship, LibraryIndex.LibraryCall target) {
+    }
+    
+    private void addInheritanceRelationship(CodeNode source, String targetName, IndexedNodes nodes, Long projectId,
+                                            List<CodeRelationship> relationships) {
+        // Try to find the target among the indexed types
+        for (CodeNode type : nodes.types.values()) {
+            if (type.getName().equals(targetName)) {
                 CodeRelationship relationship = new CodeRelationship(
                     source.getId(),
-                    entry.getValue().getId(),
+                    type.getId(),
                     REL_INHERITS
                 );
-                
-                relationshipRepository.save(relationship);
+                relationship.setProjectId(projectId);
+                relationships.add(relationship);
                 break;
             }
         }
     }
     
+    /**
+     * The nodes written by the first pass of indexing, looked up by the second
+     */
+    private static final class IndexedNodes {
+        /** Classes and interfaces by qualified name */
+        final Map<String, CodeNode> types = new HashMap<>();
+        /** Methods by {@link JavaSymbolResolver#methodKey} */
+        final Map<String, CodeNode> methodsByKey = new HashMap<>();
+        final Map<String, List<CodeNode>> methodsByName = new HashMap<>();
+        /** Library methods by {@link LibraryIndex.LibraryCall#key}, written during the second pass */
+        final Map<String, CodeNode> libraryMethods = new HashMap<>();
+        
+        CodeNode uniqueMethod(String name) {
+            List<CodeNode> candidates = methodsByName.getOrDefault(name, List.of());
+            return candidates.size() == 1 ? candidates.get(0) : null;
+        }
+    }
+    
     /**
      * Get all nodes
      */
@@ -287,6 +517,181 @@ public class KnowledgeGraphService {
         return nodeRepository.searchByName(name);
     }
     
+    /**
+     * Full-text search over names, signatures and documentation, best match first
+     * FR.38: Relationship Graph Database
+     * @param query Words to match; a trailing * matches by prefix
+     */
+    public List<CodeNode> searchFullText(String query, int limit) {
+        return searchFullText(null, query, limit);
+    }
+    
+    /**
+     * Full-text search within one project
+     * @param projectId Project to search, or null for the whole workspace
+     * @throws IllegalArgumentException if limit is not between 1 and the maximum page size
+     */
+    public List<CodeNode> searchFullText(Long projectId, String query, int limit) {
+        if (limit < 1 || limit > MAX_SUMMARY_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUMMARY_PAGE_SIZE);
+        }
+        List<Long> rankedIds = searchIndex.search(projectId, query, limit);
+        Map<Long, CodeNode> nodesById = new HashMap<>();
+        nodeRepository.findAllById(rankedIds).forEach(node -> nodesById.put(node.getId(), node));
+        return rankedIds.stream()
+            .map(nodesById::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+    
+    /**
+     * Full-text search within one project, returning summaries of the best matches first
+     * @param expand Optional attributes to include, see {@link NodeSummary#EXPANDABLE}, or "all"
+     * @throws IllegalArgumentException if limit is not between 1 and the maximum page size or
+     *         expand names an unknown attribute
+     */
+    @Transactional(readOnly = true)
+    public List<NodeSummary> searchFullTextSummaries(Long projectId, String query, int limit,
+                                                     Collection<String> expand) {
+        if (limit < 1 || limit > MAX_SUMMARY_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_SUMMARY_PAGE_SIZE);
+        }
+        Set<String> fields = expandFields(expand);
+        return summariesInOrder(searchIndex.search(projectId, query, limit), fields);
+    }
+    
+    /**
+     * Find a page of nodes whose name contains a string
+     * FR.38: Relationship Graph Database
+     * @param cursor nextCursor of the previous page, or null for the first page
+     * @param expand Optional attributes to include, see {@link NodeSummary#EXPANDABLE}, or "all"
+     * @throws IllegalArgumentException if limit is not positive or expand names an unknown attribute
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NodeSummary> searchNodeSummaries(String name, Long cursor, int limit, Collection<String> expand) {
+        return searchNodeSummaries(null, name, cursor, limit, expand);
+    }
+    
+    /**
+     * Find a page of nodes of one project whose name contains a string
+     * @param projectId Project to search, or null for the whole workspace
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NodeSummary> searchNodeSummaries(Long projectId, String name, Long cursor, int limit,
+                                                       Collection<String> expand) {
+        return summaryPage(page -> projectId == null
+            ? nodeRepository.searchSummariesByName(name, afterCursor(cursor), page)
+            : nodeRepository.searchSummariesByNameInProject(projectId, name, afterCursor(cursor), page),
+            limit, expand);
+    }
+    
+    /**
+     * Find a page of the distinct nodes that a given node calls
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NodeSummary> findCalleeSummaries(Long nodeId, Long cursor, int limit, Collection<String> expand) {
+        return summaryPage(page -> nodeRepository.findTargetSummaries(nodeId, REL_CALLS, afterCursor(cursor), page),
+            limit, expand);
+    }
+    
+    /**
+     * Find a page of the distinct nodes that call a given node
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NodeSummary> findCallerSummaries(Long nodeId, Long cursor, int limit, Collection<String> expand) {
+        return summaryPage(page -> nodeRepository.findSourceSummaries(nodeId, REL_CALLS, afterCursor(cursor), page),
+            limit, expand);
+    }
+    
+    private static Long afterCursor(Long cursor) {
+        return cursor != null ? cursor : Long.MIN_VALUE;
+    }
+    
+    /**
+     * Fetch one row more than the page to learn whether another page follows; full
+     * entities are only loaded for the page when optional attributes are requested
+     */
+    private CursorPage<NodeSummary> summaryPage(Function<Limit, List<CodeNodeRepository.Summary>> query,
+                                                int limit, Collection<String> expand) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        Set<String> fields = expandFields(expand);
+        int pageSize = Math.min(limit, MAX_SUMMARY_PAGE_SIZE);
+        List<CodeNodeRepository.Summary> rows = query.apply(Limit.of(pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<CodeNodeRepository.Summary> page = hasMore ? rows.subList(0, pageSize) : rows;
+        
+        List<NodeSummary> items;
+        if (fields.isEmpty()) {
+            items = page.stream()
+                .map(row -> new NodeSummary(row.getId(), row.getName(), row.getNodeType(),
+                    row.getFilePath(), row.getLineNumber()))
+                .toList();
+        } else {
+            items = findAllInIdOrder(page.stream().map(CodeNodeRepository.Summary::getId).toList()).stream()
+                .map(node -> NodeSummary.from(node, fields))
+                .toList();
+        }
+        return new CursorPage<>(items, hasMore ? page.get(pageSize - 1).getId() : null);
+    }
+    
+    /**
+     * Page through a set of node ids computed in memory, in id order
+     */
+    private CursorPage<NodeSummary> idPage(Set<Long> ids, Long cursor, int limit, Collection<String> expand) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        Set<String> fields = expandFields(expand);
+        int pageSize = Math.min(limit, MAX_SUMMARY_PAGE_SIZE);
+        long after = afterCursor(cursor);
+        List<Long> rows = ids.stream()
+            .filter(id -> id > after)
+            .sorted()
+            .limit(pageSize + 1L)
+            .toList();
+        boolean hasMore = rows.size() > pageSize;
+        List<Long> page = hasMore ? rows.subList(0, pageSize) : rows;
+        return new CursorPage<>(summariesInOrder(page, fields), hasMore ? page.get(pageSize - 1) : null);
+    }
+    
+    /**
+     * Summaries of the given nodes in the order of the ids; full entities are only
+     * loaded when optional attributes are requested
+     */
+    private List<NodeSummary> summariesInOrder(List<Long> ids, Set<String> fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, NodeSummary> summaries = new HashMap<>();
+        if (fields.isEmpty()) {
+            nodeRepository.findSummariesByIdIn(ids).forEach(row -> summaries.put(row.getId(),
+                new NodeSummary(row.getId(), row.getName(), row.getNodeType(), row.getFilePath(), row.getLineNumber())));
+        } else {
+            nodeRepository.findAllById(ids).forEach(node -> summaries.put(node.getId(), NodeSummary.from(node, fields)));
+        }
+        return ids.stream()
+            .map(summaries::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+    
+    private static Set<String> expandFields(Collection<String> expand) {
+        if (expand == null || expand.isEmpty()) {
+            return Set.of();
+        }
+        if (expand.contains(EXPAND_ALL)) {
+            return NodeSummary.EXPANDABLE;
+        }
+        for (String field : expand) {
+            if (!NodeSummary.EXPANDABLE.contains(field)) {
+                throw new IllegalArgumentException("Unknown expand field: " + field);
+            }
+        }
+        return Set.copyOf(expand);
+    }
+    
     /**
      * Find all nodes that a given node calls
      */
@@ -330,6 +735,49 @@ public class KnowledgeGraphService {
         return relationships;
     }
     
+    /**
+     * Get a node with one page of its incoming and outgoing relationships
+     * FR.38: Relationship Graph Database
+     * 
+     * Neighbor names and types come from the same join query as the relationships, and
+     * the per-type counts let hub nodes show their full degree without loading it.
+     * @throws IllegalArgumentException if page is negative or size is not positive
+     */
+    @Transactional(readOnly = true)
+    public Optional<NodeWithRelationships> getNodeWithRelationships(Long nodeId, int page, int size) {
+        Pageable pageable = PageRequest.of(page, Math.min(size, MAX_NEIGHBOR_PAGE_SIZE));
+        return nodeRepository.findById(nodeId).map(node -> {
+            List<RelationshipInfo> outgoing = relationshipRepository.findOutgoingInfo(nodeId, pageable);
+            List<RelationshipInfo> incoming = relationshipRepository.findIncomingInfo(nodeId, pageable);
+            NodeWithRelationships result = new NodeWithRelationships(
+                node.getId(),
+                node.getName(),
+                node.getNodeType(),
+                node.getFilePath(),
+                node.getLineNumber(),
+                node.getPackageName(),
+                node.getSignature(),
+                node.getIsPublic(),
+                node.getIsStatic(),
+                node.getIsAbstract(),
+                node.getDocumentation(),
+                outgoing,
+                incoming
+            );
+            result.setOutgoingCounts(toCountMap(relationshipRepository.countOutgoingByType(nodeId)));
+            result.setIncomingCounts(toCountMap(relationshipRepository.countIncomingByType(nodeId)));
+            result.setPage(pageable.getPageNumber());
+            result.setPageSize(pageable.getPageSize());
+            return result;
+        });
+    }
+    
+    private static Map<String, Long> toCountMap(List<CodeRelationshipRepository.TypeCount> counts) {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach(count -> result.put(count.getRelationshipType(), count.getRelationshipCount()));
+        return result;
+    }
+    
     /**
      * Find inheritance hierarchy for a class
      * FR.38: Relationship Graph Database
@@ -357,46 +805,81 @@ public class KnowledgeGraphService {
     }
     
     /**
-     * Find call chain between two nodes (breadth-first search)
+     * Check whether a node eventually calls another through any chain of calls
      * FR.39: Cross-Language Query Support
      */
-    public List<List<Long>> findCallChain(Long sourceId, Long targetId, int maxDepth) {
-        final int MAX_CHAINS = 10; // Limit results to prevent excessive memory usage
-        List<List<Long>> chains = new ArrayList<>();
-        Queue<List<Long>> queue = new LinkedList<>();
-        Set<Long> visited = new HashSet<>();
-        
-        queue.add(List.of(sourceId));
-        
-        while (!queue.isEmpty() && chains.size() < MAX_CHAINS) {
-            List<Long> currentPath = queue.poll();
-            if (currentPath == null || currentPath.size() > maxDepth) {
-                continue;
-            }
-
-            Long currentNode = currentPath.get(currentPath.size() - 1);
-            if (currentNode.equals(targetId)) {
-                chains.add(new ArrayList<>(currentPath));
-            } else if (!visited.contains(currentNode)) {
-                visited.add(currentNode);
-                exploreNode(currentNode, currentPath, queue);
-            }
+    public boolean eventuallyCalls(Long sourceId, Long targetId) {
+        return reachabilityIndex.reaches(projectOf(sourceId), REL_CALLS, sourceId, targetId);
+    }
+    
+    /**
+     * Find all nodes that eventually call a given node
+     * FR.39: Cross-Language Query Support
+     */
+    public List<CodeNode> findTransitiveCallers(Long nodeId) {
+        return findAllInIdOrder(reachabilityIndex.ancestors(projectOf(nodeId), REL_CALLS, List.of(nodeId)));
+    }
+    
+    /**
+     * Find all nodes that a given node eventually calls
+     * FR.39: Cross-Language Query Support
+     */
+    public List<CodeNode> findTransitiveCallees(Long nodeId) {
+        return findAllInIdOrder(reachabilityIndex.descendants(projectOf(nodeId), REL_CALLS, List.of(nodeId)));
+    }
+    
+    /**
+     * Find a page of the nodes that eventually call a given node
+     * @throws IllegalArgumentException if limit is not positive or expand names an unknown attribute
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NodeSummary> findTransitiveCallerSummaries(Long nodeId, Long cursor, int limit,
+                                                                 Collection<String> expand) {
+        return idPage(reachabilityIndex.ancestors(projectOf(nodeId), REL_CALLS, List.of(nodeId)), cursor, limit, expand);
+    }
+    
+    /**
+     * Find a page of the nodes that a given node eventually calls
+     * @throws IllegalArgumentException if limit is not positive or expand names an unknown attribute
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<NodeSummary> findTransitiveCalleeSummaries(Long nodeId, Long cursor, int limit,
+                                                                 Collection<String> expand) {
+        return idPage(reachabilityIndex.descendants(projectOf(nodeId), REL_CALLS, List.of(nodeId)), cursor, limit, expand);
+    }
+    
+    /**
+     * Relationships never cross projects, so a walk from a node only needs its project
+     */
+    private Long projectOf(Long nodeId) {
+        return nodeRepository.findProjectIdById(nodeId).orElse(null);
+    }
+    
+    private List<CodeNode> findAllInIdOrder(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
         }
-        
-        return chains;
+        List<CodeNode> nodes = new ArrayList<>(nodeRepository.findAllById(ids));
+        nodes.sort(Comparator.comparing(CodeNode::getId));
+        return nodes;
+    }
+    
+    /**
+     * Find the shortest call chains between two nodes
+     * FR.39: Cross-Language Query Support
+     * @param maxDepth Maximum number of nodes on a chain
+     */
+    public List<List<Long>> findCallChain(Long sourceId, Long targetId, int maxDepth) {
+        return findCallChain(sourceId, targetId, maxDepth, MAX_CHAINS, List.of(REL_CALLS));
     }
 
-    private void exploreNode(Long currentNode, List<Long> currentPath, Queue<List<Long>> queue) {
-        List<CodeRelationship> callRels = relationshipRepository
-            .findBySourceIdAndRelationshipType(currentNode, REL_CALLS);
-        
-        for (CodeRelationship rel : callRels) {
-            if (!currentPath.contains(rel.getTargetId())) {
-                List<Long> newPath = new ArrayList<>(currentPath);
-                newPath.add(rel.getTargetId());
-                queue.add(newPath);
-            }
-        }
+    /**
+     * Find up to k shortest loopless chains between two nodes over the given relationship types
+     * FR.39: Cross-Language Query Support
+     */
+    public List<List<Long>> findCallChain(Long sourceId, Long targetId, int maxDepth, int k,
+                                          Collection<String> relationshipTypes) {
+        return callPathService.findPaths(projectOf(sourceId), sourceId, targetId, k, maxDepth, relationshipTypes);
     }
     
     /**
@@ -407,58 +890,38 @@ public class KnowledgeGraphService {
      * - "calls:MethodName" - Find all nodes that call MethodName
      * - "inherits:ClassName" - Find all classes that inherit from ClassName
      * - "type:CLASS public:true" - Find all public classes
+     * - "layer:SERVICE_JAVA calledby*:UserController" - Find services transitively called by UserController
+     * 
+     * See {@link GraphQueryParser} for the full syntax.
+     * @throws IllegalArgumentException if the query is malformed
      */
+    @Transactional(readOnly = true)
     public List<CodeNode> executeQuery(String query) {
-        Map<String, String> queryParams = parseQuery(query);
-        
-        if (queryParams.containsKey("calls")) {
-            return findByRelation(queryParams.get("calls"), this::findCallers);
-        } else if (queryParams.containsKey("inherits")) {
-            return findByRelation(queryParams.get("inherits"), this::findSubclasses);
-        } else if (queryParams.containsKey("type")) {
-            return findByTypeAndCriteria(queryParams);
-        } else if (queryParams.containsKey("name")) {
-            return nodeRepository.searchByName(queryParams.get("name"));
-        }
-        
-        return new ArrayList<>();
+        return executeQuery(query, Integer.MAX_VALUE);
     }
-
-    private Map<String, String> parseQuery(String query) {
-        Map<String, String> queryParams = new HashMap<>();
-        String[] parts = query.split(" ");
-        for (String part : parts) {
-            String[] kv = part.split(":", 2);
-            if (kv.length == 2) {
-                queryParams.put(kv[0].toLowerCase(), kv[1]);
-            }
-        }
-        return queryParams;
-    }
-
-    private List<CodeNode> findByRelation(String name, java.util.function.LongFunction<List<CodeNode>> relationFunc) {
-        List<CodeNode> results = new ArrayList<>();
-        List<CodeNode> nodes = nodeRepository.searchByName(name);
-        for (CodeNode node : nodes) {
-            results.addAll(relationFunc.apply(node.getId()));
-        }
-        return results;
+    
+    /**
+     * Execute a cross-language query, returning at most limit nodes in id order
+     * FR.39: Cross-Language Query Support
+     */
+    @Transactional(readOnly = true)
+    public List<CodeNode> executeQuery(String query, int limit) {
+        return executeQuery(null, query, limit);
     }
-
-    private List<CodeNode> findByTypeAndCriteria(Map<String, String> params) {
-        List<CodeNode> results = nodeRepository.findByNodeType(params.get("type").toUpperCase());
-        
-        if (params.containsKey("public") && "true".equals(params.get("public"))) {
-            results = results.stream()
-                .filter(n -> Boolean.TRUE.equals(n.getIsPublic()))
-                .toList();
+    
+    /**
+     * Execute a cross-language query within one project
+     * FR.39: Cross-Language Query Support
+     * @param projectId Project to query, or null for the whole workspace
+     */
+    @Transactional(readOnly = true)
+    public List<CodeNode> executeQuery(Long projectId, String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return new ArrayList<>();
         }
-        if (params.containsKey("package")) {
-            String pkg = params.get("package");
-            results = results.stream()
-                .filter(n -> pkg.equals(n.getPackageName()))
-                .toList();
+        GraphQuery parsed = GraphQueryParser.parse(query);
+        try (Stream<CodeNode> results = queryEngine.execute(projectId, parsed)) {
+            return results.limit(limit).toList();
         }
-        return results;
     }
 }
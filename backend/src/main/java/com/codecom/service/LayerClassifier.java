@@ -0,0 +1,74 @@
+package com.codecom.service;
+
+import com.codecom.entity.CodeNode;
+
+import java.util.Locale;
+
+/**
+ * Classifies code nodes into architectural layers based on file path, package and node type
+ * FR.33: Interactive Architecture Flow Graph
+ */
+public final class LayerClassifier {
+    
+    private LayerClassifier() {
+    }
+    
+    /**
+     * Detect architectural layer based on file path and node type
+     */
+    public static String classify(CodeNode node) {
+        return classify(node.getFilePath(), node.getPackageName(), node.getNodeType());
+    }
+    
+    /**
+     * Get the layer stored on the node at index time, classifying nodes indexed before it was persisted
+     */
+    public static String layerOf(CodeNode node) {
+        return node.getLayer() != null ? node.getLayer() : classify(node);
+    }
+    
+    /**
+     * Detect architectural layer from the raw node attributes
+     */
+    public static String classify(String rawFilePath, String rawPackageName, String nodeType) {
+        String filePath = rawFilePath != null ? rawFilePath.toLowerCase(Locale.ROOT) : "";
+        String packageName = rawPackageName != null ? rawPackageName : "";
+        
+        // Methods of the jars a project uses, whatever their package
+        if ("LIBRARY_METHOD".equals(nodeType)) {
+            return "LIBRARY";
+        }
+        
+        // Frontend layers
+        if (filePath.contains("/frontend/src/components/") && filePath.endsWith(".vue")) {
+            return "COMPONENT";
+        }
+        if (filePath.contains("/frontend/src/services/") && filePath.endsWith(".ts")) {
+            return "SERVICE_TS";
+        }
+        
+        // Backend layers based on package/path patterns
+        if (filePath.contains("/controller/") || packageName.contains(".controller")) {
+            return "CONTROLLER";
+        }
+        if (filePath.contains("/service/") || packageName.contains(".service")) {
+            return "SERVICE_JAVA";
+        }
+        if (filePath.contains("/repository/") || packageName.contains(".repository")) {
+            return "REPOSITORY";
+        }
+        if (filePath.contains("/entity/") || packageName.contains(".entity")) {
+            return "ENTITY";
+        }
+        
+        // Fallback based on node type
+        if ("CLASS".equals(nodeType) || "INTERFACE".equals(nodeType)) {
+            return "CLASS";
+        }
+        if ("METHOD".equals(nodeType)) {
+            return "METHOD";
+        }
+        
+        return "UNKNOWN";
+    }
+}
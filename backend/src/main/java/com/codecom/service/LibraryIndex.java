@@ -0,0 +1,198 @@
+package com.codecom.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The signatures of the jars of projects, so calls into libraries can be linked in the
+ * knowledge graph
+ *
+ * Signatures are stored by the SHA-256 checksum of the jar, in memory and as one file
+ * per jar below codecom.libraries.cache-dir, which may be shared by every project and
+ * every run. A jar is read only the first time its checksum is met; projects using the
+ * same jar later reuse its signatures.
+ */
+@Service
+public class LibraryIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LibraryIndex.class);
+    private static final String CACHE_EXTENSION = ".sig";
+
+    private final AnalysisMetrics metrics;
+    private final ProjectFileEnumerator fileEnumerator;
+    private final boolean enabled;
+    private final Path cacheDir;
+    private final Map<String, LibrarySignatures> signatures = new ConcurrentHashMap<>();
+    private final Map<Path, JarChecksum> checksums = new ConcurrentHashMap<>();
+
+    public LibraryIndex(AnalysisMetrics metrics, ProjectFileEnumerator fileEnumerator,
+                        @Value("${codecom.libraries.enabled:false}") boolean enabled,
+                        @Value("${codecom.libraries.cache-dir:${user.home}/.codecom/cache/libraries}") String cacheDir) {
+        this.metrics = metrics;
+        this.fileEnumerator = fileEnumerator;
+        this.enabled = enabled;
+        this.cacheDir = Path.of(cacheDir);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The libraries of a project: the jars inside its tree
+     * @return An empty classpath if library indexing is disabled
+     */
+    public Classpath classpath(String rootPath) throws IOException {
+        if (!enabled) {
+            return new Classpath(List.of());
+        }
+        List<Library> libraries = new ArrayList<>();
+        for (Path jar : fileEnumerator.listJars(rootPath)) {
+            try {
+                libraries.add(new Library(jar, signaturesOf(jar)));
+            } catch (IOException e) {
+                log.warn("Could not read the signatures of {}: {}", jar, e.getMessage());
+            }
+        }
+        return new Classpath(libraries);
+    }
+
+    /**
+     * The signatures of a jar, read from the cache if a jar with the same checksum was read before
+     */
+    public LibrarySignatures signaturesOf(Path jar) throws IOException {
+        String checksum = checksum(jar);
+        LibrarySignatures cached = signatures.get(checksum);
+        if (cached != null) {
+            metrics.libraryLoaded("memory");
+            return cached;
+        }
+        Path cacheFile = cacheDir.resolve(checksum + CACHE_EXTENSION);
+        LibrarySignatures loaded = null;
+        if (Files.isRegularFile(cacheFile)) {
+            try {
+                loaded = LibrarySignatures.read(cacheFile);
+                metrics.libraryLoaded("disk");
+            } catch (IOException e) {
+                log.warn("Ignoring unreadable library cache {}: {}", cacheFile, e.getMessage());
+            }
+        }
+        if (loaded == null) {
+            loaded = LibrarySignatures.scan(jar, checksum);
+            metrics.libraryLoaded("scanned");
+            try {
+                loaded.write(cacheFile);
+            } catch (IOException e) {
+                log.warn("Could not cache the signatures of {} in {}: {}", jar, cacheFile, e.getMessage());
+            }
+        }
+        LibrarySignatures existing = signatures.putIfAbsent(checksum, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * SHA-256 of the jar, computed again only when its size or modification time changes
+     */
+    private String checksum(Path jar) throws IOException {
+        Path path = jar.toAbsolutePath().normalize();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        JarChecksum known = checksums.get(path);
+        if (known != null && known.size() == attributes.size()
+                && known.modified() == attributes.lastModifiedTime().toMillis()) {
+            return known.checksum();
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (NoSuchFileException e) {
+            checksums.remove(path);
+            throw e;
+        }
+        String checksum = HexFormat.of().formatHex(digest.digest());
+        checksums.put(path, new JarChecksum(attributes.size(), attributes.lastModifiedTime().toMillis(), checksum));
+        return checksum;
+    }
+
+    private record JarChecksum(long size, long modified, String checksum) {
+    }
+
+    /**
+     * A jar of a project with its signatures
+     */
+    public record Library(Path jar, LibrarySignatures signatures) {
+    }
+
+    /**
+     * A method of a library that a call of the project resolved to
+     */
+    public record LibraryCall(Library library, LibrarySignatures.LibraryClass declaringClass,
+                              LibrarySignatures.LibraryMethod method) {
+
+        /**
+         * Identifies the method across the jars of a project
+         */
+        public String key() {
+            return declaringClass.name() + "#" + method.name() + "(" + String.join(",", method.parameterTypes()) + ")";
+        }
+    }
+
+    /**
+     * The libraries of one project
+     */
+    public static final class Classpath {
+
+        private final List<Library> libraries;
+
+        Classpath(List<Library> libraries) {
+            this.libraries = libraries;
+        }
+
+        public boolean isEmpty() {
+            return libraries.isEmpty();
+        }
+
+        /**
+         * Find the library method a call resolved to
+         * @param parameterTypes Erased parameter types of the resolved declaration, in
+         *                       source notation; only an overload with exactly these
+         *                       types is linked
+         */
+        public Optional<LibraryCall> find(String declaringType, String methodName, List<String> parameterTypes) {
+            for (Library library : libraries) {
+                Optional<LibrarySignatures.LibraryClass> type = library.signatures().findClass(declaringType);
+                if (type.isEmpty()) {
+                    continue;
+                }
+                Optional<LibrarySignatures.LibraryMethod> method = type.get().methods().stream()
+                    .filter(candidate -> candidate.name().equals(methodName)
+                        && candidate.parameterTypes().equals(parameterTypes))
+                    .findFirst();
+                if (method.isEmpty()) {
+                    continue;
+                }
+                return Optional.of(new LibraryCall(library, type.get(), method.get()));
+            }
+            return Optional.empty();
+        }
+    }
+}
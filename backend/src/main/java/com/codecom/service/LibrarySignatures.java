@@ -0,0 +1,233 @@
+package com.codecom.service;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * The public API of a jar: its accessible classes and their methods
+ *
+ * Read from the class files with ASM, skipping method bodies, debug information and
+ * frames. Only public and protected members of public and protected classes are kept;
+ * synthetic and bridge methods, constructors and anonymous classes are not.
+ *
+ * Layout of the cache file (big-endian): magic, version, the checksum of the jar, then
+ * per class its name, flags and methods, each with name, flags, return type and
+ * parameter types. Type names are written as in Java source.
+ */
+public final class LibrarySignatures {
+
+    static final int MAGIC = 0x43434c53; // "CCLS"
+    static final int VERSION = 1;
+
+    private static final int API = Opcodes.ACC_PUBLIC | Opcodes.ACC_PROTECTED;
+
+    private final String checksum;
+    private final Map<String, LibraryClass> classes;
+
+    /**
+     * A class of the jar
+     * @param name Qualified name, with nested classes separated by dots
+     */
+    public record LibraryClass(String name, boolean isInterface, boolean isPublic, boolean isAbstract,
+                               List<LibraryMethod> methods) {
+    }
+
+    public record LibraryMethod(String name, String returnType, List<String> parameterTypes,
+                                boolean isPublic, boolean isStatic) {
+
+        /**
+         * The method as it would be declared, e.g. {@code java.lang.String join(java.lang.Iterable)}
+         */
+        public String signature() {
+            return returnType + " " + name + "(" + String.join(", ", parameterTypes) + ")";
+        }
+    }
+
+    LibrarySignatures(String checksum, Map<String, LibraryClass> classes) {
+        this.checksum = checksum;
+        this.classes = classes;
+    }
+
+    public String checksum() {
+        return checksum;
+    }
+
+    public Collection<LibraryClass> classes() {
+        return classes.values();
+    }
+
+    public Optional<LibraryClass> findClass(String qualifiedName) {
+        return Optional.ofNullable(classes.get(qualifiedName));
+    }
+
+    /**
+     * Read the signatures from the class files of a jar
+     */
+    public static LibrarySignatures scan(Path jar, String checksum) throws IOException {
+        Map<String, LibraryClass> classes = new TreeMap<>();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                // Versioned copies of multi-release jars repeat classes of the root
+                if (entry.isDirectory() || !name.endsWith(".class") || name.startsWith("META-INF/")
+                        || name.endsWith("module-info.class") || name.endsWith("package-info.class")) {
+                    continue;
+                }
+                try (InputStream in = zip.getInputStream(entry)) {
+                    SignatureVisitor visitor = new SignatureVisitor();
+                    new ClassReader(in).accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+                    if (visitor.result != null) {
+                        classes.put(visitor.result.name(), visitor.result);
+                    }
+                } catch (RuntimeException e) {
+                    // ASM rejects class files of unknown versions; the rest of the jar is still read
+                }
+            }
+        }
+        return new LibrarySignatures(checksum, classes);
+    }
+
+    public static LibrarySignatures read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a library signature file");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported library signature version " + version);
+            }
+            String checksum = in.readUTF();
+            int classCount = in.readInt();
+            Map<String, LibraryClass> classes = new TreeMap<>();
+            for (int i = 0; i < classCount; i++) {
+                String name = in.readUTF();
+                int flags = in.readInt();
+                int methodCount = in.readInt();
+                List<LibraryMethod> methods = new ArrayList<>(methodCount);
+                for (int j = 0; j < methodCount; j++) {
+                    String methodName = in.readUTF();
+                    int methodFlags = in.readInt();
+                    String returnType = in.readUTF();
+                    String[] parameters = new String[in.readInt()];
+                    for (int k = 0; k < parameters.length; k++) {
+                        parameters[k] = in.readUTF();
+                    }
+                    methods.add(new LibraryMethod(methodName, returnType, List.of(parameters),
+                        (methodFlags & Opcodes.ACC_PUBLIC) != 0, (methodFlags & Opcodes.ACC_STATIC) != 0));
+                }
+                classes.put(name, new LibraryClass(name, (flags & Opcodes.ACC_INTERFACE) != 0,
+                    (flags & Opcodes.ACC_PUBLIC) != 0, (flags & Opcodes.ACC_ABSTRACT) != 0, List.copyOf(methods)));
+            }
+            return new LibrarySignatures(checksum, classes);
+        }
+    }
+
+    /**
+     * Write the signatures to a file, replacing it atomically
+     */
+    public void write(Path file) throws IOException {
+        Path directory = Files.createDirectories(file.toAbsolutePath().getParent());
+        // Unique, since several indexing jobs and processes may cache the same jar at once
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(checksum);
+                out.writeInt(classes.size());
+                for (LibraryClass type : classes.values()) {
+                    out.writeUTF(type.name());
+                    out.writeInt((type.isInterface() ? Opcodes.ACC_INTERFACE : 0)
+                        | (type.isPublic() ? Opcodes.ACC_PUBLIC : 0)
+                        | (type.isAbstract() ? Opcodes.ACC_ABSTRACT : 0));
+                    out.writeInt(type.methods().size());
+                    for (LibraryMethod method : type.methods()) {
+                        out.writeUTF(method.name());
+                        out.writeInt((method.isPublic() ? Opcodes.ACC_PUBLIC : 0) | (method.isStatic() ? Opcodes.ACC_STATIC : 0));
+                        out.writeUTF(method.returnType());
+                        out.writeInt(method.parameterTypes().size());
+                        for (String parameter : method.parameterTypes()) {
+                            out.writeUTF(parameter);
+                        }
+                    }
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    private static String sourceName(Type type) {
+        return type.getClassName().replace('$', '.');
+    }
+
+    private static final class SignatureVisitor extends ClassVisitor {
+
+        private String name;
+        private int access;
+        private boolean accessible;
+        private final List<LibraryMethod> methods = new ArrayList<>();
+        private LibraryClass result;
+
+        SignatureVisitor() {
+            super(Opcodes.ASM9);
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            this.name = name;
+            this.access = access;
+            this.accessible = (access & API) != 0 && (access & Opcodes.ACC_SYNTHETIC) == 0;
+        }
+
+        @Override
+        public void visitInnerClass(String name, String outerName, String innerName, int access) {
+            if (name.equals(this.name)) {
+                // The access of a nested class is only recorded here; anonymous classes have no inner name
+                this.access = access | (this.access & Opcodes.ACC_INTERFACE);
+                this.accessible = innerName != null && (access & API) != 0 && (access & Opcodes.ACC_SYNTHETIC) == 0;
+            }
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            if (accessible && (access & API) != 0
+                    && (access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE)) == 0 && !name.startsWith("<")) {
+                List<String> parameters = Arrays.stream(Type.getArgumentTypes(descriptor))
+                    .map(LibrarySignatures::sourceName)
+                    .toList();
+                methods.add(new LibraryMethod(name, sourceName(Type.getReturnType(descriptor)), parameters,
+                    (access & Opcodes.ACC_PUBLIC) != 0, (access & Opcodes.ACC_STATIC) != 0));
+            }
+            return null;
+        }
+
+        @Override
+        public void visitEnd() {
+            if (accessible) {
+                result = new LibraryClass(sourceName(Type.getObjectType(name)), (access & Opcodes.ACC_INTERFACE) != 0,
+                    (access & Opcodes.ACC_PUBLIC) != 0, (access & Opcodes.ACC_ABSTRACT) != 0, List.copyOf(methods));
+            }
+        }
+    }
+}
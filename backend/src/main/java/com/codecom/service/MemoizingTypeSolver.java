@@ -0,0 +1,59 @@
+package com.codecom.service;
+
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the most recently looked up type names of a type solver
+ *
+ * Becomes the parent of the wrapped solver, so the lookups the wrapped solvers make
+ * through their root while resolving a type are remembered as well. Misses are
+ * remembered too, since most unknown names belong to libraries that are not on the
+ * solver path and are asked for again and again. Not thread-safe, like the solvers it
+ * wraps.
+ */
+final class MemoizingTypeSolver implements TypeSolver {
+
+    private final TypeSolver delegate;
+    private final Map<String, SymbolReference<ResolvedReferenceTypeDeclaration>> cache;
+    private TypeSolver parent;
+
+    MemoizingTypeSolver(TypeSolver delegate, int maxEntries) {
+        this.delegate = delegate;
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SymbolReference<ResolvedReferenceTypeDeclaration>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        delegate.setParent(this);
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+        SymbolReference<ResolvedReferenceTypeDeclaration> cached = cache.get(name);
+        if (cached == null) {
+            cached = delegate.tryToSolveType(name);
+            cache.put(name, cached);
+        }
+        return cached;
+    }
+
+    @Override
+    public TypeSolver getParent() {
+        return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+        this.parent = parent;
+    }
+
+    int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,182 @@
+package com.codecom.service;
+
+import com.codecom.entity.ParseProblem;
+import com.codecom.repository.ParseProblemRepository;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration.LanguageLevel;
+import com.github.javaparser.Problem;
+import com.github.javaparser.TokenRange;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses source files while keeping track of the files with parse problems
+ *
+ * A file with problems is still analyzed when the parser recovered a tree from it,
+ * e.g. with unparsable statements in method bodies or with syntax the language level
+ * of the parser does not allow.
+ * A file without a tree is not parsed again until its content changes. The problems
+ * are stored per file, so they can be listed and survive a restart.
+ */
+@Service
+public class ParseProblemService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParseProblemService.class);
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+    private static final String UNCHANGED = "Not parsed again, the file could not be parsed before";
+
+    private final ParseProblemRepository repository;
+    private final AnalysisMetrics metrics;
+    private final Map<String, ParseProblem> problems = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public ParseProblemService(ParseProblemRepository repository, AnalysisMetrics metrics) {
+        this.repository = repository;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Parse the content of a file
+     * @param file The file the content was read from
+     * @param service Name of the calling service, for the metrics
+     * @return The result, whose tree may contain unparsable parts; without a tree if the
+     *         parser could not recover one, now or for the same content before
+     */
+    public ParseResult<CompilationUnit> parse(Path file, String content, JavaParser parser, String service) {
+        String path = key(file);
+        ParseProblem known = known().get(path);
+        String hash = null;
+        if (known != null && !known.isRecovered()) {
+            hash = hash(content);
+            if (hash.equals(known.getContentHash())) {
+                metrics.parseProblem(service, "skipped");
+                return new ParseResult<>(null, List.of(new Problem(UNCHANGED, null, null)), null);
+            }
+        }
+
+        ParseResult<CompilationUnit> result = metrics.parse(parser, content, service);
+        boolean recovered = result.getResult().filter(cu -> cu.getParsed() != Node.Parsedness.UNPARSABLE).isPresent();
+        LanguageLevel level = parser.getParserConfiguration().getLanguageLevel();
+        String languageLevel = level != null ? level.name() : "RAW"; // LanguageLevel.RAW is null
+        if (result.isSuccessful()) {
+            // Problems of a stricter language level remain until a parse at that level succeeds
+            if (known != null && (!known.isRecovered() || languageLevel.equals(known.getLanguageLevel()))) {
+                forget(path);
+            }
+            return result;
+        }
+
+        metrics.parseProblem(service, recovered ? "recovered" : "unparsable");
+        record(path, hash != null ? hash : hash(content), service, languageLevel, result.getProblems(), recovered);
+        if (!recovered) {
+            // The parser only recovers within method bodies; elsewhere it gives an empty unit
+            return new ParseResult<>(null, result.getProblems(), result.getCommentsCollection().orElse(null));
+        }
+        return result;
+    }
+
+    /**
+     * The files below a directory whose last parse had problems
+     */
+    public List<ParseProblem> findProblems(String rootPath) {
+        return repository.findByFilePathStartingWithOrderByFilePath(key(Path.of(rootPath)));
+    }
+
+    private void record(String path, String hash, String service, String languageLevel, List<Problem> found, boolean recovered) {
+        ParseProblem[] changed = new ParseProblem[1];
+        problems.compute(path, (key, known) -> {
+            // Several services parse the same file; the first of them records its problems
+            if (known != null && known.getContentHash().equals(hash) && known.isRecovered() == recovered) {
+                return known;
+            }
+            // A new instance, since other threads read the recorded one without locking
+            ParseProblem problem = new ParseProblem(path, hash);
+            if (known != null) {
+                problem.setId(known.getId());
+            }
+            problem.setService(service);
+            problem.setLanguageLevel(languageLevel);
+            problem.setProblemCount(found.size());
+            problem.setRecovered(recovered);
+            problem.setDetectedDate(LocalDateTime.now());
+            if (!found.isEmpty()) {
+                Problem first = found.get(0);
+                String message = first.getMessage();
+                problem.setMessage(message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) : message);
+                problem.setLine(first.getLocation()
+                    .flatMap(TokenRange::toRange)
+                    .map(range -> range.begin.line)
+                    .orElse(null));
+            }
+            changed[0] = problem;
+            return problem;
+        });
+
+        // Saved after compute returns, so the map is not locked during database calls
+        if (changed[0] != null) {
+            try {
+                ParseProblem saved = repository.save(changed[0]);
+                if (saved != null && saved != changed[0]) {
+                    problems.replace(path, changed[0], saved); // Merged copy of a known record
+                }
+            } catch (DataAccessException e) {
+                logger.warn("Could not record the parse problems of {}: {}", path, e.getMessage());
+            }
+        }
+    }
+
+    private void forget(String path) {
+        ParseProblem known = problems.remove(path);
+        if (known == null || known.getId() == null) {
+            return;
+        }
+        try {
+            repository.deleteById(known.getId());
+        } catch (DataAccessException e) {
+            logger.warn("Could not clear the parse problems of {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * The recorded problems by file, read from the database on first use
+     */
+    private Map<String, ParseProblem> known() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    try {
+                        repository.findAll().forEach(problem -> problems.putIfAbsent(problem.getFilePath(), problem));
+                    } catch (DataAccessException e) {
+                        logger.warn("Could not read the recorded parse problems: {}", e.getMessage());
+                    }
+                    loaded = true;
+                }
+            }
+        }
+        return problems;
+    }
+
+    private static String key(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Hash and length of the content, enough to notice that a file was edited
+     */
+    static String hash(String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return String.format("%016x%08x", ContentHash.xxh64(bytes), bytes.length);
+    }
+}
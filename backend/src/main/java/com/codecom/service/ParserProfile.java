@@ -0,0 +1,63 @@
+package com.codecom.service;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ParserConfiguration.LanguageLevel;
+
+/**
+ * The JavaParser configurations of the analysis services
+ *
+ * A service picks the cheapest profile that still gives it correct results. Parsers are
+ * not thread-safe, so each thread gets its own parser per profile; the profile
+ * configurations are never changed after creation.
+ */
+public enum ParserProfile {
+
+    /**
+     * For counting and listing declarations: comments are collected but not attributed
+     * to nodes, and the tree is neither validated nor post-processed
+     */
+    FAST {
+        @Override
+        public ParserConfiguration configuration() {
+            return new ParserConfiguration()
+                .setLanguageLevel(LanguageLevel.RAW)
+                .setAttributeComments(false)
+                .setLexicalPreservationEnabled(false);
+        }
+    },
+
+    /**
+     * For documentation, definitions and symbol resolution: comments are attributed and
+     * the tree is validated and post-processed for {@link #LANGUAGE_LEVEL}, e.g. to type
+     * {@code var} declarations
+     */
+    FULL {
+        @Override
+        public ParserConfiguration configuration() {
+            return new ParserConfiguration()
+                .setLanguageLevel(LANGUAGE_LEVEL)
+                .setAttributeComments(true)
+                .setLexicalPreservationEnabled(false);
+        }
+    };
+
+    /**
+     * The newest language level the parser supports
+     */
+    public static final LanguageLevel LANGUAGE_LEVEL = LanguageLevel.JAVA_21;
+
+    private final ThreadLocal<JavaParser> parsers = ThreadLocal.withInitial(() -> new JavaParser(configuration()));
+
+    /**
+     * A new configuration of this profile, to be extended, e.g. with a symbol resolver
+     */
+    public abstract ParserConfiguration configuration();
+
+    /**
+     * The parser of this profile for the current thread
+     */
+    public JavaParser parser() {
+        return parsers.get();
+    }
+}
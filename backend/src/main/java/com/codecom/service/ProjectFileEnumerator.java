@@ -0,0 +1,208 @@
+package com.codecom.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Lists the files of a project for the services that scan a whole directory tree
+ *
+ * Directories named in codecom.files.excluded-directories and paths matched by the
+ * .gitignore files of the project are pruned before they are entered. Subdirectories are
+ * walked in parallel. The file list of a root is cached and reused as long as none of
+ * the walked directories and .gitignore files has been modified since.
+ */
+@Service
+public class ProjectFileEnumerator {
+
+    private static final Logger log = LoggerFactory.getLogger(ProjectFileEnumerator.class);
+    private static final String GITIGNORE = ".gitignore";
+    private static final String EXT_JAVA = ".java";
+    private static final String EXT_JAR = ".jar";
+
+    private final Set<String> excludedDirectories;
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    private final Map<Path, Listing> listings = new ConcurrentHashMap<>();
+
+    public ProjectFileEnumerator(
+            @Value("${codecom.files.excluded-directories:node_modules,target,.git}") Set<String> excludedDirectories) {
+        this.excludedDirectories = Set.copyOf(excludedDirectories);
+    }
+
+    /**
+     * All files below a directory that are not excluded, sorted by path
+     */
+    public List<Path> listFiles(String rootPath) throws IOException {
+        Path root = Path.of(rootPath).toAbsolutePath().normalize();
+        Listing cached = listings.get(root);
+        if (cached != null && cached.isCurrent()) {
+            return cached.files();
+        }
+        Listing listing = walk(root);
+        listings.put(root, listing);
+        return listing.files();
+    }
+
+    /**
+     * The Java source files below a directory that are not excluded, sorted by path
+     */
+    public List<Path> listJavaFiles(String rootPath) throws IOException {
+        return listFiles(rootPath).stream()
+            .filter(path -> path.getFileName().toString().endsWith(EXT_JAVA))
+            .toList();
+    }
+
+    /**
+     * The jars below a directory that are not excluded, sorted by path
+     */
+    public List<Path> listJars(String rootPath) throws IOException {
+        return listFiles(rootPath).stream()
+            .filter(path -> path.getFileName().toString().endsWith(EXT_JAR))
+            .toList();
+    }
+
+    public void invalidate() {
+        listings.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private Listing walk(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new NoSuchFileException(root.toString());
+        }
+        Map<Path, FileTime> stamps = new HashMap<>();
+        GitIgnoreRules rules = parentRules(root, stamps);
+        try {
+            DirectoryResult result = pool.invoke(new DirectoryWalk(root, rules));
+            stamps.putAll(result.stamps());
+            List<Path> files = result.files().stream().sorted().toList();
+            log.debug("Listed {} files below {}", files.size(), root);
+            return new Listing(files, Map.copyOf(stamps));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The rules of .gitignore files above the root that lie inside the same git work tree
+     */
+    private static GitIgnoreRules parentRules(Path root, Map<Path, FileTime> stamps) throws IOException {
+        List<Path> parents = new ArrayList<>();
+        for (Path parent = root.getParent(); parent != null; parent = parent.getParent()) {
+            parents.add(0, parent);
+            if (Files.exists(parent.resolve(".git"))) {
+                GitIgnoreRules rules = GitIgnoreRules.EMPTY;
+                for (Path directory : parents) {
+                    rules = withGitIgnore(rules, directory, stamps);
+                }
+                return rules;
+            }
+        }
+        return GitIgnoreRules.EMPTY;
+    }
+
+    private static GitIgnoreRules withGitIgnore(GitIgnoreRules rules, Path directory, Map<Path, FileTime> stamps)
+            throws IOException {
+        Path gitignore = directory.resolve(GITIGNORE);
+        if (!Files.isRegularFile(gitignore)) {
+            return rules;
+        }
+        stamps.put(gitignore, Files.getLastModifiedTime(gitignore));
+        return rules.withFile(directory, Files.readAllLines(gitignore));
+    }
+
+    private final class DirectoryWalk extends RecursiveTask<DirectoryResult> {
+
+        private final Path directory;
+        private final GitIgnoreRules inherited;
+
+        DirectoryWalk(Path directory, GitIgnoreRules inherited) {
+            this.directory = directory;
+            this.inherited = inherited;
+        }
+
+        @Override
+        protected DirectoryResult compute() {
+            DirectoryResult result = new DirectoryResult(new ArrayList<>(), new HashMap<>());
+            List<DirectoryWalk> subdirectories = new ArrayList<>();
+            try {
+                result.stamps().put(directory, Files.getLastModifiedTime(directory));
+                GitIgnoreRules rules = withGitIgnore(inherited, directory, result.stamps());
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                    for (Path entry : entries) {
+                        BasicFileAttributes attributes =
+                            Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        if (attributes.isDirectory()) {
+                            if (!excludedDirectories.contains(entry.getFileName().toString())
+                                    && !rules.isIgnored(entry, true)) {
+                                subdirectories.add(new DirectoryWalk(entry, rules));
+                            }
+                        } else if ((attributes.isRegularFile()
+                                || attributes.isSymbolicLink() && Files.isRegularFile(entry))
+                                && !rules.isIgnored(entry, false)) {
+                            result.files().add(entry);
+                        }
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                // Removed while walking; the next listing notices the changed parent
+                return result;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (DirectoryResult child : invokeAll(subdirectories).stream().map(DirectoryWalk::join).toList()) {
+                result.files().addAll(child.files());
+                result.stamps().putAll(child.stamps());
+            }
+            return result;
+        }
+    }
+
+    private record DirectoryResult(List<Path> files, Map<Path, FileTime> stamps) {
+    }
+
+    /**
+     * A file list with the modification times of the directories and .gitignore files it
+     * was built from
+     */
+    private record Listing(List<Path> files, Map<Path, FileTime> stamps) {
+
+        boolean isCurrent() {
+            for (Map.Entry<Path, FileTime> stamp : stamps.entrySet()) {
+                try {
+                    if (!Objects.equals(stamp.getValue(), Files.getLastModifiedTime(stamp.getKey()))) {
+                        return false;
+                    }
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
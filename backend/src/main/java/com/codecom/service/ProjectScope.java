@@ -0,0 +1,22 @@
+package com.codecom.service;
+
+/**
+ * Key of the in-memory indexes, which are kept per project
+ * FR.38: Relationship Graph Database
+ * @param projectId Project the index covers, or null for the whole workspace
+ */
+record ProjectScope(Long projectId) {
+
+    static final ProjectScope WORKSPACE = new ProjectScope(null);
+
+    static ProjectScope of(Long projectId) {
+        return projectId == null ? WORKSPACE : new ProjectScope(projectId);
+    }
+
+    /**
+     * Whether re-indexing a project changes data in this scope; null stands for any project
+     */
+    boolean includes(Long changedProjectId) {
+        return projectId == null || changedProjectId == null || projectId.equals(changedProjectId);
+    }
+}
@@ -0,0 +1,376 @@
+package com.codecom.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reachability index over one relationship type of the knowledge graph
+ * FR.39: Cross-Language Query Support
+ *
+ * The graph is condensed into its strongly connected components, which form a DAG.
+ * Every component gets two interval labels from differently ordered post-order walks:
+ * if the target's interval is not nested in the source's, no path exists. The first
+ * walk's spanning tree also proves paths to tree descendants, so only the remaining
+ * pairs need a search, pruned by the same labels. Ancestor and descendant sets are
+ * output-sensitive walks over the component DAG.
+ *
+ * A re-index replaces every node id of the project, so each project and relationship
+ * type is rebuilt in linear time the first time it is queried after
+ * {@link RelationshipGraphCache} has dropped its adjacency.
+ */
+@Service
+public class ReachabilityIndex {
+
+    private static final int LABELINGS = 2;
+
+    private final RelationshipGraphCache graphCache;
+    private final Map<Key, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public ReachabilityIndex(RelationshipGraphCache graphCache) {
+        this.graphCache = graphCache;
+    }
+
+    /**
+     * Check whether a path of at least one relationship leads from source to target
+     * @param projectId Project of the nodes, or null for the whole workspace
+     */
+    public boolean reaches(Long projectId, String relationshipType, Long sourceId, Long targetId) {
+        return snapshot(projectId, relationshipType).reaches(sourceId, targetId);
+    }
+
+    /**
+     * Get every node with a path of at least one relationship to any of the nodes
+     */
+    public Set<Long> ancestors(Long projectId, String relationshipType, Collection<Long> nodeIds) {
+        Snapshot graph = snapshot(projectId, relationshipType);
+        return graph.closure(nodeIds, graph.dagReverseOffsets, graph.dagReverseTargets);
+    }
+
+    /**
+     * Get every node reached by a path of at least one relationship from any of the nodes
+     */
+    public Set<Long> descendants(Long projectId, String relationshipType, Collection<Long> nodeIds) {
+        Snapshot graph = snapshot(projectId, relationshipType);
+        return graph.closure(nodeIds, graph.dagOffsets, graph.dagTargets);
+    }
+
+    /**
+     * Number of project and relationship type pairs with a labelled snapshot
+     */
+    public int size() {
+        return snapshots.size();
+    }
+
+    private Snapshot snapshot(Long projectId, String relationshipType) {
+        RelationshipGraph graph = graphCache.get(projectId, List.of(relationshipType));
+        Key key = new Key(projectId, relationshipType);
+        Snapshot snapshot = snapshots.get(key);
+        if (snapshot == null || snapshot.graph != graph) {
+            snapshot = new Snapshot(graph);
+            snapshots.put(key, snapshot);
+        }
+        return snapshot;
+    }
+
+    private record Key(Long projectId, String relationshipType) {
+    }
+
+    /**
+     * Immutable component DAG with interval labels
+     */
+    static final class Snapshot {
+        private final RelationshipGraph graph;
+        private final int[] componentOf;
+        private final int[] memberOffsets;
+        private final int[] members;
+        private final boolean[] cyclic;       // Component lies on a cycle, so it reaches itself
+        private final int[] dagOffsets;
+        private final int[] dagTargets;
+        private final int[] dagReverseOffsets;
+        private final int[] dagReverseTargets;
+        private final int[][] low = new int[LABELINGS][];
+        private final int[][] rank = new int[LABELINGS][];
+        private final int[] treeEntry;
+
+        Snapshot(RelationshipGraph graph) {
+            this.graph = graph;
+            int nodeCount = graph.nodeCount();
+            componentOf = new int[nodeCount];
+            int componentCount = findComponents(graph, componentOf);
+
+            memberOffsets = new int[componentCount + 1];
+            members = RelationshipGraph.toCsr(componentCount, componentOf, identity(nodeCount), memberOffsets);
+            cyclic = new boolean[componentCount];
+            for (int c = 0; c < componentCount; c++) {
+                cyclic[c] = memberOffsets[c + 1] - memberOffsets[c] > 1;
+            }
+
+            // Distinct component edges; Tarjan numbers components in reverse topological
+            // order, so every DAG edge goes from a higher to a lower component id
+            int[] targets = graph.targets();
+            long[] keys = new long[graph.edgeCount()];
+            int keyCount = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                for (int e = graph.outStart(node); e < graph.outEnd(node); e++) {
+                    int from = componentOf[node];
+                    int to = componentOf[targets[e]];
+                    if (from != to) {
+                        keys[keyCount++] = ((long) from << 32) | to;
+                    } else if (node == targets[e]) {
+                        cyclic[from] = true; // Self call
+                    }
+                }
+            }
+            Arrays.sort(keys, 0, keyCount);
+            int distinct = 0;
+            for (int i = 0; i < keyCount; i++) {
+                if (distinct == 0 || keys[distinct - 1] != keys[i]) {
+                    keys[distinct++] = keys[i];
+                }
+            }
+            int[] from = new int[distinct];
+            int[] to = new int[distinct];
+            for (int i = 0; i < distinct; i++) {
+                from[i] = (int) (keys[i] >>> 32);
+                to[i] = (int) keys[i];
+            }
+            dagOffsets = new int[componentCount + 1];
+            dagTargets = RelationshipGraph.toCsr(componentCount, from, to, dagOffsets);
+            dagReverseOffsets = new int[componentCount + 1];
+            dagReverseTargets = RelationshipGraph.toCsr(componentCount, to, from, dagReverseOffsets);
+
+            treeEntry = new int[componentCount];
+            for (int labeling = 0; labeling < LABELINGS; labeling++) {
+                label(labeling);
+            }
+        }
+
+        boolean reaches(Long sourceId, Long targetId) {
+            int source = graph.ordinal(sourceId);
+            int target = graph.ordinal(targetId);
+            if (source < 0 || target < 0) {
+                return false;
+            }
+            int from = componentOf[source];
+            int to = componentOf[target];
+            if (from == to) {
+                return source != target || cyclic[from];
+            }
+            if (!mayReach(from, to)) {
+                return false;
+            }
+            if (treeEntry[from] <= treeEntry[to] && rank[0][to] <= rank[0][from]) {
+                return true; // Descendant in the spanning tree of the first walk
+            }
+            return search(from, to);
+        }
+
+        /**
+         * Expand the components of the nodes over one direction of the DAG
+         */
+        Set<Long> closure(Collection<Long> nodeIds, int[] offsets, int[] targets) {
+            BitSet expanded = new BitSet(cyclic.length);
+            BitSet reached = new BitSet(cyclic.length);
+            int[] queue = new int[cyclic.length];
+            int tail = 0;
+            for (Long nodeId : nodeIds) {
+                int node = graph.ordinal(nodeId);
+                if (node < 0) {
+                    continue;
+                }
+                int component = componentOf[node];
+                if (cyclic[component]) {
+                    reached.set(component);
+                }
+                if (!expanded.get(component)) {
+                    expanded.set(component);
+                    queue[tail++] = component;
+                }
+            }
+            for (int head = 0; head < tail; head++) {
+                int component = queue[head];
+                for (int e = offsets[component]; e < offsets[component + 1]; e++) {
+                    int next = targets[e];
+                    reached.set(next);
+                    if (!expanded.get(next)) {
+                        expanded.set(next);
+                        queue[tail++] = next;
+                    }
+                }
+            }
+
+            Set<Long> result = new HashSet<>();
+            for (int c = reached.nextSetBit(0); c >= 0; c = reached.nextSetBit(c + 1)) {
+                for (int m = memberOffsets[c]; m < memberOffsets[c + 1]; m++) {
+                    result.add(graph.nodeId(members[m]));
+                }
+            }
+            return result;
+        }
+
+        private boolean mayReach(int from, int to) {
+            if (to > from) {
+                return false; // Topological order
+            }
+            for (int labeling = 0; labeling < LABELINGS; labeling++) {
+                if (low[labeling][to] < low[labeling][from] || rank[labeling][to] > rank[labeling][from]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Depth-first search that only enters components whose labels admit the target
+         */
+        private boolean search(int from, int to) {
+            BitSet visited = new BitSet(cyclic.length);
+            int[] stack = new int[cyclic.length];
+            int size = 0;
+            stack[size++] = from;
+            visited.set(from);
+            while (size > 0) {
+                int component = stack[--size];
+                for (int e = dagOffsets[component]; e < dagOffsets[component + 1]; e++) {
+                    int next = dagTargets[e];
+                    if (next == to) {
+                        return true;
+                    }
+                    if (!visited.get(next) && mayReach(next, to)) {
+                        visited.set(next);
+                        stack[size++] = next;
+                    }
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Post-order walk assigning rank and the lowest rank below each component.
+         * The two walks visit roots and children in opposite orders.
+         */
+        private void label(int labeling) {
+            int count = cyclic.length;
+            int[] ranks = new int[count];
+            int[] lows = new int[count];
+            int[] nextEdge = new int[count];
+            int[] stack = new int[count];
+            boolean[] visited = new boolean[count];
+            boolean forward = labeling == 0;
+            int nextRank = 0;
+            int entries = 0;
+
+            for (int i = 0; i < count; i++) {
+                int root = forward ? count - 1 - i : i;
+                if (visited[root]) {
+                    continue;
+                }
+                int size = 0;
+                stack[size++] = root;
+                visited[root] = true;
+                if (forward) {
+                    treeEntry[root] = entries++;
+                }
+                nextEdge[root] = 0;
+                while (size > 0) {
+                    int component = stack[size - 1];
+                    int degree = dagOffsets[component + 1] - dagOffsets[component];
+                    if (nextEdge[component] < degree) {
+                        int k = nextEdge[component]++;
+                        int child = dagTargets[forward ? dagOffsets[component] + k : dagOffsets[component + 1] - 1 - k];
+                        if (!visited[child]) {
+                            visited[child] = true;
+                            if (forward) {
+                                treeEntry[child] = entries++;
+                            }
+                            nextEdge[child] = 0;
+                            stack[size++] = child;
+                        }
+                    } else {
+                        size--;
+                        int lowest = nextRank;
+                        for (int e = dagOffsets[component]; e < dagOffsets[component + 1]; e++) {
+                            lowest = Math.min(lowest, lows[dagTargets[e]]);
+                        }
+                        ranks[component] = nextRank++;
+                        lows[component] = lowest;
+                    }
+                }
+            }
+            rank[labeling] = ranks;
+            low[labeling] = lows;
+        }
+
+        /**
+         * Iterative Tarjan; components are numbered in reverse topological order
+         */
+        private static int findComponents(RelationshipGraph graph, int[] componentOf) {
+            int[] adjacency = graph.targets();
+            int n = componentOf.length;
+            int[] index = new int[n];
+            int[] lowLink = new int[n];
+            int[] nextEdge = new int[n];
+            int[] callStack = new int[n];
+            int[] sccStack = new int[n];
+            boolean[] onStack = new boolean[n];
+            Arrays.fill(index, -1);
+            int nextIndex = 0;
+            int componentCount = 0;
+
+            for (int start = 0; start < n; start++) {
+                if (index[start] >= 0) {
+                    continue;
+                }
+                int calls = 0;
+                int sccSize = 0;
+                index[start] = lowLink[start] = nextIndex++;
+                nextEdge[start] = graph.outStart(start);
+                callStack[calls++] = start;
+                sccStack[sccSize++] = start;
+                onStack[start] = true;
+
+                while (calls > 0) {
+                    int v = callStack[calls - 1];
+                    if (nextEdge[v] < graph.outEnd(v)) {
+                        int w = adjacency[nextEdge[v]++];
+                        if (index[w] < 0) {
+                            index[w] = lowLink[w] = nextIndex++;
+                            nextEdge[w] = graph.outStart(w);
+                            callStack[calls++] = w;
+                            sccStack[sccSize++] = w;
+                            onStack[w] = true;
+                        } else if (onStack[w]) {
+                            lowLink[v] = Math.min(lowLink[v], index[w]);
+                        }
+                        continue;
+                    }
+                    calls--;
+                    if (lowLink[v] == index[v]) {
+                        int w;
+                        do {
+                            w = sccStack[--sccSize];
+                            onStack[w] = false;
+                            componentOf[w] = componentCount;
+                        } while (w != v);
+                        componentCount++;
+                    }
+                    if (calls > 0) {
+                        int parent = callStack[calls - 1];
+                        lowLink[parent] = Math.min(lowLink[parent], lowLink[v]);
+                    }
+                }
+            }
+            return componentCount;
+        }
+
+        private static int[] identity(int n) {
+            int[] values = new int[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = i;
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.codecom.service;
+
+import com.codecom.repository.CodeRelationshipRepository;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable adjacency of the knowledge graph over dense node ordinals
+ * FR.38: Relationship Graph Database
+ *
+ * Outgoing and incoming edges are stored as compressed sparse rows, so walking the
+ * graph touches only int arrays. Only nodes with at least one edge get an ordinal.
+ */
+public final class RelationshipGraph {
+
+    private final long[] nodeIds; // Sorted, position is the ordinal
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] reverseOffsets;
+    private final int[] sources;
+
+    private RelationshipGraph(long[] nodeIds, int[] offsets, int[] targets, int[] reverseOffsets, int[] sources) {
+        this.nodeIds = nodeIds;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.reverseOffsets = reverseOffsets;
+        this.sources = sources;
+    }
+
+    /**
+     * Build the adjacency of a list of edges; parallel edges are kept
+     */
+    public static RelationshipGraph of(List<CodeRelationshipRepository.Edge> edges) {
+        long[] sourceIds = new long[edges.size()];
+        long[] targetIds = new long[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            sourceIds[i] = edges.get(i).getSourceId();
+            targetIds[i] = edges.get(i).getTargetId();
+        }
+        return of(sourceIds, targetIds);
+    }
+
+    /**
+     * Combine the edges of several graphs into one adjacency
+     */
+    public static RelationshipGraph union(List<RelationshipGraph> graphs) {
+        int edgeCount = graphs.stream().mapToInt(RelationshipGraph::edgeCount).sum();
+        long[] sourceIds = new long[edgeCount];
+        long[] targetIds = new long[edgeCount];
+        int next = 0;
+        for (RelationshipGraph graph : graphs) {
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                for (int e = graph.outStart(node); e < graph.outEnd(node); e++) {
+                    sourceIds[next] = graph.nodeId(node);
+                    targetIds[next++] = graph.nodeId(graph.targets[e]);
+                }
+            }
+        }
+        return of(sourceIds, targetIds);
+    }
+
+    /**
+     * Wrap arrays that already form a valid adjacency, as read back from a {@link GraphSnapshot}
+     */
+    static RelationshipGraph fromCsr(long[] nodeIds, int[] offsets, int[] targets, int[] reverseOffsets, int[] sources) {
+        if (offsets.length != nodeIds.length + 1 || reverseOffsets.length != nodeIds.length + 1
+                || targets.length != sources.length || offsets[nodeIds.length] != targets.length) {
+            throw new IllegalArgumentException("Inconsistent adjacency arrays");
+        }
+        return new RelationshipGraph(nodeIds, offsets, targets, reverseOffsets, sources);
+    }
+
+    private static RelationshipGraph of(long[] sourceIds, long[] targetIds) {
+        long[] ids = new long[sourceIds.length * 2];
+        System.arraycopy(sourceIds, 0, ids, 0, sourceIds.length);
+        System.arraycopy(targetIds, 0, ids, sourceIds.length, targetIds.length);
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < ids.length; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        long[] nodeIds = Arrays.copyOf(ids, distinct);
+
+        int[] edgeSources = new int[sourceIds.length];
+        int[] edgeTargets = new int[targetIds.length];
+        for (int i = 0; i < sourceIds.length; i++) {
+            edgeSources[i] = Arrays.binarySearch(nodeIds, sourceIds[i]);
+            edgeTargets[i] = Arrays.binarySearch(nodeIds, targetIds[i]);
+        }
+        int[] offsets = new int[nodeIds.length + 1];
+        int[] targets = toCsr(nodeIds.length, edgeSources, edgeTargets, offsets);
+        int[] reverseOffsets = new int[nodeIds.length + 1];
+        int[] sources = toCsr(nodeIds.length, edgeTargets, edgeSources, reverseOffsets);
+        return new RelationshipGraph(nodeIds, offsets, targets, reverseOffsets, sources);
+    }
+
+    public int nodeCount() {
+        return nodeIds.length;
+    }
+
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * @return the ordinal of a node, or -1 if the node has no edges
+     */
+    public int ordinal(Long nodeId) {
+        if (nodeId == null) {
+            return -1;
+        }
+        int position = Arrays.binarySearch(nodeIds, nodeId);
+        return position >= 0 ? position : -1;
+    }
+
+    public long nodeId(int ordinal) {
+        return nodeIds[ordinal];
+    }
+
+    /**
+     * Outgoing neighbours of a node are targets()[outStart(node) .. outEnd(node))
+     */
+    public int outStart(int node) {
+        return offsets[node];
+    }
+
+    public int outEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    public int[] targets() {
+        return targets;
+    }
+
+    /**
+     * Incoming neighbours of a node are sources()[inStart(node) .. inEnd(node))
+     */
+    public int inStart(int node) {
+        return reverseOffsets[node];
+    }
+
+    public int inEnd(int node) {
+        return reverseOffsets[node + 1];
+    }
+
+    public int[] sources() {
+        return sources;
+    }
+
+    /**
+     * Group the (from, to) pairs by from into compressed sparse rows
+     */
+    static int[] toCsr(int rows, int[] from, int[] to, int[] offsets) {
+        for (int f : from) {
+            offsets[f + 1]++;
+        }
+        for (int r = 0; r < rows; r++) {
+            offsets[r + 1] += offsets[r];
+        }
+        int[] fill = Arrays.copyOf(offsets, rows);
+        int[] values = new int[from.length];
+        for (int i = 0; i < from.length; i++) {
+            values[fill[from[i]]++] = to[i];
+        }
+        return values;
+    }
+}
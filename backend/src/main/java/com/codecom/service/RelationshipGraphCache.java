@@ -0,0 +1,99 @@
+package com.codecom.service;
+
+import com.codecom.repository.CodeRelationshipRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared in-memory adjacency per project and set of relationship types
+ * FR.38: Relationship Graph Database
+ *
+ * Graphs are loaded on first use and dropped when their project is re-indexed, so the
+ * reachability index and path search walk the same arrays, and indexing one project
+ * leaves the graphs of the others in place. A graph over several types is the union
+ * of the single-type graphs, which can also be preloaded from a {@link GraphSnapshot}
+ * instead of the database. Graphs are loaded outside the maps, so concurrent first
+ * requests may each load one; the first graph stored is kept.
+ */
+@Service
+public class RelationshipGraphCache {
+
+    private final CodeRelationshipRepository relationshipRepository;
+
+    // A build still running when its scope is dropped fills the discarded map
+    private final Map<ProjectScope, Map<List<String>, RelationshipGraph>> graphs = new ConcurrentHashMap<>();
+
+    public RelationshipGraphCache(CodeRelationshipRepository relationshipRepository) {
+        this.relationshipRepository = relationshipRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphIndexed(GraphIndexedEvent event) {
+        invalidate(event.projectId());
+    }
+
+    public void invalidate() {
+        graphs.clear();
+    }
+
+    /**
+     * Drop the graphs that contain relationships of a project
+     */
+    public void invalidate(Long projectId) {
+        graphs.keySet().removeIf(scope -> scope.includes(projectId));
+    }
+
+    /**
+     * Replace the graphs of a project with the given single-type graphs
+     */
+    public void preload(Long projectId, Map<String, RelationshipGraph> graphsByType) {
+        Map<List<String>, RelationshipGraph> loaded = new ConcurrentHashMap<>();
+        graphsByType.forEach((type, graph) -> loaded.put(List.of(type), graph));
+        graphs.put(ProjectScope.of(projectId), loaded);
+    }
+
+    /**
+     * Get the adjacency of all relationships of the given types
+     * @param projectId Project of the relationships, or null for the whole workspace
+     */
+    public RelationshipGraph get(Long projectId, Collection<String> relationshipTypes) {
+        Map<List<String>, RelationshipGraph> current =
+            graphs.computeIfAbsent(ProjectScope.of(projectId), scope -> new ConcurrentHashMap<>());
+        List<String> key = relationshipTypes.stream().distinct().sorted().toList();
+        RelationshipGraph known = current.get(key);
+        if (known != null) {
+            return known;
+        }
+        RelationshipGraph built;
+        if (key.size() == 1) {
+            built = RelationshipGraph.of(projectId == null
+                ? relationshipRepository.findEdgesByType(key.get(0))
+                : relationshipRepository.findEdgesByProjectIdAndType(projectId, key.get(0)));
+        } else {
+            built = RelationshipGraph.union(key.stream().map(type -> get(projectId, List.of(type))).toList());
+        }
+        RelationshipGraph raced = current.putIfAbsent(key, built);
+        return raced != null ? raced : built;
+    }
+
+    /**
+     * Number of graphs currently cached, single-type and combined
+     */
+    public int size() {
+        return graphs.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Number of edges held by the cached single-type graphs
+     */
+    public long edgeCount() {
+        return graphs.values().stream()
+            .flatMap(byTypes -> byTypes.entrySet().stream())
+            .filter(entry -> entry.getKey().size() == 1)
+            .mapToLong(entry -> entry.getValue().edgeCount())
+            .sum();
+    }
+}
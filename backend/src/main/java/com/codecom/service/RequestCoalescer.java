@@ -0,0 +1,168 @@
+package com.codecom.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight execution of operations that scan a directory tree
+ *
+ * Concurrent calls of the same operation on the same normalized path, with the same
+ * arguments and during the same index generation, share one in-flight computation: the
+ * first caller runs it and the others wait for its result. A completed result is reused
+ * for codecom.coalescer.ttl-ms, and a re-index starts a new generation so results
+ * computed before it are never handed out again. Failures are passed to every waiting
+ * caller but not cached.
+ *
+ * Results are shared between callers and must not be modified.
+ */
+@Service
+public class RequestCoalescer {
+
+    private final MeterRegistry registry;
+    private final long ttlNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(MeterRegistry registry, @Value("${codecom.coalescer.ttl-ms:2000}") long ttlMs) {
+        this.registry = registry;
+        this.ttlNanos = ttlMs * 1_000_000L;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphIndexed(GraphIndexedEvent event) {
+        generation.incrementAndGet();
+        flights.values().removeIf(Flight::isDone);
+    }
+
+    public <T> T execute(String operation, String path, Loader<T> loader) throws IOException {
+        return execute(operation, path, List.of(), loader);
+    }
+
+    /**
+     * Run a scan, or join an identical one that is running or has just completed
+     * @param operation Name of the operation, also used as metric tag
+     * @param path Directory the operation scans
+     * @param arguments Further arguments that change the result; may contain nulls
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String path, List<?> arguments, Loader<T> loader) throws IOException {
+        Key key = new Key(operation, normalize(path), arguments, generation.get());
+        long now = System.nanoTime();
+        flights.values().removeIf(flight -> flight.isExpired(now, ttlNanos));
+
+        Flight flight = new Flight();
+        Flight existing = flights.putIfAbsent(key, flight);
+        if (existing != null) {
+            count(operation, existing.isDone() ? "cached" : "joined");
+            return (T) await(existing);
+        }
+        count(operation, "computed");
+        try {
+            T result = loader.load();
+            flight.complete(result);
+            if (ttlNanos <= 0) {
+                flights.remove(key, flight);
+            }
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            flights.remove(key, flight);
+            flight.fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Whether a call with these arguments would join a running computation or reuse a
+     * completed one instead of scanning
+     */
+    public boolean isShared(String operation, String path, List<?> arguments) {
+        Flight flight = flights.get(new Key(operation, normalize(path), arguments, generation.get()));
+        return flight != null && !flight.isExpired(System.nanoTime(), ttlNanos);
+    }
+
+    /**
+     * Computations that are running or whose results are still reused
+     */
+    public int size() {
+        return flights.size();
+    }
+
+    private void count(String operation, String outcome) {
+        registry.counter("codecom.coalescer.calls", "operation", operation, "outcome", outcome).increment();
+    }
+
+    private static Object await(Flight flight) throws IOException {
+        try {
+            return flight.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an identical request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new UncheckedIOException(new IOException(cause));
+        }
+    }
+
+    private static String normalize(String path) {
+        return Path.of(path).toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * A scan that may fail reading files
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    private record Key(String operation, String path, List<?> arguments, long generation) {
+        Key {
+            arguments = Arrays.asList(arguments.toArray());
+        }
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private volatile long completedAt;
+
+        void complete(Object value) {
+            completedAt = System.nanoTime();
+            result.complete(value);
+        }
+
+        void fail(Throwable error) {
+            result.completeExceptionally(error);
+        }
+
+        boolean isDone() {
+            return result.isDone();
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return result.isDone() && now - completedAt >= ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.codecom.service;
+
+/**
+ * Published when the nodes of a feature slice change or the slice is created or deleted
+ * FR.35: Feature-Based Code Slicing
+ */
+public record SliceChangedEvent(Long sliceId) {
+}
@@ -0,0 +1,267 @@
+package com.codecom.service;
+
+import com.codecom.repository.CodeNodeRepository;
+import com.codecom.repository.FeatureSliceRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of feature slice membership
+ * FR.35: Feature-Based Code Slicing
+ *
+ * Nodes and files get dense ordinals, and every slice keeps its nodes and files as
+ * compressed bitmaps over those ordinals. File sets, statistics and set operations
+ * between slices then never touch the database or the lazy node collections.
+ */
+@Service
+public class SliceMembershipIndex {
+
+    private final FeatureSliceRepository sliceRepository;
+    private final CodeNodeRepository nodeRepository;
+
+    private volatile State state;
+
+    public SliceMembershipIndex(FeatureSliceRepository sliceRepository, CodeNodeRepository nodeRepository) {
+        this.sliceRepository = sliceRepository;
+        this.nodeRepository = nodeRepository;
+    }
+
+    /**
+     * Rebuild from scratch once a re-index has been committed, since node ids change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphIndexed(GraphIndexedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Refresh a single slice once its changes have been committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSliceChanged(SliceChangedEvent event) {
+        refresh(event.sliceId());
+    }
+
+    public synchronized void invalidate() {
+        state = null;
+    }
+
+    /**
+     * Get the file paths of a slice, in lexical order
+     */
+    public Set<String> getFilePaths(Long sliceId) {
+        State current = getState();
+        return current.toPaths(current.slice(sliceId).files);
+    }
+
+    /**
+     * Get node count, file count and node type breakdown of a slice
+     */
+    public Map<String, Object> getStatistics(Long sliceId) {
+        State current = getState();
+        SliceBits slice = current.slice(sliceId);
+
+        Map<String, Long> nodeTypeCount = new HashMap<>();
+        current.nodesByType.forEach((type, nodes) -> {
+            int count = RoaringBitmap.andCardinality(slice.nodes, nodes);
+            if (count > 0) {
+                nodeTypeCount.put(type, (long) count);
+            }
+        });
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("nodeCount", slice.nodes.getCardinality());
+        stats.put("fileCount", slice.files.getCardinality());
+        stats.put("nodeTypeBreakdown", nodeTypeCount);
+        return stats;
+    }
+
+    /**
+     * Get the files contained in at least one of the slices
+     */
+    public Set<String> unionFilePaths(Collection<Long> sliceIds) {
+        State current = getState();
+        RoaringBitmap result = new RoaringBitmap();
+        for (Long sliceId : sliceIds) {
+            result.or(current.slice(sliceId).files);
+        }
+        return current.toPaths(result);
+    }
+
+    /**
+     * Get the files contained in every one of the slices
+     */
+    public Set<String> intersectFilePaths(Collection<Long> sliceIds) {
+        State current = getState();
+        RoaringBitmap result = null;
+        for (Long sliceId : sliceIds) {
+            RoaringBitmap files = current.slice(sliceId).files;
+            result = result == null ? files.clone() : RoaringBitmap.and(result, files);
+        }
+        return result == null ? new LinkedHashSet<>() : current.toPaths(result);
+    }
+
+    /**
+     * Get the ids of the slices that contain at least one node of a file
+     */
+    public List<Long> findSlicesContainingFile(String filePath) {
+        State current = getState();
+        Integer file = current.fileOrdinals.get(filePath);
+        if (file == null) {
+            return List.of();
+        }
+        List<Long> sliceIds = new ArrayList<>();
+        current.slices.forEach((sliceId, slice) -> {
+            if (slice.files.contains(file)) {
+                sliceIds.add(sliceId);
+            }
+        });
+        Collections.sort(sliceIds);
+        return sliceIds;
+    }
+
+    /**
+     * Number of slices with bitmaps, 0 until the index is built
+     */
+    public int sliceCount() {
+        State current = state;
+        return current == null ? 0 : current.slices.size();
+    }
+
+    /**
+     * Number of indexed nodes, 0 until the index is built
+     */
+    public int nodeCount() {
+        State current = state;
+        return current == null ? 0 : current.fileOfNode.length;
+    }
+
+    private State getState() {
+        State current = state;
+        if (current == null) {
+            synchronized (this) {
+                current = state;
+                if (current == null) {
+                    current = build();
+                    state = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Replace the bitmaps of one slice, or drop the slice if it no longer exists
+     */
+    private synchronized void refresh(Long sliceId) {
+        State current = state;
+        if (current == null) {
+            return; // Built lazily with the latest data
+        }
+        if (!sliceRepository.existsById(sliceId)) {
+            current.slices.remove(sliceId);
+            return;
+        }
+        SliceBits slice = new SliceBits();
+        for (Long nodeId : sliceRepository.findNodeIdsBySliceId(sliceId)) {
+            if (!current.addNode(slice, nodeId)) {
+                state = null; // Node indexed after the ordinals were assigned
+                return;
+            }
+        }
+        slice.optimize();
+        current.slices.put(sliceId, slice);
+    }
+
+    private State build() {
+        List<CodeNodeRepository.NodeKey> nodes = nodeRepository.findAllNodeKeys();
+
+        // File ordinals follow lexical order, so bitmaps map back to sorted paths
+        TreeSet<String> sortedPaths = new TreeSet<>();
+        nodes.forEach(node -> sortedPaths.add(node.getFilePath()));
+        State result = new State(new ArrayList<>(sortedPaths), nodes.size());
+        for (int i = 0; i < result.filePaths.size(); i++) {
+            result.fileOrdinals.put(result.filePaths.get(i), i);
+        }
+
+        for (int ordinal = 0; ordinal < nodes.size(); ordinal++) {
+            CodeNodeRepository.NodeKey node = nodes.get(ordinal);
+            result.nodeOrdinals.put(node.getId(), ordinal);
+            result.fileOfNode[ordinal] = result.fileOrdinals.get(node.getFilePath());
+            result.nodesByType.computeIfAbsent(node.getNodeType(), type -> new RoaringBitmap()).add(ordinal);
+        }
+        result.nodesByType.values().forEach(RoaringBitmap::runOptimize);
+
+        for (Long sliceId : sliceRepository.findAllIds()) {
+            result.slices.put(sliceId, new SliceBits());
+        }
+        for (FeatureSliceRepository.SliceMembership membership : sliceRepository.findAllMemberships()) {
+            SliceBits slice = result.slices.computeIfAbsent(membership.getSliceId(), id -> new SliceBits());
+            result.addNode(slice, membership.getNodeId());
+        }
+        result.slices.values().forEach(SliceBits::optimize);
+        return result;
+    }
+
+    /**
+     * Ordinals of the indexed graph and the bitmaps of every slice
+     */
+    private static final class State {
+        final List<String> filePaths;
+        final Map<String, Integer> fileOrdinals = new HashMap<>();
+        final Map<Long, Integer> nodeOrdinals;
+        final int[] fileOfNode;
+        final Map<String, RoaringBitmap> nodesByType = new HashMap<>();
+        final Map<Long, SliceBits> slices = new ConcurrentHashMap<>();
+
+        State(List<String> filePaths, int nodeCount) {
+            this.filePaths = filePaths;
+            this.nodeOrdinals = new HashMap<>(nodeCount * 2);
+            this.fileOfNode = new int[nodeCount];
+        }
+
+        SliceBits slice(Long sliceId) {
+            SliceBits slice = slices.get(sliceId);
+            if (slice == null) {
+                throw new IllegalArgumentException("Slice not found: " + sliceId);
+            }
+            return slice;
+        }
+
+        /**
+         * @return false if the node is unknown to this index
+         */
+        boolean addNode(SliceBits slice, Long nodeId) {
+            Integer ordinal = nodeOrdinals.get(nodeId);
+            if (ordinal == null) {
+                return false;
+            }
+            slice.nodes.add(ordinal);
+            slice.files.add(fileOfNode[ordinal]);
+            return true;
+        }
+
+        Set<String> toPaths(RoaringBitmap files) {
+            Set<String> paths = new LinkedHashSet<>();
+            files.forEach((int file) -> paths.add(filePaths.get(file)));
+            return paths;
+        }
+    }
+
+    /**
+     * Node and file membership of one slice
+     */
+    private static final class SliceBits {
+        final RoaringBitmap nodes = new RoaringBitmap();
+        final RoaringBitmap files = new RoaringBitmap();
+
+        void optimize() {
+            nodes.runOptimize();
+            files.runOptimize();
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.codecom.service;
 import com.codecom.dto.StateMachineInfo;
 import com.codecom.dto.StateNode;
 import com.codecom.dto.StateTransition;
-import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.EnumDeclaration;
@@ -23,21 +22,42 @@ import java.util.*;
 @Service
 public class StateMachineService {
 
-    private final JavaParser javaParser = new JavaParser();
+    private static final String METRICS_NAME = "state-machine";
+
+    private final AnalysisMetrics metrics;
+    private final ParseProblemService parseProblems;
+    private final ContentCache contentCache;
+
+    public StateMachineService(AnalysisMetrics metrics, ParseProblemService parseProblems, ContentCache contentCache) {
+        this.metrics = metrics;
+        this.parseProblems = parseProblems;
+        this.contentCache = contentCache;
+    }
 
     /**
      * Extract all state machines from a Java file
      */
     public List<StateMachineInfo> extractStateMachines(String filePath) throws IOException {
-        String content = Files.readString(Path.of(filePath));
+        String content = metrics.readFile(Path.of(filePath));
         String extension = getExtension(filePath);
 
         return switch (extension) {
-            case "java" -> extractJavaStateMachines(content, filePath);
+            case "java" -> withFilePath(contentCache.get(METRICS_NAME, content,
+                () -> List.copyOf(extractJavaStateMachines(content, filePath))), filePath);
             default -> new ArrayList<>();
         };
     }
 
+    /**
+     * The state machines found in a copy of the file, moved to this file
+     */
+    private List<StateMachineInfo> withFilePath(List<StateMachineInfo> stateMachines, String filePath) {
+        return stateMachines.stream()
+            .map(sm -> new StateMachineInfo(sm.variableName(), sm.variableType(), sm.states(), sm.transitions(),
+                filePath, sm.declarationLine()))
+            .toList();
+    }
+
     private String getExtension(String path) {
         int lastDot = path.lastIndexOf('.');
         return lastDot == -1 ? "" : path.substring(lastDot + 1).toLowerCase();
@@ -45,23 +65,21 @@ public class StateMachineService {
 
     private List<StateMachineInfo> extractJavaStateMachines(String content, String filePath) {
         List<StateMachineInfo> stateMachines = new ArrayList<>();
-        ParseResult<CompilationUnit> result = javaParser.parse(content);
+        ParseResult<CompilationUnit> result = parseProblems.parse(Path.of(filePath), content, ParserProfile.FAST.parser(), METRICS_NAME);
 
-        if (result.isSuccessful()) {
-            result.getResult().ifPresent(cu -> {
-                // Step 1: Find all enum declarations
-                Map<String, EnumInfo> enums = findEnums(cu);
+        result.getResult().ifPresent(cu -> {
+            // Step 1: Find all enum declarations
+            Map<String, EnumInfo> enums = findEnums(cu);
 
-                // Step 2: Find fields with enum types
-                Map<String, StateVariableInfo> stateVariables = findStateVariables(cu, enums);
+            // Step 2: Find fields with enum types
+            Map<String, StateVariableInfo> stateVariables = findStateVariables(cu, enums);
 
-                // Step 3: Find state transitions in methods
-                Map<String, List<StateTransition>> transitions = findTransitions(cu, stateVariables);
+            // Step 3: Find state transitions in methods
+            Map<String, List<StateTransition>> transitions = findTransitions(cu, stateVariables);
 
-                // Step 4: Build StateMachineInfo objects
-                buildStateMachineInfo(stateVariables, enums, transitions, stateMachines, filePath);
-            });
-        }
+            // Step 4: Build StateMachineInfo objects
+            buildStateMachineInfo(stateVariables, enums, transitions, stateMachines, filePath);
+        });
 
         return stateMachines;
     }
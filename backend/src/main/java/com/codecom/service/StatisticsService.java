@@ -1,8 +1,6 @@
 package com.codecom.service;
 
 import com.codecom.dto.CodeStatistics;
-import com.github.javaparser.JavaParser;
-import com.github.javaparser.ParserConfiguration;
 import com.github.javaparser.ParseResult;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.body.*;
@@ -10,33 +8,41 @@ import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Stream;
 
 @Service
 public class StatisticsService {
 
-    private final JavaParser javaParser;
-
-    public StatisticsService() {
-        ParserConfiguration config = new ParserConfiguration();
-        config.setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17_PREVIEW);
-        this.javaParser = new JavaParser(config);
+    private static final String METRICS_NAME = "statistics";
+    private static final String CACHE_PACKAGE = "package";
+
+    private final AnalysisMetrics metrics;
+    private final RequestCoalescer coalescer;
+    private final ProjectFileEnumerator fileEnumerator;
+    private final ParseProblemService parseProblems;
+    private final ContentCache contentCache;
+
+    public StatisticsService(AnalysisMetrics metrics, RequestCoalescer coalescer, ProjectFileEnumerator fileEnumerator,
+                             ParseProblemService parseProblems, ContentCache contentCache) {
+        this.metrics = metrics;
+        this.coalescer = coalescer;
+        this.fileEnumerator = fileEnumerator;
+        this.parseProblems = parseProblems;
+        this.contentCache = contentCache;
     }
 
     /**
      * Calculate statistics for a single file.
      */
     public CodeStatistics calculateFileStatistics(String path) throws IOException {
-        String content = Files.readString(Path.of(path));
+        String content = metrics.readFile(Path.of(path));
         String extension = getExtension(path);
 
         return switch (extension) {
-            case "java" -> calculateJavaStatistics(content);
+            case "java" -> contentCache.get(METRICS_NAME, content, () -> calculateJavaStatistics(Path.of(path), content));
             default -> calculateGenericStatistics(content);
         };
     }
@@ -45,8 +51,10 @@ public class StatisticsService {
      * Calculate statistics for a directory (recursively).
      */
     public CodeStatistics calculateDirectoryStatistics(String directoryPath) throws IOException {
-        Path dir = Path.of(directoryPath);
-        
+        return coalescer.execute("statistics", directoryPath, () -> scanDirectoryStatistics(directoryPath));
+    }
+
+    private CodeStatistics scanDirectoryStatistics(String directoryPath) throws IOException {
         int totalLines = 0;
         int codeLines = 0;
         int commentLines = 0;
@@ -57,13 +65,9 @@ public class StatisticsService {
         int recordCount = 0;
         Set<String> packages = new HashSet<>();
 
-        List<Path> files;
-        try (Stream<Path> stream = Files.walk(dir)) {
-            files = stream
-                .filter(Files::isRegularFile)
-                .filter(p -> isCodeFile(p.toString()))
-                .toList();
-        }
+        List<Path> files = fileEnumerator.listFiles(directoryPath).stream()
+            .filter(p -> isCodeFile(p.toString()))
+            .toList();
 
         for (Path file : files) {
             CodeStatistics fileStats = calculateFileStatistics(file.toString());
@@ -77,7 +81,8 @@ public class StatisticsService {
             recordCount += fileStats.recordCount();
             
             if ("java".equals(getExtension(file.toString()))) {
-                String pkg = extractPackageName(Files.readString(file));
+                String content = metrics.readFile(file);
+                String pkg = contentCache.get(CACHE_PACKAGE, content, () -> extractPackageName(file, content));
                 if (!pkg.isEmpty()) {
                     packages.add(pkg);
                 }
@@ -97,11 +102,12 @@ public class StatisticsService {
         );
     }
 
-    private CodeStatistics calculateJavaStatistics(String content) {
-        ParseResult<CompilationUnit> result = javaParser.parse(content);
+    private CodeStatistics calculateJavaStatistics(Path path, String content) {
+        ParseResult<CompilationUnit> result = parseProblems.parse(path, content, ParserProfile.FAST.parser(), METRICS_NAME);
         java.util.Optional<CompilationUnit> cuOpt = result.getResult();
         
-        if (!result.isSuccessful() || cuOpt.isEmpty()) {
+        // A partial tree still counts the declarations the parser recovered
+        if (cuOpt.isEmpty()) {
             return calculateGenericStatistics(content);
         }
 
@@ -111,15 +117,15 @@ public class StatisticsService {
         String[] lines = content.split("\n");
         int totalLines = lines.length;
         
-        // Get all comment ranges
+        // Get all comment ranges; collected by the parser even though not attributed to nodes
         Set<Integer> commentLineNumbers = new HashSet<>();
-        cu.getAllComments().forEach(comment -> 
+        result.getCommentsCollection().ifPresent(comments -> comments.getComments().forEach(comment -> 
             comment.getRange().ifPresent(range -> {
                 for (int i = range.begin.line; i <= range.end.line; i++) {
                     commentLineNumbers.add(i);
                 }
             })
-        );
+        ));
         
         // Count blank and code lines
         int blankLines = 0;
@@ -177,8 +183,8 @@ public class StatisticsService {
         );
     }
 
-    private String extractPackageName(String content) {
-        ParseResult<CompilationUnit> result = javaParser.parse(content);
+    private String extractPackageName(Path path, String content) {
+        ParseResult<CompilationUnit> result = parseProblems.parse(path, content, ParserProfile.FAST.parser(), METRICS_NAME);
         return result.getResult()
             .flatMap(cu -> cu.getPackageDeclaration())
             .map(pd -> pd.getNameAsString())
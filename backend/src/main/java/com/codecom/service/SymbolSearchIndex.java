@@ -0,0 +1,338 @@
+package com.codecom.service;
+
+import com.codecom.repository.CodeNodeRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory inverted index over node names, signatures and documentation
+ * FR.38: Relationship Graph Database
+ *
+ * Identifiers are split at camelCase, acronym and digit boundaries, so "getUserById"
+ * is found by "user" and by "getuserbyid". Results are ranked with BM25F: term
+ * frequencies of the three fields are boosted and length-normalised per field, then
+ * saturated once per term. A trailing "*" turns a query word into a prefix match
+ * over the sorted term dictionary.
+ */
+@Service
+public class SymbolSearchIndex {
+
+    static final int NAME = 0;
+    static final int SIGNATURE = 1;
+    static final int DOCUMENTATION = 2;
+    private static final float[] BOOSTS = {3.0f, 1.5f, 1.0f};
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_PREFIX_TERMS = 512;
+
+    private final CodeNodeRepository nodeRepository;
+
+    // A build still running when its scope is dropped fills the discarded holder
+    private final Map<ProjectScope, Holder> holders = new ConcurrentHashMap<>();
+
+    public SymbolSearchIndex(CodeNodeRepository nodeRepository) {
+        this.nodeRepository = nodeRepository;
+    }
+
+    /**
+     * Rebuild from scratch once a re-index has been committed, since node ids change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onGraphIndexed(GraphIndexedEvent event) {
+        invalidate(event.projectId());
+    }
+
+    public void invalidate() {
+        holders.clear();
+    }
+
+    /**
+     * Drop the indexes that contain nodes of a project
+     */
+    public void invalidate(Long projectId) {
+        holders.keySet().removeIf(scope -> scope.includes(projectId));
+    }
+
+    /**
+     * Build the index of a project from documents that were not read from the
+     * database, such as a {@link GraphSnapshot}
+     */
+    public void preload(Long projectId, List<CodeNodeRepository.SearchDocument> documents) {
+        Holder holder = new Holder();
+        holder.state = new State(documents);
+        holders.put(ProjectScope.of(projectId), holder);
+    }
+
+    /**
+     * Rank nodes against a free-text query
+     * @param projectId Project to search, or null for the whole workspace
+     * @return up to limit node ids, best match first
+     */
+    public List<Long> search(Long projectId, String query, int limit) {
+        List<QueryTerm> terms = parse(query);
+        if (terms.isEmpty() || limit < 1) {
+            return List.of();
+        }
+        return getState(projectId).search(terms, limit);
+    }
+
+    /**
+     * Number of indexed nodes over all built indexes
+     */
+    public int documentCount() {
+        return holders.values().stream().mapToInt(holder -> {
+            State current = holder.state;
+            return current == null ? 0 : current.nodeIds.length;
+        }).sum();
+    }
+
+    /**
+     * Number of distinct terms over all built indexes
+     */
+    public int termCount() {
+        return holders.values().stream().mapToInt(holder -> {
+            State current = holder.state;
+            return current == null ? 0 : current.terms.length;
+        }).sum();
+    }
+
+    private State getState(Long projectId) {
+        Holder holder = holders.computeIfAbsent(ProjectScope.of(projectId), scope -> new Holder());
+        State current = holder.state;
+        if (current == null) {
+            synchronized (holder) {
+                current = holder.state;
+                if (current == null) {
+                    current = new State(projectId == null
+                        ? nodeRepository.findAllSearchDocuments()
+                        : nodeRepository.findSearchDocumentsByProjectId(projectId));
+                    holder.state = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class Holder {
+        private volatile State state;
+    }
+
+    private record QueryTerm(String text, boolean prefix) {
+    }
+
+    private static List<QueryTerm> parse(String query) {
+        List<QueryTerm> terms = new ArrayList<>();
+        if (query == null) {
+            return terms;
+        }
+        for (String word : query.trim().split("\\s+")) {
+            boolean prefix = word.endsWith("*");
+            for (String token : tokenize(word)) {
+                terms.add(new QueryTerm(token, prefix));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Split text into lower-case tokens: the parts of every identifier, plus the
+     * whole identifier when it has more than one part
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (start == i) {
+                continue;
+            }
+            int parts = 0;
+            int partStart = start;
+            for (int j = start + 1; j <= i; j++) {
+                if (j == i || isBoundary(text.charAt(j - 1), text.charAt(j), j + 1 < i ? text.charAt(j + 1) : ' ')) {
+                    tokens.add(text.substring(partStart, j).toLowerCase(Locale.ROOT));
+                    partStart = j;
+                    parts++;
+                }
+            }
+            if (parts > 1) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isBoundary(char previous, char current, char next) {
+        if (Character.isDigit(previous) != Character.isDigit(current)) {
+            return true;
+        }
+        if (Character.isUpperCase(current)) {
+            return !Character.isUpperCase(previous) || Character.isLowerCase(next); // "HTTPServer" -> HTTP|Server
+        }
+        return false;
+    }
+
+    /**
+     * Immutable term dictionary with postings over dense document ordinals
+     */
+    private static final class State {
+        private final long[] nodeIds;
+        private final String[] terms;      // Sorted, position is the term id
+        private final int[][] postings;    // Document ordinals per term, ascending
+        private final int[][][] frequencies; // [field][term][posting]
+        private final float[][] lengthNorms; // [field][document]: 1 - b + b * length / average
+
+        State(List<CodeNodeRepository.SearchDocument> documents) {
+            int count = documents.size();
+            nodeIds = new long[count];
+            int[][] lengths = new int[3][count];
+            Map<String, Postings> builders = new HashMap<>();
+
+            for (int doc = 0; doc < count; doc++) {
+                CodeNodeRepository.SearchDocument document = documents.get(doc);
+                nodeIds[doc] = document.getId();
+                String[] fields = {document.getName(), document.getSignature(), document.getDocumentation()};
+                for (int field = 0; field < fields.length; field++) {
+                    List<String> tokens = tokenize(fields[field]);
+                    lengths[field][doc] = tokens.size();
+                    for (String token : tokens) {
+                        builders.computeIfAbsent(token, t -> new Postings()).add(doc, field);
+                    }
+                }
+            }
+
+            terms = builders.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+            postings = new int[terms.length][];
+            frequencies = new int[3][terms.length][];
+            for (int t = 0; t < terms.length; t++) {
+                Postings builder = builders.get(terms[t]);
+                postings[t] = Arrays.copyOf(builder.docs, builder.size);
+                for (int field = 0; field < 3; field++) {
+                    frequencies[field][t] = Arrays.copyOf(builder.frequencies[field], builder.size);
+                }
+            }
+
+            lengthNorms = new float[3][count];
+            for (int field = 0; field < 3; field++) {
+                long total = 0;
+                for (int length : lengths[field]) {
+                    total += length;
+                }
+                float average = count == 0 ? 1 : Math.max(1f, (float) total / count);
+                for (int doc = 0; doc < count; doc++) {
+                    lengthNorms[field][doc] = 1 - B + B * lengths[field][doc] / average;
+                }
+            }
+        }
+
+        List<Long> search(List<QueryTerm> queryTerms, int limit) {
+            float[] scores = new float[nodeIds.length];
+            float[] termScores = new float[nodeIds.length];
+            BitSet matched = new BitSet(nodeIds.length);
+            BitSet touched = new BitSet(nodeIds.length);
+
+            for (QueryTerm queryTerm : queryTerms) {
+                touched.clear();
+                for (int t : expand(queryTerm)) {
+                    float idf = idf(postings[t].length);
+                    for (int p = 0; p < postings[t].length; p++) {
+                        int doc = postings[t][p];
+                        float score = idf * bm25f(t, p, doc);
+                        if (!touched.get(doc) || score > termScores[doc]) {
+                            termScores[doc] = score; // Best expansion of a prefix counts once
+                        }
+                        touched.set(doc);
+                    }
+                }
+                for (int doc = touched.nextSetBit(0); doc >= 0; doc = touched.nextSetBit(doc + 1)) {
+                    scores[doc] += termScores[doc];
+                }
+                matched.or(touched);
+            }
+
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.min(limit, matched.cardinality()) + 1,
+                Comparator.<Integer>comparingDouble(doc -> scores[doc]).thenComparing(Comparator.reverseOrder()));
+            for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+                top.add(doc);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            Long[] ranked = new Long[top.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = nodeIds[top.poll()];
+            }
+            return Arrays.asList(ranked);
+        }
+
+        private int[] expand(QueryTerm queryTerm) {
+            int first = Arrays.binarySearch(terms, queryTerm.text());
+            if (!queryTerm.prefix()) {
+                return first >= 0 ? new int[] {first} : new int[0];
+            }
+            if (first < 0) {
+                first = -first - 1;
+            }
+            int last = first;
+            while (last < terms.length && last - first < MAX_PREFIX_TERMS && terms[last].startsWith(queryTerm.text())) {
+                last++;
+            }
+            int[] expanded = new int[last - first];
+            for (int i = 0; i < expanded.length; i++) {
+                expanded[i] = first + i;
+            }
+            return expanded;
+        }
+
+        private float idf(int documentFrequency) {
+            return (float) Math.log(1 + (nodeIds.length - documentFrequency + 0.5) / (documentFrequency + 0.5));
+        }
+
+        private float bm25f(int term, int posting, int doc) {
+            float weighted = 0;
+            for (int field = 0; field < 3; field++) {
+                int frequency = frequencies[field][term][posting];
+                if (frequency > 0) {
+                    weighted += BOOSTS[field] * frequency / lengthNorms[field][doc];
+                }
+            }
+            return weighted / (K1 + weighted);
+        }
+    }
+
+    /**
+     * Growable postings of one term while the index is built
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private final int[][] frequencies = new int[3][4];
+        private int size;
+
+        void add(int doc, int field) {
+            if (size == 0 || docs[size - 1] != doc) {
+                if (size == docs.length) {
+                    docs = Arrays.copyOf(docs, size * 2);
+                    for (int f = 0; f < 3; f++) {
+                        frequencies[f] = Arrays.copyOf(frequencies[f], size * 2);
+                    }
+                }
+                docs[size++] = doc;
+            }
+            frequencies[field][size - 1]++;
+        }
+    }
+}
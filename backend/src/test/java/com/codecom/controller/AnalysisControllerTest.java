@@ -1,8 +1,10 @@
 package com.codecom.controller;
 
 import com.codecom.dto.*;
+import com.codecom.entity.ParseProblem;
 import com.codecom.service.AnalysisService;
 import com.codecom.service.ComplexityService;
+import com.codecom.service.ParseProblemService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -33,6 +35,9 @@ class AnalysisControllerTest {
     @Mock
     private ComplexityService complexityService;
 
+    @Mock
+    private ParseProblemService parseProblemService;
+
     @InjectMocks
     private AnalysisController analysisController;
 
@@ -275,4 +280,24 @@ class AnalysisControllerTest {
                 .param("path", "/test/NonExistent.java"))
                 .andExpect(status().isNotFound());
     }
+
+    @Test
+    void getParseProblems_ShouldReturnTheFilesWithProblems() throws Exception {
+        // Given
+        ParseProblem problem = new ParseProblem("/test/Broken.java", "0000000100000020");
+        problem.setProblemCount(2);
+        problem.setRecovered(true);
+        problem.setLine(7);
+        when(parseProblemService.findProblems("/test")).thenReturn(List.of(problem));
+
+        // When/Then
+        mockMvc.perform(get("/api/analysis/parse-problems")
+                .param("path", "/test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].filePath").value("/test/Broken.java"))
+                .andExpect(jsonPath("$[0].problemCount").value(2))
+                .andExpect(jsonPath("$[0].recovered").value(true))
+                .andExpect(jsonPath("$[0].line").value(7));
+    }
 }
@@ -0,0 +1,205 @@
+package com.codecom.controller;
+
+import com.codecom.service.RequestCoalescer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Tests for BulkheadInterceptor
+ */
+class BulkheadInterceptorTest {
+
+    private static final int HEAVY_LIMIT = 2;
+
+    private SimpleMeterRegistry registry;
+    private RequestCoalescer coalescer;
+    private BulkheadInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("codecom.bulkhead.heavy.limit", String.valueOf(HEAVY_LIMIT));
+        coalescer = new RequestCoalescer(registry, 2000);
+        interceptor = new BulkheadInterceptor(registry, coalescer, environment, 4, 200);
+    }
+
+    @Test
+    void testRejectsRequestsOverTheLimit() throws Exception {
+        // Given
+        HandlerMethod heavy = new HandlerMethod(new Endpoints(), "heavy");
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        MockHttpServletRequest second = new MockHttpServletRequest();
+        MockHttpServletRequest third = new MockHttpServletRequest();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+
+        // When
+        boolean firstAdmitted = interceptor.preHandle(first, new MockHttpServletResponse(), heavy);
+        boolean secondAdmitted = interceptor.preHandle(second, new MockHttpServletResponse(), heavy);
+        boolean thirdAdmitted = interceptor.preHandle(third, rejected, heavy);
+
+        // Then
+        assertTrue(firstAdmitted);
+        assertTrue(secondAdmitted);
+        assertFalse(thirdAdmitted);
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(2, interceptor.active("heavy"));
+        assertEquals(1.0, registry.get("codecom.bulkhead.rejected").tag("bulkhead", "heavy").counter().count());
+    }
+
+    @Test
+    void testRequestsJoiningARunningScanNeedNoPermit() throws Exception {
+        // Given: a scan of /project is running and the bulkhead is full
+        HandlerMethod heavy = new HandlerMethod(new Endpoints(), "heavy");
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> scan = clients.submit(() -> coalescer.execute("heavy", "/project", () -> {
+                scanning.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return "scanned";
+            }));
+            assertTrue(scanning.await(5, TimeUnit.SECONDS));
+            interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), heavy);
+            interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), heavy);
+            MockHttpServletRequest same = new MockHttpServletRequest();
+            same.setParameter("path", "/project/./");
+            MockHttpServletRequest other = new MockHttpServletRequest();
+            other.setParameter("path", "/other");
+
+            // When
+            boolean sameAdmitted = interceptor.preHandle(same, new MockHttpServletResponse(), heavy);
+            boolean otherAdmitted = interceptor.preHandle(other, new MockHttpServletResponse(), heavy);
+            interceptor.afterCompletion(same, new MockHttpServletResponse(), heavy, null);
+
+            // Then
+            assertTrue(sameAdmitted);
+            assertFalse(otherAdmitted);
+            assertEquals(2, interceptor.active("heavy"));
+            assertEquals(1.0, registry.get("codecom.bulkhead.joined").tag("bulkhead", "heavy").counter().count());
+            release.countDown();
+            assertEquals("scanned", scan.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testReleasesPermitAfterCompletion() throws Exception {
+        // Given
+        HandlerMethod heavy = new HandlerMethod(new Endpoints(), "heavy");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, heavy);
+
+        // When
+        interceptor.afterCompletion(request, response, heavy, null);
+        interceptor.afterCompletion(request, response, heavy, null);
+
+        // Then
+        assertEquals(0, interceptor.active("heavy"));
+        assertEquals(0.0, registry.get("codecom.bulkhead.active").tag("bulkhead", "heavy").gauge().value());
+    }
+
+    @Test
+    void testIgnoresEndpointsWithoutBulkhead() throws Exception {
+        // Given
+        HandlerMethod light = new HandlerMethod(new Endpoints(), "light");
+
+        // When & Then
+        for (int i = 0; i < 10; i++) {
+            assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), light));
+        }
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), "static"));
+    }
+
+    @Test
+    void testLightEndpointsAreServedWhileEveryHeavyPermitIsHeld() throws Exception {
+        // Given: more heavy requests than the bulkhead admits, all blocked until released
+        Endpoints endpoints = new Endpoints();
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(endpoints).addInterceptors(interceptor).build();
+        int heavyRequests = 10;
+        List<Future<Integer>> heavy = new ArrayList<>();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < heavyRequests; i++) {
+                heavy.add(clients.submit(() -> mockMvc.perform(get("/heavy")).andReturn().getResponse().getStatus()));
+            }
+            assertTrue(endpoints.heavyStarted.await(5, TimeUnit.SECONDS));
+            awaitRejections(heavyRequests - HEAVY_LIMIT);
+
+            // When: every light request is admitted while the heavy permits stay taken
+            for (int i = 0; i < 50; i++) {
+                assertEquals(200, mockMvc.perform(get("/light")).andReturn().getResponse().getStatus());
+                assertEquals(HEAVY_LIMIT, interceptor.active("heavy"));
+            }
+            endpoints.release.countDown();
+
+            // Then: only the heavy requests within the limit were served
+            long served = 0;
+            long rejected = 0;
+            for (Future<Integer> result : heavy) {
+                int status = result.get(5, TimeUnit.SECONDS);
+                if (status == 200) {
+                    served++;
+                } else if (status == 503) {
+                    rejected++;
+                }
+            }
+            assertEquals(HEAVY_LIMIT, served);
+            assertEquals(heavyRequests - HEAVY_LIMIT, rejected);
+        }
+        assertEquals(0, interceptor.active("heavy"));
+    }
+
+    private void awaitRejections(int expected) throws InterruptedException {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            if (registry.find("codecom.bulkhead.rejected").counters().stream()
+                    .mapToDouble(Counter::count).sum() >= expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Requests over the limit were not rejected");
+    }
+
+    @RestController
+    static class Endpoints {
+
+        final CountDownLatch heavyStarted = new CountDownLatch(HEAVY_LIMIT);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @GetMapping("/heavy")
+        @Bulkhead("heavy")
+        public String heavy() throws InterruptedException {
+            heavyStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "heavy";
+        }
+
+        @GetMapping("/light")
+        public String light() {
+            return "light";
+        }
+    }
+}
@@ -109,10 +109,10 @@ class FeatureSliceControllerTest {
         // Given
         FeatureSlice slice1 = createMockSlice(1L, "Slice 1", "First");
         FeatureSlice slice2 = createMockSlice(2L, "Slice 2", "Second");
-        when(service.getAllSlices()).thenReturn(List.of(slice1, slice2));
+        when(service.getAllSlices(null)).thenReturn(List.of(slice1, slice2));
         
         // When
-        ResponseEntity<List<FeatureSliceResponse>> response = controller.getAllSlices();
+        ResponseEntity<List<FeatureSliceResponse>> response = controller.getAllSlices(null);
         
         // Then
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
@@ -4,6 +4,8 @@ import com.codecom.dto.FlowGraphEdge;
 import com.codecom.dto.FlowGraphNode;
 import com.codecom.dto.FlowGraphResponse;
 import com.codecom.service.FlowGraphService;
+import com.codecom.service.GraphAggregationService;
+import com.codecom.service.GraphLayoutService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.ResponseEntity;
@@ -21,13 +23,17 @@ class FlowGraphControllerTest {
     
     private FlowGraphController controller;
     private FlowGraphService flowGraphService;
+    private GraphAggregationService aggregationService;
+    private GraphLayoutService layoutService;
     
     private FlowGraphResponse testResponse;
     
     @BeforeEach
     void setUp() {
         flowGraphService = mock(FlowGraphService.class);
-        controller = new FlowGraphController(flowGraphService);
+        aggregationService = mock(GraphAggregationService.class);
+        layoutService = mock(GraphLayoutService.class);
+        controller = new FlowGraphController(flowGraphService, aggregationService, layoutService);
         
         List<FlowGraphNode> nodes = new ArrayList<>();
         nodes.add(new FlowGraphNode("node-1", "UserList", "CLASS", "COMPONENT", 
@@ -48,10 +54,10 @@ class FlowGraphControllerTest {
     @Test
     void testAnalyzeProject_ReturnsFlowGraph() {
         // Arrange
-        when(flowGraphService.buildFlowGraph()).thenReturn(testResponse);
+        when(flowGraphService.buildFlowGraph(null)).thenReturn(testResponse);
         
         // Act
-        ResponseEntity<FlowGraphResponse> response = controller.analyzeProject();
+        ResponseEntity<FlowGraphResponse> response = controller.analyzeProject(null, null, null);
         
         // Assert
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -64,7 +70,21 @@ class FlowGraphControllerTest {
         assertThat(response.getBody().getNodes().get(0).getLayer()).isEqualTo("COMPONENT");
         assertThat(response.getBody().getEdges().get(0).getEdgeType()).isEqualTo("CALLS");
         
-        verify(flowGraphService).buildFlowGraph();
+        verify(flowGraphService).buildFlowGraph(null);
+    }
+    
+    @Test
+    void testAnalyzeProject_WithLayerFilter() {
+        // Arrange
+        when(flowGraphService.buildFlowGraphForLayer(null, "CONTROLLER")).thenReturn(testResponse);
+        
+        // Act
+        ResponseEntity<FlowGraphResponse> response = controller.analyzeProject("controller", null, null);
+        
+        // Assert
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        verify(flowGraphService).buildFlowGraphForLayer("CONTROLLER");
+        verify(flowGraphService, never()).buildFlowGraph(null);
     }
     
     @Test
@@ -75,7 +95,7 @@ class FlowGraphControllerTest {
             .thenReturn(testResponse);
         
         // Act
-        ResponseEntity<FlowGraphResponse> response = controller.traceFromNode(nodeId, 5);
+        ResponseEntity<FlowGraphResponse> response = controller.traceFromNode(nodeId, 5, null);
         
         // Assert
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -95,7 +115,7 @@ class FlowGraphControllerTest {
             .thenReturn(testResponse);
         
         // Act
-        ResponseEntity<FlowGraphResponse> response = controller.traceFromNode(nodeId, depth);
+        ResponseEntity<FlowGraphResponse> response = controller.traceFromNode(nodeId, depth, null);
         
         // Assert
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -109,11 +129,11 @@ class FlowGraphControllerTest {
     void testGetComponentFlow_ReturnsFlow() {
         // Arrange
         String componentName = "UserList";
-        when(flowGraphService.buildFlowGraphForComponent(componentName))
+        when(flowGraphService.buildFlowGraphForComponent(null, componentName))
             .thenReturn(testResponse);
         
         // Act
-        ResponseEntity<FlowGraphResponse> response = controller.getComponentFlow(componentName);
+        ResponseEntity<FlowGraphResponse> response = controller.getComponentFlow(componentName, null, null);
         
         // Assert
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -134,11 +154,11 @@ class FlowGraphControllerTest {
             Map.of("error", "Component not found", "componentName", componentName)
         );
         
-        when(flowGraphService.buildFlowGraphForComponent(componentName))
+        when(flowGraphService.buildFlowGraphForComponent(null, componentName))
             .thenReturn(emptyResponse);
         
         // Act
-        ResponseEntity<FlowGraphResponse> response = controller.getComponentFlow(componentName);
+        ResponseEntity<FlowGraphResponse> response = controller.getComponentFlow(componentName, null, null);
         
         // Assert
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -159,10 +179,10 @@ class FlowGraphControllerTest {
             Map.of("nodeCount", 0, "edgeCount", 0)
         );
         
-        when(flowGraphService.buildFlowGraph()).thenReturn(emptyResponse);
+        when(flowGraphService.buildFlowGraph(null)).thenReturn(emptyResponse);
         
         // Act
-        ResponseEntity<FlowGraphResponse> response = controller.analyzeProject();
+        ResponseEntity<FlowGraphResponse> response = controller.analyzeProject(null, null, null);
         
         // Assert
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -171,7 +191,7 @@ class FlowGraphControllerTest {
         assertThat(response.getBody().getEdges()).hasSize(0);
         assertThat(response.getBody().getMetadata().get("nodeCount")).isEqualTo(0);
         
-        verify(flowGraphService).buildFlowGraph();
+        verify(flowGraphService).buildFlowGraph(null);
     }
     
     @Test
@@ -181,11 +201,73 @@ class FlowGraphControllerTest {
             .thenReturn(testResponse);
         
         // Act
-        ResponseEntity<FlowGraphResponse> response = controller.traceFromNode(1L, 10);
+        ResponseEntity<FlowGraphResponse> response = controller.traceFromNode(1L, 10, null);
         
         // Assert
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
         
         verify(flowGraphService).buildFlowGraphFromNode(1L, 10);
     }
+    
+    @Test
+    void testGetAggregatedGraph_ParsesLevelAndParent() {
+        // Arrange
+        when(aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.PACKAGE, "layer-CONTROLLER"))
+            .thenReturn(testResponse);
+        
+        // Act
+        ResponseEntity<FlowGraphResponse> response = controller.getAggregatedGraph("package", "layer-CONTROLLER", null, null);
+        
+        // Assert
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody()).isSameAs(testResponse);
+    }
+    
+    @Test
+    void testGetAggregatedGraph_InvalidLevel_ReturnsBadRequest() {
+        // Act
+        ResponseEntity<FlowGraphResponse> response = controller.getAggregatedGraph("galaxy", null, null, null);
+        
+        // Assert
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+        verifyNoInteractions(aggregationService);
+    }
+    
+    @Test
+    void testGetAggregatedGraph_UnknownParent_ReturnsBadRequest() {
+        // Arrange
+        when(aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.CLASS, "package-missing"))
+            .thenThrow(new IllegalArgumentException("Unknown aggregate"));
+        
+        // Act
+        ResponseEntity<FlowGraphResponse> response = controller.getAggregatedGraph("CLASS", "package-missing", null, null);
+        
+        // Assert
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+    }
+    
+    @Test
+    void testAnalyzeProject_WithLayout_ReturnsPositionedGraph() {
+        // Arrange
+        FlowGraphResponse positioned = new FlowGraphResponse(List.of(), List.of(), Map.of("layout", "LAYERED"));
+        when(flowGraphService.buildFlowGraph(null)).thenReturn(testResponse);
+        when(layoutService.layout(testResponse, GraphLayoutService.Algorithm.LAYERED)).thenReturn(positioned);
+        
+        // Act
+        ResponseEntity<FlowGraphResponse> response = controller.analyzeProject(null, "layered", null);
+        
+        // Assert
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody()).isSameAs(positioned);
+    }
+    
+    @Test
+    void testTraceFromNode_InvalidLayout_ReturnsBadRequest() {
+        // Act
+        ResponseEntity<FlowGraphResponse> response = controller.traceFromNode(1L, 5, "circular");
+        
+        // Assert
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+        verifyNoInteractions(flowGraphService, layoutService);
+    }
 }
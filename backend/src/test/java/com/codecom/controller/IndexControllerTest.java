@@ -0,0 +1,110 @@
+package com.codecom.controller;
+
+import com.codecom.dto.IndexingProgress;
+import com.codecom.service.IndexingJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexControllerTest {
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private IndexingJobService indexingJobService;
+
+    @InjectMocks
+    private IndexController indexController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(indexController).build();
+    }
+
+    private static IndexingProgress progress(String state) {
+        return new IndexingProgress("job-1", 1L, "project", "/project", state, null, 0, 0, 0, 0, 0, 0,
+            Instant.now(), null, null, null);
+    }
+
+    @Test
+    void testStartIndexing() throws Exception {
+        when(indexingJobService.submit("/project", "project")).thenReturn(progress("QUEUED"));
+
+        mockMvc.perform(post("/api/index")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"rootPath\": \"/project\", \"project\": \"project\"}"))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.jobId").value("job-1"))
+            .andExpect(jsonPath("$.projectId").value(1))
+            .andExpect(jsonPath("$.state").value("QUEUED"));
+    }
+
+    @Test
+    void testStartIndexing_InvalidPath() throws Exception {
+        when(indexingJobService.submit(any(), any())).thenThrow(new IllegalArgumentException("Not a directory"));
+
+        mockMvc.perform(post("/api/index")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"rootPath\": \"/missing\"}"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetProgress() throws Exception {
+        when(indexingJobService.getProgress("job-1")).thenReturn(Optional.of(progress("RUNNING")));
+
+        mockMvc.perform(get("/api/index/job-1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+
+    @Test
+    void testGetProgress_NotFound() throws Exception {
+        when(indexingJobService.getProgress(anyString())).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/index/unknown"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testCancel() throws Exception {
+        when(indexingJobService.cancel("job-1")).thenReturn(Optional.of(progress("RUNNING")));
+
+        mockMvc.perform(delete("/api/index/job-1"))
+            .andExpect(status().isAccepted());
+    }
+
+    @Test
+    void testCancel_WhileReplacingTheGraph() throws Exception {
+        when(indexingJobService.cancel("job-1")).thenThrow(new IllegalStateException("replacing"));
+
+        mockMvc.perform(delete("/api/index/job-1"))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testStreamProgress_NotFound() throws Exception {
+        when(indexingJobService.subscribe(anyString(), any())).thenReturn(false);
+
+        mockMvc.perform(get("/api/index/unknown/events"))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -1,9 +1,12 @@
 package com.codecom.controller;
 
+import com.codecom.dto.CursorPage;
 import com.codecom.dto.KnowledgeGraphQuery;
+import com.codecom.dto.NodeSummary;
 import com.codecom.dto.NodeWithRelationships;
+import com.codecom.dto.RelationshipInfo;
 import com.codecom.entity.CodeNode;
-import com.codecom.entity.CodeRelationship;
+import com.codecom.entity.CodeProject;
 import com.codecom.service.KnowledgeGraphService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,35 +39,17 @@ class KnowledgeGraphControllerTest {
     @Test
     void getNode_ExistingNode_ShouldReturnNodeWithRelationships() {
         // Given
-        CodeNode node = new CodeNode("TestClass", "CLASS", "/test.java", 1);
-        node.setId(1L);
-        node.setPackageName("com.test");
-        node.setIsPublic(true);
+        RelationshipInfo outgoing = new RelationshipInfo(10L, "CALLS", 2L, "TargetMethod", "METHOD", null, 5);
+        RelationshipInfo incoming = new RelationshipInfo(11L, "INHERITS", 3L, "SourceClass", "CLASS", null, 10);
+        NodeWithRelationships node = new NodeWithRelationships(1L, "TestClass", "CLASS", "/test.java", 1,
+            "com.test", null, true, false, false, null, List.of(outgoing), List.of(incoming));
+        node.setOutgoingCounts(Map.of("CALLS", 1L));
+        node.setIncomingCounts(Map.of("INHERITS", 1L));
         
-        CodeRelationship outgoing = new CodeRelationship(1L, 2L, "CALLS");
-        outgoing.setId(10L);
-        outgoing.setLineNumber(5);
-        
-        CodeRelationship incoming = new CodeRelationship(3L, 1L, "INHERITS");
-        incoming.setId(11L);
-        incoming.setLineNumber(10);
-        
-        CodeNode target = new CodeNode("TargetMethod", "METHOD", "/target.java", 1);
-        target.setId(2L);
-        
-        CodeNode source = new CodeNode("SourceClass", "CLASS", "/source.java", 1);
-        source.setId(3L);
-        
-        when(service.getNodeById(1L)).thenReturn(Optional.of(node));
-        when(service.getNodeRelationships(1L)).thenReturn(Map.of(
-            "outgoing", List.of(outgoing),
-            "incoming", List.of(incoming)
-        ));
-        when(service.getNodeById(2L)).thenReturn(Optional.of(target));
-        when(service.getNodeById(3L)).thenReturn(Optional.of(source));
+        when(service.getNodeWithRelationships(1L, 0, 200)).thenReturn(Optional.of(node));
         
         // When
-        ResponseEntity<NodeWithRelationships> response = controller.getNode(1L);
+        ResponseEntity<NodeWithRelationships> response = controller.getNode(1L, 0, 200);
         
         // Then
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -75,50 +60,126 @@ class KnowledgeGraphControllerTest {
         assertThat(result.getIncomingRelationships()).hasSize(1);
         assertThat(result.getOutgoingRelationships().get(0).getRelatedNodeName()).isEqualTo("TargetMethod");
         assertThat(result.getIncomingRelationships().get(0).getRelatedNodeName()).isEqualTo("SourceClass");
+        verify(service, never()).getNodeById(any());
     }
     
     @Test
     void getNode_NonExistingNode_ShouldReturnNotFound() {
         // Given
-        when(service.getNodeById(999L)).thenReturn(Optional.empty());
+        when(service.getNodeWithRelationships(999L, 0, 200)).thenReturn(Optional.empty());
         
         // When
-        ResponseEntity<NodeWithRelationships> response = controller.getNode(999L);
+        ResponseEntity<NodeWithRelationships> response = controller.getNode(999L, 0, 200);
         
         // Then
         assertThat(response.getStatusCode().is4xxClientError()).isTrue();
     }
     
+    @Test
+    void getNode_InvalidPage_ShouldReturnBadRequest() {
+        // Given
+        when(service.getNodeWithRelationships(1L, -1, 200))
+            .thenThrow(new IllegalArgumentException("Page index must not be less than zero"));
+        
+        // When
+        ResponseEntity<NodeWithRelationships> response = controller.getNode(1L, -1, 200);
+        
+        // Then
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+    }
+    
     @Test
     void getCallees_ShouldReturnNodesCalledByGivenNode() {
         // Given
-        CodeNode callee1 = new CodeNode("method1", "METHOD", "/test.java", 5);
-        CodeNode callee2 = new CodeNode("method2", "METHOD", "/test.java", 10);
+        NodeSummary callee1 = new NodeSummary(2L, "method1", "METHOD", "/test.java", 5);
+        NodeSummary callee2 = new NodeSummary(3L, "method2", "METHOD", "/test.java", 10);
         
-        when(service.findCallees(1L)).thenReturn(List.of(callee1, callee2));
+        when(service.findCalleeSummaries(1L, null, 50, null))
+            .thenReturn(new CursorPage<>(List.of(callee1, callee2), null));
         
         // When
-        ResponseEntity<List<CodeNode>> response = controller.getCallees(1L);
+        ResponseEntity<CursorPage<NodeSummary>> response = controller.getCallees(1L, null, 50, null);
         
         // Then
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(response.getBody()).hasSize(2);
+        assertThat(response.getBody().items()).hasSize(2);
+        assertThat(response.getBody().nextCursor()).isNull();
     }
     
     @Test
     void getCallers_ShouldReturnNodesThatCallGivenNode() {
         // Given
-        CodeNode caller1 = new CodeNode("callerMethod", "METHOD", "/caller.java", 3);
+        NodeSummary caller1 = new NodeSummary(4L, "callerMethod", "METHOD", "/caller.java", 3);
         
-        when(service.findCallers(1L)).thenReturn(List.of(caller1));
+        when(service.findCallerSummaries(1L, 3L, 1, List.of("signature")))
+            .thenReturn(new CursorPage<>(List.of(caller1), 4L));
         
         // When
-        ResponseEntity<List<CodeNode>> response = controller.getCallers(1L);
+        ResponseEntity<CursorPage<NodeSummary>> response = controller.getCallers(1L, 3L, 1, List.of("signature"));
         
         // Then
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody().get(0).getName()).isEqualTo("callerMethod");
+        assertThat(response.getBody().items()).hasSize(1);
+        assertThat(response.getBody().items().get(0).name()).isEqualTo("callerMethod");
+        assertThat(response.getBody().nextCursor()).isEqualTo(4L);
+    }
+    
+    @Test
+    void getCallers_UnknownExpandField_ShouldReturnBadRequest() {
+        // Given
+        when(service.findCallerSummaries(1L, null, 50, List.of("body")))
+            .thenThrow(new IllegalArgumentException("Unknown expand field: body"));
+        
+        // When
+        ResponseEntity<CursorPage<NodeSummary>> response = controller.getCallers(1L, null, 50, List.of("body"));
+        
+        // Then
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+    }
+    
+    @Test
+    void getTransitiveCallers_ShouldReturnAPageOfAncestors() {
+        // Given
+        NodeSummary caller1 = new NodeSummary(3L, "callerMethod", "METHOD", "/caller.java", 3);
+        NodeSummary caller2 = new NodeSummary(7L, "entryPoint", "METHOD", "/entry.java", 7);
+        
+        when(service.findTransitiveCallerSummaries(1L, null, 2, null))
+            .thenReturn(new CursorPage<>(List.of(caller1, caller2), 7L));
+        
+        // When
+        ResponseEntity<CursorPage<NodeSummary>> response = controller.getTransitiveCallers(1L, null, 2, null);
+        
+        // Then
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody().items()).hasSize(2);
+        assertThat(response.getBody().nextCursor()).isEqualTo(7L);
+    }
+    
+    @Test
+    void getTransitiveCallees_UnknownExpandField_ShouldReturnBadRequest() {
+        // Given
+        when(service.findTransitiveCalleeSummaries(1L, null, 50, List.of("body")))
+            .thenThrow(new IllegalArgumentException("Unknown expand field: body"));
+        
+        // When
+        ResponseEntity<CursorPage<NodeSummary>> response = controller.getTransitiveCallees(1L, null, 50, List.of("body"));
+        
+        // Then
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+    }
+    
+    @Test
+    void reaches_ShouldReportReachability() {
+        // Given
+        when(service.eventuallyCalls(1L, 9L)).thenReturn(true);
+        
+        // When
+        ResponseEntity<Map<String, Object>> response = controller.reaches(1L, 9L);
+        
+        // Then
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody()).containsEntry("reachable", true);
+        assertThat(response.getBody()).containsEntry("target", 9L);
     }
     
     @Test
@@ -161,10 +222,10 @@ class KnowledgeGraphControllerTest {
             List.of(1L, 4L, 3L)
         );
         
-        when(service.findCallChain(1L, 3L, 5)).thenReturn(chains);
+        when(service.findCallChain(1L, 3L, 5, 10, List.of("CALLS"))).thenReturn(chains);
         
         // When
-        ResponseEntity<List<List<Long>>> response = controller.findCallChain(1L, 3L, 5);
+        ResponseEntity<List<List<Long>>> response = controller.findCallChain(1L, 3L, 5, 10, List.of("CALLS"));
         
         // Then
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -180,10 +241,10 @@ class KnowledgeGraphControllerTest {
         caller.setPackageName("com.test");
         caller.setSignature("void callerMethod()");
         
-        when(service.executeQuery("calls:testMethod")).thenReturn(List.of(caller));
+        when(service.executeQuery(null, "calls:testMethod", Integer.MAX_VALUE)).thenReturn(List.of(caller));
         
         // When
-        ResponseEntity<KnowledgeGraphQuery> response = controller.executeQuery("calls:testMethod");
+        ResponseEntity<KnowledgeGraphQuery> response = controller.executeQuery("calls:testMethod", null, null);
         
         // Then
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
@@ -203,42 +264,128 @@ class KnowledgeGraphControllerTest {
         CodeNode class2 = new CodeNode("Class2", "CLASS", "/class2.java", 1);
         class2.setId(2L);
         
-        when(service.executeQuery("type:CLASS")).thenReturn(List.of(class1, class2));
+        when(service.executeQuery(null, "type:CLASS", Integer.MAX_VALUE)).thenReturn(List.of(class1, class2));
         
         // When
-        ResponseEntity<KnowledgeGraphQuery> response = controller.executeQuery("type:CLASS");
+        ResponseEntity<KnowledgeGraphQuery> response = controller.executeQuery("type:CLASS", null, null);
         
         // Then
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
         assertThat(response.getBody().getNodes()).hasSize(2);
     }
     
+    @Test
+    void executeQuery_WithLimit_ShouldPassLimit() {
+        // Given
+        CodeNode class1 = new CodeNode("Class1", "CLASS", "/class1.java", 1);
+        class1.setId(1L);
+        
+        when(service.executeQuery(null, "type:CLASS", 1)).thenReturn(List.of(class1));
+        
+        // When
+        ResponseEntity<KnowledgeGraphQuery> response = controller.executeQuery("type:CLASS", 1, null);
+        
+        // Then
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody().getNodes()).hasSize(1);
+        verify(service, never()).executeQuery(null, "type:CLASS", Integer.MAX_VALUE);
+    }
+    
+    @Test
+    void executeQuery_WithProject_ShouldQueryOnlyThatProject() {
+        // Given
+        CodeNode class1 = new CodeNode("Class1", "CLASS", "/test1.java", 1);
+        when(service.executeQuery(3L, "type:CLASS", Integer.MAX_VALUE)).thenReturn(List.of(class1));
+        
+        // When
+        ResponseEntity<KnowledgeGraphQuery> response = controller.executeQuery("type:CLASS", null, 3L);
+        
+        // Then
+        assertThat(response.getBody().getNodes()).hasSize(1);
+        verify(service, never()).executeQuery(null, "type:CLASS", Integer.MAX_VALUE);
+    }
+    
+    @Test
+    void getProjects_ShouldListProjects() {
+        // Given
+        CodeProject project = new CodeProject("shop", "/src/shop");
+        when(service.listProjects()).thenReturn(List.of(project));
+        
+        // When
+        ResponseEntity<List<CodeProject>> response = controller.getProjects();
+        
+        // Then
+        assertThat(response.getBody()).containsExactly(project);
+    }
+    
+    @Test
+    void executeQuery_MalformedQuery_ShouldReturnBadRequest() {
+        // Given
+        when(service.executeQuery(null, "type:CLASS (", Integer.MAX_VALUE))
+            .thenThrow(new IllegalArgumentException("Missing ')'"));
+        
+        // When
+        ResponseEntity<KnowledgeGraphQuery> response = controller.executeQuery("type:CLASS (", null, null);
+        
+        // Then
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
+    }
+    
     @Test
     void searchNodes_ShouldReturnMatchingNodes() {
         // Given
-        CodeNode node = new CodeNode("TestClass", "CLASS", "/test.java", 1);
+        NodeSummary node = new NodeSummary(1L, "TestClass", "CLASS", "/test.java", 1);
         
-        when(service.findNodesByName("Test")).thenReturn(List.of(node));
+        when(service.searchNodeSummaries(null, "Test", null, 50, null)).thenReturn(new CursorPage<>(List.of(node), null));
         
         // When
-        ResponseEntity<List<CodeNode>> response = controller.searchNodes("Test");
+        ResponseEntity<CursorPage<NodeSummary>> response = controller.searchNodes("Test", null, 50, null, null);
         
         // Then
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(response.getBody()).hasSize(1);
-        assertThat(response.getBody().get(0).getName()).isEqualTo("TestClass");
+        assertThat(response.getBody().items()).hasSize(1);
+        assertThat(response.getBody().items().get(0).name()).isEqualTo("TestClass");
     }
     
     @Test
     void searchNodes_NoMatches_ShouldReturnEmptyList() {
         // Given
-        when(service.findNodesByName("NonExistent")).thenReturn(new ArrayList<>());
+        when(service.searchNodeSummaries(null, "NonExistent", null, 50, null))
+            .thenReturn(new CursorPage<>(new ArrayList<>(), null));
+        
+        // When
+        ResponseEntity<CursorPage<NodeSummary>> response = controller.searchNodes("NonExistent", null, 50, null, null);
+        
+        // Then
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody().items()).isEmpty();
+    }
+    
+    @Test
+    void searchFullText_ShouldReturnRankedNodes() {
+        // Given
+        NodeSummary node = new NodeSummary(1L, "UserRepository", "INTERFACE", "/UserRepository.java", 1);
+        
+        when(service.searchFullTextSummaries(null, "user repo*", 50, null)).thenReturn(List.of(node));
         
         // When
-        ResponseEntity<List<CodeNode>> response = controller.searchNodes("NonExistent");
+        ResponseEntity<List<NodeSummary>> response = controller.searchFullText("user repo*", 50, null, null);
         
         // Then
         assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
-        assertThat(response.getBody()).isEmpty();
+        assertThat(response.getBody()).containsExactly(node);
+    }
+    
+    @Test
+    void searchFullText_WithLimitOutOfRange_ShouldReturnBadRequest() {
+        // Given
+        when(service.searchFullTextSummaries(null, "user", Integer.MAX_VALUE, null))
+            .thenThrow(new IllegalArgumentException("limit must be between 1 and 500"));
+        
+        // When
+        ResponseEntity<List<NodeSummary>> response = controller.searchFullText("user", Integer.MAX_VALUE, null, null);
+        
+        // Then
+        assertThat(response.getStatusCode().value()).isEqualTo(400);
     }
 }
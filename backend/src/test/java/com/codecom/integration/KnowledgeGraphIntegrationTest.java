@@ -1,6 +1,8 @@
 package com.codecom.integration;
 
+import com.codecom.dto.CursorPage;
 import com.codecom.dto.KnowledgeGraphQuery;
+import com.codecom.dto.NodeSummary;
 import com.codecom.dto.NodeWithRelationships;
 import com.codecom.entity.CodeNode;
 import com.codecom.repository.CodeNodeRepository;
@@ -11,6 +13,7 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.test.annotation.DirtiesContext;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +34,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * - GET /api/knowledge-graph/call-chain
  * - GET /api/knowledge-graph/query
  * - GET /api/knowledge-graph/search
+ * - GET /api/knowledge-graph/search/fulltext
  */
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
 class KnowledgeGraphIntegrationTest extends BaseIntegrationTest {
@@ -54,21 +58,68 @@ class KnowledgeGraphIntegrationTest extends BaseIntegrationTest {
     @Test
     void testSearchNodes_FindsByName() {
         // When: Search for "UserService"
-        ResponseEntity<List<CodeNode>> response = restTemplate.exchange(
+        ResponseEntity<CursorPage<NodeSummary>> response = restTemplate.exchange(
             apiUrl("/api/knowledge-graph/search?name=UserService"),
             HttpMethod.GET,
             null,
-            new ParameterizedTypeReference<List<CodeNode>>() {}
+            new ParameterizedTypeReference<CursorPage<NodeSummary>>() {}
         );
 
         // Then
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        List<CodeNode> results = response.getBody();
+        List<NodeSummary> results = response.getBody().items();
         
-        // Should find at least the UserService class
+        // Should find at least the UserService class, without the optional attributes
         assertTrue(results.size() >= 1, "Should find UserService node");
-        assertTrue(results.stream().anyMatch(n -> "UserService".equals(n.getName())));
+        assertTrue(results.stream().anyMatch(n -> "UserService".equals(n.name())));
+        assertTrue(results.stream().allMatch(n -> n.documentation() == null));
+    }
+
+    @Test
+    void testSearchNodes_PagesWithCursorAndExpandsFields() {
+        // When: Page through "User" one node at a time with documentation expanded
+        List<NodeSummary> collected = new ArrayList<>();
+        Long cursor = null;
+        do {
+            ResponseEntity<CursorPage<NodeSummary>> response = restTemplate.exchange(
+                apiUrl("/api/knowledge-graph/search?name=User&limit=1&expand=documentation"
+                    + (cursor != null ? "&cursor=" + cursor : "")),
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<CursorPage<NodeSummary>>() {}
+            );
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertTrue(response.getBody().items().size() <= 1);
+            collected.addAll(response.getBody().items());
+            cursor = response.getBody().nextCursor();
+        } while (cursor != null);
+
+        // Then: every match is visited once, in id order, with its documentation
+        assertEquals(codeNodeRepository.searchByName("User").size(), collected.size());
+        for (int i = 1; i < collected.size(); i++) {
+            assertTrue(collected.get(i - 1).id() < collected.get(i).id());
+        }
+        assertTrue(collected.stream().anyMatch(n -> "Service class for user management".equals(n.documentation())));
+    }
+
+    @Test
+    void testSearchFullText_RanksNameAboveDocumentationMatches() {
+        // When: "authentic*" is part of one method name and of another method's documentation
+        ResponseEntity<List<CodeNode>> response = restTemplate.exchange(
+            apiUrl("/api/knowledge-graph/search/fulltext?q=authentic*"),
+            HttpMethod.GET,
+            null,
+            new ParameterizedTypeReference<List<CodeNode>>() {}
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        List<CodeNode> results = response.getBody();
+        assertTrue(results.size() >= 2, "Should find authenticate and validateToken");
+        assertEquals("authenticate", results.get(0).getName());
+        assertTrue(results.stream().anyMatch(n -> "validateToken".equals(n.getName())));
     }
 
     @Test
@@ -92,6 +143,24 @@ class KnowledgeGraphIntegrationTest extends BaseIntegrationTest {
         assertEquals("CLASS", result.getNodeType());
     }
 
+    @Test
+    void testGetNode_PagesRelationshipsAndCountsPerType() {
+        // When: createUser (id=10) calls save, validateUser and authenticate; request the second page of two
+        ResponseEntity<NodeWithRelationships> response = restTemplate.getForEntity(
+            apiUrl("/api/knowledge-graph/node/10?page=1&size=2"),
+            NodeWithRelationships.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        NodeWithRelationships result = response.getBody();
+        assertNotNull(result);
+        assertEquals(3L, result.getOutgoingCounts().get("CALLS"));
+        assertEquals(1, result.getOutgoingRelationships().size());
+        assertEquals("authenticate", result.getOutgoingRelationships().get(0).getRelatedNodeName());
+        assertEquals("METHOD", result.getOutgoingRelationships().get(0).getRelatedNodeType());
+    }
+
     @Test
     void testGetNode_NonExistentNode_ReturnsNotFound() {
         // When: Request non-existent node
@@ -122,11 +191,11 @@ class KnowledgeGraphIntegrationTest extends BaseIntegrationTest {
         assertNotNull(serviceMethod, "UserService.createUser should exist");
 
         // When: Get callers
-        ResponseEntity<List<CodeNode>> response = restTemplate.exchange(
+        ResponseEntity<CursorPage<NodeSummary>> response = restTemplate.exchange(
             apiUrl("/api/knowledge-graph/callers/" + serviceMethod.getId()),
             HttpMethod.GET,
             null,
-            new ParameterizedTypeReference<List<CodeNode>>() {}
+            new ParameterizedTypeReference<CursorPage<NodeSummary>>() {}
         );
 
         // Then
@@ -145,11 +214,11 @@ class KnowledgeGraphIntegrationTest extends BaseIntegrationTest {
         CodeNode method = nodes.get(0);
 
         // When: Get callees
-        ResponseEntity<List<CodeNode>> response = restTemplate.exchange(
+        ResponseEntity<CursorPage<NodeSummary>> response = restTemplate.exchange(
             apiUrl("/api/knowledge-graph/calls/" + method.getId()),
             HttpMethod.GET,
             null,
-            new ParameterizedTypeReference<List<CodeNode>>() {}
+            new ParameterizedTypeReference<CursorPage<NodeSummary>>() {}
         );
 
         // Then
@@ -193,6 +262,85 @@ class KnowledgeGraphIntegrationTest extends BaseIntegrationTest {
         assertTrue(result.getNodes().size() >= 3, "Should have at least UserService, UserController, User classes");
     }
 
+    @Test
+    void testExecuteQuery_TransitiveQuery_FollowsCallChain() {
+        // When: Everything UserController.getUser reaches, directly or through UserService
+        ResponseEntity<KnowledgeGraphQuery> direct = restTemplate.getForEntity(
+            apiUrl("/api/knowledge-graph/query?q=calledby:getUser"),
+            KnowledgeGraphQuery.class
+        );
+        ResponseEntity<KnowledgeGraphQuery> transitive = restTemplate.getForEntity(
+            apiUrl("/api/knowledge-graph/query?q=calledby*:getUser"),
+            KnowledgeGraphQuery.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.OK, transitive.getStatusCode());
+        assertEquals(List.of(11L), direct.getBody().getNodes().stream()
+            .map(KnowledgeGraphQuery.QueryNode::getId).toList());
+        assertEquals(List.of(11L, 20L), transitive.getBody().getNodes().stream()
+            .map(KnowledgeGraphQuery.QueryNode::getId).toList());
+    }
+
+    @Test
+    void testReachabilityEndpoints_FollowCallChains() {
+        // When: UserController.createUser -> UserService.createUser -> UserRepository.save
+        ResponseEntity<java.util.Map<String, Object>> forward = restTemplate.exchange(
+            apiUrl("/api/knowledge-graph/reaches?source=30&target=21"),
+            HttpMethod.GET,
+            null,
+            new ParameterizedTypeReference<java.util.Map<String, Object>>() {}
+        );
+        ResponseEntity<java.util.Map<String, Object>> backward = restTemplate.exchange(
+            apiUrl("/api/knowledge-graph/reaches?source=21&target=30"),
+            HttpMethod.GET,
+            null,
+            new ParameterizedTypeReference<java.util.Map<String, Object>>() {}
+        );
+        ResponseEntity<List<CodeNode>> callers = restTemplate.exchange(
+            apiUrl("/api/knowledge-graph/callers/21/transitive"),
+            HttpMethod.GET,
+            null,
+            new ParameterizedTypeReference<List<CodeNode>>() {}
+        );
+
+        // Then
+        assertEquals(true, forward.getBody().get("reachable"));
+        assertEquals(false, backward.getBody().get("reachable"));
+        assertEquals(List.of(10L, 12L, 30L, 32L), callers.getBody().stream().map(CodeNode::getId).toList());
+    }
+
+    @Test
+    void testExecuteQuery_CombinedFilters_ArePushedToDatabase() {
+        // When: Non-public methods, and methods named like find outside UserService.java
+        ResponseEntity<KnowledgeGraphQuery> privateMethods = restTemplate.getForEntity(
+            apiUrl("/api/knowledge-graph/query?q=type:METHOD public:false"),
+            KnowledgeGraphQuery.class
+        );
+        ResponseEntity<KnowledgeGraphQuery> finders = restTemplate.getForEntity(
+            apiUrl("/api/knowledge-graph/query?q=type:METHOD name:find -file:*UserService.java"),
+            KnowledgeGraphQuery.class
+        );
+
+        // Then
+        assertEquals(List.of(14L), privateMethods.getBody().getNodes().stream()
+            .map(KnowledgeGraphQuery.QueryNode::getId).toList());
+        assertEquals(List.of(20L, 23L), finders.getBody().getNodes().stream()
+            .map(KnowledgeGraphQuery.QueryNode::getId).toList());
+    }
+
+    @Test
+    void testExecuteQuery_MalformedQuery_ReturnsBadRequest() {
+        // When
+        ResponseEntity<KnowledgeGraphQuery> response = restTemplate.getForEntity(
+            apiUrl("/api/knowledge-graph/query?q=colour:red"),
+            KnowledgeGraphQuery.class
+        );
+
+        // Then
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
     @Test
     void testGetInheritanceHierarchy_ReturnsEmptyForNoInheritance() {
         // Given: Find any class node
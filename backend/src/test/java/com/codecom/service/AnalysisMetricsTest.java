@@ -0,0 +1,79 @@
+package com.codecom.service;
+
+import com.github.javaparser.JavaParser;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AnalysisMetrics
+ */
+class AnalysisMetricsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MeterRegistry registry;
+    private AnalysisMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new AnalysisMetrics(registry);
+    }
+
+    @Test
+    void testReadFileRecordsTimeAndSize() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("Order.java");
+        Files.writeString(file, "class Order {}");
+
+        // Act
+        String content = metrics.readFile(file);
+
+        // Assert
+        assertEquals("class Order {}", content);
+        assertEquals(1, registry.find("codecom.source.read").timer().count());
+        assertEquals(14.0, registry.find("codecom.source.size").summary().totalAmount());
+    }
+
+    @Test
+    void testParseIsTaggedByServiceAndOutcome() {
+        // Arrange
+        JavaParser parser = new JavaParser();
+
+        // Act
+        metrics.parse(parser, "class Order {}", "analysis");
+        metrics.parse(parser, "class {", "analysis");
+
+        // Assert
+        assertEquals(1, registry.find("codecom.source.parse")
+            .tag("service", "analysis").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.find("codecom.source.parse")
+            .tag("service", "analysis").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void testTracksIndexingInFlight() throws IOException {
+        // Act
+        metrics.indexingStarted();
+        double during = registry.find("codecom.index.in.flight").gauge().value();
+        metrics.timeIndexPhase("nodes", metrics::fileIndexed);
+        metrics.indexingFinished(true);
+
+        // Assert
+        assertEquals(1.0, during);
+        assertEquals(0.0, registry.find("codecom.index.in.flight").gauge().value());
+        assertEquals(1.0, registry.find("codecom.index.files").counter().count());
+        assertEquals(1, registry.find("codecom.index.phase").tag("phase", "nodes").timer().count());
+        assertEquals(1.0, registry.find("codecom.index.runs").tag("outcome", "success").counter().count());
+    }
+}
@@ -1,6 +1,8 @@
 package com.codecom.service;
 
 import com.codecom.dto.SymbolInfo;
+import com.codecom.repository.ParseProblemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -8,12 +10,20 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 class AnalysisServiceTest {
 
-    private final AnalysisService service = new AnalysisService();
+    private final AnalysisMetrics metrics = new AnalysisMetrics(new SimpleMeterRegistry());
+    private final ProjectFileEnumerator fileEnumerator = new ProjectFileEnumerator(Set.of("node_modules", "target", ".git"));
+    private final ParseProblemService parseProblems = new ParseProblemService(mock(ParseProblemRepository.class), metrics);
+    private final AnalysisService service = new AnalysisService(
+        metrics, new RequestCoalescer(new SimpleMeterRegistry(), 0), fileEnumerator,
+        new JavaSymbolResolver(metrics, fileEnumerator, parseProblems, 1000), parseProblems,
+        new ContentCache(metrics, 1000));
 
     @TempDir
     Path tempDir;
@@ -335,6 +345,47 @@ class AnalysisServiceTest {
             .noneMatch(d -> d.name().equals("save") && d.callerCount() == 0);
     }
 
+    @Test
+    void detectDeadCode_ShouldCountCallsForTheResolvedClassOnly() throws IOException {
+        // Two classes declare save(); only the one of the receiver is called
+        Files.writeString(tempDir.resolve("OrderRepository.java"), "class OrderRepository { void save() {} }");
+        Files.writeString(tempDir.resolve("UserRepository.java"), "class UserRepository { void save() {} }");
+        Files.writeString(tempDir.resolve("OrderService.java"), """
+            class OrderService {
+                void place(OrderRepository repository) {
+                    repository.save();
+                }
+            }
+            """);
+
+        var deadCode = service.detectDeadCode(tempDir.toString());
+
+        assertThat(deadCode)
+            .anyMatch(d -> d.name().equals("save") && d.className().equals("UserRepository"))
+            .noneMatch(d -> d.name().equals("save") && d.className().equals("OrderRepository"));
+    }
+
+    @Test
+    void findCallers_WithClassName_ShouldSkipCallsOfOtherClasses() throws IOException {
+        Files.writeString(tempDir.resolve("OrderRepository.java"), "class OrderRepository { void save() {} }");
+        Files.writeString(tempDir.resolve("UserRepository.java"), "class UserRepository { void save() {} }");
+        Files.writeString(tempDir.resolve("Service.java"), """
+            class Service {
+                void placeOrder(OrderRepository orders) {
+                    orders.save();
+                }
+                void register(UserRepository users) {
+                    users.save();
+                }
+            }
+            """);
+
+        var stats = service.findCallers(tempDir.toString(), "save", "UserRepository");
+
+        assertThat(stats.callers()).hasSize(1);
+        assertThat(stats.callers().get(0).methodName()).isEqualTo("register");
+    }
+
     @Test
     void getSymbolDefinition_ShouldReturnMethodDefinition() throws IOException {
         String code = """
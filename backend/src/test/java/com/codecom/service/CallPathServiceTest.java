@@ -0,0 +1,131 @@
+package com.codecom.service;
+
+import com.codecom.repository.CodeRelationshipRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.codecom.service.ReachabilityIndexTest.edge;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CallPathService
+ * FR.39: Cross-Language Query Support
+ */
+class CallPathServiceTest {
+
+    private CodeRelationshipRepository relationshipRepository;
+    private RelationshipGraphCache graphCache;
+    private CallPathService service;
+
+    @BeforeEach
+    void setUp() {
+        relationshipRepository = mock(CodeRelationshipRepository.class);
+        graphCache = new RelationshipGraphCache(relationshipRepository);
+        service = new CallPathService(graphCache);
+    }
+
+    @Test
+    void testFindsShortestPathsFirst() {
+        // Arrange: 1 -> 2 -> 5, 1 -> 3 -> 4 -> 5, 1 -> 5, 2 -> 3
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(
+            edge(1, 2), edge(2, 5), edge(1, 3), edge(3, 4), edge(4, 5), edge(1, 5), edge(2, 3)));
+
+        // Act
+        List<List<Long>> paths = service.findPaths(null, 1L, 5L, 10, 10, List.of("CALLS"));
+
+        // Assert
+        assertEquals(List.of(
+            List.of(1L, 5L),
+            List.of(1L, 2L, 5L),
+            List.of(1L, 3L, 4L, 5L),
+            List.of(1L, 2L, 3L, 4L, 5L)), paths);
+    }
+
+    @Test
+    void testRespectsKAndMaxDepth() {
+        // Arrange
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(
+            edge(1, 2), edge(2, 5), edge(1, 3), edge(3, 4), edge(4, 5), edge(1, 5)));
+
+        // Act & Assert
+        assertEquals(List.of(List.of(1L, 5L), List.of(1L, 2L, 5L)),
+            service.findPaths(null, 1L, 5L, 2, 10, List.of("CALLS")));
+        assertEquals(List.of(List.of(1L, 5L), List.of(1L, 2L, 5L)),
+            service.findPaths(null, 1L, 5L, 10, 3, List.of("CALLS")));
+        assertEquals(List.of(), service.findPaths(null, 1L, 4L, 10, 2, List.of("CALLS")));
+        assertEquals(List.of(List.of(1L)), service.findPaths(null, 1L, 1L, 10, 5, List.of("CALLS")));
+        assertEquals(List.of(), service.findPaths(null, 1L, 99L, 10, 5, List.of("CALLS")));
+    }
+
+    @Test
+    void testCombinesRelationshipTypesAndSkipsCycles() {
+        // Arrange: 1 calls 2, 2 and 3 call each other, 3 inherits from 4
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(
+            edge(1, 2), edge(2, 3), edge(3, 2)));
+        when(relationshipRepository.findEdgesByType("INHERITS")).thenReturn(List.of(edge(3, 4)));
+
+        // Act & Assert
+        assertEquals(List.of(), service.findPaths(null, 1L, 4L, 10, 10, List.of("CALLS")));
+        assertEquals(List.of(List.of(1L, 2L, 3L, 4L)),
+            service.findPaths(null, 1L, 4L, 10, 10, List.of("CALLS", "INHERITS")));
+    }
+
+    @Test
+    void testMatchesExhaustiveSearchOnRandomGraphs() {
+        Random random = new Random(7);
+        for (int round = 0; round < 30; round++) {
+            // Arrange
+            int nodes = 12;
+            List<CodeRelationshipRepository.Edge> edges = new ArrayList<>();
+            Map<Long, Set<Long>> adjacency = new HashMap<>();
+            for (int i = 0; i < nodes * 3; i++) {
+                long source = random.nextInt(nodes);
+                long target = random.nextInt(nodes);
+                edges.add(edge(source, target));
+                adjacency.computeIfAbsent(source, key -> new TreeSet<>()).add(target);
+            }
+            when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(edges);
+            graphCache.invalidate();
+            long source = random.nextInt(nodes);
+            long target = (source + 1 + random.nextInt(nodes - 1)) % nodes;
+            int k = 1 + random.nextInt(8);
+            int maxDepth = 2 + random.nextInt(6);
+
+            // Act
+            List<List<Long>> paths = service.findPaths(null, source, target, k, maxDepth, List.of("CALLS"));
+
+            // Assert: the lengths are the k smallest among all simple paths
+            List<List<Long>> all = new ArrayList<>();
+            enumerate(adjacency, new ArrayList<>(List.of(source)), target, maxDepth, all);
+            all.sort(Comparator.comparingInt(List::size));
+            assertEquals(Math.min(k, all.size()), paths.size());
+            assertEquals(new HashSet<>(paths).size(), paths.size());
+            for (int i = 0; i < paths.size(); i++) {
+                assertEquals(all.get(i).size(), paths.get(i).size());
+                assertTrue(all.contains(paths.get(i)), paths.get(i).toString());
+            }
+        }
+    }
+
+    private static void enumerate(Map<Long, Set<Long>> adjacency, List<Long> path, long target,
+                                  int maxDepth, List<List<Long>> result) {
+        Long last = path.get(path.size() - 1);
+        if (last == target) {
+            result.add(new ArrayList<>(path));
+            return;
+        }
+        if (path.size() == maxDepth) {
+            return;
+        }
+        for (Long next : adjacency.getOrDefault(last, Set.of())) {
+            if (!path.contains(next)) {
+                path.add(next);
+                enumerate(adjacency, path, target, maxDepth, result);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.codecom.service;
+
+import com.codecom.entity.CodeFile;
+import com.codecom.entity.CodePackage;
+import com.codecom.repository.CodeFileRepository;
+import com.codecom.repository.CodePackageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for CodeDictionary
+ * FR.38: Relationship Graph Database
+ */
+class CodeDictionaryTest {
+
+    private CodeFileRepository fileRepository;
+    private CodePackageRepository packageRepository;
+    private PlatformTransactionManager transactionManager;
+    private CodeDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        fileRepository = mock(CodeFileRepository.class);
+        packageRepository = mock(CodePackageRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        dictionary = new CodeDictionary(fileRepository, packageRepository, transactionManager);
+        when(fileRepository.save(any(CodeFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(packageRepository.save(any(CodePackage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void testSharesOneEntryPerPath() {
+        // Act
+        CodeFile first = dictionary.file("/src/Order.java");
+        CodeFile second = dictionary.file("/src/Order.java");
+        CodeFile other = dictionary.file("/src/Invoice.java");
+
+        // Assert
+        assertSame(first, second);
+        assertNotSame(first, other);
+        verify(fileRepository, times(2)).save(any(CodeFile.class));
+    }
+
+    @Test
+    void testReusesStoredEntriesAndSkipsMissingPackages() {
+        // Arrange
+        CodePackage stored = new CodePackage("com.shop");
+        stored.setId(4L);
+        when(packageRepository.findByName("com.shop")).thenReturn(Optional.of(stored));
+
+        // Act & Assert
+        assertSame(stored, dictionary.codePackage("com.shop"));
+        assertNull(dictionary.codePackage(null));
+        verify(packageRepository, never()).save(any(CodePackage.class));
+    }
+
+    @Test
+    void testCreatesEntriesInTheirOwnTransaction() {
+        // Act
+        dictionary.file("/src/Order.java");
+        dictionary.file("/src/Order.java");
+        dictionary.codePackage("com.shop");
+
+        // Assert
+        verify(transactionManager, times(2)).getTransaction(argThat(definition ->
+            definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testUsesTheEntryStoredByAConcurrentWriter() {
+        // Arrange: the path is stored elsewhere between the lookup and the insert
+        CodeFile stored = new CodeFile("/src/Order.java");
+        stored.setId(9L);
+        AtomicInteger lookups = new AtomicInteger();
+        when(fileRepository.findByPath("/src/Order.java")).thenAnswer(invocation ->
+            lookups.incrementAndGet() == 1 ? Optional.empty() : Optional.of(stored));
+        when(fileRepository.save(any(CodeFile.class))).thenThrow(new DataIntegrityViolationException("uk_code_file_path"));
+
+        // Act & Assert
+        assertSame(stored, dictionary.file("/src/Order.java"));
+        assertSame(stored, dictionary.file("/src/Order.java"));
+        assertEquals(2, lookups.get());
+    }
+}
@@ -1,6 +1,8 @@
 package com.codecom.service;
 
 import com.codecom.dto.FileComplexity;
+import com.codecom.repository.ParseProblemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -8,8 +10,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 /**
  * Tests for ComplexityService
@@ -17,7 +21,12 @@ import static org.assertj.core.api.Assertions.assertThat;
  */
 class ComplexityServiceTest {
     
-    private final ComplexityService service = new ComplexityService();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AnalysisMetrics metrics = new AnalysisMetrics(registry);
+    private final ComplexityService service = new ComplexityService(
+        metrics, new RequestCoalescer(new SimpleMeterRegistry(), 0),
+        new ProjectFileEnumerator(Set.of("node_modules", "target", ".git")),
+        new ParseProblemService(mock(ParseProblemRepository.class), metrics), new ContentCache(metrics, 1000));
     
     @TempDir
     Path tempDir;
@@ -274,4 +283,52 @@ class ComplexityServiceTest {
         
         assertThat(result).isNull();
     }
+    
+    @Test
+    void calculateFileComplexity_WithUnparsableStatement_ShouldUseThePartialTree() throws IOException {
+        String partialCode = """
+            public class Partial {
+                public void check(int x) {
+                    if (x > 0) {
+                        x = ;
+                    }
+                }
+                public void other() {
+                }
+            }
+            """;
+        
+        Path file = tempDir.resolve("Partial.java");
+        Files.writeString(file, partialCode);
+        
+        FileComplexity result = service.calculateFileComplexity(file.toString());
+        
+        assertThat(result).isNotNull();
+        assertThat(result.getNumberOfMethods()).isEqualTo(2);
+    }
+    
+    @Test
+    void calculateProjectComplexity_IdenticalFiles_ShouldBeParsedOnce() throws IOException {
+        String code = """
+            public class Generated {
+                public int value(int x) {
+                    return x > 0 ? x : -x;
+                }
+            }
+            """;
+        
+        Path first = tempDir.resolve("module-a/Generated.java");
+        Path second = tempDir.resolve("module-b/Generated.java");
+        Files.createDirectories(first.getParent());
+        Files.createDirectories(second.getParent());
+        Files.writeString(first, code);
+        Files.writeString(second, code);
+        
+        List<FileComplexity> results = service.calculateProjectComplexity(tempDir.toString());
+        
+        assertThat(results).extracting(FileComplexity::getFilePath)
+            .containsExactlyInAnyOrder(first.toString(), second.toString());
+        assertThat(results.get(0).getCyclomaticComplexity()).isEqualTo(results.get(1).getCyclomaticComplexity());
+        assertThat(registry.get("codecom.source.parse").timer().count()).isEqualTo(1L);
+    }
 }
@@ -0,0 +1,100 @@
+package com.codecom.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ContentCache and ContentHash
+ */
+class ContentCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AnalysisMetrics metrics = new AnalysisMetrics(registry);
+
+    @Test
+    void xxh64_ShouldMatchTheReferenceImplementation() {
+        // Inputs below and above the 32 bytes processed per round
+        assertThat(ContentHash.xxh64(bytes(""))).isEqualTo(0xEF46DB3751D8E999L);
+        assertThat(ContentHash.xxh64(bytes("abc"))).isEqualTo(0x44BC2CF5AD770999L);
+        assertThat(ContentHash.xxh64(bytes("Nobody inspects the spammish repetition"))).isEqualTo(0xFBCEA83C8A378BF1L);
+    }
+
+    @Test
+    void get_ShouldComputeOncePerContent() {
+        // Given
+        ContentCache cache = new ContentCache(metrics, 100);
+        AtomicInteger computed = new AtomicInteger();
+
+        // When
+        String first = cache.get("outline", "class A {}", () -> "A" + computed.incrementAndGet());
+        String copy = cache.get("outline", "class A {}", () -> "A" + computed.incrementAndGet());
+        String other = cache.get("outline", "class B {}", () -> "B" + computed.incrementAndGet());
+
+        // Then
+        assertThat(first).isEqualTo("A1");
+        assertThat(copy).isEqualTo("A1");
+        assertThat(other).isEqualTo("B2");
+        assertThat(lookups("outline", "hit")).isEqualTo(1.0);
+        assertThat(lookups("outline", "miss")).isEqualTo(2.0);
+    }
+
+    @Test
+    void get_ShouldKeepTheResultsOfAnalysesApart() {
+        // Given
+        ContentCache cache = new ContentCache(metrics, 100);
+        cache.get("outline", "class A {}", () -> "outline");
+
+        // When
+        String statistics = cache.get("statistics", "class A {}", () -> "statistics");
+
+        // Then
+        assertThat(statistics).isEqualTo("statistics");
+    }
+
+    @Test
+    void get_ShouldRememberMissingResults() {
+        // Given
+        ContentCache cache = new ContentCache(metrics, 100);
+        AtomicInteger computed = new AtomicInteger();
+
+        // When
+        cache.get("complexity", "not java", () -> { computed.incrementAndGet(); return null; });
+        Object again = cache.get("complexity", "not java", () -> { computed.incrementAndGet(); return null; });
+
+        // Then
+        assertThat(again).isNull();
+        assertThat(computed.get()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldEvictTheLeastRecentlyUsedContent() {
+        // Given
+        ContentCache cache = new ContentCache(metrics, 2);
+        AtomicInteger computed = new AtomicInteger();
+        cache.get("outline", "a", computed::incrementAndGet);
+        cache.get("outline", "b", computed::incrementAndGet);
+        cache.get("outline", "a", computed::incrementAndGet);
+
+        // When
+        cache.get("outline", "c", computed::incrementAndGet);
+        int a = cache.get("outline", "a", computed::incrementAndGet);
+        int b = cache.get("outline", "b", computed::incrementAndGet);
+
+        // Then
+        assertThat(a).isEqualTo(1);
+        assertThat(b).isEqualTo(4);
+    }
+
+    private double lookups(String analysis, String outcome) {
+        return registry.get("codecom.content.cache").tag("analysis", analysis).tag("outcome", outcome).counter().count();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -8,6 +8,7 @@ import com.codecom.repository.CodeRelationshipRepository;
 import com.codecom.repository.FeatureSliceRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
@@ -25,13 +26,29 @@ class FeatureSliceServiceTest {
     private FeatureSliceRepository sliceRepository;
     private CodeNodeRepository nodeRepository;
     private CodeRelationshipRepository relationshipRepository;
+    private ApplicationEventPublisher eventPublisher;
     
     @BeforeEach
     void setUp() {
         sliceRepository = mock(FeatureSliceRepository.class);
         nodeRepository = mock(CodeNodeRepository.class);
         relationshipRepository = mock(CodeRelationshipRepository.class);
-        service = new FeatureSliceService(sliceRepository, nodeRepository, relationshipRepository);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        SliceMembershipIndex membershipIndex = new SliceMembershipIndex(sliceRepository, nodeRepository);
+        service = new FeatureSliceService(sliceRepository, nodeRepository, relationshipRepository,
+            membershipIndex, eventPublisher);
+    }
+    
+    private void stubMembership(Long sliceId, CodeNode... nodes) {
+        List<CodeNodeRepository.NodeKey> keys = new ArrayList<>();
+        List<FeatureSliceRepository.SliceMembership> memberships = new ArrayList<>();
+        for (CodeNode node : nodes) {
+            keys.add(SliceMembershipIndexTest.nodeKey(node.getId(), node.getFilePath(), node.getNodeType()));
+            memberships.add(SliceMembershipIndexTest.membership(sliceId, node.getId()));
+        }
+        when(nodeRepository.findAllNodeKeys()).thenReturn(keys);
+        when(sliceRepository.findAllIds()).thenReturn(List.of(sliceId));
+        when(sliceRepository.findAllMemberships()).thenReturn(memberships);
     }
     
     @Test
@@ -66,6 +83,29 @@ class FeatureSliceServiceTest {
         verify(sliceRepository).save(any(FeatureSlice.class));
     }
     
+    @Test
+    void createSlice_ShouldTakeProjectOfSeedsAndRejectMixedProjects() {
+        // Given
+        CodeNode node1 = new CodeNode("OrderService", "CLASS", "/shop/OrderService.java", 1);
+        node1.setId(1L);
+        node1.setProjectId(5L);
+        CodeNode node2 = new CodeNode("Invoice", "CLASS", "/billing/Invoice.java", 1);
+        node2.setId(2L);
+        node2.setProjectId(6L);
+        when(nodeRepository.findById(1L)).thenReturn(Optional.of(node1));
+        when(nodeRepository.findById(2L)).thenReturn(Optional.of(node2));
+        when(sliceRepository.save(any(FeatureSlice.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        FeatureSlice result = service.createSlice("Orders", null, List.of(1L));
+        
+        // Then
+        assertThat(result.getProjectId()).isEqualTo(5L);
+        assertThatThrownBy(() -> service.createSlice("Mixed", null, List.of(1L, 2L)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("more than one project");
+    }
+    
     @Test
     void createSlice_WithDuplicateName_ShouldThrowException() {
         // Given
@@ -81,128 +121,104 @@ class FeatureSliceServiceTest {
     @Test
     void expandSlice_WithCallees_ShouldAddCalledMethods() {
         // Given
-        CodeNode method1 = new CodeNode("method1", "METHOD", "/Test.java", 10);
-        method1.setId(1L);
-        CodeNode method2 = new CodeNode("method2", "METHOD", "/Test.java", 20);
-        method2.setId(2L);
-        
         FeatureSlice slice = new FeatureSlice("Test", "Test slice");
         slice.setId(1L);
-        slice.addNode(method1);
         
         CodeRelationship callRel = new CodeRelationship(1L, 2L, "CALLS");
+        CodeRelationship callerRel = new CodeRelationship(5L, 1L, "CALLS");
         
         when(sliceRepository.findById(1L)).thenReturn(Optional.of(slice));
-        when(relationshipRepository.findBySourceIdAndRelationshipType(1L, "CALLS"))
-            .thenReturn(List.of(callRel));
-        when(nodeRepository.findById(2L)).thenReturn(Optional.of(method2));
-        when(relationshipRepository.findByTargetIdAndRelationshipType(anyLong(), eq("CALLS")))
-            .thenReturn(List.of());
-        when(relationshipRepository.findBySourceIdAndRelationshipType(eq(2L), eq("CALLS")))
-            .thenReturn(List.of());
-        when(relationshipRepository.findByTargetIdAndRelationshipType(anyLong(), eq("INHERITS")))
-            .thenReturn(List.of());
-        when(relationshipRepository.findBySourceIdAndRelationshipType(anyLong(), eq("INHERITS")))
-            .thenReturn(List.of());
-        when(sliceRepository.save(any(FeatureSlice.class))).thenAnswer(i -> i.getArgument(0));
+        when(sliceRepository.findNodeIdsBySliceId(1L)).thenReturn(List.of(1L));
+        when(relationshipRepository.findTouchingNodes(anyCollection(), eq(Set.of("CALLS"))))
+            .thenReturn(List.of(callRel, callerRel));
+        when(nodeRepository.findExistingIds(anyCollection()))
+            .thenAnswer(i -> new ArrayList<>(i.<Collection<Long>>getArgument(0)));
         
         // When
         FeatureSlice result = service.expandSlice(1L, 1, false, true, false);
         
-        // Then
-        assertThat(result.getNodes()).hasSize(2);
-        assertThat(result.getNodes()).extracting(CodeNode::getName)
-            .containsExactlyInAnyOrder("method1", "method2");
+        // Then - only the callee is added, in one bulk insert
+        assertThat(result).isSameAs(slice);
+        verify(sliceRepository).insertSliceNodes(1L, List.of(2L));
+        verify(relationshipRepository, times(1)).findTouchingNodes(anyCollection(), anyCollection());
+        verify(sliceRepository, never()).save(any(FeatureSlice.class));
+        verify(nodeRepository, never()).findById(anyLong());
     }
     
     @Test
     void expandSlice_WithInheritance_ShouldAddParentAndChildClasses() {
         // Given
-        CodeNode childClass = new CodeNode("ChildClass", "CLASS", "/Child.java", 1);
-        childClass.setId(1L);
-        CodeNode parentClass = new CodeNode("ParentClass", "CLASS", "/Parent.java", 1);
-        parentClass.setId(2L);
-        CodeNode anotherChild = new CodeNode("AnotherChild", "CLASS", "/AnotherChild.java", 1);
-        anotherChild.setId(3L);
-        
         FeatureSlice slice = new FeatureSlice("Inheritance Test", "Test");
         slice.setId(1L);
-        slice.addNode(childClass);
         
         CodeRelationship inheritsRel = new CodeRelationship(1L, 2L, "INHERITS");
         CodeRelationship subclassRel = new CodeRelationship(3L, 2L, "INHERITS");
         
         when(sliceRepository.findById(1L)).thenReturn(Optional.of(slice));
-        when(relationshipRepository.findBySourceIdAndRelationshipType(1L, "INHERITS"))
+        when(sliceRepository.findNodeIdsBySliceId(1L)).thenReturn(List.of(1L));
+        when(relationshipRepository.findTouchingNodes(eq(List.of(1L)), eq(Set.of("INHERITS"))))
             .thenReturn(List.of(inheritsRel));
-        when(relationshipRepository.findByTargetIdAndRelationshipType(1L, "INHERITS"))
-            .thenReturn(List.of());
-        when(nodeRepository.findById(2L)).thenReturn(Optional.of(parentClass));
-        when(relationshipRepository.findBySourceIdAndRelationshipType(2L, "INHERITS"))
-            .thenReturn(List.of());
-        when(relationshipRepository.findByTargetIdAndRelationshipType(2L, "INHERITS"))
-            .thenReturn(List.of(subclassRel));
-        when(nodeRepository.findById(3L)).thenReturn(Optional.of(anotherChild));
-        when(relationshipRepository.findBySourceIdAndRelationshipType(3L, "INHERITS"))
-            .thenReturn(List.of());
-        when(relationshipRepository.findByTargetIdAndRelationshipType(3L, "INHERITS"))
-            .thenReturn(List.of());
-        when(relationshipRepository.findBySourceIdAndRelationshipType(anyLong(), eq("CALLS")))
-            .thenReturn(List.of());
-        when(relationshipRepository.findByTargetIdAndRelationshipType(anyLong(), eq("CALLS")))
-            .thenReturn(List.of());
-        when(sliceRepository.save(any(FeatureSlice.class))).thenAnswer(i -> i.getArgument(0));
+        when(relationshipRepository.findTouchingNodes(eq(List.of(2L)), eq(Set.of("INHERITS"))))
+            .thenReturn(List.of(inheritsRel, subclassRel));
+        when(nodeRepository.findExistingIds(anyCollection()))
+            .thenAnswer(i -> new ArrayList<>(i.<Collection<Long>>getArgument(0)));
         
         // When - depth 2 to reach AnotherChild through ParentClass
-        FeatureSlice result = service.expandSlice(1L, 2, false, false, true);
+        service.expandSlice(1L, 2, false, false, true);
         
         // Then
-        assertThat(result.getNodes()).hasSize(3);
-        assertThat(result.getNodes()).extracting(CodeNode::getName)
-            .containsExactlyInAnyOrder("ChildClass", "ParentClass", "AnotherChild");
+        verify(sliceRepository).insertSliceNodes(1L, List.of(2L, 3L));
+        verify(relationshipRepository, times(2)).findTouchingNodes(anyCollection(), anyCollection());
     }
     
     @Test
     void expandSlice_WithMultipleLevels_ShouldTraverseDepth() {
         // Given
-        CodeNode method1 = new CodeNode("method1", "METHOD", "/Test.java", 10);
-        method1.setId(1L);
-        CodeNode method2 = new CodeNode("method2", "METHOD", "/Test.java", 20);
-        method2.setId(2L);
-        CodeNode method3 = new CodeNode("method3", "METHOD", "/Test.java", 30);
-        method3.setId(3L);
-        
         FeatureSlice slice = new FeatureSlice("Multi-level", "Test");
         slice.setId(1L);
-        slice.addNode(method1);
         
         CodeRelationship call1to2 = new CodeRelationship(1L, 2L, "CALLS");
         CodeRelationship call2to3 = new CodeRelationship(2L, 3L, "CALLS");
+        CodeRelationship call3to4 = new CodeRelationship(3L, 4L, "CALLS");
+        CodeRelationship callToMissing = new CodeRelationship(2L, 99L, "CALLS");
         
         when(sliceRepository.findById(1L)).thenReturn(Optional.of(slice));
-        when(relationshipRepository.findBySourceIdAndRelationshipType(1L, "CALLS"))
+        when(sliceRepository.findNodeIdsBySliceId(1L)).thenReturn(List.of(1L));
+        when(relationshipRepository.findTouchingNodes(eq(List.of(1L)), anyCollection()))
             .thenReturn(List.of(call1to2));
-        when(relationshipRepository.findBySourceIdAndRelationshipType(2L, "CALLS"))
-            .thenReturn(List.of(call2to3));
-        when(relationshipRepository.findBySourceIdAndRelationshipType(3L, "CALLS"))
-            .thenReturn(List.of());
-        when(relationshipRepository.findByTargetIdAndRelationshipType(anyLong(), eq("CALLS")))
-            .thenReturn(List.of());
-        when(relationshipRepository.findBySourceIdAndRelationshipType(anyLong(), eq("INHERITS")))
-            .thenReturn(List.of());
-        when(relationshipRepository.findByTargetIdAndRelationshipType(anyLong(), eq("INHERITS")))
-            .thenReturn(List.of());
-        when(nodeRepository.findById(2L)).thenReturn(Optional.of(method2));
-        when(nodeRepository.findById(3L)).thenReturn(Optional.of(method3));
-        when(sliceRepository.save(any(FeatureSlice.class))).thenAnswer(i -> i.getArgument(0));
+        when(relationshipRepository.findTouchingNodes(eq(List.of(2L)), anyCollection()))
+            .thenReturn(List.of(call1to2, call2to3, callToMissing));
+        when(relationshipRepository.findTouchingNodes(eq(List.of(3L)), anyCollection()))
+            .thenReturn(List.of(call2to3, call3to4));
+        when(nodeRepository.findExistingIds(anyCollection()))
+            .thenAnswer(i -> i.<Collection<Long>>getArgument(0).stream().filter(id -> id != 99L).toList());
+        
+        // When
+        service.expandSlice(1L, 2, false, true, false);
+        
+        // Then - depth 2 stops before method4 and skips the dangling callee
+        verify(sliceRepository).insertSliceNodes(1L, List.of(2L, 3L));
+        verify(relationshipRepository, never()).findTouchingNodes(eq(List.of(3L)), anyCollection());
+    }
+    
+    @Test
+    void expandSlice_WithNothingNew_ShouldNotWrite() {
+        // Given
+        FeatureSlice slice = new FeatureSlice("Closed", "Test");
+        slice.setId(1L);
+        
+        when(sliceRepository.findById(1L)).thenReturn(Optional.of(slice));
+        when(sliceRepository.findNodeIdsBySliceId(1L)).thenReturn(List.of(1L, 2L));
+        when(relationshipRepository.findTouchingNodes(anyCollection(), anyCollection()))
+            .thenReturn(List.of(new CodeRelationship(1L, 2L, "CALLS")));
         
         // When
-        FeatureSlice result = service.expandSlice(1L, 2, false, true, false);
+        FeatureSlice result = service.expandSlice(1L, 3, true, true, true);
         
         // Then
-        assertThat(result.getNodes()).hasSize(3);
-        assertThat(result.getNodes()).extracting(CodeNode::getName)
-            .containsExactlyInAnyOrder("method1", "method2", "method3");
+        assertThat(result).isSameAs(slice);
+        verify(sliceRepository, never()).insertSliceNodes(anyLong(), anyCollection());
+        verify(sliceRepository, never()).saveAndFlush(any(FeatureSlice.class));
     }
     
     @Test
@@ -230,7 +246,7 @@ class FeatureSliceServiceTest {
         when(sliceRepository.findAllOrderByName()).thenReturn(List.of(slice1, slice2));
         
         // When
-        List<FeatureSlice> result = service.getAllSlices();
+        List<FeatureSlice> result = service.getAllSlices(null);
         
         // Then
         assertThat(result).hasSize(2);
@@ -332,6 +348,7 @@ class FeatureSliceServiceTest {
         
         // Then
         verify(sliceRepository).deleteById(1L);
+        verify(eventPublisher).publishEvent(new SliceChangedEvent(1L));
     }
     
     @Test
@@ -344,13 +361,7 @@ class FeatureSliceServiceTest {
         CodeNode node3 = new CodeNode("Class2", "CLASS", "/file2.java", 1);
         node3.setId(3L);
         
-        FeatureSlice slice = new FeatureSlice("Test", "Test");
-        slice.setId(1L);
-        slice.addNode(node1);
-        slice.addNode(node2);
-        slice.addNode(node3);
-        
-        when(sliceRepository.findById(1L)).thenReturn(Optional.of(slice));
+        stubMembership(1L, node1, node2, node3);
         
         // When
         Set<String> result = service.getSliceFilePaths(1L);
@@ -370,13 +381,7 @@ class FeatureSliceServiceTest {
         CodeNode method2 = new CodeNode("Method2", "METHOD", "/file2.java", 10);
         method2.setId(3L);
         
-        FeatureSlice slice = new FeatureSlice("Test", "Test");
-        slice.setId(1L);
-        slice.addNode(class1);
-        slice.addNode(method1);
-        slice.addNode(method2);
-        
-        when(sliceRepository.findById(1L)).thenReturn(Optional.of(slice));
+        stubMembership(1L, class1, method1, method2);
         
         // When
         Map<String, Object> result = service.getSliceStatistics(1L);
@@ -411,37 +416,25 @@ class FeatureSliceServiceTest {
     @Test
     void expandSlice_WithCallers_ShouldAddCallingMethods() {
         // Given
-        CodeNode method1 = new CodeNode("method1", "METHOD", "/Test.java", 10);
-        method1.setId(1L);
-        CodeNode caller = new CodeNode("caller", "METHOD", "/Test.java", 5);
-        caller.setId(2L);
-        
         FeatureSlice slice = new FeatureSlice("Test", "Test slice");
         slice.setId(1L);
-        slice.addNode(method1);
         
         CodeRelationship callerRel = new CodeRelationship(2L, 1L, "CALLS");
+        CodeRelationship calleeRel = new CodeRelationship(1L, 7L, "CALLS");
         
         when(sliceRepository.findById(1L)).thenReturn(Optional.of(slice));
-        when(relationshipRepository.findByTargetIdAndRelationshipType(1L, "CALLS"))
-            .thenReturn(List.of(callerRel));
-        when(nodeRepository.findById(2L)).thenReturn(Optional.of(caller));
-        when(relationshipRepository.findBySourceIdAndRelationshipType(anyLong(), eq("CALLS")))
-            .thenReturn(List.of());
-        when(relationshipRepository.findByTargetIdAndRelationshipType(eq(2L), eq("CALLS")))
-            .thenReturn(List.of());
-        when(relationshipRepository.findBySourceIdAndRelationshipType(anyLong(), eq("INHERITS")))
-            .thenReturn(List.of());
-        when(relationshipRepository.findByTargetIdAndRelationshipType(anyLong(), eq("INHERITS")))
-            .thenReturn(List.of());
-        when(sliceRepository.save(any(FeatureSlice.class))).thenAnswer(i -> i.getArgument(0));
+        when(sliceRepository.findNodeIdsBySliceId(1L)).thenReturn(List.of(1L));
+        when(relationshipRepository.findTouchingNodes(anyCollection(), eq(Set.of("CALLS"))))
+            .thenReturn(List.of(callerRel, calleeRel));
+        when(nodeRepository.findExistingIds(anyCollection()))
+            .thenAnswer(i -> new ArrayList<>(i.<Collection<Long>>getArgument(0)));
         
         // When
-        FeatureSlice result = service.expandSlice(1L, 1, true, false, false);
+        service.expandSlice(1L, 1, true, false, false);
         
         // Then
-        assertThat(result.getNodes()).hasSize(2);
-        assertThat(result.getNodes()).extracting(CodeNode::getName)
-            .containsExactlyInAnyOrder("method1", "caller");
+        verify(sliceRepository).insertSliceNodes(1L, List.of(2L));
+        verify(sliceRepository).saveAndFlush(slice);
+        verify(eventPublisher).publishEvent(new SliceChangedEvent(1L));
     }
 }
@@ -126,7 +126,7 @@ class FlowGraphServiceTest {
         when(relationshipRepository.findAll()).thenReturn(testRelationships);
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert
         assertNotNull(response);
@@ -150,7 +150,7 @@ class FlowGraphServiceTest {
         when(relationshipRepository.findAll()).thenReturn(testRelationships);
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert
         List<FlowGraphNode> nodes = response.getNodes();
@@ -200,7 +200,7 @@ class FlowGraphServiceTest {
         when(relationshipRepository.findAll()).thenReturn(testRelationships);
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert
         List<FlowGraphEdge> edges = response.getEdges();
@@ -309,7 +309,7 @@ class FlowGraphServiceTest {
         when(relationshipRepository.findById(1L)).thenReturn(Optional.of(testRelationships.get(0)));
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraphForComponent(componentName);
+        FlowGraphResponse response = flowGraphService.buildFlowGraphForComponent(null, componentName);
         
         // Assert
         assertNotNull(response);
@@ -326,7 +326,7 @@ class FlowGraphServiceTest {
         when(nodeRepository.searchByName(componentName)).thenReturn(Collections.emptyList());
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraphForComponent(componentName);
+        FlowGraphResponse response = flowGraphService.buildFlowGraphForComponent(null, componentName);
         
         // Assert
         assertNotNull(response);
@@ -345,8 +345,11 @@ class FlowGraphServiceTest {
         when(nodeRepository.findAll()).thenReturn(testNodes);
         when(relationshipRepository.findAll()).thenReturn(testRelationships);
         
+        when(nodeRepository.countNodesByLayer()).thenReturn(List.of(
+            layerCount("CONTROLLER", 1L), layerCount("SERVICE_JAVA", 1L)));
+        
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert
         Map<String, Object> metadata = response.getMetadata();
@@ -354,7 +357,90 @@ class FlowGraphServiceTest {
         @SuppressWarnings("unchecked")
         Map<String, Long> layerCounts = (Map<String, Long>) metadata.get("layerCounts");
         assertNotNull(layerCounts);
-        assertTrue(layerCounts.size() > 0);
+        assertEquals(Map.of("CONTROLLER", 1L, "SERVICE_JAVA", 1L), layerCounts);
+    }
+    
+    @Test
+    void testBuildFlowGraphCountsUnclassifiedNodesInMemory() {
+        // Arrange
+        when(nodeRepository.findAll()).thenReturn(testNodes);
+        when(relationshipRepository.findAll()).thenReturn(testRelationships);
+        when(nodeRepository.countNodesByLayer()).thenReturn(List.of(layerCount(null, 6L)));
+        
+        // Act
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
+        
+        // Assert
+        @SuppressWarnings("unchecked")
+        Map<String, Long> layerCounts = (Map<String, Long>) response.getMetadata().get("layerCounts");
+        assertEquals(6, layerCounts.size());
+        assertEquals(1L, layerCounts.get("CONTROLLER"));
+    }
+    
+    @Test
+    void testBuildFlowGraphForLayerUsesStoredLayer() {
+        // Arrange
+        CodeNode controller = testNodes.get(2);
+        controller.setLayer("CONTROLLER");
+        controller.setFilePath("/project/backend/src/main/java/com/example/web/UserEndpoint.java");
+        when(nodeRepository.findByLayer("CONTROLLER")).thenReturn(List.of(controller));
+        when(relationshipRepository.findWithinLayer("CONTROLLER")).thenReturn(Collections.emptyList());
+        
+        // Act
+        FlowGraphResponse response = flowGraphService.buildFlowGraphForLayer(null, "CONTROLLER");
+        
+        // Assert
+        assertEquals(1, response.getNodes().size());
+        assertEquals("CONTROLLER", response.getNodes().get(0).getLayer());
+        assertEquals("CONTROLLER", response.getMetadata().get("layer"));
+        verify(nodeRepository, never()).findAll();
+    }
+    
+    @Test
+    void testBuildFlowGraphForProjectReadsOnlyThatProject() {
+        // Arrange
+        CodeNode controller = testNodes.get(2);
+        controller.setProjectId(7L);
+        when(nodeRepository.findByProjectId(7L)).thenReturn(List.of(controller));
+        when(relationshipRepository.findByProjectId(7L)).thenReturn(Collections.emptyList());
+        when(nodeRepository.countNodesByLayerInProject(7L)).thenReturn(List.of(layerCount("CONTROLLER", 1L)));
+        
+        // Act
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(7L);
+        
+        // Assert
+        assertEquals(1, response.getNodes().size());
+        assertEquals(Map.of("CONTROLLER", 1L), response.getMetadata().get("layerCounts"));
+        verify(nodeRepository, never()).findAll();
+        verify(relationshipRepository, never()).findAll();
+    }
+    
+    @Test
+    void testBackfillLayersClassifiesLegacyNodes() {
+        // Arrange
+        CodeNode legacy = new CodeNode("Helper", TYPE_CLASS, "/project/src/Helper.java", 1);
+        when(nodeRepository.findByLayerIsNull()).thenReturn(List.of(legacy));
+        
+        // Act
+        flowGraphService.backfillLayers();
+        
+        // Assert
+        assertEquals("CLASS", legacy.getLayer()); // Null package no longer fails
+        verify(nodeRepository).saveAll(List.of(legacy));
+    }
+    
+    private static CodeNodeRepository.LayerCount layerCount(String layer, Long nodeCount) {
+        return new CodeNodeRepository.LayerCount() {
+            @Override
+            public String getLayer() {
+                return layer;
+            }
+            
+            @Override
+            public Long getNodeCount() {
+                return nodeCount;
+            }
+        };
     }
     
     @Test
@@ -364,7 +450,7 @@ class FlowGraphServiceTest {
         when(relationshipRepository.findAll()).thenReturn(testRelationships);
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert
         Map<String, Object> metadata = response.getMetadata();
@@ -382,7 +468,7 @@ class FlowGraphServiceTest {
         when(relationshipRepository.findAll()).thenReturn(Collections.emptyList());
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert
         assertNotNull(response);
@@ -399,7 +485,7 @@ class FlowGraphServiceTest {
         when(relationshipRepository.findAll()).thenReturn(Collections.emptyList());
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert
         FlowGraphNode node = response.getNodes().get(0);
@@ -413,7 +499,7 @@ class FlowGraphServiceTest {
         when(relationshipRepository.findAll()).thenReturn(testRelationships);
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert
         List<FlowGraphEdge> edges = response.getEdges();
@@ -440,7 +526,7 @@ class FlowGraphServiceTest {
         when(relationshipRepository.findAll()).thenReturn(testRelationships);
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert
         List<FlowGraphNode> nodes = response.getNodes();
@@ -473,7 +559,7 @@ class FlowGraphServiceTest {
         when(relationshipRepository.findAll()).thenReturn(circularRels);
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert - should handle without infinite loops
         assertNotNull(response);
@@ -504,9 +590,11 @@ class FlowGraphServiceTest {
         // Arrange
         when(nodeRepository.findAll()).thenReturn(testNodes);
         when(relationshipRepository.findAll()).thenReturn(testRelationships);
+        when(nodeRepository.countNodesByLayer()).thenReturn(List.of(
+            layerCount("SERVICE_JAVA", 1L), layerCount("CONTROLLER", 1L)));
         
         // Act
-        FlowGraphResponse response = flowGraphService.buildFlowGraph();
+        FlowGraphResponse response = flowGraphService.buildFlowGraph(null);
         
         // Assert
         Map<String, Object> metadata = response.getMetadata();
@@ -0,0 +1,98 @@
+package com.codecom.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GitIgnoreRules
+ */
+class GitIgnoreRulesTest {
+
+    private static final Path ROOT = Path.of("/repo");
+
+    private static GitIgnoreRules rules(String... lines) {
+        return GitIgnoreRules.EMPTY.withFile(ROOT, List.of(lines));
+    }
+
+    @Test
+    void testSkipsCommentsAndBlankLines() {
+        // When
+        GitIgnoreRules rules = rules("# comment", "", "   ");
+
+        // Then
+        assertTrue(rules.isEmpty());
+    }
+
+    @Test
+    void testUnanchoredPatternMatchesNameAtAnyDepth() {
+        // Given
+        GitIgnoreRules rules = rules("*.class");
+
+        // When & Then
+        assertTrue(rules.isIgnored(ROOT.resolve("A.class"), false));
+        assertTrue(rules.isIgnored(ROOT.resolve("a/b/C.class"), false));
+        assertFalse(rules.isIgnored(ROOT.resolve("a/C.java"), false));
+    }
+
+    @Test
+    void testAnchoredPatternMatchesFromItsDirectory() {
+        // Given
+        GitIgnoreRules rules = rules("/out", "docs/*.html");
+
+        // When & Then
+        assertTrue(rules.isIgnored(ROOT.resolve("out"), true));
+        assertFalse(rules.isIgnored(ROOT.resolve("src/out"), true));
+        assertTrue(rules.isIgnored(ROOT.resolve("docs/index.html"), false));
+        assertFalse(rules.isIgnored(ROOT.resolve("docs/api/index.html"), false));
+    }
+
+    @Test
+    void testDirectoryOnlyPattern() {
+        // Given
+        GitIgnoreRules rules = rules("logs/");
+
+        // When & Then
+        assertTrue(rules.isIgnored(ROOT.resolve("logs"), true));
+        assertFalse(rules.isIgnored(ROOT.resolve("logs"), false));
+    }
+
+    @Test
+    void testDoubleStarAndCharacterClass() {
+        // Given
+        GitIgnoreRules rules = rules("**/gen/**", "tmp[0-9]", "file?.txt");
+
+        // When & Then
+        assertTrue(rules.isIgnored(ROOT.resolve("a/gen/B.java"), false));
+        assertTrue(rules.isIgnored(ROOT.resolve("gen/B.java"), false));
+        assertTrue(rules.isIgnored(ROOT.resolve("tmp7"), true));
+        assertFalse(rules.isIgnored(ROOT.resolve("tmpx"), true));
+        assertTrue(rules.isIgnored(ROOT.resolve("file1.txt"), false));
+        assertFalse(rules.isIgnored(ROOT.resolve("file10.txt"), false));
+    }
+
+    @Test
+    void testLastMatchingRuleWins() {
+        // Given
+        GitIgnoreRules rules = rules("*.log", "!important.log")
+            .withFile(ROOT.resolve("sub"), List.of("important.log"));
+
+        // When & Then
+        assertTrue(rules.isIgnored(ROOT.resolve("debug.log"), false));
+        assertFalse(rules.isIgnored(ROOT.resolve("important.log"), false));
+        assertTrue(rules.isIgnored(ROOT.resolve("sub/important.log"), false));
+    }
+
+    @Test
+    void testRulesDoNotApplyOutsideTheirDirectory() {
+        // Given
+        GitIgnoreRules rules = GitIgnoreRules.EMPTY.withFile(ROOT.resolve("sub"), List.of("*.java"));
+
+        // When & Then
+        assertTrue(rules.isIgnored(ROOT.resolve("sub/A.java"), false));
+        assertFalse(rules.isIgnored(ROOT.resolve("A.java"), false));
+    }
+}
@@ -0,0 +1,245 @@
+package com.codecom.service;
+
+import com.codecom.dto.FlowGraphEdge;
+import com.codecom.dto.FlowGraphNode;
+import com.codecom.dto.FlowGraphResponse;
+import com.codecom.entity.CodeNode;
+import com.codecom.entity.CodeRelationship;
+import com.codecom.repository.CodeNodeRepository;
+import com.codecom.repository.CodeRelationshipRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for GraphAggregationService
+ * FR.33: Interactive Architecture Flow Graph
+ */
+@ExtendWith(MockitoExtension.class)
+class GraphAggregationServiceTest {
+
+    private static final String REL_CALLS = "CALLS";
+
+    @Mock
+    private CodeNodeRepository nodeRepository;
+
+    @Mock
+    private CodeRelationshipRepository relationshipRepository;
+
+    @InjectMocks
+    private GraphAggregationService aggregationService;
+
+    private List<CodeNode> testNodes;
+    private List<CodeRelationship> testRelationships;
+
+    @BeforeEach
+    void setUp() {
+        testNodes = new ArrayList<>();
+        testNodes.add(node(1L, "UserController", "CLASS", "/p/controller/UserController.java", 5, "com.example.controller"));
+        testNodes.add(node(2L, "getUser", "METHOD", "/p/controller/UserController.java", 10, "com.example.controller"));
+        testNodes.add(node(3L, "listUsers", "METHOD", "/p/controller/UserController.java", 20, "com.example.controller"));
+        testNodes.add(node(4L, "UserService", "CLASS", "/p/service/UserService.java", 5, "com.example.service"));
+        testNodes.add(node(5L, "findUser", "METHOD", "/p/service/UserService.java", 10, "com.example.service"));
+        testNodes.add(node(6L, "UserRepository", "INTERFACE", "/p/repository/UserRepository.java", 3, "com.example.repository"));
+        testNodes.add(node(7L, "findById", "METHOD", "/p/repository/UserRepository.java", 8, "com.example.repository"));
+
+        testRelationships = new ArrayList<>();
+        testRelationships.add(new CodeRelationship(2L, 5L, REL_CALLS));
+        testRelationships.add(new CodeRelationship(3L, 5L, REL_CALLS));
+        testRelationships.add(new CodeRelationship(5L, 7L, REL_CALLS));
+        testRelationships.add(new CodeRelationship(2L, 3L, REL_CALLS));
+    }
+
+    private CodeNode node(Long id, String name, String type, String filePath, int line, String packageName) {
+        CodeNode node = new CodeNode(name, type, filePath, line);
+        node.setId(id);
+        node.setPackageName(packageName);
+        return node;
+    }
+
+    private void stubRepositories() {
+        when(nodeRepository.findAll()).thenReturn(testNodes);
+        when(relationshipRepository.findAll()).thenReturn(testRelationships);
+    }
+
+    private FlowGraphEdge findEdge(FlowGraphResponse response, String sourceId, String targetId) {
+        return response.getEdges().stream()
+            .filter(e -> e.getSourceId().equals(sourceId) && e.getTargetId().equals(targetId))
+            .findFirst()
+            .orElse(null);
+    }
+
+    @Test
+    void testLayerLevelCollapsesIntoLayersWithWeightedEdges() {
+        // Arrange
+        stubRepositories();
+
+        // Act
+        FlowGraphResponse response = aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.LAYER, null);
+
+        // Assert
+        List<String> ids = response.getNodes().stream().map(FlowGraphNode::getId).toList();
+        assertEquals(List.of("layer-CONTROLLER", "layer-REPOSITORY", "layer-SERVICE_JAVA"), ids);
+        assertEquals(2, response.getEdges().size()); // Call inside the controller class is internal
+
+        FlowGraphEdge controllerToService = findEdge(response, "layer-CONTROLLER", "layer-SERVICE_JAVA");
+        assertNotNull(controllerToService);
+        assertEquals(2, controllerToService.getWeight());
+        assertEquals("calls", controllerToService.getLabel());
+        assertEquals(1, findEdge(response, "layer-SERVICE_JAVA", "layer-REPOSITORY").getWeight());
+
+        assertEquals("LAYER", response.getMetadata().get("level"));
+        assertEquals(3, response.getMetadata().get("totalWeight"));
+    }
+
+    @Test
+    void testDrillIntoPackageKeepsOutsideNeighboursCollapsed() {
+        // Arrange
+        stubRepositories();
+
+        // Act
+        FlowGraphResponse response = aggregationService.getAggregatedGraph(null, 
+            GraphAggregationService.Level.CLASS, "package-com.example.controller");
+
+        // Assert
+        Map<String, FlowGraphNode> nodes = new HashMap<>();
+        response.getNodes().forEach(n -> nodes.put(n.getId(), n));
+        assertEquals(Set.of("class-1", "package-com.example.service"), nodes.keySet());
+        assertEquals(3, nodes.get("class-1").getChildCount()); // Class node itself plus two methods
+        assertEquals("CONTROLLER", nodes.get("class-1").getLayer());
+
+        assertEquals(1, response.getEdges().size());
+        assertEquals(2, findEdge(response, "class-1", "package-com.example.service").getWeight());
+        assertEquals("package-com.example.controller", response.getMetadata().get("parent"));
+    }
+
+    @Test
+    void testDrillIntoClassExpandsMembers() {
+        // Arrange
+        stubRepositories();
+
+        // Act
+        FlowGraphResponse response = aggregationService.getAggregatedGraph(null, 
+            GraphAggregationService.Level.METHOD, "class-1");
+
+        // Assert
+        List<String> ids = response.getNodes().stream().map(FlowGraphNode::getId).sorted().toList();
+        assertEquals(List.of("class-4", "node-1", "node-2", "node-3"), ids);
+        assertEquals(3, response.getEdges().size());
+        assertNotNull(findEdge(response, "node-2", "node-3"));
+        assertNotNull(findEdge(response, "node-2", "class-4"));
+        assertNotNull(findEdge(response, "node-3", "class-4"));
+    }
+
+    @Test
+    void testAggregationIsBuiltOncePerGraphVersion() {
+        // Arrange
+        stubRepositories();
+
+        // Act
+        aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.LAYER, null);
+        aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.PACKAGE, "layer-SERVICE_JAVA");
+        aggregationService.onGraphIndexed(new GraphIndexedEvent(null, "/p"));
+        aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.CLASS, null);
+
+        // Assert
+        verify(nodeRepository, times(2)).findAll();
+        verify(relationshipRepository, times(2)).findAll();
+    }
+
+    @Test
+    void testIndexedProjectIsAggregatedOnceByTheRebuildOrTheFirstRequest() {
+        // Arrange
+        when(nodeRepository.findByProjectId(7L)).thenReturn(testNodes);
+        when(relationshipRepository.findByProjectId(7L)).thenReturn(testRelationships);
+
+        // Act
+        aggregationService.onGraphIndexed(new GraphIndexedEvent(7L, "/p"));
+        aggregationService.getAggregatedGraph(7L, GraphAggregationService.Level.CLASS, null);
+
+        // Assert
+        verify(nodeRepository, times(1)).findByProjectId(7L);
+        verify(nodeRepository, never()).findAll();
+    }
+
+    @Test
+    void testFailedIndexIsAggregatedOnlyWhenRequested() {
+        // Arrange
+        when(nodeRepository.findByProjectId(7L)).thenReturn(testNodes);
+        when(relationshipRepository.findByProjectId(7L)).thenReturn(testRelationships);
+
+        // Act
+        aggregationService.onGraphIndexed(new GraphIndexedEvent(7L, "/p", false));
+
+        // Assert
+        verify(nodeRepository, never()).findByProjectId(7L);
+        aggregationService.getAggregatedGraph(7L, GraphAggregationService.Level.CLASS, null);
+        verify(nodeRepository, times(1)).findByProjectId(7L);
+    }
+
+    @Test
+    void testMembersAfterANestedClassBelongToTheOuterClass() {
+        // Arrange
+        CodeNode nested = node(8L, "Validator", "CLASS", "/p/controller/UserController.java", 25, "com.example.controller");
+        nested.setEnclosingTypeId(1L);
+        CodeNode validate = node(9L, "validate", "METHOD", "/p/controller/UserController.java", 26, "com.example.controller");
+        validate.setEnclosingTypeId(8L);
+        CodeNode deleteUser = node(10L, "deleteUser", "METHOD", "/p/controller/UserController.java", 30, "com.example.controller");
+        deleteUser.setEnclosingTypeId(1L);
+        testNodes.addAll(List.of(nested, validate, deleteUser));
+        stubRepositories();
+
+        // Act
+        FlowGraphResponse outer = aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.METHOD, "class-1");
+        FlowGraphResponse inner = aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.METHOD, "class-8");
+
+        // Assert
+        List<String> outerIds = outer.getNodes().stream().map(FlowGraphNode::getId).toList();
+        assertTrue(outerIds.contains("node-10"));
+        assertFalse(outerIds.contains("node-9"));
+        assertEquals(List.of("node-8", "node-9"), inner.getNodes().stream().map(FlowGraphNode::getId).sorted().toList());
+    }
+
+    @Test
+    void testParentMustBeCoarserThanLevel() {
+        // Arrange
+        stubRepositories();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () ->
+            aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.LAYER, "class-1"));
+        assertThrows(IllegalArgumentException.class, () ->
+            aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.CLASS, "package-unknown"));
+    }
+
+    @Test
+    void testNodesWithoutPackageOrClassAreGrouped() {
+        // Arrange
+        CodeNode orphan = node(8L, "helper", "METHOD", "/p/util/helpers.ts", 4, null);
+        testNodes.add(orphan);
+        stubRepositories();
+
+        // Act
+        FlowGraphResponse response = aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.CLASS, null);
+
+        // Assert
+        FlowGraphNode fileGroup = response.getNodes().stream()
+            .filter(n -> n.getId().equals("file-/p/util/helpers.ts"))
+            .findFirst()
+            .orElse(null);
+        assertNotNull(fileGroup);
+        assertEquals("helpers.ts", fileGroup.getName());
+        assertEquals("FILE", fileGroup.getNodeType());
+
+        FlowGraphResponse packages = aggregationService.getAggregatedGraph(null, GraphAggregationService.Level.PACKAGE, null);
+        assertTrue(packages.getNodes().stream().anyMatch(n -> n.getId().equals("package-(default)")));
+    }
+}
@@ -0,0 +1,128 @@
+package com.codecom.service;
+
+import com.codecom.dto.FlowGraphEdge;
+import com.codecom.dto.FlowGraphNode;
+import com.codecom.dto.FlowGraphResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GraphLayoutService
+ * FR.33: Interactive Architecture Flow Graph
+ */
+class GraphLayoutServiceTest {
+
+    private GraphLayoutService layoutService;
+    private FlowGraphResponse graph;
+
+    @BeforeEach
+    void setUp() {
+        layoutService = new GraphLayoutService();
+
+        List<FlowGraphNode> nodes = new ArrayList<>();
+        nodes.add(node("node-1", "UserController"));
+        nodes.add(node("node-2", "UserService"));
+        nodes.add(node("node-3", "UserRepository"));
+        nodes.add(node("node-4", "AuditService"));
+
+        List<FlowGraphEdge> edges = new ArrayList<>();
+        edges.add(new FlowGraphEdge("node-1", "node-2", "CALLS", "calls", 10));
+        edges.add(new FlowGraphEdge("node-2", "node-3", "CALLS", "calls", 20));
+        edges.add(new FlowGraphEdge("node-1", "node-4", "CALLS", "calls", 12));
+        edges.add(new FlowGraphEdge("node-3", "node-1", "CALLS", "calls", 30)); // Cycle back to the controller
+
+        graph = new FlowGraphResponse(nodes, edges, new HashMap<>(Map.of("nodeCount", 4)));
+    }
+
+    private FlowGraphNode node(String id, String name) {
+        return new FlowGraphNode(id, name, "CLASS", "SERVICE_JAVA", "/p/" + name + ".java", 1, "com.example");
+    }
+
+    private Map<String, FlowGraphNode> byId(FlowGraphResponse response) {
+        Map<String, FlowGraphNode> nodes = new HashMap<>();
+        response.getNodes().forEach(n -> nodes.put(n.getId(), n));
+        return nodes;
+    }
+
+    @Test
+    void testLayeredLayoutPlacesCalleesBelowCallers() {
+        // Act
+        FlowGraphResponse response = layoutService.layout(graph, GraphLayoutService.Algorithm.LAYERED);
+
+        // Assert
+        Map<String, FlowGraphNode> nodes = byId(response);
+        assertEquals(0.0, nodes.get("node-1").getY());
+        assertTrue(nodes.get("node-2").getY() > nodes.get("node-1").getY());
+        assertTrue(nodes.get("node-3").getY() > nodes.get("node-2").getY());
+        assertEquals(nodes.get("node-2").getY(), nodes.get("node-4").getY());
+        assertNotEquals(nodes.get("node-2").getX(), nodes.get("node-4").getX());
+        assertEquals("LAYERED", response.getMetadata().get("layout"));
+        assertEquals(4, response.getMetadata().get("nodeCount"));
+    }
+
+    @Test
+    void testForceLayoutSeparatesNodes() {
+        // Act
+        FlowGraphResponse response = layoutService.layout(graph, GraphLayoutService.Algorithm.FORCE);
+
+        // Assert
+        List<FlowGraphNode> nodes = response.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            assertTrue(Double.isFinite(nodes.get(i).getX()));
+            assertTrue(Double.isFinite(nodes.get(i).getY()));
+            for (int j = i + 1; j < nodes.size(); j++) {
+                double distance = Math.hypot(nodes.get(i).getX() - nodes.get(j).getX(),
+                    nodes.get(i).getY() - nodes.get(j).getY());
+                assertTrue(distance > 1.0);
+            }
+        }
+    }
+
+    @Test
+    void testLayoutIsCachedByGraphHash() {
+        // Act
+        FlowGraphResponse first = layoutService.layout(graph, GraphLayoutService.Algorithm.LAYERED);
+        FlowGraphResponse second = layoutService.layout(graph, GraphLayoutService.Algorithm.LAYERED);
+        layoutService.onGraphIndexed(new GraphIndexedEvent(null, "/p"));
+        FlowGraphResponse afterReindex = layoutService.layout(graph, GraphLayoutService.Algorithm.LAYERED);
+
+        // Assert
+        assertEquals(false, first.getMetadata().get("layoutCached"));
+        assertEquals(true, second.getMetadata().get("layoutCached"));
+        assertEquals(false, afterReindex.getMetadata().get("layoutCached"));
+        assertEquals(first.getMetadata().get("layoutHash"), second.getMetadata().get("layoutHash"));
+        assertEquals(first.getNodes().get(2).getX(), second.getNodes().get(2).getX());
+    }
+
+    @Test
+    void testLayoutDoesNotModifyInputGraph() {
+        // Act
+        layoutService.layout(graph, GraphLayoutService.Algorithm.FORCE);
+
+        // Assert
+        assertNull(graph.getNodes().get(0).getX());
+        assertFalse(graph.getMetadata().containsKey("layout"));
+    }
+
+    @Test
+    void testLayoutHandlesEmptyGraphAndUnknownEdgeEndpoints() {
+        // Arrange
+        FlowGraphResponse empty = new FlowGraphResponse(List.of(), List.of(), null);
+        FlowGraphResponse dangling = new FlowGraphResponse(
+            List.of(node("node-1", "Solo")),
+            List.of(new FlowGraphEdge("node-1", "node-99", "CALLS", "calls", 1),
+                new FlowGraphEdge("node-1", "node-1", "CALLS", "calls", 2)),
+            null);
+
+        // Act & Assert
+        assertTrue(layoutService.layout(empty, GraphLayoutService.Algorithm.LAYERED).getNodes().isEmpty());
+        assertTrue(layoutService.layout(empty, GraphLayoutService.Algorithm.FORCE).getNodes().isEmpty());
+        FlowGraphNode solo = layoutService.layout(dangling, GraphLayoutService.Algorithm.LAYERED).getNodes().get(0);
+        assertEquals(0.0, solo.getX());
+        assertEquals(0.0, solo.getY());
+    }
+}
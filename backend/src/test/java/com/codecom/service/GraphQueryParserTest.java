@@ -0,0 +1,78 @@
+package com.codecom.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GraphQueryParser
+ * FR.39: Cross-Language Query Support
+ */
+class GraphQueryParserTest {
+
+    private static GraphQuery.Attribute attr(GraphQuery.Field field, String value) {
+        return new GraphQuery.Attribute(field, value);
+    }
+
+    @Test
+    void testLegacyQueriesKeepTheirMeaning() {
+        // Act & Assert
+        assertEquals(new GraphQuery.Related(GraphQuery.Relation.CALLS, 1, attr(GraphQuery.Field.NAME, "save")),
+            GraphQueryParser.parse("calls:save"));
+        assertEquals(new GraphQuery.Related(GraphQuery.Relation.INHERITS, 1, attr(GraphQuery.Field.NAME, "Base")),
+            GraphQueryParser.parse("inherits:Base"));
+        assertEquals(new GraphQuery.And(List.of(attr(GraphQuery.Field.TYPE, "CLASS"), attr(GraphQuery.Field.PUBLIC, "true"))),
+            GraphQueryParser.parse("type:class public:TRUE"));
+    }
+
+    @Test
+    void testMultiHopWithSubquery() {
+        // Act
+        GraphQuery query = GraphQueryParser.parse("layer:service_java calledby*:(name:UserController type:CLASS)");
+
+        // Assert
+        GraphQuery target = new GraphQuery.And(List.of(attr(GraphQuery.Field.NAME, "UserController"),
+            attr(GraphQuery.Field.TYPE, "CLASS")));
+        assertEquals(new GraphQuery.And(List.of(attr(GraphQuery.Field.LAYER, "SERVICE_JAVA"),
+            new GraphQuery.Related(GraphQuery.Relation.CALLED_BY, Integer.MAX_VALUE, target))), query);
+        assertEquals(new GraphQuery.Related(GraphQuery.Relation.CALLS, 3, attr(GraphQuery.Field.NAME, "save")),
+            GraphQueryParser.parse("calls*3:save"));
+    }
+
+    @Test
+    void testBooleanOperatorsAndPrecedence() {
+        // Act
+        GraphQuery query = GraphQueryParser.parse("type:METHOD (name:get OR name:find) AND NOT package:com.legacy -static:true");
+
+        // Assert
+        assertEquals(new GraphQuery.And(List.of(
+            attr(GraphQuery.Field.TYPE, "METHOD"),
+            new GraphQuery.Or(List.of(attr(GraphQuery.Field.NAME, "get"), attr(GraphQuery.Field.NAME, "find"))),
+            new GraphQuery.Not(attr(GraphQuery.Field.PACKAGE, "com.legacy")),
+            new GraphQuery.Not(attr(GraphQuery.Field.STATIC, "true")))), query);
+        assertEquals(new GraphQuery.Or(List.of(
+                new GraphQuery.And(List.of(attr(GraphQuery.Field.NAME, "a"), attr(GraphQuery.Field.NAME, "b"))),
+                attr(GraphQuery.Field.NAME, "c"))),
+            GraphQueryParser.parse("a b OR c"));
+    }
+
+    @Test
+    void testQuotedValuesAndBareWords() {
+        // Act & Assert
+        assertEquals(attr(GraphQuery.Field.FILE, "/src/My File.java"), GraphQueryParser.parse("file:\"/src/My File.java\""));
+        assertEquals(attr(GraphQuery.Field.NAME, "UserService"), GraphQueryParser.parse("UserService"));
+        assertEquals(attr(GraphQuery.Field.FILE, "C:/src/A.java"), GraphQueryParser.parse("file:C:/src/A.java"));
+        assertEquals(attr(GraphQuery.Field.NAME, "ORDER"), GraphQueryParser.parse("ORDER"));
+    }
+
+    @Test
+    void testMalformedQueriesAreRejected() {
+        // Act & Assert
+        for (String query : List.of("", "type:CLASS (name:a", "name:a)", "colour:red", "type*:CLASS",
+                "calls*0:a", "public:maybe", "file:\"open", "name: a", "NOT")) {
+            assertThrows(IllegalArgumentException.class, () -> GraphQueryParser.parse(query), query);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.codecom.service;
+
+import com.codecom.entity.CodeNode;
+import com.codecom.entity.CodeProject;
+import com.codecom.repository.CodeNodeRepository;
+import com.codecom.repository.CodeProjectRepository;
+import com.codecom.repository.CodeRelationshipRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Sort;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.codecom.service.ReachabilityIndexTest.edge;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for GraphSnapshotService
+ * FR.38: Relationship Graph Database
+ */
+class GraphSnapshotServiceTest {
+
+    private static final Long PROJECT = 3L;
+
+    @TempDir
+    Path tempDir;
+
+    private CodeNodeRepository nodeRepository;
+    private CodeRelationshipRepository relationshipRepository;
+    private CodeProjectRepository projectRepository;
+    private RelationshipGraphCache graphCache;
+    private SymbolSearchIndex searchIndex;
+    private GraphSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        nodeRepository = mock(CodeNodeRepository.class);
+        relationshipRepository = mock(CodeRelationshipRepository.class);
+        projectRepository = mock(CodeProjectRepository.class);
+        graphCache = new RelationshipGraphCache(relationshipRepository);
+        searchIndex = new SymbolSearchIndex(nodeRepository);
+        service = new GraphSnapshotService(nodeRepository, relationshipRepository, projectRepository, graphCache,
+            searchIndex, tempDir.resolve("snapshots").toString());
+    }
+
+    private void givenIndexedGraph() {
+        CodeProject project = new CodeProject("shop", "/src");
+        project.setId(PROJECT);
+        when(projectRepository.findAll()).thenReturn(List.of(project));
+        CodeNode placeOrder = new CodeNode("placeOrder", "METHOD", "/src/OrderService.java", 10);
+        placeOrder.setId(1L);
+        CodeNode saveInvoice = new CodeNode("saveInvoice", "METHOD", "/src/InvoiceRepository.java", 20);
+        saveInvoice.setId(2L);
+        when(nodeRepository.findByProjectId(eq(PROJECT), any(Sort.class)))
+            .thenReturn(List.of(placeOrder, saveInvoice));
+        when(nodeRepository.countByProjectId(PROJECT)).thenReturn(2L);
+        when(nodeRepository.findMaxIdByProjectId(PROJECT)).thenReturn(2L);
+        when(relationshipRepository.countByProjectId(PROJECT)).thenReturn(1L);
+        when(relationshipRepository.findMaxIdByProjectId(PROJECT)).thenReturn(7L);
+        when(relationshipRepository.findRelationshipTypesByProjectId(PROJECT)).thenReturn(List.of("CALLS"));
+        when(relationshipRepository.findEdgesByProjectIdAndType(PROJECT, "CALLS")).thenReturn(List.of(edge(1, 2)));
+    }
+
+    @Test
+    void testWritesSnapshotAfterIndexingAndLoadsItAtStartup() {
+        // Given
+        givenIndexedGraph();
+        service.onGraphIndexed(new GraphIndexedEvent(PROJECT, "/src"));
+        clearInvocations(relationshipRepository);
+
+        // When
+        int loaded = service.loadOnStartup();
+
+        // Then
+        assertEquals(1, loaded);
+        assertTrue(Files.isRegularFile(tempDir.resolve("snapshots").resolve("project-3.snapshot")));
+        assertEquals(1, graphCache.get(PROJECT, List.of("CALLS")).edgeCount());
+        assertEquals(List.of(2L), searchIndex.search(PROJECT, "invoice", 10));
+        verify(relationshipRepository, never()).findEdgesByProjectIdAndType(any(), any());
+        verify(nodeRepository, never()).findSearchDocumentsByProjectId(any());
+    }
+
+    @Test
+    void testDropsSnapshotAfterFailedIndexing() {
+        // Given
+        givenIndexedGraph();
+        service.onGraphIndexed(new GraphIndexedEvent(PROJECT, "/src"));
+        Path snapshot = tempDir.resolve("snapshots").resolve("project-3.snapshot");
+        assertTrue(Files.isRegularFile(snapshot));
+        clearInvocations(nodeRepository);
+
+        // When
+        service.onGraphIndexed(new GraphIndexedEvent(PROJECT, "/src", false));
+
+        // Then
+        assertFalse(Files.exists(snapshot));
+        verify(nodeRepository, never()).findByProjectId(any(), any(Sort.class));
+    }
+
+    @Test
+    void testIgnoresSnapshotOfAnotherDatabase() {
+        // Given
+        givenIndexedGraph();
+        service.onGraphIndexed(new GraphIndexedEvent(PROJECT, "/src"));
+        when(relationshipRepository.findMaxIdByProjectId(PROJECT)).thenReturn(9L);
+
+        // When
+        int loaded = service.loadOnStartup();
+
+        // Then
+        assertEquals(0, loaded);
+        searchIndex.search(PROJECT, "invoice", 10);
+        verify(nodeRepository).findSearchDocumentsByProjectId(PROJECT);
+    }
+
+    @Test
+    void testStartsWithoutSnapshot() {
+        // Given
+        CodeProject project = new CodeProject("shop", "/src");
+        project.setId(PROJECT);
+        when(projectRepository.findAll()).thenReturn(List.of(project));
+
+        // When & Then
+        assertEquals(0, service.loadOnStartup());
+        verifyNoInteractions(nodeRepository);
+    }
+}
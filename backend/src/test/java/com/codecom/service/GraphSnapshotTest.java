@@ -0,0 +1,106 @@
+package com.codecom.service;
+
+import com.codecom.entity.CodeNode;
+import com.codecom.repository.CodeNodeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static com.codecom.service.ReachabilityIndexTest.edge;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for GraphSnapshot
+ * FR.38: Relationship Graph Database
+ */
+class GraphSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static CodeNode node(long id, String name, String signature, String documentation) {
+        CodeNode node = new CodeNode(name, "METHOD", "/src/Order.java", (int) id * 10);
+        node.setId(id);
+        node.setSignature(signature);
+        node.setDocumentation(documentation);
+        return node;
+    }
+
+    @Test
+    void testRoundTripsNodesAndGraphs() throws IOException {
+        // Arrange
+        CodeNode save = node(3, "save", "void save(Order order)", "Persists an order");
+        save.setIsPublic(true);
+        save.setIsStatic(false);
+        save.setPackageName("com.shop");
+        save.setLayer("SERVICE");
+        CodeNode render = node(8, "rendér", null, null);
+        GraphSnapshot.Fingerprint fingerprint = new GraphSnapshot.Fingerprint(2, 3, 8, 42);
+        Map<String, RelationshipGraph> graphs = Map.of(
+            "CALLS", RelationshipGraph.of(List.of(edge(3, 8), edge(8, 3), edge(3, 8))),
+            "INHERITS", RelationshipGraph.of(List.of()));
+        Path file = tempDir.resolve("nested/graph.snapshot");
+
+        // Act
+        GraphSnapshot.write(file, fingerprint, List.of(save, render), graphs);
+        GraphSnapshot snapshot = GraphSnapshot.read(file);
+
+        // Assert
+        assertEquals(fingerprint, snapshot.fingerprint());
+        assertEquals(2, snapshot.nodeCount());
+        assertEquals(8L, snapshot.nodeId(1));
+        assertEquals("save", snapshot.name(0));
+        assertEquals("rendér", snapshot.name(1));
+        assertEquals("METHOD", snapshot.nodeType(1));
+        assertEquals("/src/Order.java", snapshot.filePath(0));
+        assertEquals(80, snapshot.lineNumber(1));
+        assertEquals("com.shop", snapshot.packageName(0));
+        assertNull(snapshot.packageName(1));
+        assertEquals("SERVICE", snapshot.layer(0));
+        assertEquals(true, snapshot.isPublic(0));
+        assertEquals(false, snapshot.isStatic(0));
+        assertNull(snapshot.isAbstract(0));
+        assertNull(snapshot.isPublic(1));
+
+        List<CodeNodeRepository.SearchDocument> documents = snapshot.searchDocuments();
+        assertEquals(3L, documents.get(0).getId());
+        assertEquals("void save(Order order)", documents.get(0).getSignature());
+        assertEquals("Persists an order", documents.get(0).getDocumentation());
+        assertNull(documents.get(1).getSignature());
+
+        RelationshipGraph calls = snapshot.graphs().get("CALLS");
+        assertEquals(2, calls.nodeCount());
+        assertEquals(3, calls.edgeCount());
+        int from = calls.ordinal(3L);
+        assertEquals(2, calls.outEnd(from) - calls.outStart(from));
+        assertEquals(8L, calls.nodeId(calls.targets()[calls.outStart(from)]));
+        assertEquals(1, calls.inEnd(from) - calls.inStart(from));
+        assertEquals(0, snapshot.graphs().get("INHERITS").edgeCount());
+        assertFalse(Files.exists(tempDir.resolve("nested/graph.snapshot.tmp")));
+    }
+
+    @Test
+    void testRejectsOtherFormatsAndVersions() throws IOException {
+        // Arrange
+        Path foreign = Files.write(tempDir.resolve("foreign"), new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        Path newer = Files.write(tempDir.resolve("newer"),
+            ByteBuffer.allocate(8).putInt(GraphSnapshot.MAGIC).putInt(GraphSnapshot.VERSION + 1).array());
+        Path truncated = tempDir.resolve("truncated");
+        GraphSnapshot.write(truncated, new GraphSnapshot.Fingerprint(1, 0, 1, 0),
+            List.of(node(1, "alpha", null, null)), Map.of());
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 4));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> GraphSnapshot.read(foreign));
+        assertThrows(IOException.class, () -> GraphSnapshot.read(newer));
+        assertThrows(IOException.class, () -> GraphSnapshot.read(truncated));
+    }
+}
@@ -0,0 +1,221 @@
+package com.codecom.service;
+
+import com.codecom.dto.IndexingProgress;
+import com.codecom.entity.CodeProject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for IndexingJobService
+ * FR.38: Relationship Graph Database
+ */
+class IndexingJobServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private KnowledgeGraphService knowledgeGraphService;
+    private IndexingJobService service;
+
+    @BeforeEach
+    void setUp() {
+        knowledgeGraphService = mock(KnowledgeGraphService.class);
+        service = new IndexingJobService(knowledgeGraphService);
+        AtomicLong ids = new AtomicLong();
+        when(knowledgeGraphService.registerProject(any(), any())).thenAnswer(invocation -> {
+            CodeProject project = new CodeProject(invocation.getArgument(0), invocation.getArgument(1));
+            project.setId(ids.incrementAndGet());
+            return project;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testRejectsMissingDirectory() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> service.submit(tempDir.resolve("missing").toString(), null));
+        assertTrue(service.listJobs().isEmpty());
+    }
+
+    @Test
+    void testStreamsProgressUntilCompleted() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            IndexingJob job = invocation.getArgument(0);
+            job.filesFound(1);
+            job.phase("nodes");
+            job.fileParsed();
+            job.batchCommitted();
+            return null;
+        }).when(knowledgeGraphService).indexProject(any(IndexingJob.class));
+        List<IndexingProgress> events = new CopyOnWriteArrayList<>();
+        CountDownLatch finished = new CountDownLatch(1);
+
+        // Act
+        String jobId = service.submit(tempDir.toString(), "shop").jobId();
+        service.subscribe(jobId, progress -> {
+            events.add(progress);
+            if (progress.finished()) {
+                finished.countDown();
+            }
+        });
+
+        // Assert
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        IndexingProgress last = events.get(events.size() - 1);
+        assertEquals("COMPLETED", last.state());
+        assertEquals(1, last.filesParsed());
+        assertEquals("shop", last.projectName());
+        assertEquals("COMPLETED", service.getProgress(jobId).orElseThrow().state());
+    }
+
+    @Test
+    void testCancelsRunningJob() throws Exception {
+        // Arrange
+        CountDownLatch running = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            IndexingJob job = invocation.getArgument(0);
+            running.countDown();
+            while (true) {
+                job.checkCancelled();
+                Thread.sleep(10);
+            }
+        }).when(knowledgeGraphService).indexProject(any(IndexingJob.class));
+
+        // Act
+        String jobId = service.submit(tempDir.toString(), null).jobId();
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        service.cancel(jobId);
+
+        // Assert
+        assertEquals("CANCELLED", awaitFinished(jobId).state());
+    }
+
+    @Test
+    void testReportsFailure() throws Exception {
+        // Arrange
+        doThrow(new IOException("disk gone")).when(knowledgeGraphService).indexProject(any(IndexingJob.class));
+
+        // Act
+        String jobId = service.submit(tempDir.toString(), null).jobId();
+
+        // Assert
+        IndexingProgress progress = awaitFinished(jobId);
+        assertEquals("FAILED", progress.state());
+        assertEquals("disk gone", progress.error());
+    }
+
+    @Test
+    void testKeepsRunningQueuedJobsAfterAnError() throws Exception {
+        // Arrange: the first job of the project dies with an Error, the second one succeeds
+        AtomicLong calls = new AtomicLong();
+        doAnswer(invocation -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new StackOverflowError();
+            }
+            return null;
+        }).when(knowledgeGraphService).indexProject(any(IndexingJob.class));
+        when(knowledgeGraphService.registerProject(any(), any())).thenAnswer(invocation -> {
+            CodeProject project = new CodeProject(invocation.getArgument(0), invocation.getArgument(1));
+            project.setId(7L);
+            return project;
+        });
+
+        // Act
+        String first = service.submit(tempDir.toString(), "shop").jobId();
+        String second = service.submit(tempDir.toString(), "shop").jobId();
+
+        // Assert
+        IndexingProgress failed = awaitFinished(first);
+        assertEquals("FAILED", failed.state());
+        assertEquals(StackOverflowError.class.getName(), failed.error());
+        assertEquals("COMPLETED", awaitFinished(second).state());
+    }
+
+    @Test
+    void testRunsProjectsConcurrently() throws Exception {
+        // Arrange: the first project's job only finishes once the second one has started
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            IndexingJob job = invocation.getArgument(0);
+            if ("first".equals(job.getProjectName())) {
+                assertTrue(secondStarted.await(5, TimeUnit.SECONDS));
+            } else {
+                secondStarted.countDown();
+            }
+            return null;
+        }).when(knowledgeGraphService).indexProject(any(IndexingJob.class));
+
+        // Act
+        String first = service.submit(tempDir.toString(), "first").jobId();
+        String second = service.submit(tempDir.toString(), "second").jobId();
+
+        // Assert
+        assertEquals("COMPLETED", awaitFinished(first).state());
+        assertEquals("COMPLETED", awaitFinished(second).state());
+    }
+
+    @Test
+    void testRunsJobsOfOneProjectInOrder() throws Exception {
+        // Arrange
+        List<String> started = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            IndexingJob job = invocation.getArgument(0);
+            started.add(job.getId());
+            Thread.sleep(20);
+            return null;
+        }).when(knowledgeGraphService).indexProject(any(IndexingJob.class));
+        when(knowledgeGraphService.registerProject(any(), any())).thenAnswer(invocation -> {
+            CodeProject project = new CodeProject(invocation.getArgument(0), invocation.getArgument(1));
+            project.setId(7L);
+            return project;
+        });
+
+        // Act
+        String first = service.submit(tempDir.toString(), "shop").jobId();
+        String second = service.submit(tempDir.toString(), "shop").jobId();
+
+        // Assert
+        awaitFinished(second);
+        assertEquals(List.of(first, second), started);
+        assertTrue(service.getProgress(first).orElseThrow().finishedAt()
+            .compareTo(service.getProgress(second).orElseThrow().startedAt()) <= 0);
+    }
+
+    @Test
+    void testUnknownJob() {
+        // Act & Assert
+        assertTrue(service.getProgress("nope").isEmpty());
+        assertTrue(service.cancel("nope").isEmpty());
+        assertFalse(service.subscribe("nope", progress -> { }));
+    }
+
+    private IndexingProgress awaitFinished(String jobId) throws InterruptedException {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            IndexingProgress progress = service.getProgress(jobId).orElseThrow();
+            if (progress.finished()) {
+                return progress;
+            }
+            Thread.sleep(10);
+        }
+        return fail("Job did not finish");
+    }
+}
@@ -0,0 +1,135 @@
+package com.codecom.service;
+
+import com.codecom.repository.ParseProblemRepository;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for JavaSymbolResolver
+ */
+class JavaSymbolResolverTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AnalysisMetrics metrics = new AnalysisMetrics(registry);
+    private final JavaSymbolResolver resolver = new JavaSymbolResolver(metrics,
+        new ProjectFileEnumerator(Set.of("node_modules", "target", ".git")),
+        new ParseProblemService(mock(ParseProblemRepository.class), metrics), 100);
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        resolver.shutdown();
+    }
+
+    @Test
+    void methodKey_ShouldIdentifyOverloadsAndNestedTypes() {
+        // Given
+        CompilationUnit cu = StaticJavaParser.parse("""
+            package com.shop;
+            class Cart {
+                void add(String item) {}
+                void add(int count) {}
+                static class Line {
+                    void add(String item) {}
+                }
+            }
+            """);
+
+        // When
+        List<String> keys = cu.findAll(MethodDeclaration.class).stream()
+            .map(method -> JavaSymbolResolver.methodKey(method).orElseThrow())
+            .toList();
+
+        // Then
+        assertThat(keys).containsExactly("com.shop.Cart#add@3", "com.shop.Cart#add@4", "com.shop.Cart.Line#add@6");
+    }
+
+    @Test
+    void analyze_ShouldKeepFileOrderAndSkipUnparsableFiles() throws IOException {
+        // Given
+        Path src = Files.createDirectories(tempDir.resolve("src/com/shop"));
+        Path cart = Files.writeString(src.resolve("Cart.java"), "package com.shop; class Cart {}");
+        Path broken = Files.writeString(src.resolve("Broken.java"), "package com.shop; class Broken {");
+        Path order = Files.writeString(src.resolve("Order.java"), "package com.shop; class Order {}");
+        List<Path> files = List.of(order, broken, cart);
+
+        // When
+        List<String> types = resolver.open(tempDir.toString(), files)
+            .analyze(files, "test", (file, cu) -> cu.getType(0).getNameAsString());
+
+        // Then
+        assertThat(types).containsExactly("Order", "Cart");
+    }
+
+    @Test
+    void resolve_ShouldFindTheCalledOverloadInTheProjectSources() throws IOException {
+        // Given
+        Path src = Files.createDirectories(tempDir.resolve("src/main/java/com/shop"));
+        Files.writeString(src.resolve("Cart.java"), """
+            package com.shop;
+            public class Cart {
+                public void add(String item) {}
+                public void add(int count) {}
+            }
+            """);
+        Path checkout = Files.writeString(src.resolve("Checkout.java"), """
+            package com.shop;
+            class Checkout {
+                void run(Cart cart) {
+                    cart.add(2);
+                }
+            }
+            """);
+
+        // When
+        List<Optional<JavaSymbolResolver.ResolvedCall>> calls = resolver.open(tempDir.toString(), List.of(checkout))
+            .analyze(List.of(checkout), "test", (file, cu) -> resolver.resolve(cu.findFirst(MethodCallExpr.class).orElseThrow()));
+
+        // Then
+        assertThat(calls).hasSize(1);
+        JavaSymbolResolver.ResolvedCall call = calls.get(0).orElseThrow();
+        assertThat(call.declaringType()).isEqualTo("com.shop.Cart");
+        assertThat(call.declaringClassName()).isEqualTo("Cart");
+        assertThat(call.sourceKey()).isEqualTo("com.shop.Cart#add@4"); // add(int), not add(String)
+        assertThat(registry.get("codecom.symbols.calls").tag("outcome", "source").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void resolve_ShouldBeEmptyForUnknownMethods() throws IOException {
+        // Given
+        Path file = Files.writeString(tempDir.resolve("Checkout.java"), """
+            class Checkout {
+                void run() {
+                    missing();
+                }
+            }
+            """);
+
+        // When
+        List<Optional<JavaSymbolResolver.ResolvedCall>> calls = resolver.open(tempDir.toString(), List.of(file))
+            .analyze(List.of(file), "test", (path, cu) -> resolver.resolve(cu.findFirst(MethodCallExpr.class).orElseThrow()));
+
+        // Then
+        assertThat(calls).hasSize(1);
+        assertThat(calls.get(0)).isEmpty();
+        assertThat(registry.get("codecom.symbols.calls").tag("outcome", "unresolved").counter().count()).isEqualTo(1.0);
+    }
+}
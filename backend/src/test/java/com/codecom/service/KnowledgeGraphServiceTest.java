@@ -1,21 +1,44 @@
 package com.codecom.service;
 
+import com.codecom.dto.CursorPage;
+import com.codecom.dto.IndexingProgress;
+import com.codecom.dto.NodeSummary;
+import com.codecom.dto.NodeWithRelationships;
+import com.codecom.dto.RelationshipInfo;
+import com.codecom.entity.CodeFile;
 import com.codecom.entity.CodeNode;
+import com.codecom.entity.CodePackage;
+import com.codecom.entity.CodeProject;
 import com.codecom.entity.CodeRelationship;
+import com.codecom.repository.CodeFileRepository;
 import com.codecom.repository.CodeNodeRepository;
+import com.codecom.repository.CodePackageRepository;
+import com.codecom.repository.CodeProjectRepository;
 import com.codecom.repository.CodeRelationshipRepository;
+import com.codecom.repository.ParseProblemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -29,6 +52,10 @@ class KnowledgeGraphServiceTest {
     private KnowledgeGraphService service;
     private CodeNodeRepository nodeRepository;
     private CodeRelationshipRepository relationshipRepository;
+    private CodeProjectRepository projectRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private CodeFileRepository fileRepository;
+    private CodePackageRepository packageRepository;
     
     @TempDir
     Path tempDir;
@@ -37,7 +64,30 @@ class KnowledgeGraphServiceTest {
     void setUp() {
         nodeRepository = mock(CodeNodeRepository.class);
         relationshipRepository = mock(CodeRelationshipRepository.class);
-        service = new KnowledgeGraphService(nodeRepository, relationshipRepository);
+        projectRepository = mock(CodeProjectRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        fileRepository = mock(CodeFileRepository.class);
+        packageRepository = mock(CodePackageRepository.class);
+        RelationshipGraphCache graphCache = new RelationshipGraphCache(relationshipRepository);
+        ReachabilityIndex reachabilityIndex = new ReachabilityIndex(graphCache);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        AnalysisMetrics metrics = new AnalysisMetrics(new SimpleMeterRegistry());
+        ProjectFileEnumerator fileEnumerator = new ProjectFileEnumerator(Set.of("node_modules", "target", ".git"));
+        ParseProblemService parseProblems = new ParseProblemService(mock(ParseProblemRepository.class), metrics);
+        service = new KnowledgeGraphService(nodeRepository, relationshipRepository, projectRepository, eventPublisher,
+            new GraphQueryEngine(nodeRepository, relationshipRepository, reachabilityIndex), reachabilityIndex,
+            new CallPathService(graphCache), new SymbolSearchIndex(nodeRepository),
+            new CodeDictionary(fileRepository, packageRepository, transactionManager),
+            metrics, fileEnumerator, new JavaSymbolResolver(metrics, fileEnumerator, parseProblems, 1000),
+            new LibraryIndex(metrics, fileEnumerator, false, tempDir.resolve("cache").toString()), parseProblems,
+            transactionManager);
+        when(projectRepository.save(any(CodeProject.class))).thenAnswer(invocation -> {
+            CodeProject project = invocation.getArgument(0);
+            if (project.getId() == null) {
+                project.setId(1L);
+            }
+            return project;
+        });
     }
     
     @Test
@@ -75,6 +125,125 @@ class KnowledgeGraphServiceTest {
         assertThat(result.get("incoming")).hasSize(1);
     }
     
+    @Test
+    void getNodeWithRelationships_ShouldUseJoinedPagesAndCounts() {
+        // Given
+        CodeNode node = new CodeNode("hub", "METHOD", "/hub.java", 1);
+        node.setId(1L);
+        RelationshipInfo caller = new RelationshipInfo(7L, "CALLS", 3L, "caller", "METHOD", null, 4);
+        when(nodeRepository.findById(1L)).thenReturn(Optional.of(node));
+        when(relationshipRepository.findOutgoingInfo(1L, PageRequest.of(2, 1000))).thenReturn(List.of());
+        when(relationshipRepository.findIncomingInfo(1L, PageRequest.of(2, 1000))).thenReturn(List.of(caller));
+        when(relationshipRepository.countOutgoingByType(1L)).thenReturn(List.of());
+        when(relationshipRepository.countIncomingByType(1L)).thenReturn(List.of(typeCount("CALLS", 2001L)));
+        
+        // When
+        Optional<NodeWithRelationships> result = service.getNodeWithRelationships(1L, 2, 5000);
+        
+        // Then
+        assertThat(result).isPresent();
+        assertThat(result.get().getIncomingRelationships()).containsExactly(caller);
+        assertThat(result.get().getIncomingCounts()).containsEntry("CALLS", 2001L);
+        assertThat(result.get().getOutgoingCounts()).isEmpty();
+        assertThat(result.get().getPageSize()).isEqualTo(1000);
+        verify(nodeRepository, times(1)).findById(any());
+    }
+    
+    @Test
+    void getNodeWithRelationships_UnknownNode_ShouldBeEmpty() {
+        // Given
+        when(nodeRepository.findById(9L)).thenReturn(Optional.empty());
+        
+        // When & Then
+        assertThat(service.getNodeWithRelationships(9L, 0, 200)).isEmpty();
+        assertThatThrownBy(() -> service.getNodeWithRelationships(9L, -1, 200))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static CodeRelationshipRepository.TypeCount typeCount(String type, Long count) {
+        return new CodeRelationshipRepository.TypeCount() {
+            @Override
+            public String getRelationshipType() {
+                return type;
+            }
+            
+            @Override
+            public Long getRelationshipCount() {
+                return count;
+            }
+        };
+    }
+    
+    @Test
+    void searchNodeSummaries_ShouldReturnCursorWithoutLoadingEntities() {
+        // Given: three rows come back for a page of two
+        when(nodeRepository.searchSummariesByName("get", 5L, Limit.of(3))).thenReturn(List.of(
+            summary(6L, "getA"), summary(8L, "getB"), summary(9L, "getC")));
+        
+        // When
+        CursorPage<NodeSummary> page = service.searchNodeSummaries("get", 5L, 2, null);
+        
+        // Then
+        assertThat(page.items()).extracting(NodeSummary::name).containsExactly("getA", "getB");
+        assertThat(page.items().get(0).documentation()).isNull();
+        assertThat(page.nextCursor()).isEqualTo(8L);
+        verify(nodeRepository, never()).findAllById(any());
+    }
+    
+    @Test
+    void findCallerSummaries_WithExpand_ShouldLoadOnlyThePage() {
+        // Given
+        CodeNode caller = new CodeNode("caller", "METHOD", "/caller.java", 3);
+        caller.setId(4L);
+        caller.setSignature("void caller()");
+        caller.setDocumentation("Calls things");
+        when(nodeRepository.findSourceSummaries(1L, "CALLS", Long.MIN_VALUE, Limit.of(51)))
+            .thenReturn(List.of(summary(4L, "caller")));
+        when(nodeRepository.findAllById(List.of(4L))).thenReturn(List.of(caller));
+        
+        // When
+        CursorPage<NodeSummary> page = service.findCallerSummaries(1L, null, 50, List.of("signature"));
+        
+        // Then
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.items().get(0).signature()).isEqualTo("void caller()");
+        assertThat(page.items().get(0).documentation()).isNull();
+        assertThat(page.nextCursor()).isNull();
+        assertThatThrownBy(() -> service.findCallerSummaries(1L, null, 50, List.of("body")))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.findCalleeSummaries(1L, null, 0, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static CodeNodeRepository.Summary summary(Long id, String name) {
+        return new CodeNodeRepository.Summary() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+            
+            @Override
+            public String getName() {
+                return name;
+            }
+            
+            @Override
+            public String getNodeType() {
+                return "METHOD";
+            }
+            
+            @Override
+            public String getFilePath() {
+                return "/Test.java";
+            }
+            
+            @Override
+            public Integer getLineNumber() {
+                return 1;
+            }
+        };
+    }
+    
     @Test
     void findInheritanceHierarchy_ShouldReturnParentClasses() {
         // Given
@@ -116,9 +285,8 @@ class KnowledgeGraphServiceTest {
     @Test
     void findCallChain_ShouldFindDirectCall() {
         // Given
-        CodeRelationship call = new CodeRelationship(1L, 2L, "CALLS");
-        when(relationshipRepository.findBySourceIdAndRelationshipType(1L, "CALLS"))
-            .thenReturn(List.of(call));
+        when(relationshipRepository.findEdgesByType("CALLS"))
+            .thenReturn(List.of(ReachabilityIndexTest.edge(1L, 2L)));
         
         // When
         List<List<Long>> chains = service.findCallChain(1L, 2L, 5);
@@ -131,13 +299,8 @@ class KnowledgeGraphServiceTest {
     @Test
     void findCallChain_ShouldFindIndirectCall() {
         // Given
-        CodeRelationship call1 = new CodeRelationship(1L, 2L, "CALLS");
-        CodeRelationship call2 = new CodeRelationship(2L, 3L, "CALLS");
-        
-        when(relationshipRepository.findBySourceIdAndRelationshipType(1L, "CALLS"))
-            .thenReturn(List.of(call1));
-        when(relationshipRepository.findBySourceIdAndRelationshipType(2L, "CALLS"))
-            .thenReturn(List.of(call2));
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(
+            ReachabilityIndexTest.edge(1L, 2L), ReachabilityIndexTest.edge(2L, 3L)));
         
         // When
         List<List<Long>> chains = service.findCallChain(1L, 3L, 5);
@@ -147,6 +310,121 @@ class KnowledgeGraphServiceTest {
         assertThat(chains.get(0)).containsExactly(1L, 2L, 3L);
     }
     
+    @Test
+    void findCallChain_ShouldFindAlternativeChainsThroughSharedNodes() {
+        // Given: 1 -> 2 -> 4, 1 -> 3 -> 4, 4 -> 5; the old visited set only found one chain
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(
+            ReachabilityIndexTest.edge(1L, 2L), ReachabilityIndexTest.edge(1L, 3L),
+            ReachabilityIndexTest.edge(2L, 4L), ReachabilityIndexTest.edge(3L, 4L),
+            ReachabilityIndexTest.edge(4L, 5L)));
+        
+        // When
+        List<List<Long>> chains = service.findCallChain(1L, 5L, 5);
+        
+        // Then
+        assertThat(chains).containsExactly(List.of(1L, 2L, 4L, 5L), List.of(1L, 3L, 4L, 5L));
+    }
+    
+    @Test
+    void eventuallyCalls_ShouldOnlyWalkTheProjectOfTheSource() {
+        // Given
+        when(nodeRepository.findProjectIdById(1L)).thenReturn(Optional.of(5L));
+        when(relationshipRepository.findEdgesByProjectIdAndType(5L, "CALLS")).thenReturn(List.of(
+            ReachabilityIndexTest.edge(1L, 2L), ReachabilityIndexTest.edge(2L, 3L)));
+        
+        // When & Then
+        assertThat(service.eventuallyCalls(1L, 3L)).isTrue();
+        assertThat(service.findCallChain(1L, 3L, 5)).containsExactly(List.of(1L, 2L, 3L));
+        verify(relationshipRepository, never()).findEdgesByType(any());
+    }
+    
+    @Test
+    void searchFullText_ShouldReturnNodesInRankOrder() {
+        // Given
+        CodeNode service1 = new CodeNode("OrderService", "CLASS", "/OrderService.java", 1);
+        service1.setId(1L);
+        CodeNode method = new CodeNode("placeOrder", "METHOD", "/OrderService.java", 10);
+        method.setId(2L);
+        method.setDocumentation("Places an order for the service");
+        when(nodeRepository.findAllSearchDocuments()).thenReturn(List.of(
+            searchDocument(method), searchDocument(service1)));
+        when(nodeRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(method, service1));
+        
+        // When
+        List<CodeNode> result = service.searchFullText("order serv*", 10);
+        
+        // Then
+        assertThat(result).containsExactly(service1, method);
+    }
+    
+    @Test
+    void searchFullTextSummaries_ShouldKeepTheRankOrder() {
+        // Given
+        CodeNode service1 = new CodeNode("OrderService", "CLASS", "/OrderService.java", 1);
+        service1.setId(1L);
+        CodeNode method = new CodeNode("placeOrder", "METHOD", "/OrderService.java", 10);
+        method.setId(2L);
+        method.setDocumentation("Places an order for the service");
+        when(nodeRepository.findAllSearchDocuments()).thenReturn(List.of(
+            searchDocument(method), searchDocument(service1)));
+        when(nodeRepository.findSummariesByIdIn(List.of(1L, 2L)))
+            .thenReturn(List.of(summary(1L, "OrderService"), summary(2L, "placeOrder")));
+        
+        // When
+        List<NodeSummary> result = service.searchFullTextSummaries(null, "order serv*", 10, null);
+        
+        // Then
+        assertThat(result).extracting(NodeSummary::name).containsExactly("OrderService", "placeOrder");
+        assertThat(result.get(1).documentation()).isNull();
+        verify(nodeRepository, never()).findAllById(any());
+    }
+    
+    @Test
+    void searchFullText_WithLimitOutOfRange_ShouldThrow() {
+        // When / Then
+        assertThatThrownBy(() -> service.searchFullText("order", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.searchFullText("order", Integer.MAX_VALUE))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(nodeRepository, never()).findAllSearchDocuments();
+    }
+    
+    private static CodeNodeRepository.SearchDocument searchDocument(CodeNode node) {
+        return new CodeNodeRepository.SearchDocument() {
+            @Override
+            public Long getId() {
+                return node.getId();
+            }
+            
+            @Override
+            public String getName() {
+                return node.getName();
+            }
+            
+            @Override
+            public String getSignature() {
+                return node.getSignature();
+            }
+            
+            @Override
+            public String getDocumentation() {
+                return node.getDocumentation();
+            }
+        };
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void stubFilterScans(List<CodeNode>... results) {
+        var stubbing = when(nodeRepository.findBy(any(Specification.class), any()));
+        for (List<CodeNode> result : results) {
+            stubbing = stubbing.thenReturn(result.stream());
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void stubIdLookups(List<CodeNode> result) {
+        when(nodeRepository.findAll(any(Specification.class), any(Sort.class))).thenReturn(result);
+    }
+    
     @Test
     void executeQuery_CallsQuery_ShouldFindCallers() {
         // Given
@@ -155,11 +433,9 @@ class KnowledgeGraphServiceTest {
         CodeNode caller = new CodeNode("callerMethod", "METHOD", "/caller.java", 5);
         caller.setId(2L);
         
-        when(nodeRepository.searchByName("testMethod")).thenReturn(List.of(method));
-        CodeRelationship call = new CodeRelationship(2L, 1L, "CALLS");
-        when(relationshipRepository.findByTargetIdAndRelationshipType(1L, "CALLS"))
-            .thenReturn(List.of(call));
-        when(nodeRepository.findById(2L)).thenReturn(Optional.of(caller));
+        stubFilterScans(List.of(method));
+        when(relationshipRepository.findSourceIds(List.of(1L), "CALLS")).thenReturn(List.of(2L));
+        stubIdLookups(List.of(caller));
         
         // When
         List<CodeNode> result = service.executeQuery("calls:testMethod");
@@ -177,11 +453,9 @@ class KnowledgeGraphServiceTest {
         CodeNode child = new CodeNode("DerivedClass", "CLASS", "/derived.java", 1);
         child.setId(2L);
         
-        when(nodeRepository.searchByName("BaseClass")).thenReturn(List.of(parent));
-        CodeRelationship inherits = new CodeRelationship(2L, 1L, "INHERITS");
-        when(relationshipRepository.findByTargetIdAndRelationshipType(1L, "INHERITS"))
-            .thenReturn(List.of(inherits));
-        when(nodeRepository.findById(2L)).thenReturn(Optional.of(child));
+        stubFilterScans(List.of(parent));
+        when(relationshipRepository.findSourceIds(List.of(1L), "INHERITS")).thenReturn(List.of(2L));
+        stubIdLookups(List.of(child));
         
         // When
         List<CodeNode> result = service.executeQuery("inherits:BaseClass");
@@ -197,7 +471,7 @@ class KnowledgeGraphServiceTest {
         CodeNode class1 = new CodeNode("Class1", "CLASS", "/class1.java", 1);
         CodeNode class2 = new CodeNode("Class2", "CLASS", "/class2.java", 1);
         
-        when(nodeRepository.findByNodeType("CLASS")).thenReturn(List.of(class1, class2));
+        stubFilterScans(List.of(class1, class2));
         
         // When
         List<CodeNode> result = service.executeQuery("type:CLASS");
@@ -207,15 +481,12 @@ class KnowledgeGraphServiceTest {
     }
     
     @Test
-    void executeQuery_TypeWithPublicFilter_ShouldFindOnlyPublicNodes() {
+    void executeQuery_TypeWithPublicFilter_ShouldPushFilterToDatabase() {
         // Given
         CodeNode publicClass = new CodeNode("PublicClass", "CLASS", "/public.java", 1);
         publicClass.setIsPublic(true);
-        CodeNode privateClass = new CodeNode("PrivateClass", "CLASS", "/private.java", 1);
-        privateClass.setIsPublic(false);
         
-        when(nodeRepository.findByNodeType("CLASS"))
-            .thenReturn(List.of(publicClass, privateClass));
+        stubFilterScans(List.of(publicClass));
         
         // When
         List<CodeNode> result = service.executeQuery("type:CLASS public:true");
@@ -223,13 +494,15 @@ class KnowledgeGraphServiceTest {
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getName()).isEqualTo("PublicClass");
+        verify(nodeRepository, never()).findByNodeType(any());
+        verify(nodeRepository, times(1)).findBy(any(Specification.class), any());
     }
     
     @Test
     void executeQuery_NameQuery_ShouldSearchByName() {
         // Given
         CodeNode node = new CodeNode("TestMethod", "METHOD", "/test.java", 5);
-        when(nodeRepository.searchByName("Test")).thenReturn(List.of(node));
+        stubFilterScans(List.of(node));
         
         // When
         List<CodeNode> result = service.executeQuery("name:Test");
@@ -239,6 +512,128 @@ class KnowledgeGraphServiceTest {
         assertThat(result.get(0).getName()).isEqualTo("TestMethod");
     }
     
+    @Test
+    void executeQuery_TransitiveQuery_ShouldWalkOneFrontierPerHop() {
+        // Given: controller (1) -> service (2) -> repository (3) -> service (2)
+        CodeNode controller = new CodeNode("UserController", "CLASS", "/UserController.java", 1);
+        controller.setId(1L);
+        CodeNode service2 = new CodeNode("UserService", "CLASS", "/UserService.java", 1);
+        service2.setId(2L);
+        
+        stubFilterScans(List.of(controller));
+        when(relationshipRepository.findTargetIds(List.of(1L), "CALLS")).thenReturn(List.of(2L));
+        when(relationshipRepository.findTargetIds(List.of(2L), "CALLS")).thenReturn(List.of(3L));
+        when(relationshipRepository.findTargetIds(List.of(3L), "CALLS")).thenReturn(List.of(2L));
+        stubIdLookups(List.of(service2));
+        
+        // When
+        List<CodeNode> result = service.executeQuery("layer:SERVICE_JAVA calledby*5:UserController");
+        
+        // Then: the cycle ends the walk and the layer filter is applied on the reached ids
+        assertThat(result).containsExactly(service2);
+        verify(relationshipRepository, times(3)).findTargetIds(any(), any());
+        verify(nodeRepository, times(1)).findAll(any(Specification.class), any(Sort.class));
+    }
+    
+    @Test
+    void executeQuery_UnboundedTransitiveQuery_ShouldUseReachabilityIndex() {
+        // Given: controller (1) -> service (2) -> repository (3) -> service (2)
+        CodeNode controller = new CodeNode("UserController", "CLASS", "/UserController.java", 1);
+        controller.setId(1L);
+        CodeNode service2 = new CodeNode("UserService", "CLASS", "/UserService.java", 1);
+        service2.setId(2L);
+        
+        stubFilterScans(List.of(controller));
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(
+            ReachabilityIndexTest.edge(1, 2), ReachabilityIndexTest.edge(2, 3), ReachabilityIndexTest.edge(3, 2)));
+        stubIdLookups(List.of(service2));
+        
+        // When
+        List<CodeNode> result = service.executeQuery("layer:SERVICE_JAVA calledby*:UserController");
+        
+        // Then
+        assertThat(result).containsExactly(service2);
+        verify(relationshipRepository, never()).findTargetIds(any(), any());
+    }
+    
+    @Test
+    void eventuallyCalls_AndTransitiveCallers_ShouldUseReachabilityIndex() {
+        // Given: 1 -> 2 -> 3
+        CodeNode node1 = new CodeNode("a", "METHOD", "/a.java", 1);
+        node1.setId(1L);
+        CodeNode node2 = new CodeNode("b", "METHOD", "/b.java", 1);
+        node2.setId(2L);
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(
+            ReachabilityIndexTest.edge(1, 2), ReachabilityIndexTest.edge(2, 3)));
+        when(nodeRepository.findAllById(any())).thenReturn(List.of(node2, node1));
+        
+        // When / Then
+        assertThat(service.eventuallyCalls(1L, 3L)).isTrue();
+        assertThat(service.eventuallyCalls(3L, 1L)).isFalse();
+        assertThat(service.findTransitiveCallers(3L)).containsExactly(node1, node2);
+        assertThat(service.findTransitiveCallees(3L)).isEmpty();
+        verify(relationshipRepository, times(1)).findEdgesByType("CALLS");
+    }
+    
+    @Test
+    void findTransitiveCallerSummaries_ShouldPageThroughTheAncestors() {
+        // Given: 1 -> 2 -> 3 -> 4
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(
+            ReachabilityIndexTest.edge(1, 2), ReachabilityIndexTest.edge(2, 3), ReachabilityIndexTest.edge(3, 4)));
+        when(nodeRepository.findSummariesByIdIn(List.of(1L, 2L))).thenReturn(List.of(summary(2L, "b"), summary(1L, "a")));
+        when(nodeRepository.findSummariesByIdIn(List.of(3L))).thenReturn(List.of(summary(3L, "c")));
+        
+        // When
+        CursorPage<NodeSummary> first = service.findTransitiveCallerSummaries(4L, null, 2, null);
+        CursorPage<NodeSummary> second = service.findTransitiveCallerSummaries(4L, first.nextCursor(), 2, null);
+        
+        // Then
+        assertThat(first.items()).extracting(NodeSummary::name).containsExactly("a", "b");
+        assertThat(first.nextCursor()).isEqualTo(2L);
+        assertThat(second.items()).extracting(NodeSummary::name).containsExactly("c");
+        assertThat(second.nextCursor()).isNull();
+        verify(nodeRepository, never()).findAllById(any());
+    }
+    
+    @Test
+    void executeQuery_WithEmptyRelation_ShouldSkipRemainingWork() {
+        // Given
+        stubFilterScans(List.of());
+        
+        // When
+        List<CodeNode> result = service.executeQuery("calls:missing calls*:other");
+        
+        // Then: the single-hop relation is planned first and its empty result short-circuits
+        assertThat(result).isEmpty();
+        verify(nodeRepository, times(1)).findBy(any(Specification.class), any());
+        verify(nodeRepository, never()).findAll(any(Specification.class), any(Sort.class));
+    }
+    
+    @Test
+    void executeQuery_WithLimit_ShouldStopEarly() {
+        // Given
+        CodeNode class1 = new CodeNode("Class1", "CLASS", "/class1.java", 1);
+        CodeNode class2 = new CodeNode("Class2", "CLASS", "/class2.java", 1);
+        stubFilterScans(List.of(class1, class2));
+        
+        // When
+        List<CodeNode> result = service.executeQuery("type:CLASS", 1);
+        
+        // Then
+        assertThat(result).containsExactly(class1);
+    }
+    
+    @Test
+    void executeQuery_BlankOrMalformed() {
+        // When / Then
+        assertThat(service.executeQuery("  ")).isEmpty();
+        assertThatThrownBy(() -> service.executeQuery("type:CLASS (name:Foo"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.executeQuery("color:red"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unknown query key");
+    }
+    
     @Test
     void indexProject_ShouldCreateNodesAndRelationships() throws IOException {
         // Given
@@ -261,8 +656,10 @@ class KnowledgeGraphServiceTest {
         
         CodeNode parentClass = new CodeNode("Parent", "CLASS", javaFile.toString(), 3);
         parentClass.setId(1L);
+        parentClass.setProjectId(1L);
         CodeNode childClass = new CodeNode("Child", "CLASS", javaFile.toString(), 7);
         childClass.setId(2L);
+        childClass.setProjectId(1L);
         
         when(nodeRepository.save(any(CodeNode.class)))
             .thenAnswer(invocation -> {
@@ -277,13 +674,183 @@ class KnowledgeGraphServiceTest {
         
         when(nodeRepository.findByFilePath(javaFile.toString()))
             .thenReturn(List.of(parentClass, childClass));
+        when(fileRepository.save(any(CodeFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(packageRepository.save(any(CodePackage.class))).thenAnswer(invocation -> invocation.getArgument(0));
         
         // When
         service.indexProject(tempDir.toString());
         
         // Then
         verify(nodeRepository, atLeastOnce()).save(any(CodeNode.class));
-        verify(relationshipRepository, atLeastOnce()).deleteAll();
-        verify(nodeRepository, atLeastOnce()).deleteAll();
+        verify(fileRepository).save(any(CodeFile.class)); // One entry for the file's two classes
+        verify(packageRepository).save(any(CodePackage.class));
+        verify(nodeRepository).deleteSliceMembershipsByProjectId(1L);
+        verify(relationshipRepository).deleteByProjectId(1L);
+        verify(nodeRepository).deleteByProjectId(1L);
+        verify(nodeRepository, never()).deleteAll();
+        verify(fileRepository, never()).deleteAllInBatch(); // The dictionaries are shared by all projects
+        verify(eventPublisher).publishEvent(new GraphIndexedEvent(1L, tempDir.toString()));
+    }
+    
+    @Test
+    void registerProject_ShouldReuseProjectWithSameName() {
+        // Given
+        CodeProject existing = new CodeProject("shop", "/old/shop");
+        existing.setId(4L);
+        when(projectRepository.findByName("shop")).thenReturn(Optional.of(existing));
+        
+        // When
+        CodeProject project = service.registerProject("shop", "/new/shop");
+        
+        // Then
+        assertThat(project.getId()).isEqualTo(4L);
+        assertThat(project.getRootPath()).isEqualTo("/new/shop");
+        assertThatThrownBy(() -> service.registerProject(" ", "/new/shop"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void indexProject_ShouldReportProgressToJob() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("A.java"), "package com.test; public class A { void a() {} }");
+        Files.writeString(tempDir.resolve("B.java"), "package com.test; public class B extends A { void b() { a(); } }");
+        long[] ids = {0};
+        when(nodeRepository.save(any(CodeNode.class))).thenAnswer(invocation -> {
+            CodeNode n = invocation.getArgument(0);
+            n.setId(++ids[0]);
+            return n;
+        });
+        when(fileRepository.save(any(CodeFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(packageRepository.save(any(CodePackage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        IndexingJob job = new IndexingJob(1L, "test", tempDir.toString());
+        
+        // When
+        service.indexProject(job);
+        
+        // Then
+        IndexingProgress progress = job.progress();
+        assertThat(progress.filesTotal()).isEqualTo(2);
+        assertThat(progress.filesParsed()).isEqualTo(2);
+        assertThat(progress.filesLinked()).isEqualTo(2);
+        assertThat(progress.nodesWritten()).isEqualTo(4L);
+        assertThat(progress.relationshipsWritten()).isEqualTo(2L); // B extends A, b() calls a()
+        assertThat(progress.phase()).isEqualTo("relationships");
+    }
+    
+    @Test
+    void indexProject_ShouldLinkCallsToTheResolvedOverload() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("Printer.java"), """
+            package com.test;
+            public class Printer {
+                void print(String text) {}
+                void print(int number) {}
+            }
+            """);
+        Files.writeString(tempDir.resolve("Report.java"), """
+            package com.test;
+            public class Report {
+                void render(Printer printer) {
+                    printer.print(42);
+                    String.valueOf(42).trim();
+                }
+            }
+            """);
+        Map<String, CodeNode> nodes = new java.util.HashMap<>();
+        when(nodeRepository.save(any(CodeNode.class))).thenAnswer(invocation -> {
+            CodeNode n = invocation.getArgument(0);
+            n.setId((long) nodes.size() + 1);
+            nodes.put(n.getName() + "@" + n.getLineNumber(), n);
+            return n;
+        });
+        List<CodeRelationship> saved = new java.util.ArrayList<>();
+        when(relationshipRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<CodeRelationship> relationships = invocation.getArgument(0);
+            relationships.forEach(saved::add);
+            return saved;
+        });
+        when(fileRepository.save(any(CodeFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(packageRepository.save(any(CodePackage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        service.indexProject(tempDir.toString());
+        
+        // Then
+        assertThat(saved).hasSize(1); // The calls of String are not linked
+        CodeRelationship call = saved.get(0);
+        assertThat(call.getRelationshipType()).isEqualTo("CALLS");
+        assertThat(call.getSourceId()).isEqualTo(nodes.get("render@3").getId());
+        assertThat(call.getTargetId()).isEqualTo(nodes.get("print@4").getId()); // print(int), not print(String)
+        assertThat(call.getLineNumber()).isEqualTo(4);
+    }
+    
+    @Test
+    void indexProject_ShouldRecordTheEnclosingTypeOfMembers() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("Order.java"), """
+            package com.test;
+            public class Order {
+                static class Line {
+                    int total() { return 0; }
+                }
+                void place() {}
+            }
+            """);
+        Map<String, CodeNode> nodes = new java.util.HashMap<>();
+        when(nodeRepository.save(any(CodeNode.class))).thenAnswer(invocation -> {
+            CodeNode n = invocation.getArgument(0);
+            n.setId((long) nodes.size() + 1);
+            nodes.put(n.getName(), n);
+            return n;
+        });
+        when(fileRepository.save(any(CodeFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(packageRepository.save(any(CodePackage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        service.indexProject(tempDir.toString());
+        
+        // Then
+        assertThat(nodes.get("Order").getEnclosingTypeId()).isNull();
+        assertThat(nodes.get("Line").getEnclosingTypeId()).isEqualTo(nodes.get("Order").getId());
+        assertThat(nodes.get("total").getEnclosingTypeId()).isEqualTo(nodes.get("Line").getId());
+        assertThat(nodes.get("place").getEnclosingTypeId()).isEqualTo(nodes.get("Order").getId());
+    }
+    
+    @Test
+    void indexProject_ShouldStopWhenJobCancelled() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("A.java"), "package com.test; public class A {}");
+        IndexingJob job = new IndexingJob(1L, "test", tempDir.toString());
+        job.cancel();
+        
+        // When / Then
+        assertThatThrownBy(() -> service.indexProject(job))
+            .isInstanceOf(CancellationException.class);
+        verify(nodeRepository, never()).deleteByProjectId(any());
+        verify(nodeRepository, never()).save(any(CodeNode.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+    
+    @Test
+    void indexProject_ShouldRefuseCancellationOnceTheGraphIsCleared() throws IOException {
+        // Given
+        Files.writeString(tempDir.resolve("A.java"), "package com.test; public class A {}");
+        IndexingJob job = new IndexingJob(1L, "test", tempDir.toString());
+        List<Boolean> cancelled = new ArrayList<>();
+        when(nodeRepository.save(any(CodeNode.class))).thenAnswer(invocation -> {
+            cancelled.add(job.cancel());
+            CodeNode n = invocation.getArgument(0);
+            n.setId((long) cancelled.size());
+            return n;
+        });
+        when(fileRepository.save(any(CodeFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(packageRepository.save(any(CodePackage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        service.indexProject(job);
+        
+        // Then
+        assertThat(cancelled).isNotEmpty().containsOnly(false);
+        verify(eventPublisher).publishEvent(new GraphIndexedEvent(1L, tempDir.toString(), true));
     }
 }
@@ -0,0 +1,164 @@
+package com.codecom.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for LibraryIndex and LibrarySignatures
+ */
+class LibraryIndexTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AnalysisMetrics metrics = new AnalysisMetrics(registry);
+    private final ProjectFileEnumerator fileEnumerator = new ProjectFileEnumerator(Set.of("node_modules", "target", ".git"));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void scan_ShouldKeepOnlyTheAccessibleApi() throws IOException {
+        // Given
+        Path jar = writeJar(tempDir.resolve("lib/text.jar"));
+
+        // When
+        LibrarySignatures signatures = LibrarySignatures.scan(jar, "abc");
+
+        // Then
+        assertThat(signatures.classes()).extracting(LibrarySignatures.LibraryClass::name)
+            .containsExactly("com.text.Joiner", "com.text.Joiner.Builder");
+        LibrarySignatures.LibraryClass joiner = signatures.findClass("com.text.Joiner").orElseThrow();
+        assertThat(joiner.methods()).extracting(LibrarySignatures.LibraryMethod::signature)
+            .containsExactly("java.lang.String join(java.lang.Iterable)", "java.lang.String join(java.lang.Object[])",
+                "com.text.Joiner on(char)");
+        assertThat(joiner.methods().get(2).isStatic()).isTrue();
+    }
+
+    @Test
+    void signatures_ShouldSurviveTheCacheFile() throws IOException {
+        // Given
+        LibrarySignatures scanned = LibrarySignatures.scan(writeJar(tempDir.resolve("text.jar")), "abc");
+        Path file = tempDir.resolve("cache/abc.sig");
+
+        // When
+        scanned.write(file);
+        LibrarySignatures read = LibrarySignatures.read(file);
+
+        // Then
+        assertThat(read.checksum()).isEqualTo("abc");
+        assertThat(List.copyOf(read.classes())).isEqualTo(List.copyOf(scanned.classes()));
+    }
+
+    @Test
+    void signaturesOf_ShouldReadEachChecksumOnce() throws IOException {
+        // Given two copies of a jar and a fresh index sharing the cache directory
+        Path first = writeJar(tempDir.resolve("a/lib/text.jar"));
+        Path second = Files.copy(first, tempDir.resolve("a/lib/text-copy.jar"));
+        Path cacheDir = tempDir.resolve("cache");
+        LibraryIndex index = new LibraryIndex(metrics, fileEnumerator, true, cacheDir.toString());
+        LibraryIndex restarted = new LibraryIndex(metrics, fileEnumerator, true, cacheDir.toString());
+
+        // When
+        index.signaturesOf(first);
+        index.signaturesOf(second);
+        restarted.signaturesOf(second);
+
+        // Then
+        assertThat(loaded("scanned")).isEqualTo(1.0);
+        assertThat(loaded("memory")).isEqualTo(1.0);
+        assertThat(loaded("disk")).isEqualTo(1.0);
+        try (var files = Files.list(cacheDir)) {
+            List<String> names = files.map(path -> path.getFileName().toString()).toList();
+            assertThat(names).hasSize(1);
+            assertThat(names.get(0)).matches("[0-9a-f]{64}\\.sig");
+        }
+    }
+
+    @Test
+    void classpath_ShouldChooseTheOverloadByParameterTypes() throws IOException {
+        // Given
+        writeJar(tempDir.resolve("lib/text.jar"));
+        LibraryIndex index = new LibraryIndex(metrics, fileEnumerator, true, tempDir.resolve("cache").toString());
+
+        // When
+        LibraryIndex.Classpath classpath = index.classpath(tempDir.toString());
+
+        // Then
+        assertThat(classpath.find("com.text.Joiner", "join", List.of("java.lang.Object[]")).map(LibraryIndex.LibraryCall::key))
+            .contains("com.text.Joiner#join(java.lang.Object[])");
+        assertThat(classpath.find("com.text.Joiner", "join", List.of("java.lang.String"))).isEmpty(); // No such overload
+        assertThat(classpath.find("com.text.Joiner", "split", List.of("java.lang.String"))).isEmpty();
+        assertThat(classpath.find("com.other.Joiner", "join", List.of("java.lang.Iterable"))).isEmpty();
+    }
+
+    @Test
+    void classpath_WhenDisabled_ShouldBeEmpty() throws IOException {
+        // Given
+        writeJar(tempDir.resolve("lib/text.jar"));
+        LibraryIndex index = new LibraryIndex(metrics, fileEnumerator, false, tempDir.resolve("cache").toString());
+
+        // When / Then
+        assertThat(index.classpath(tempDir.toString()).isEmpty()).isTrue();
+        assertThat(Files.exists(tempDir.resolve("cache"))).isFalse();
+    }
+
+    private double loaded(String source) {
+        return registry.get("codecom.libraries.loaded").tag("source", source).counter().count();
+    }
+
+    /**
+     * A jar with a public class, its public nested class and a package-private class
+     */
+    private static Path writeJar(Path jar) throws IOException {
+        Files.createDirectories(jar.getParent());
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            ClassWriter joiner = new ClassWriter(0);
+            joiner.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, "com/text/Joiner", null, "java/lang/Object", null);
+            joiner.visitInnerClass("com/text/Joiner$Builder", "com/text/Joiner", "Builder",
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC);
+            joiner.visitMethod(Opcodes.ACC_PRIVATE, "<init>", "()V", null, null).visitEnd();
+            joiner.visitMethod(Opcodes.ACC_PUBLIC, "join", "(Ljava/lang/Iterable;)Ljava/lang/String;", null, null).visitEnd();
+            joiner.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_VARARGS, "join", "([Ljava/lang/Object;)Ljava/lang/String;",
+                null, null).visitEnd();
+            joiner.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, "on", "(C)Lcom/text/Joiner;", null, null).visitEnd();
+            joiner.visitMethod(Opcodes.ACC_PRIVATE, "check", "()V", null, null).visitEnd();
+            joiner.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE, "join",
+                "(Ljava/lang/Object;)Ljava/lang/Object;", null, null).visitEnd();
+            joiner.visitEnd();
+            add(out, "com/text/Joiner.class", joiner.toByteArray());
+
+            ClassWriter builder = new ClassWriter(0);
+            builder.visit(Opcodes.V17, Opcodes.ACC_PUBLIC, "com/text/Joiner$Builder", null, "java/lang/Object", null);
+            builder.visitInnerClass("com/text/Joiner$Builder", "com/text/Joiner", "Builder",
+                Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC);
+            builder.visitMethod(Opcodes.ACC_PUBLIC, "build", "()Lcom/text/Joiner;", null, null).visitEnd();
+            builder.visitEnd();
+            add(out, "com/text/Joiner$Builder.class", builder.toByteArray());
+
+            ClassWriter hidden = new ClassWriter(0);
+            hidden.visit(Opcodes.V17, 0, "com/text/Internal", null, "java/lang/Object", null);
+            hidden.visitMethod(Opcodes.ACC_PUBLIC, "run", "()V", null, null).visitEnd();
+            hidden.visitEnd();
+            add(out, "com/text/Internal.class", hidden.toByteArray());
+        }
+        return jar;
+    }
+
+    private static void add(JarOutputStream out, String name, byte[] content) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.closeEntry();
+    }
+}
@@ -0,0 +1,132 @@
+package com.codecom.service;
+
+import com.codecom.entity.ParseProblem;
+import com.codecom.repository.ParseProblemRepository;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.stmt.UnparsableStmt;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ParseProblemService
+ */
+class ParseProblemServiceTest {
+
+    private static final Path FILE = Path.of("/project/src/Order.java");
+    private static final String RECOVERABLE = """
+        class Order {
+            void place() {
+                int quantity = ;
+            }
+            void cancel() {
+            }
+        }
+        """;
+    private static final String UNPARSABLE = "class Order { int quantity = ; }";
+    private static final String VALID = "class Order { int quantity; }";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ParseProblemRepository repository;
+    private ParseProblemService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ParseProblemRepository.class);
+        when(repository.save(any(ParseProblem.class))).thenAnswer(invocation -> {
+            ParseProblem problem = invocation.getArgument(0);
+            problem.setId(1L);
+            return problem;
+        });
+        service = new ParseProblemService(repository, new AnalysisMetrics(registry));
+    }
+
+    @Test
+    void parse_WithUnparsableStatement_ShouldKeepThePartialTree() {
+        // When
+        ParseResult<CompilationUnit> result = service.parse(FILE, RECOVERABLE, ParserProfile.FAST.parser(), "test");
+
+        // Then
+        CompilationUnit cu = result.getResult().orElseThrow();
+        assertThat(cu.findAll(MethodDeclaration.class)).hasSize(2);
+        assertThat(cu.findAll(UnparsableStmt.class)).hasSize(1);
+        verify(repository).save(any(ParseProblem.class));
+        assertThat(problems("recovered")).isEqualTo(1.0);
+    }
+
+    @Test
+    void parse_UnchangedUnparsableFile_ShouldNotBeParsedAgain() {
+        // Given
+        service.parse(FILE, UNPARSABLE, ParserProfile.FAST.parser(), "test");
+
+        // When
+        ParseResult<CompilationUnit> result = service.parse(FILE, UNPARSABLE, ParserProfile.FULL.parser(), "test");
+
+        // Then
+        assertThat(result.getResult()).isEmpty();
+        assertThat(result.isSuccessful()).isFalse();
+        verify(repository, times(1)).save(any(ParseProblem.class));
+        assertThat(problems("unparsable")).isEqualTo(1.0);
+        assertThat(problems("skipped")).isEqualTo(1.0);
+        assertThat(registry.get("codecom.source.parse").tag("outcome", "failure").timer().count()).isEqualTo(1L);
+    }
+
+    @Test
+    void parse_FixedFile_ShouldClearItsProblems() {
+        // Given
+        service.parse(FILE, UNPARSABLE, ParserProfile.FAST.parser(), "test");
+
+        // When
+        ParseResult<CompilationUnit> result = service.parse(FILE, VALID, ParserProfile.FAST.parser(), "test");
+
+        // Then
+        assertThat(result.isSuccessful()).isTrue();
+        verify(repository).deleteById(1L);
+    }
+
+    @Test
+    void parse_ShouldSkipFilesRecordedBeforeARestart() {
+        // Given
+        ParseProblem recorded = new ParseProblem(FILE.toAbsolutePath().normalize().toString(),
+            ParseProblemService.hash(UNPARSABLE));
+        recorded.setId(7L);
+        when(repository.findAll()).thenReturn(List.of(recorded));
+
+        // When
+        ParseResult<CompilationUnit> unchanged = service.parse(FILE, UNPARSABLE, ParserProfile.FAST.parser(), "test");
+        ParseResult<CompilationUnit> fixed = service.parse(FILE, VALID, ParserProfile.FAST.parser(), "test");
+
+        // Then
+        assertThat(unchanged.getResult()).isEmpty();
+        assertThat(fixed.getResult()).isPresent();
+        assertThat(problems("skipped")).isEqualTo(1.0);
+        verify(repository, times(1)).findAll();
+        verify(repository).deleteById(7L);
+        verify(repository, never()).save(any(ParseProblem.class));
+    }
+
+    @Test
+    void parse_ValidFile_ShouldNotTouchTheTable() {
+        // When
+        ParseResult<CompilationUnit> result = service.parse(FILE, VALID, ParserProfile.FAST.parser(), "test");
+
+        // Then
+        assertThat(result.isSuccessful()).isTrue();
+        verify(repository, never()).save(any(ParseProblem.class));
+        verify(repository, never()).deleteById(anyLong());
+    }
+
+    private double problems(String outcome) {
+        return registry.get("codecom.parse.problems").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,75 @@
+package com.codecom.service;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.type.VarType;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for ParserProfile
+ */
+class ParserProfileTest {
+
+    private static final String SOURCE = """
+        package com.shop;
+
+        /** An order */
+        public record Order(String id, int quantity) {
+            // Pattern matching of Java 21
+            static String describe(Object value) {
+                var text = switch (value) {
+                    case Order(String id, int quantity) when quantity > 1 -> id + " x" + quantity;
+                    case Order order -> order.id();
+                    default -> "unknown";
+                };
+                return text;
+            }
+        }
+        """;
+
+    @Test
+    void fast_ShouldCollectButNotAttributeComments() {
+        // When
+        ParseResult<CompilationUnit> result = ParserProfile.FAST.parser().parse(SOURCE);
+
+        // Then
+        assertThat(result.isSuccessful()).isTrue();
+        CompilationUnit cu = result.getResult().orElseThrow();
+        assertThat(cu.getType(0).getComment()).isEmpty();
+        assertThat(cu.getAllComments()).isEmpty();
+        assertThat(result.getCommentsCollection().orElseThrow().size()).isEqualTo(2);
+    }
+
+    @Test
+    void full_ShouldAttributeCommentsAndTypeVarDeclarations() {
+        // When
+        ParseResult<CompilationUnit> result = ParserProfile.FULL.parser().parse(SOURCE);
+
+        // Then
+        assertThat(result.isSuccessful()).isTrue();
+        CompilationUnit cu = result.getResult().orElseThrow();
+        assertThat(cu.getType(0).getComment()).isPresent();
+        assertThat(cu.getAllComments()).hasSize(2);
+        assertThat(cu.findAll(VarType.class)).hasSize(1);
+        assertThat(cu.findAll(MethodDeclaration.class)).hasSize(1);
+    }
+
+    @Test
+    void parser_ShouldBeReusedOnlyWithinAThread() throws Exception {
+        // When
+        JavaParser first = ParserProfile.FAST.parser();
+        JavaParser again = ParserProfile.FAST.parser();
+        JavaParser otherThread = CompletableFuture.supplyAsync(ParserProfile.FAST::parser).get();
+
+        // Then
+        assertThat(again).isSameAs(first);
+        assertThat(otherThread).isNotSameAs(first);
+        assertThat(ParserProfile.FULL.parser()).isNotSameAs(first);
+    }
+}
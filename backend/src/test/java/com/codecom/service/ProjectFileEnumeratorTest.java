@@ -0,0 +1,125 @@
+package com.codecom.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ProjectFileEnumerator
+ */
+class ProjectFileEnumeratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ProjectFileEnumerator enumerator = new ProjectFileEnumerator(Set.of("node_modules", "target", ".git"));
+
+    @AfterEach
+    void tearDown() {
+        enumerator.shutdown();
+    }
+
+    @Test
+    void testPrunesExcludedDirectoriesByName() throws IOException {
+        // Given
+        write("src/App.java");
+        write("node_modules/lib/Lib.java");
+        write("target/classes/App.java");
+        write(".git/hooks/Hook.java");
+        write("targeting/Campaign.java");
+        write("src/gitops/Deploy.java");
+
+        // When
+        List<String> files = relative(enumerator.listJavaFiles(tempDir.toString()));
+
+        // Then
+        assertEquals(List.of("src/App.java", "src/gitops/Deploy.java", "targeting/Campaign.java"), files);
+    }
+
+    @Test
+    void testHonorsGitIgnoreFiles() throws IOException {
+        // Given
+        write(".gitignore", "build/\n*.log\n/generated\n!keep.log\n");
+        write("build/Out.java");
+        write("src/build/Nested.java");
+        write("app.log");
+        write("keep.log");
+        write("generated/Gen.java");
+        write("src/generated/Kept.java");
+        write("module/.gitignore", "Local*.java\n");
+        write("module/LocalOnly.java");
+        write("module/Shared.java");
+        write("LocalRoot.java");
+
+        // When
+        List<String> files = relative(enumerator.listFiles(tempDir.toString()));
+
+        // Then
+        assertEquals(List.of(".gitignore", "LocalRoot.java", "keep.log", "module/.gitignore", "module/Shared.java",
+            "src/generated/Kept.java"), files);
+    }
+
+    @Test
+    void testReusesListingUntilTreeChanges() throws IOException {
+        // Given
+        write("src/A.java");
+        List<Path> first = enumerator.listJavaFiles(tempDir.toString());
+
+        // When
+        List<Path> unchanged = enumerator.listJavaFiles(tempDir.toString());
+        write("src/B.java");
+        List<Path> changed = enumerator.listJavaFiles(tempDir.toString());
+
+        // Then
+        assertSame(first.get(0), unchanged.get(0));
+        assertEquals(List.of("src/A.java", "src/B.java"), relative(changed));
+    }
+
+    @Test
+    void testRereadsChangedGitIgnore() throws IOException {
+        // Given
+        write(".gitignore", "# nothing yet\n");
+        write("Skip.java");
+        assertEquals(List.of("Skip.java"), relative(enumerator.listJavaFiles(tempDir.toString())));
+
+        // When
+        Files.writeString(tempDir.resolve(".gitignore"), "Skip.java\n");
+        Files.setLastModifiedTime(tempDir.resolve(".gitignore"),
+            FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        // Then
+        assertTrue(enumerator.listJavaFiles(tempDir.toString()).isEmpty());
+    }
+
+    @Test
+    void testRejectsMissingRoot() {
+        // When & Then
+        assertThrows(NoSuchFileException.class, () -> enumerator.listFiles(tempDir.resolve("missing").toString()));
+    }
+
+    private void write(String relativePath) throws IOException {
+        write(relativePath, "class X {}");
+    }
+
+    private void write(String relativePath, String content) throws IOException {
+        Path file = tempDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+
+    private List<String> relative(List<Path> files) {
+        return files.stream()
+            .map(file -> tempDir.relativize(file).toString().replace('\\', '/'))
+            .toList();
+    }
+}
@@ -0,0 +1,158 @@
+package com.codecom.service;
+
+import com.codecom.repository.CodeRelationshipRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ReachabilityIndex
+ * FR.39: Cross-Language Query Support
+ */
+class ReachabilityIndexTest {
+
+    private CodeRelationshipRepository relationshipRepository;
+    private RelationshipGraphCache graphCache;
+    private ReachabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        relationshipRepository = mock(CodeRelationshipRepository.class);
+        graphCache = new RelationshipGraphCache(relationshipRepository);
+        index = new ReachabilityIndex(graphCache);
+    }
+
+    static CodeRelationshipRepository.Edge edge(long sourceId, long targetId) {
+        return new CodeRelationshipRepository.Edge() {
+            @Override
+            public Long getSourceId() {
+                return sourceId;
+            }
+
+            @Override
+            public Long getTargetId() {
+                return targetId;
+            }
+        };
+    }
+
+    @Test
+    void testReachesAcrossCyclesAndChains() {
+        // Arrange: 1 -> 2 -> 3 -> 2 (cycle), 3 -> 4, 5 -> 5 (self call), 6 isolated caller of 1
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(
+            edge(1, 2), edge(2, 3), edge(3, 2), edge(3, 4), edge(5, 5), edge(6, 1)));
+
+        // Act & Assert
+        assertTrue(index.reaches(null, "CALLS", 1L, 4L));
+        assertTrue(index.reaches(null, "CALLS", 6L, 3L));
+        assertTrue(index.reaches(null, "CALLS", 2L, 2L)); // On a cycle
+        assertTrue(index.reaches(null, "CALLS", 5L, 5L)); // Self call
+        assertFalse(index.reaches(null, "CALLS", 1L, 1L));
+        assertFalse(index.reaches(null, "CALLS", 4L, 1L));
+        assertFalse(index.reaches(null, "CALLS", 1L, 5L));
+        assertFalse(index.reaches(null, "CALLS", 1L, 99L)); // Unknown node
+    }
+
+    @Test
+    void testAncestorsAndDescendants() {
+        // Arrange
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(
+            edge(1, 2), edge(2, 3), edge(3, 2), edge(3, 4), edge(6, 1), edge(7, 4)));
+
+        // Act & Assert
+        assertEquals(Set.of(1L, 2L, 3L, 6L, 7L), index.ancestors(null, "CALLS", List.of(4L)));
+        assertEquals(Set.of(1L, 2L, 3L, 6L), index.ancestors(null, "CALLS", List.of(3L)));
+        assertEquals(Set.of(2L, 3L, 4L), index.descendants(null, "CALLS", List.of(2L)));
+        assertEquals(Set.of(1L, 2L, 3L, 4L), index.descendants(null, "CALLS", List.of(6L, 1L)));
+        assertEquals(Set.of(), index.descendants(null, "CALLS", List.of(4L, 99L)));
+    }
+
+    @Test
+    void testMatchesBreadthFirstSearchOnRandomGraphs() {
+        Random random = new Random(42);
+        for (int round = 0; round < 20; round++) {
+            // Arrange: sparse random graphs with duplicate edges, every other one acyclic
+            int nodes = 60;
+            boolean acyclic = round % 2 == 0;
+            List<CodeRelationshipRepository.Edge> edges = new ArrayList<>();
+            Map<Long, List<Long>> adjacency = new HashMap<>();
+            for (int i = 0; i < nodes * 2; i++) {
+                long source = 100 + random.nextInt(nodes);
+                long target = 100 + random.nextInt(nodes);
+                if (acyclic && source >= target) {
+                    continue;
+                }
+                edges.add(edge(source, target));
+                adjacency.computeIfAbsent(source, k -> new ArrayList<>()).add(target);
+            }
+            when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(edges);
+            graphCache.invalidate();
+
+            // Act & Assert
+            for (long source = 100; source < 100 + nodes; source++) {
+                Set<Long> expected = bfs(adjacency, source);
+                assertEquals(expected, index.descendants(null, "CALLS", List.of(source)));
+                for (long target = 100; target < 100 + nodes; target++) {
+                    assertEquals(expected.contains(target), index.reaches(null, "CALLS", source, target),
+                        source + " -> " + target);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSnapshotIsBuiltOncePerTypeAndRebuiltAfterReindex() {
+        // Arrange
+        when(relationshipRepository.findEdgesByType("CALLS")).thenReturn(List.of(edge(1, 2)));
+        when(relationshipRepository.findEdgesByType("INHERITS")).thenReturn(List.of(edge(2, 1)));
+
+        // Act
+        assertTrue(index.reaches(null, "CALLS", 1L, 2L));
+        assertTrue(index.reaches(null, "CALLS", 1L, 2L));
+        assertTrue(index.reaches(null, "INHERITS", 2L, 1L));
+        graphCache.onGraphIndexed(new GraphIndexedEvent(null, "/src"));
+        assertTrue(index.reaches(null, "CALLS", 1L, 2L));
+
+        // Assert
+        verify(relationshipRepository, times(2)).findEdgesByType("CALLS");
+        verify(relationshipRepository, times(1)).findEdgesByType("INHERITS");
+    }
+
+    @Test
+    void testReindexOfOneProjectKeepsTheOthers() {
+        // Arrange
+        when(relationshipRepository.findEdgesByProjectIdAndType(1L, "CALLS")).thenReturn(List.of(edge(1, 2)));
+        when(relationshipRepository.findEdgesByProjectIdAndType(2L, "CALLS")).thenReturn(List.of(edge(3, 4)));
+
+        // Act
+        assertTrue(index.reaches(1L, "CALLS", 1L, 2L));
+        assertFalse(index.reaches(1L, "CALLS", 3L, 4L));
+        assertTrue(index.reaches(2L, "CALLS", 3L, 4L));
+        graphCache.onGraphIndexed(new GraphIndexedEvent(2L, "/other"));
+        assertTrue(index.reaches(1L, "CALLS", 1L, 2L));
+        assertTrue(index.reaches(2L, "CALLS", 3L, 4L));
+
+        // Assert
+        verify(relationshipRepository, times(1)).findEdgesByProjectIdAndType(1L, "CALLS");
+        verify(relationshipRepository, times(2)).findEdgesByProjectIdAndType(2L, "CALLS");
+        verify(relationshipRepository, never()).findEdgesByType(any());
+    }
+
+    private static Set<Long> bfs(Map<Long, List<Long>> adjacency, long source) {
+        Set<Long> reached = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>(List.of(source));
+        while (!queue.isEmpty()) {
+            for (Long next : adjacency.getOrDefault(queue.poll(), List.of())) {
+                if (reached.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return reached;
+    }
+}
@@ -0,0 +1,154 @@
+package com.codecom.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RequestCoalescer
+ */
+class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testConcurrentIdenticalCallsShareOneRun() throws Exception {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(registry, 0);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> coalescer.execute("dead-code", "/project/src/../src", () -> {
+                    runs.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+            awaitJoined(callers - 1);
+            release.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                assertEquals("result", result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, runs.get());
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    void testReusesCompletedResultWithinTtl() throws IOException {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(registry, 60_000);
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        coalescer.execute("complexity", "/project", runs::incrementAndGet);
+        int second = coalescer.execute("complexity", "/project/", runs::incrementAndGet);
+
+        // Then
+        assertEquals(1, second);
+        assertEquals(1.0, registry.get("codecom.coalescer.calls").tag("outcome", "cached").counter().count());
+    }
+
+    @Test
+    void testIsSharedOnlyForTheSameScanWithinTtl() throws IOException {
+        // Given
+        RequestCoalescer cached = new RequestCoalescer(registry, 60_000);
+        RequestCoalescer uncached = new RequestCoalescer(registry, 0);
+        cached.execute("callers", "/project", Arrays.asList("save", null), () -> "result");
+        uncached.execute("callers", "/project", Arrays.asList("save", null), () -> "result");
+
+        // When & Then
+        assertTrue(cached.isShared("callers", "/project/", Arrays.asList("save", null)));
+        assertFalse(cached.isShared("callers", "/project", Arrays.asList("load", null)));
+        assertFalse(cached.isShared("dead-code", "/project", List.of()));
+        assertFalse(uncached.isShared("callers", "/project", Arrays.asList("save", null)));
+    }
+
+    @Test
+    void testDifferentArgumentsRunSeparately() throws IOException {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(registry, 60_000);
+        AtomicInteger runs = new AtomicInteger();
+
+        // When
+        coalescer.execute("callers", "/project", Arrays.asList("save", null), runs::incrementAndGet);
+        coalescer.execute("callers", "/project", Arrays.asList("save", "Repo"), runs::incrementAndGet);
+        coalescer.execute("search", "/project", Arrays.asList("save", null), runs::incrementAndGet);
+        coalescer.execute("callers", "/other", Arrays.asList("save", null), runs::incrementAndGet);
+        coalescer.execute("callers", "/project", Arrays.asList("save", null), runs::incrementAndGet);
+
+        // Then
+        assertEquals(4, runs.get());
+    }
+
+    @Test
+    void testReindexStartsNewGeneration() throws IOException {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(registry, 60_000);
+        AtomicInteger runs = new AtomicInteger();
+        coalescer.execute("dead-code", "/project", runs::incrementAndGet);
+
+        // When
+        coalescer.onGraphIndexed(new GraphIndexedEvent(1L, "/project"));
+        int result = coalescer.execute("dead-code", "/project", runs::incrementAndGet);
+
+        // Then
+        assertEquals(2, result);
+        assertEquals(1, coalescer.size());
+    }
+
+    @Test
+    void testFailureIsNotCached() {
+        // Given
+        RequestCoalescer coalescer = new RequestCoalescer(registry, 60_000);
+
+        // When
+        IOException error = assertThrows(IOException.class, () -> coalescer.execute("dead-code", "/project", () -> {
+            throw new IOException("unreadable");
+        }));
+
+        // Then
+        assertEquals("unreadable", error.getMessage());
+        assertEquals(0, coalescer.size());
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private void awaitJoined(int expected) throws InterruptedException {
+        for (int attempt = 0; attempt < 500; attempt++) {
+            if (registry.find("codecom.coalescer.calls").tag("outcome", "joined").counters().stream()
+                    .mapToDouble(Counter::count).sum() >= expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Callers did not join the running scan");
+    }
+}
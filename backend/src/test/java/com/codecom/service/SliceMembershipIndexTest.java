@@ -0,0 +1,158 @@
+package com.codecom.service;
+
+import com.codecom.repository.CodeNodeRepository;
+import com.codecom.repository.FeatureSliceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for SliceMembershipIndex
+ * FR.35: Feature-Based Code Slicing
+ */
+class SliceMembershipIndexTest {
+
+    private FeatureSliceRepository sliceRepository;
+    private CodeNodeRepository nodeRepository;
+    private SliceMembershipIndex index;
+
+    @BeforeEach
+    void setUp() {
+        sliceRepository = mock(FeatureSliceRepository.class);
+        nodeRepository = mock(CodeNodeRepository.class);
+        index = new SliceMembershipIndex(sliceRepository, nodeRepository);
+
+        when(nodeRepository.findAllNodeKeys()).thenReturn(List.of(
+            nodeKey(10L, "/src/UserService.java", "CLASS"),
+            nodeKey(11L, "/src/UserService.java", "METHOD"),
+            nodeKey(20L, "/src/AuthService.java", "CLASS"),
+            nodeKey(30L, "/src/User.java", "CLASS")));
+        when(sliceRepository.findAllIds()).thenReturn(List.of(1L, 2L, 3L));
+        when(sliceRepository.findAllMemberships()).thenReturn(List.of(
+            membership(1L, 10L),
+            membership(1L, 11L),
+            membership(1L, 30L),
+            membership(2L, 20L),
+            membership(2L, 30L)));
+    }
+
+    static CodeNodeRepository.NodeKey nodeKey(Long id, String filePath, String nodeType) {
+        return new CodeNodeRepository.NodeKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getFilePath() {
+                return filePath;
+            }
+
+            @Override
+            public String getNodeType() {
+                return nodeType;
+            }
+        };
+    }
+
+    static FeatureSliceRepository.SliceMembership membership(Long sliceId, Long nodeId) {
+        return new FeatureSliceRepository.SliceMembership() {
+            @Override
+            public Long getSliceId() {
+                return sliceId;
+            }
+
+            @Override
+            public Long getNodeId() {
+                return nodeId;
+            }
+        };
+    }
+
+    @Test
+    void testFilePathsAreSortedAndUnique() {
+        // Act
+        Set<String> files = index.getFilePaths(1L);
+
+        // Assert
+        assertEquals(List.of("/src/User.java", "/src/UserService.java"), new ArrayList<>(files));
+        assertTrue(index.getFilePaths(3L).isEmpty()); // Slice without nodes
+    }
+
+    @Test
+    void testStatisticsUseBitmapCardinalities() {
+        // Act
+        Map<String, Object> stats = index.getStatistics(1L);
+
+        // Assert
+        assertEquals(3, stats.get("nodeCount"));
+        assertEquals(2, stats.get("fileCount"));
+        assertEquals(Map.of("CLASS", 2L, "METHOD", 1L), stats.get("nodeTypeBreakdown"));
+    }
+
+    @Test
+    void testUnionAndIntersection() {
+        // Act
+        Set<String> union = index.unionFilePaths(List.of(1L, 2L));
+        Set<String> intersection = index.intersectFilePaths(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(Set.of("/src/AuthService.java", "/src/User.java", "/src/UserService.java"), union);
+        assertEquals(Set.of("/src/User.java"), intersection);
+        assertTrue(index.intersectFilePaths(List.of()).isEmpty());
+    }
+
+    @Test
+    void testFindSlicesContainingFile() {
+        // Act & Assert
+        assertEquals(List.of(1L, 2L), index.findSlicesContainingFile("/src/User.java"));
+        assertEquals(List.of(2L), index.findSlicesContainingFile("/src/AuthService.java"));
+        assertEquals(List.of(), index.findSlicesContainingFile("/src/Missing.java"));
+    }
+
+    @Test
+    void testUnknownSliceIsRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> index.getFilePaths(99L));
+        assertThrows(IllegalArgumentException.class, () -> index.unionFilePaths(List.of(1L, 99L)));
+    }
+
+    @Test
+    void testSliceChangeRefreshesOnlyThatSlice() {
+        // Arrange
+        index.getFilePaths(1L);
+        when(sliceRepository.existsById(3L)).thenReturn(true);
+        when(sliceRepository.findNodeIdsBySliceId(3L)).thenReturn(List.of(20L));
+        when(sliceRepository.existsById(2L)).thenReturn(false);
+
+        // Act
+        index.onSliceChanged(new SliceChangedEvent(3L));
+        index.onSliceChanged(new SliceChangedEvent(2L));
+
+        // Assert
+        assertEquals(Set.of("/src/AuthService.java"), index.getFilePaths(3L));
+        assertThrows(IllegalArgumentException.class, () -> index.getFilePaths(2L));
+        verify(sliceRepository, times(1)).findAllMemberships();
+    }
+
+    @Test
+    void testUnknownNodeOrReindexTriggersRebuild() {
+        // Arrange
+        index.getFilePaths(1L);
+        when(sliceRepository.existsById(1L)).thenReturn(true);
+        when(sliceRepository.findNodeIdsBySliceId(1L)).thenReturn(List.of(10L, 40L));
+
+        // Act
+        index.onSliceChanged(new SliceChangedEvent(1L));
+        index.getFilePaths(1L);
+        index.onGraphIndexed(new GraphIndexedEvent(null, "/src"));
+        index.getFilePaths(1L);
+
+        // Assert
+        verify(sliceRepository, times(3)).findAllMemberships();
+    }
+}
@@ -3,6 +3,8 @@ package com.codecom.service;
 import com.codecom.dto.StateMachineInfo;
 import com.codecom.dto.StateNode;
 import com.codecom.dto.StateTransition;
+import com.codecom.repository.ParseProblemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -12,10 +14,13 @@ import java.nio.file.Path;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 class StateMachineServiceTest {
 
-    private final StateMachineService service = new StateMachineService();
+    private final AnalysisMetrics metrics = new AnalysisMetrics(new SimpleMeterRegistry());
+    private final StateMachineService service = new StateMachineService(metrics,
+        new ParseProblemService(mock(ParseProblemRepository.class), metrics), new ContentCache(metrics, 1000));
 
     @TempDir
     Path tempDir;
@@ -1,18 +1,26 @@
 package com.codecom.service;
 
 import com.codecom.dto.CodeStatistics;
+import com.codecom.repository.ParseProblemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 class StatisticsServiceTest {
 
-    private final StatisticsService service = new StatisticsService();
+    private final AnalysisMetrics metrics = new AnalysisMetrics(new SimpleMeterRegistry());
+    private final StatisticsService service = new StatisticsService(
+        metrics, new RequestCoalescer(new SimpleMeterRegistry(), 0),
+        new ProjectFileEnumerator(Set.of("node_modules", "target", ".git")),
+        new ParseProblemService(mock(ParseProblemRepository.class), metrics), new ContentCache(metrics, 1000));
 
     @TempDir
     Path tempDir;
@@ -0,0 +1,131 @@
+package com.codecom.service;
+
+import com.codecom.repository.CodeNodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for SymbolSearchIndex
+ * FR.38: Relationship Graph Database
+ */
+class SymbolSearchIndexTest {
+
+    private CodeNodeRepository nodeRepository;
+    private SymbolSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        nodeRepository = mock(CodeNodeRepository.class);
+        index = new SymbolSearchIndex(nodeRepository);
+    }
+
+    private static CodeNodeRepository.SearchDocument document(long id, String name, String signature,
+                                                              String documentation) {
+        return new CodeNodeRepository.SearchDocument() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getSignature() {
+                return signature;
+            }
+
+            @Override
+            public String getDocumentation() {
+                return documentation;
+            }
+        };
+    }
+
+    @Test
+    void testTokenizeSplitsIdentifiers() {
+        assertEquals(List.of("get", "user", "by", "id", "getuserbyid"), SymbolSearchIndex.tokenize("getUserById"));
+        assertEquals(List.of("http", "server", "httpserver", "v", "2", "v2"), SymbolSearchIndex.tokenize("HTTPServer v2"));
+        assertEquals(List.of("user", "id", "userid", "long", "id"), SymbolSearchIndex.tokenize("userID(Long id)"));
+        assertEquals(List.of(), SymbolSearchIndex.tokenize(null));
+    }
+
+    @Test
+    void testRanksNameMatchesAboveDocumentationMatches() {
+        // Arrange
+        when(nodeRepository.findAllSearchDocuments()).thenReturn(List.of(
+            document(1, "save", "void save(Order order)", "Persists the invoice of an order"),
+            document(2, "InvoiceService", "public class InvoiceService", "Creates invoices"),
+            document(3, "render", "String render()", null)));
+
+        // Act & Assert
+        assertEquals(List.of(2L, 1L), index.search(null, "invoice", 10));
+        assertEquals(List.of(2L), index.search(null, "invoice", 1));
+        assertEquals(List.of(1L), index.search(null, "ORDER", 10));
+        assertEquals(List.of(), index.search(null, "missing", 10));
+        assertEquals(List.of(), index.search(null, "  ", 10));
+        assertEquals(List.of(2L, 1L), index.search(null, "invoice", Integer.MAX_VALUE));
+    }
+
+    @Test
+    void testPrefixQueriesAndMultipleWords() {
+        // Arrange
+        when(nodeRepository.findAllSearchDocuments()).thenReturn(List.of(
+            document(1, "UserRepository", "public interface UserRepository", null),
+            document(2, "reportUsage", "void reportUsage()", null),
+            document(3, "UserController", "public class UserController", null)));
+
+        // Act
+        List<Long> prefixOnly = index.search(null, "rep*", 10);
+        List<Long> combined = index.search(null, "user rep*", 10);
+
+        // Assert
+        assertEquals(Set.of(1L, 2L), Set.copyOf(prefixOnly));
+        assertEquals(3, combined.size());
+        assertEquals(List.of(1L), combined.subList(0, 1)); // Only node matching both words
+        assertEquals(List.of(), index.search(null, "rep", 10));
+    }
+
+    @Test
+    void testIndexIsBuiltOnceAndRebuiltAfterReindex() {
+        // Arrange
+        when(nodeRepository.findAllSearchDocuments()).thenReturn(List.of(document(1, "alpha", null, null)));
+
+        // Act
+        index.search(null, "alpha", 10);
+        index.search(null, "alpha", 10);
+        index.onGraphIndexed(new GraphIndexedEvent(null, "/src"));
+        index.search(null, "alpha", 10);
+
+        // Assert
+        verify(nodeRepository, times(2)).findAllSearchDocuments();
+    }
+
+    @Test
+    void testProjectsAreSearchedSeparately() {
+        // Arrange
+        when(nodeRepository.findSearchDocumentsByProjectId(1L)).thenReturn(List.of(document(1, "alpha", null, null)));
+        when(nodeRepository.findSearchDocumentsByProjectId(2L)).thenReturn(List.of(document(2, "alphaBeta", null, null)));
+
+        // Act
+        List<Long> first = index.search(1L, "alpha", 10);
+        List<Long> second = index.search(2L, "alpha", 10);
+        index.onGraphIndexed(new GraphIndexedEvent(2L, "/other"));
+        index.search(1L, "alpha", 10);
+        index.search(2L, "alpha", 10);
+
+        // Assert
+        assertEquals(List.of(1L), first);
+        assertEquals(List.of(2L), second);
+        verify(nodeRepository, times(1)).findSearchDocumentsByProjectId(1L);
+        verify(nodeRepository, times(2)).findSearchDocumentsByProjectId(2L);
+    }
+}
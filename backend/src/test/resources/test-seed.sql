@@ -2,6 +2,7 @@
 -- This file contains sample data for testing the CodeCom backend API
 -- 
 -- Entities included:
+--   - CodeFile, CodePackage: Dictionaries of file paths and package names
 --   - CodeNode: Sample classes, methods, interfaces, and fields
 --   - CodeRelationship: Sample call relationships and inheritance
 --   - FeatureSlice: Sample feature groupings
@@ -13,47 +14,62 @@
 -- CODE NODES - Sample code symbols
 -- =============================================================================
 
+-- File and package dictionaries referenced by code_nodes
+INSERT INTO code_files (id, path) VALUES
+(1, '/src/main/java/com/example/UserService.java'),
+(2, '/src/main/java/com/example/UserRepository.java'),
+(3, '/src/main/java/com/example/User.java'),
+(4, '/src/main/java/com/example/UserController.java'),
+(5, '/src/main/java/com/example/AuthService.java'),
+(6, '/src/components/UserComponent.ts'),
+(7, '/src/util/StringUtils.java');
+
+INSERT INTO code_packages (id, name) VALUES
+(1, 'com.example'),
+(2, 'components'),
+(3, 'com.example.util');
+
 -- Sample Java classes
-INSERT INTO code_nodes (id, name, node_type, file_path, line_number, package_name, signature, is_public, is_static, is_abstract, documentation) VALUES
-(1, 'UserService', 'CLASS', '/src/main/java/com/example/UserService.java', 10, 'com.example', 'public class UserService', true, false, false, 'Service class for user management'),
-(2, 'UserRepository', 'INTERFACE', '/src/main/java/com/example/UserRepository.java', 8, 'com.example', 'public interface UserRepository', true, false, true, 'Repository interface for User entities'),
-(3, 'User', 'CLASS', '/src/main/java/com/example/User.java', 12, 'com.example', 'public class User', true, false, false, 'User entity class'),
-(4, 'UserController', 'CLASS', '/src/main/java/com/example/UserController.java', 15, 'com.example', 'public class UserController', true, false, false, 'REST controller for user endpoints'),
-(5, 'AuthService', 'CLASS', '/src/main/java/com/example/AuthService.java', 20, 'com.example', 'public class AuthService', true, false, false, 'Service for authentication');
+INSERT INTO code_nodes (id, name, node_type, file_id, line_number, package_id, signature, is_public, is_static, is_abstract, documentation) VALUES
+(1, 'UserService', 'CLASS', 1, 10, 1, 'public class UserService', true, false, false, 'Service class for user management'),
+(2, 'UserRepository', 'INTERFACE', 2, 8, 1, 'public interface UserRepository', true, false, true, 'Repository interface for User entities'),
+(3, 'User', 'CLASS', 3, 12, 1, 'public class User', true, false, false, 'User entity class'),
+(4, 'UserController', 'CLASS', 4, 15, 1, 'public class UserController', true, false, false, 'REST controller for user endpoints'),
+(5, 'AuthService', 'CLASS', 5, 20, 1, 'public class AuthService', true, false, false, 'Service for authentication');
 
 -- Methods in UserService
-INSERT INTO code_nodes (id, name, node_type, file_path, line_number, package_name, signature, is_public, is_static, is_abstract, documentation) VALUES
-(10, 'createUser', 'METHOD', '/src/main/java/com/example/UserService.java', 25, 'com.example', 'public User createUser(UserDTO dto)', true, false, false, 'Creates a new user'),
-(11, 'findUserById', 'METHOD', '/src/main/java/com/example/UserService.java', 35, 'com.example', 'public Optional<User> findUserById(Long id)', true, false, false, 'Finds user by ID'),
-(12, 'updateUser', 'METHOD', '/src/main/java/com/example/UserService.java', 45, 'com.example', 'public User updateUser(Long id, UserDTO dto)', true, false, false, 'Updates existing user'),
-(13, 'deleteUser', 'METHOD', '/src/main/java/com/example/UserService.java', 55, 'com.example', 'public void deleteUser(Long id)', true, false, false, 'Deletes a user'),
-(14, 'validateUser', 'METHOD', '/src/main/java/com/example/UserService.java', 65, 'com.example', 'private boolean validateUser(UserDTO dto)', false, false, false, 'Validates user data');
+INSERT INTO code_nodes (id, name, node_type, file_id, line_number, package_id, signature, is_public, is_static, is_abstract, documentation) VALUES
+(10, 'createUser', 'METHOD', 1, 25, 1, 'public User createUser(UserDTO dto)', true, false, false, 'Creates a new user'),
+(11, 'findUserById', 'METHOD', 1, 35, 1, 'public Optional<User> findUserById(Long id)', true, false, false, 'Finds user by ID'),
+(12, 'updateUser', 'METHOD', 1, 45, 1, 'public User updateUser(Long id, UserDTO dto)', true, false, false, 'Updates existing user'),
+(13, 'deleteUser', 'METHOD', 1, 55, 1, 'public void deleteUser(Long id)', true, false, false, 'Deletes a user'),
+(14, 'validateUser', 'METHOD', 1, 65, 1, 'private boolean validateUser(UserDTO dto)', false, false, false, 'Validates user data');
 
 -- Methods in UserRepository
-INSERT INTO code_nodes (id, name, node_type, file_path, line_number, package_name, signature, is_public, is_static, is_abstract, documentation) VALUES
-(20, 'findById', 'METHOD', '/src/main/java/com/example/UserRepository.java', 12, 'com.example', 'Optional<User> findById(Long id)', true, false, true, 'Find user by ID'),
-(21, 'save', 'METHOD', '/src/main/java/com/example/UserRepository.java', 15, 'com.example', 'User save(User user)', true, false, true, 'Save user entity'),
-(22, 'deleteById', 'METHOD', '/src/main/java/com/example/UserRepository.java', 18, 'com.example', 'void deleteById(Long id)', true, false, true, 'Delete user by ID'),
-(23, 'findByEmail', 'METHOD', '/src/main/java/com/example/UserRepository.java', 21, 'com.example', 'Optional<User> findByEmail(String email)', true, false, true, 'Find user by email');
+INSERT INTO code_nodes (id, name, node_type, file_id, line_number, package_id, signature, is_public, is_static, is_abstract, documentation) VALUES
+(20, 'findById', 'METHOD', 2, 12, 1, 'Optional<User> findById(Long id)', true, false, true, 'Find user by ID'),
+(21, 'save', 'METHOD', 2, 15, 1, 'User save(User user)', true, false, true, 'Save user entity'),
+(22, 'deleteById', 'METHOD', 2, 18, 1, 'void deleteById(Long id)', true, false, true, 'Delete user by ID'),
+(23, 'findByEmail', 'METHOD', 2, 21, 1, 'Optional<User> findByEmail(String email)', true, false, true, 'Find user by email');
 
 -- Methods in UserController
-INSERT INTO code_nodes (id, name, node_type, file_path, line_number, package_name, signature, is_public, is_static, is_abstract, documentation) VALUES
-(30, 'createUser', 'METHOD', '/src/main/java/com/example/UserController.java', 25, 'com.example', 'public ResponseEntity<User> createUser(@RequestBody UserDTO dto)', true, false, false, 'REST endpoint to create user'),
-(31, 'getUser', 'METHOD', '/src/main/java/com/example/UserController.java', 35, 'com.example', 'public ResponseEntity<User> getUser(@PathVariable Long id)', true, false, false, 'REST endpoint to get user'),
-(32, 'updateUser', 'METHOD', '/src/main/java/com/example/UserController.java', 45, 'com.example', 'public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody UserDTO dto)', true, false, false, 'REST endpoint to update user'),
-(33, 'deleteUser', 'METHOD', '/src/main/java/com/example/UserController.java', 55, 'com.example', 'public ResponseEntity<Void> deleteUser(@PathVariable Long id)', true, false, false, 'REST endpoint to delete user');
+INSERT INTO code_nodes (id, name, node_type, file_id, line_number, package_id, signature, is_public, is_static, is_abstract, documentation) VALUES
+(30, 'createUser', 'METHOD', 4, 25, 1, 'public ResponseEntity<User> createUser(@RequestBody UserDTO dto)', true, false, false, 'REST endpoint to create user'),
+(31, 'getUser', 'METHOD', 4, 35, 1, 'public ResponseEntity<User> getUser(@PathVariable Long id)', true, false, false, 'REST endpoint to get user'),
+(32, 'updateUser', 'METHOD', 4, 45, 1, 'public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody UserDTO dto)', true, false, false, 'REST endpoint to update user'),
+(33, 'deleteUser', 'METHOD', 4, 55, 1, 'public ResponseEntity<Void> deleteUser(@PathVariable Long id)', true, false, false, 'REST endpoint to delete user');
 
 -- Methods in AuthService
-INSERT INTO code_nodes (id, name, node_type, file_path, line_number, package_name, signature, is_public, is_static, is_abstract, documentation) VALUES
-(40, 'authenticate', 'METHOD', '/src/main/java/com/example/AuthService.java', 30, 'com.example', 'public AuthToken authenticate(String username, String password)', true, false, false, 'Authenticates user credentials'),
-(41, 'validateToken', 'METHOD', '/src/main/java/com/example/AuthService.java', 40, 'com.example', 'public boolean validateToken(String token)', true, false, false, 'Validates authentication token');
+INSERT INTO code_nodes (id, name, node_type, file_id, line_number, package_id, signature, is_public, is_static, is_abstract, documentation) VALUES
+(40, 'authenticate', 'METHOD', 5, 30, 1, 'public AuthToken authenticate(String username, String password)', true, false, false, 'Authenticates user credentials'),
+(41, 'validateToken', 'METHOD', 5, 40, 1, 'public boolean validateToken(String token)', true, false, false, 'Validates authentication token');
 
 -- Fields in User class
-INSERT INTO code_nodes (id, name, node_type, file_path, line_number, package_name, signature, is_public, is_static, is_abstract, documentation) VALUES
-(50, 'id', 'FIELD', '/src/main/java/com/example/User.java', 15, 'com.example', 'private Long id', false, false, false, 'User ID'),
-(51, 'email', 'FIELD', '/src/main/java/com/example/User.java', 18, 'com.example', 'private String email', false, false, false, 'User email'),
-(52, 'name', 'FIELD', '/src/main/java/com/example/User.java', 21, 'com.example', 'private String name', false, false, false, 'User name'),
-(53, 'createdDate', 'FIELD', '/src/main/java/com/example/User.java', 24, 'com.example', 'private LocalDateTime createdDate', false, false, false, 'Creation timestamp');
+INSERT INTO code_nodes (id, name, node_type, file_id, line_number, package_id, signature, is_public, is_static, is_abstract, documentation) VALUES
+(50, 'id', 'FIELD', 3, 15, 1, 'private Long id', false, false, false, 'User ID'),
+(51, 'email', 'FIELD', 3, 18, 1, 'private String email', false, false, false, 'User email'),
+(52, 'name', 'FIELD', 3, 21, 1, 'private String name', false, false, false, 'User name'),
+(53, 'createdDate', 'FIELD', 3, 24, 1, 'private LocalDateTime createdDate', false, false, false, 'Creation timestamp');
 
 -- =============================================================================
 -- CODE RELATIONSHIPS - Sample relationships between code symbols
@@ -135,16 +151,16 @@ INSERT INTO feature_slice_nodes (slice_id, node_id) VALUES
 -- =============================================================================
 
 -- JavaScript/TypeScript nodes for cross-language testing
-INSERT INTO code_nodes (id, name, node_type, file_path, line_number, package_name, signature, is_public, is_static, is_abstract) VALUES
-(100, 'UserComponent', 'CLASS', '/src/components/UserComponent.ts', 5, 'components', 'export class UserComponent', true, false, false),
-(101, 'fetchUser', 'METHOD', '/src/components/UserComponent.ts', 15, 'components', 'async fetchUser(id: number): Promise<User>', true, false, false),
-(102, 'saveUser', 'METHOD', '/src/components/UserComponent.ts', 25, 'components', 'async saveUser(user: User): Promise<void>', true, false, false);
+INSERT INTO code_nodes (id, name, node_type, file_id, line_number, package_id, signature, is_public, is_static, is_abstract) VALUES
+(100, 'UserComponent', 'CLASS', 6, 5, 2, 'export class UserComponent', true, false, false),
+(101, 'fetchUser', 'METHOD', 6, 15, 2, 'async fetchUser(id: number): Promise<User>', true, false, false),
+(102, 'saveUser', 'METHOD', 6, 25, 2, 'async saveUser(user: User): Promise<void>', true, false, false);
 
 -- Utility class with static methods
-INSERT INTO code_nodes (id, name, node_type, file_path, line_number, package_name, signature, is_public, is_static, is_abstract) VALUES
-(110, 'StringUtils', 'CLASS', '/src/util/StringUtils.java', 8, 'com.example.util', 'public class StringUtils', true, false, false),
-(111, 'isEmpty', 'METHOD', '/src/util/StringUtils.java', 12, 'com.example.util', 'public static boolean isEmpty(String str)', true, true, false),
-(112, 'capitalize', 'METHOD', '/src/util/StringUtils.java', 18, 'com.example.util', 'public static String capitalize(String str)', true, true, false);
+INSERT INTO code_nodes (id, name, node_type, file_id, line_number, package_id, signature, is_public, is_static, is_abstract) VALUES
+(110, 'StringUtils', 'CLASS', 7, 8, 3, 'public class StringUtils', true, false, false),
+(111, 'isEmpty', 'METHOD', 7, 12, 3, 'public static boolean isEmpty(String str)', true, true, false),
+(112, 'capitalize', 'METHOD', 7, 18, 3, 'public static String capitalize(String str)', true, true, false);
 
 -- =============================================================================
 -- End of test seed data
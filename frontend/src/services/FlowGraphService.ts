@@ -14,6 +14,9 @@ export interface FlowGraphNode {
   filePath: string
   lineNumber: number
   packageName: string
+  childCount?: number
+  x?: number
+  y?: number
 }
 
 /**
@@ -26,6 +29,7 @@ export interface FlowGraphEdge {
   edgeType: string
   label: string
   lineNumber?: number
+  weight?: number
 }
 
 /**
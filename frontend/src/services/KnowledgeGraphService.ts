@@ -29,8 +29,34 @@ export interface RelationshipInfo {
 export interface NodeWithRelationships extends CodeNode {
   outgoingRelationships: RelationshipInfo[];
   incomingRelationships: RelationshipInfo[];
+  outgoingCounts?: Record<string, number>;
+  incomingCounts?: Record<string, number>;
+  page?: number;
+  pageSize?: number;
 }
 
+export interface NodeSummary {
+  id: number;
+  name: string;
+  nodeType: string;
+  filePath: string;
+  lineNumber: number;
+  packageName?: string;
+  signature?: string;
+  documentation?: string;
+  isPublic?: boolean;
+  isStatic?: boolean;
+  isAbstract?: boolean;
+  layer?: string;
+}
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: number | null;
+}
+
+export type ExpandField = 'package' | 'signature' | 'documentation' | 'modifiers' | 'layer' | 'all';
+
 export interface QueryNode {
   id: number;
   name: string;
@@ -62,26 +88,32 @@ export interface KnowledgeGraphQueryResult {
 export class KnowledgeGraphService {
   
   /**
-   * Get a node with all its relationships
+   * Get a node with one page of its relationships and per-type relationship counts
    */
-  async getNode(nodeId: number): Promise<NodeWithRelationships> {
-    const response = await axios.get<NodeWithRelationships>(`${API_BASE}/node/${nodeId}`);
+  async getNode(nodeId: number, page: number = 0, size: number = 200): Promise<NodeWithRelationships> {
+    const response = await axios.get<NodeWithRelationships>(`${API_BASE}/node/${nodeId}`, {
+      params: { page, size }
+    });
     return response.data;
   }
   
   /**
-   * Get all nodes that a specific node calls
+   * Get a page of the nodes that a specific node calls
    */
-  async getCallees(nodeId: number): Promise<CodeNode[]> {
-    const response = await axios.get<CodeNode[]>(`${API_BASE}/calls/${nodeId}`);
+  async getCallees(nodeId: number, cursor?: number, limit: number = 50): Promise<CursorPage<NodeSummary>> {
+    const response = await axios.get<CursorPage<NodeSummary>>(`${API_BASE}/calls/${nodeId}`, {
+      params: { cursor, limit }
+    });
     return response.data;
   }
   
   /**
-   * Get all nodes that call a specific node
+   * Get a page of the nodes that call a specific node
    */
-  async getCallers(nodeId: number): Promise<CodeNode[]> {
-    const response = await axios.get<CodeNode[]>(`${API_BASE}/callers/${nodeId}`);
+  async getCallers(nodeId: number, cursor?: number, limit: number = 50): Promise<CursorPage<NodeSummary>> {
+    const response = await axios.get<CursorPage<NodeSummary>>(`${API_BASE}/callers/${nodeId}`, {
+      params: { cursor, limit }
+    });
     return response.data;
   }
   
@@ -128,12 +160,30 @@ export class KnowledgeGraphService {
   }
   
   /**
-   * Search nodes by name
+   * Search nodes by name, returning the first page of matches
    */
-  async searchNodes(name: string): Promise<CodeNode[]> {
-    const response = await axios.get<CodeNode[]>(`${API_BASE}/search`, {
-      params: { name }
-    });
+  async searchNodes(name: string): Promise<NodeSummary[]> {
+    const page = await this.searchNodesPage(name);
+    return page.items;
+  }
+  
+  /**
+   * Search nodes by name one page at a time; pass nextCursor of a page to get the next one
+   */
+  async searchNodesPage(
+    name: string,
+    cursor?: number,
+    limit: number = 50,
+    expand: ExpandField[] = []
+  ): Promise<CursorPage<NodeSummary>> {
+    const params: Record<string, string | number> = { name, limit };
+    if (cursor !== undefined) {
+      params.cursor = cursor;
+    }
+    if (expand.length > 0) {
+      params.expand = expand.join(',');
+    }
+    const response = await axios.get<CursorPage<NodeSummary>>(`${API_BASE}/search`, { params });
     return response.data;
   }
 }
@@ -2,6 +2,8 @@ import { describe, it, expect, vi, beforeEach } from 'vitest';
 import axios from 'axios';
 import KnowledgeGraphService, { 
   CodeNode, 
+  CursorPage,
+  NodeSummary,
   NodeWithRelationships,
   KnowledgeGraphQueryResult 
 } from '../KnowledgeGraphService';
@@ -31,31 +33,46 @@ describe('KnowledgeGraphService', () => {
       const result = await KnowledgeGraphService.getNode(1);
 
       expect(axios.get).toHaveBeenCalledWith(
-        'http://localhost:8080/api/knowledge-graph/node/1'
+        'http://localhost:8080/api/knowledge-graph/node/1',
+        { params: { page: 0, size: 200 } }
       );
       expect(result).toEqual(mockNode);
     });
+
+    it('should request later relationship pages', async () => {
+      vi.mocked(axios.get).mockResolvedValue({ data: {} });
+
+      await KnowledgeGraphService.getNode(1, 2, 50);
+
+      expect(axios.get).toHaveBeenCalledWith(
+        'http://localhost:8080/api/knowledge-graph/node/1',
+        { params: { page: 2, size: 50 } }
+      );
+    });
   });
 
   describe('getCallees', () => {
     it('should fetch nodes called by a method', async () => {
-      const mockCallees: CodeNode[] = [
-        {
-          id: 2,
-          name: 'method1',
-          nodeType: 'METHOD',
-          filePath: '/test.java',
-          lineNumber: 10,
-          packageName: 'com.test'
-        }
-      ];
+      const mockCallees: CursorPage<NodeSummary> = {
+        items: [
+          {
+            id: 2,
+            name: 'method1',
+            nodeType: 'METHOD',
+            filePath: '/test.java',
+            lineNumber: 10
+          }
+        ],
+        nextCursor: null
+      };
 
       vi.mocked(axios.get).mockResolvedValue({ data: mockCallees });
 
       const result = await KnowledgeGraphService.getCallees(1);
 
       expect(axios.get).toHaveBeenCalledWith(
-        'http://localhost:8080/api/knowledge-graph/calls/1'
+        'http://localhost:8080/api/knowledge-graph/calls/1',
+        { params: { cursor: undefined, limit: 50 } }
       );
       expect(result).toEqual(mockCallees);
     });
@@ -63,23 +80,26 @@ describe('KnowledgeGraphService', () => {
 
   describe('getCallers', () => {
     it('should fetch nodes that call a method', async () => {
-      const mockCallers: CodeNode[] = [
-        {
-          id: 3,
-          name: 'callerMethod',
-          nodeType: 'METHOD',
-          filePath: '/caller.java',
-          lineNumber: 5,
-          packageName: 'com.test'
-        }
-      ];
+      const mockCallers: CursorPage<NodeSummary> = {
+        items: [
+          {
+            id: 3,
+            name: 'callerMethod',
+            nodeType: 'METHOD',
+            filePath: '/caller.java',
+            lineNumber: 5
+          }
+        ],
+        nextCursor: 3
+      };
 
       vi.mocked(axios.get).mockResolvedValue({ data: mockCallers });
 
-      const result = await KnowledgeGraphService.getCallers(1);
+      const result = await KnowledgeGraphService.getCallers(1, 2, 1);
 
       expect(axios.get).toHaveBeenCalledWith(
-        'http://localhost:8080/api/knowledge-graph/callers/1'
+        'http://localhost:8080/api/knowledge-graph/callers/1',
+        { params: { cursor: 2, limit: 1 } }
       );
       expect(result).toEqual(mockCallers);
     });
@@ -195,26 +215,36 @@ describe('KnowledgeGraphService', () => {
 
   describe('searchNodes', () => {
     it('should search nodes by name', async () => {
-      const mockNodes: CodeNode[] = [
+      const mockNodes: NodeSummary[] = [
         {
           id: 1,
           name: 'TestClass',
           nodeType: 'CLASS',
           filePath: '/test.java',
-          lineNumber: 1,
-          packageName: 'com.test'
+          lineNumber: 1
         }
       ];
 
-      vi.mocked(axios.get).mockResolvedValue({ data: mockNodes });
+      vi.mocked(axios.get).mockResolvedValue({ data: { items: mockNodes, nextCursor: null } });
 
       const result = await KnowledgeGraphService.searchNodes('Test');
 
       expect(axios.get).toHaveBeenCalledWith(
         'http://localhost:8080/api/knowledge-graph/search',
-        { params: { name: 'Test' } }
+        { params: { name: 'Test', limit: 50 } }
       );
       expect(result).toEqual(mockNodes);
     });
+
+    it('should pass cursor and expanded fields for later pages', async () => {
+      vi.mocked(axios.get).mockResolvedValue({ data: { items: [], nextCursor: null } });
+
+      await KnowledgeGraphService.searchNodesPage('get', 42, 100, ['signature', 'documentation']);
+
+      expect(axios.get).toHaveBeenCalledWith(
+        'http://localhost:8080/api/knowledge-graph/search',
+        { params: { name: 'get', limit: 100, cursor: 42, expand: 'signature,documentation' } }
+      );
+    });
   });
 });